@@ -0,0 +1,163 @@
+package ar.edu.um.aop.logging;
+
+import ar.edu.um.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Aspect timing the execution of service, repository and REST Spring components.
+ * <p>
+ * A sample of the calls is recorded in a {@link Timer} per method, tagged with its class, name and outcome. The class of a
+ * Spring Data repository is its interface, so that inherited methods such as {@code findById} are told apart by
+ * repository. The timers are looked up once per class and method and cached, so a call only pays for two clock reads and
+ * the recording. Calls slower than the configured threshold are logged with their arguments.
+ */
+@Aspect
+public class TimingAspect {
+
+    public static final String METER_NAME = "app.method.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int sampleEvery;
+
+    private final long slowCallThresholdNanos;
+
+    private final Map<Class<?>, Map<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+
+    public TimingAspect(MeterRegistry meterRegistry, ApplicationProperties.Logging.Timing properties) {
+        this.meterRegistry = meterRegistry;
+        this.sampleEvery = Math.max(1, properties.getSampleEvery());
+        this.slowCallThresholdNanos = properties.getSlowCallThresholdMs() > 0
+            ? TimeUnit.MILLISECONDS.toNanos(properties.getSlowCallThresholdMs())
+            : Long.MAX_VALUE;
+    }
+
+    /**
+     * Pointcut that matches all repositories, services and Web REST endpoints.
+     */
+    @Pointcut(
+        "within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *)"
+    )
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's main packages.
+     */
+    @Pointcut("within(ar.edu.um.repository..*)" + " || within(ar.edu.um.service..*)" + " || within(ar.edu.um.web.rest..*)")
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times a sample of the method executions, and logs the slow ones.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean sampled = sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+        if (!sampled && slowCallThresholdNanos == Long.MAX_VALUE) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            if (sampled) {
+                MethodTimers methodTimers = timers(joinPoint);
+                (failed ? methodTimers.failure() : methodTimers.success()).record(duration, TimeUnit.NANOSECONDS);
+            }
+            if (duration >= slowCallThresholdNanos) {
+                logSlowCall(joinPoint, duration);
+            }
+        }
+    }
+
+    private MethodTimers timers(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget() != null ? joinPoint.getTarget().getClass() : Object.class;
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Map<Method, MethodTimers> classTimers = timers.get(targetClass);
+        if (classTimers == null) {
+            classTimers = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        MethodTimers methodTimers = classTimers.get(method);
+        if (methodTimers == null) {
+            methodTimers = classTimers.computeIfAbsent(method, key -> createTimers(targetClass, key));
+        }
+        return methodTimers;
+    }
+
+    private MethodTimers createTimers(Class<?> targetClass, Method method) {
+        String className = className(targetClass, method);
+        return new MethodTimers(timer(className, method.getName(), "success"), timer(className, method.getName(), "error"));
+    }
+
+    /**
+     * The class a method is timed under: the application interface of a Spring Data repository, whose proxy class says
+     * nothing, the class of the target otherwise, or the declaring class of the method when there is no target.
+     */
+    private static String className(Class<?> targetClass, Method method) {
+        if (targetClass == Object.class) {
+            return method.getDeclaringClass().getSimpleName();
+        }
+        for (Class<?> type : ClassUtils.getAllInterfacesForClass(targetClass)) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(targetClass).getSimpleName();
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder(METER_NAME)
+            .description("Sampled execution time of the service, repository and REST methods")
+            .tag("class", className)
+            .tag("method", methodName)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private void logSlowCall(JoinPoint joinPoint, long durationNanos) {
+        Logger log = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        if (log.isWarnEnabled()) {
+            log.warn(
+                "Slow call: {}() took {} ms with argument[s] = {}",
+                joinPoint.getSignature().getName(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                Arrays.toString(joinPoint.getArgs())
+            );
+        }
+    }
+
+    /**
+     * The timers of one method, by outcome.
+     */
+    private record MethodTimers(Timer success, Timer failure) {}
+}
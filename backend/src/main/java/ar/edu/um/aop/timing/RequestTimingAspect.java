@@ -0,0 +1,31 @@
+package ar.edu.um.aop.timing;
+
+import ar.edu.um.management.RequestTimings;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspect adding the time spent in the DTO mappers to the {@link RequestTimings} of the current request, the time spent in
+ * Elasticsearch being added by {@link SearchTimingAspect}.
+ */
+@Aspect
+public class RequestTimingAspect {
+
+    /**
+     * Advice timing the MapStruct mappers.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the advised method.
+     */
+    @Around("within(ar.edu.um.service.mapper..*)")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = RequestTimings.enter(RequestTimings.Phase.MAPPING);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.exit(RequestTimings.Phase.MAPPING, start);
+        }
+    }
+}
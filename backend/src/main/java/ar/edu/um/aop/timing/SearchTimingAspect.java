@@ -0,0 +1,57 @@
+package ar.edu.um.aop.timing;
+
+import ar.edu.um.management.RequestTimings;
+import ar.edu.um.management.jfr.SearchEvent;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+/**
+ * Aspect timing the calls to the Elasticsearch client, in the {@link RequestTimings} of the current request and as
+ * {@link SearchEvent}s, whichever repository or service makes them.
+ */
+@Aspect
+public class SearchTimingAspect {
+
+    /**
+     * Advice timing the calls to the Elasticsearch client.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the advised method.
+     */
+    @Around("target(org.springframework.data.elasticsearch.core.ElasticsearchOperations)")
+    public Object timeSearch(ProceedingJoinPoint joinPoint) throws Throwable {
+        SearchEvent event = SearchEvent.begin(joinPoint.getSignature().getName());
+        long start = RequestTimings.enter(RequestTimings.Phase.SEARCH);
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            RequestTimings.exit(RequestTimings.Phase.SEARCH, start);
+            if (event.isEnabled()) {
+                event.end(entity(joinPoint.getArgs()), result instanceof SearchHits<?> searchHits ? searchHits.getTotalHits() : -1);
+            }
+        }
+    }
+
+    /**
+     * The entity of a call, from its entity class or index argument, or from the entity it writes.
+     */
+    private static String entity(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Class<?> entityClass) {
+                return entityClass.getSimpleName();
+            } else if (arg instanceof IndexCoordinates index) {
+                return index.getIndexName();
+            }
+        }
+        if (args.length > 0 && args[0] != null && args[0].getClass().getPackageName().startsWith("ar.edu.um.domain")) {
+            return args[0].getClass().getSimpleName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Request and search timing aspects.
+ */
+package ar.edu.um.aop.timing;
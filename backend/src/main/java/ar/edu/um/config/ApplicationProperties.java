@@ -1,5 +1,9 @@
 package ar.edu.um.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +17,72 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Security security = new Security();
+
+    private final Logging logging = new Logging();
+
+    private final ServerTiming serverTiming = new ServerTiming();
+
+    private final ReminderNotification reminderNotification = new ReminderNotification();
+
+    private final MailDispatch mailDispatch = new MailDispatch();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final ReminderDigest reminderDigest = new ReminderDigest();
+
+    private final ReminderSync reminderSync = new ReminderSync();
+
+    private final ChangeFeed changeFeed = new ChangeFeed();
+
+    private final UserCleanup userCleanup = new UserCleanup();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public ServerTiming getServerTiming() {
+        return serverTiming;
+    }
+
+    public ReminderNotification getReminderNotification() {
+        return reminderNotification;
+    }
+
+    public MailDispatch getMailDispatch() {
+        return mailDispatch;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public ReminderDigest getReminderDigest() {
+        return reminderDigest;
+    }
+
+    public ReminderSync getReminderSync() {
+        return reminderSync;
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public UserCleanup getUserCleanup() {
+        return userCleanup;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +97,1003 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Security {
+
+        private final Authentication authentication = new Authentication();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private final RefreshToken refreshToken = new RefreshToken();
+
+        public Authentication getAuthentication() {
+            return authentication;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public RefreshToken getRefreshToken() {
+            return refreshToken;
+        }
+
+        /**
+         * Lifetime of the refresh tokens used to renew the short-lived access tokens without the password.
+         */
+        public static class RefreshToken {
+
+            private long validityInSeconds = 86400;
+
+            private long validityInSecondsForRememberMe = 2592000;
+
+            public long getValidityInSeconds() {
+                return validityInSeconds;
+            }
+
+            public void setValidityInSeconds(long validityInSeconds) {
+                this.validityInSeconds = validityInSeconds;
+            }
+
+            public long getValidityInSecondsForRememberMe() {
+                return validityInSecondsForRememberMe;
+            }
+
+            public void setValidityInSecondsForRememberMe(long validityInSecondsForRememberMe) {
+                this.validityInSecondsForRememberMe = validityInSecondsForRememberMe;
+            }
+        }
+
+        /**
+         * Sizing of the dedicated pool running password verification for {@code /api/authenticate}.
+         */
+        public static class Authentication {
+
+            /**
+             * Maximum number of concurrent password verifications, defaults to the number of available cores.
+             */
+            private int concurrency = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Number of authentication requests allowed to wait for a free slot before new ones are rejected.
+             */
+            private int queueCapacity = 2 * Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Value of the {@code Retry-After} header sent when an authentication request is rejected.
+             */
+            private int retryAfterSeconds = 1;
+
+            public int getConcurrency() {
+                return concurrency;
+            }
+
+            public void setConcurrency(int concurrency) {
+                this.concurrency = concurrency;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getRetryAfterSeconds() {
+                return retryAfterSeconds;
+            }
+
+            public void setRetryAfterSeconds(int retryAfterSeconds) {
+                this.retryAfterSeconds = retryAfterSeconds;
+            }
+        }
+
+        /**
+         * Token bucket limits applied to the anonymous authentication and registration endpoints.
+         */
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Buckets which have not been used for this long (and are therefore full again) are evicted.
+             */
+            private int idleTimeoutSeconds = 600;
+
+            private List<Endpoint> endpoints = new ArrayList<>(
+                List.of(
+                    new Endpoint("/api/authenticate", "username", new Limit(20, 20), new Limit(5, 5)),
+                    new Endpoint("/api/register", "login", new Limit(5, 5), new Limit(3, 3)),
+                    new Endpoint("/api/account/reset-password/init", null, new Limit(5, 5), new Limit(3, 1))
+                )
+            );
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getIdleTimeoutSeconds() {
+                return idleTimeoutSeconds;
+            }
+
+            public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+                this.idleTimeoutSeconds = idleTimeoutSeconds;
+            }
+
+            public List<Endpoint> getEndpoints() {
+                return endpoints;
+            }
+
+            public void setEndpoints(List<Endpoint> endpoints) {
+                this.endpoints = endpoints;
+            }
+
+            public static class Endpoint {
+
+                private String path;
+
+                /**
+                 * JSON field of the request body holding the login, the whole body is used when not set.
+                 */
+                private String loginField;
+
+                private Limit ip = new Limit();
+
+                private Limit login = new Limit();
+
+                public Endpoint() {}
+
+                public Endpoint(String path, String loginField, Limit ip, Limit login) {
+                    this.path = path;
+                    this.loginField = loginField;
+                    this.ip = ip;
+                    this.login = login;
+                }
+
+                public String getPath() {
+                    return path;
+                }
+
+                public void setPath(String path) {
+                    this.path = path;
+                }
+
+                public String getLoginField() {
+                    return loginField;
+                }
+
+                public void setLoginField(String loginField) {
+                    this.loginField = loginField;
+                }
+
+                public Limit getIp() {
+                    return ip;
+                }
+
+                public void setIp(Limit ip) {
+                    this.ip = ip;
+                }
+
+                public Limit getLogin() {
+                    return login;
+                }
+
+                public void setLogin(Limit login) {
+                    this.login = login;
+                }
+            }
+
+            /**
+             * A bucket of {@code capacity} tokens refilled at {@code refillPerMinute}, a capacity of 0 disables the limit.
+             */
+            public static class Limit {
+
+                private int capacity;
+
+                private int refillPerMinute;
+
+                public Limit() {}
+
+                public Limit(int capacity, int refillPerMinute) {
+                    this.capacity = capacity;
+                    this.refillPerMinute = refillPerMinute;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public int getRefillPerMinute() {
+                    return refillPerMinute;
+                }
+
+                public void setRefillPerMinute(int refillPerMinute) {
+                    this.refillPerMinute = refillPerMinute;
+                }
+            }
+        }
+    }
+
+    public static class Logging {
+
+        private final Spool spool = new Spool();
+
+        private final Timing timing = new Timing();
+
+        public Spool getSpool() {
+            return spool;
+        }
+
+        public Timing getTiming() {
+            return timing;
+        }
+
+        /**
+         * Sampled timing of the service, repository and REST methods, see {@code TimingAspect}.
+         */
+        public static class Timing {
+
+            private boolean enabled = true;
+
+            /**
+             * One call in this many is recorded in the method timers.
+             */
+            private int sampleEvery = 10;
+
+            /**
+             * Calls slower than this are logged with their arguments, 0 disables the log.
+             */
+            private long slowCallThresholdMs = 0;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getSampleEvery() {
+                return sampleEvery;
+            }
+
+            public void setSampleEvery(int sampleEvery) {
+                this.sampleEvery = sampleEvery;
+            }
+
+            public long getSlowCallThresholdMs() {
+                return slowCallThresholdMs;
+            }
+
+            public void setSlowCallThresholdMs(long slowCallThresholdMs) {
+                this.slowCallThresholdMs = slowCallThresholdMs;
+            }
+        }
+
+        /**
+         * Disk spool keeping the events sent to Logstash while it is unavailable, see {@link LogstashSpool}.
+         */
+        public static class Spool {
+
+            private boolean enabled = false;
+
+            /**
+             * Each transport spools into its own sub-directory.
+             */
+            private String directory = "logstash-spool";
+
+            private int segmentSizeBytes = 8 * 1024 * 1024;
+
+            /**
+             * When all segments are full, the oldest one is discarded with its events.
+             */
+            private int maxSegments = 16;
+
+            private int replayRatePerSecond = 2000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getSegmentSizeBytes() {
+                return segmentSizeBytes;
+            }
+
+            public void setSegmentSizeBytes(int segmentSizeBytes) {
+                this.segmentSizeBytes = segmentSizeBytes;
+            }
+
+            public int getMaxSegments() {
+                return maxSegments;
+            }
+
+            public void setMaxSegments(int maxSegments) {
+                this.maxSegments = maxSegments;
+            }
+
+            public int getReplayRatePerSecond() {
+                return replayRatePerSecond;
+            }
+
+            public void setReplayRatePerSecond(int replayRatePerSecond) {
+                this.replayRatePerSecond = replayRatePerSecond;
+            }
+        }
+    }
+
+    /**
+     * Latency breakdown of the API requests, sent in a {@code Server-Timing} header.
+     */
+    public static class ServerTiming {
+
+        private boolean enabled = true;
+
+        /**
+         * Also record the phases in a timer per endpoint, with a percentile histogram.
+         */
+        private boolean metricsEnabled = false;
+
+        private final QueryBudget queryBudget = new QueryBudget();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isMetricsEnabled() {
+            return metricsEnabled;
+        }
+
+        public void setMetricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+        }
+
+        public QueryBudget getQueryBudget() {
+            return queryBudget;
+        }
+
+        /**
+         * Maximum number of SQL statements per request, checked on a sample of the requests.
+         */
+        public static class QueryBudget {
+
+            private boolean enabled = true;
+
+            private int sampleEvery = 10;
+
+            private int defaultMaxStatements = 20;
+
+            /**
+             * Budgets by endpoint, keyed by method and path pattern, as in {@code "[GET /api/admin/users]"}.
+             */
+            private Map<String, Integer> endpoints = new HashMap<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getSampleEvery() {
+                return sampleEvery;
+            }
+
+            public void setSampleEvery(int sampleEvery) {
+                this.sampleEvery = sampleEvery;
+            }
+
+            public int getDefaultMaxStatements() {
+                return defaultMaxStatements;
+            }
+
+            public void setDefaultMaxStatements(int defaultMaxStatements) {
+                this.defaultMaxStatements = defaultMaxStatements;
+            }
+
+            public Map<String, Integer> getEndpoints() {
+                return endpoints;
+            }
+
+            public void setEndpoints(Map<String, Integer> endpoints) {
+                this.endpoints = endpoints;
+            }
+        }
+    }
+
+    /**
+     * Emails sent when reminders come due, scheduled in an in-memory timing wheel.
+     */
+    public static class ReminderNotification {
+
+        private boolean enabled = true;
+
+        /**
+         * Resolution of the timing wheel.
+         */
+        private long tickMillis = 100;
+
+        /**
+         * Reminders due within this window are loaded in the wheel, the window is reloaded every half of it.
+         */
+        private long lookAheadSeconds = 600;
+
+        private int loadBatchSize = 1000;
+
+        private final Claim claim = new Claim();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTickMillis() {
+            return tickMillis;
+        }
+
+        public void setTickMillis(long tickMillis) {
+            this.tickMillis = tickMillis;
+        }
+
+        public long getLookAheadSeconds() {
+            return lookAheadSeconds;
+        }
+
+        public void setLookAheadSeconds(long lookAheadSeconds) {
+            this.lookAheadSeconds = lookAheadSeconds;
+        }
+
+        public int getLoadBatchSize() {
+            return loadBatchSize;
+        }
+
+        public void setLoadBatchSize(int loadBatchSize) {
+            this.loadBatchSize = loadBatchSize;
+        }
+
+        public Claim getClaim() {
+            return claim;
+        }
+
+        /**
+         * Claims of the due reminders, which let every node dispatch a disjoint share of the notifications.
+         */
+        public static class Claim {
+
+            private int minBatchSize = 10;
+
+            private int maxBatchSize = 500;
+
+            /**
+             * Reminders claimed by a node which did not notify them within the lease are claimed again by the others.
+             */
+            private long leaseSeconds = 60;
+
+            /**
+             * Delay between two claims when there is no backlog, the timing wheel wakes the dispatcher up in between.
+             */
+            private long pollIntervalMillis = 5000;
+
+            /**
+             * Reminders overdue for longer are not notified anymore, for example after a long outage.
+             */
+            private long maxLatenessMinutes = 60;
+
+            public int getMinBatchSize() {
+                return minBatchSize;
+            }
+
+            public void setMinBatchSize(int minBatchSize) {
+                this.minBatchSize = minBatchSize;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+
+            public long getLeaseSeconds() {
+                return leaseSeconds;
+            }
+
+            public void setLeaseSeconds(long leaseSeconds) {
+                this.leaseSeconds = leaseSeconds;
+            }
+
+            public long getPollIntervalMillis() {
+                return pollIntervalMillis;
+            }
+
+            public void setPollIntervalMillis(long pollIntervalMillis) {
+                this.pollIntervalMillis = pollIntervalMillis;
+            }
+
+            public long getMaxLatenessMinutes() {
+                return maxLatenessMinutes;
+            }
+
+            public void setMaxLatenessMinutes(long maxLatenessMinutes) {
+                this.maxLatenessMinutes = maxLatenessMinutes;
+            }
+        }
+    }
+    /**
+     * Queue of outgoing emails, sent in batches over pooled SMTP connections.
+     */
+    public static class MailDispatch {
+
+        private boolean enabled = true;
+
+        /**
+         * Number of SMTP connections, each one sends a single message at a time.
+         */
+        private int connections = 2;
+
+        /**
+         * Maximum number of messages a connection takes from the queue at once.
+         */
+        private int batchSize = 50;
+
+        /**
+         * A connection is closed and opened again after sending this many messages, as most servers limit them.
+         */
+        private int messagesPerConnection = 100;
+
+        /**
+         * Connections unused for longer are closed, below the usual timeout of the SMTP servers.
+         */
+        private long idleTimeoutMillis = 10_000;
+
+        /**
+         * When the queue is full, the caller sends its email itself.
+         */
+        private int queueCapacity = 10_000;
+
+        private int maxAttempts = 5;
+
+        private long initialBackoffMillis = 1000;
+
+        private long maxBackoffMillis = 300_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMessagesPerConnection() {
+            return messagesPerConnection;
+        }
+
+        public void setMessagesPerConnection(int messagesPerConnection) {
+            this.messagesPerConnection = messagesPerConnection;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMillis() {
+            return initialBackoffMillis;
+        }
+
+        public void setInitialBackoffMillis(long initialBackoffMillis) {
+            this.initialBackoffMillis = initialBackoffMillis;
+        }
+
+        public long getMaxBackoffMillis() {
+            return maxBackoffMillis;
+        }
+
+        public void setMaxBackoffMillis(long maxBackoffMillis) {
+            this.maxBackoffMillis = maxBackoffMillis;
+        }
+    }
+    /**
+     * Persistent outbox of the emails, written in the transaction which triggers them and sent after commit.
+     */
+    public static class MailOutbox {
+
+        private boolean enabled = true;
+
+        private int batchSize = 100;
+
+        /**
+         * Maximum number of emails claimed and not sent yet, so that the mail dispatcher is not flooded.
+         */
+        private int maxInFlight = 500;
+
+        /**
+         * Emails claimed by a node which did not send them within the lease are claimed again by the others.
+         */
+        private long leaseSeconds = 300;
+
+        /**
+         * Delay between two claims when there is no backlog, committed emails wake the worker up in between.
+         */
+        private long pollIntervalMillis = 5000;
+
+        private int maxAttempts = 10;
+
+        /**
+         * Delay before sending again an email which the mail dispatcher gave up on, doubled on every attempt.
+         */
+        private long initialBackoffSeconds = 60;
+
+        private long maxBackoffSeconds = 3600;
+
+        /**
+         * Sent emails are deleted after this many days, after which their delivery keys can be used again.
+         */
+        private int retentionDays = 7;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+
+        public long getPollIntervalMillis() {
+            return pollIntervalMillis;
+        }
+
+        public void setPollIntervalMillis(long pollIntervalMillis) {
+            this.pollIntervalMillis = pollIntervalMillis;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffSeconds() {
+            return initialBackoffSeconds;
+        }
+
+        public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+            this.initialBackoffSeconds = initialBackoffSeconds;
+        }
+
+        public long getMaxBackoffSeconds() {
+            return maxBackoffSeconds;
+        }
+
+        public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+    /**
+     * Daily email listing the due and overdue reminders of every user, generated in a single pass over the reminders.
+     */
+    public static class ReminderDigest {
+
+        private boolean enabled = true;
+
+        /**
+         * Hour of the day, in UTC, from which the digest of the day is sent.
+         */
+        private int sendHour = 7;
+
+        /**
+         * Number of digests handed to the mail outbox in one transaction, after which the progress is checkpointed.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum number of due and of overdue reminders listed in a digest, the others are only counted.
+         */
+        private int maxReminders = 20;
+
+        /**
+         * A run claimed by a node which did not checkpoint within the lease is resumed by the others.
+         */
+        private long leaseSeconds = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSendHour() {
+            return sendHour;
+        }
+
+        public void setSendHour(int sendHour) {
+            this.sendHour = sendHour;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxReminders() {
+            return maxReminders;
+        }
+
+        public void setMaxReminders(int maxReminders) {
+            this.maxReminders = maxReminders;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+    }
+    /**
+     * Changes of the reminders since a sync token, for the offline clients.
+     */
+    public static class ReminderSync {
+
+        /**
+         * Tombstones of the deleted reminders are kept this long, sync tokens expire a day earlier.
+         */
+        private int tombstoneRetentionDays = 30;
+
+        /**
+         * Maximum number of changes listed at once, the client asks for the next ones with the returned token.
+         */
+        private int maxChanges = 500;
+
+        /**
+         * Maximum number of operations pushed in one batch.
+         */
+        private int maxOperations = 100;
+
+        /**
+         * Idempotency keys of the pushed operations are kept this long, so that a batch replayed within it is not applied
+         * twice.
+         */
+        private int idempotencyKeyTtlSeconds = 86_400;
+
+        public int getTombstoneRetentionDays() {
+            return tombstoneRetentionDays;
+        }
+
+        public void setTombstoneRetentionDays(int tombstoneRetentionDays) {
+            this.tombstoneRetentionDays = tombstoneRetentionDays;
+        }
+
+        public int getMaxChanges() {
+            return maxChanges;
+        }
+
+        public void setMaxChanges(int maxChanges) {
+            this.maxChanges = maxChanges;
+        }
+
+        public int getMaxOperations() {
+            return maxOperations;
+        }
+
+        public void setMaxOperations(int maxOperations) {
+            this.maxOperations = maxOperations;
+        }
+
+        public int getIdempotencyKeyTtlSeconds() {
+            return idempotencyKeyTtlSeconds;
+        }
+
+        public void setIdempotencyKeyTtlSeconds(int idempotencyKeyTtlSeconds) {
+            this.idempotencyKeyTtlSeconds = idempotencyKeyTtlSeconds;
+        }
+    }
+    /**
+     * Server-sent events telling the connected clients which reminders, categories and tags changed.
+     */
+    public static class ChangeFeed {
+
+        /**
+         * Changes are sent to each subscriber at most this often, those of the same entity in between are coalesced.
+         */
+        private long flushMillis = 250;
+
+        /**
+         * A comment is sent to idle subscribers this often, so that proxies keep their connections open.
+         */
+        private int heartbeatSeconds = 20;
+
+        /**
+         * Connections are closed after this long, the clients connect again.
+         */
+        private int timeoutSeconds = 1800;
+
+        /**
+         * Changes buffered per subscriber; beyond it they are dropped, and the subscriber is told to refresh everything.
+         */
+        private int maxPendingChanges = 256;
+
+        /**
+         * Connections per user, the oldest one is closed beyond it.
+         */
+        private int maxSubscriptionsPerUser = 5;
+
+        /**
+         * Threads writing the events, a slow client holds one of them while its connection is blocked.
+         */
+        private int senderThreads = 2;
+
+        public long getFlushMillis() {
+            return flushMillis;
+        }
+
+        public void setFlushMillis(long flushMillis) {
+            this.flushMillis = flushMillis;
+        }
+
+        public int getHeartbeatSeconds() {
+            return heartbeatSeconds;
+        }
+
+        public void setHeartbeatSeconds(int heartbeatSeconds) {
+            this.heartbeatSeconds = heartbeatSeconds;
+        }
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(int timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public int getMaxPendingChanges() {
+            return maxPendingChanges;
+        }
+
+        public void setMaxPendingChanges(int maxPendingChanges) {
+            this.maxPendingChanges = maxPendingChanges;
+        }
+
+        public int getMaxSubscriptionsPerUser() {
+            return maxSubscriptionsPerUser;
+        }
+
+        public void setMaxSubscriptionsPerUser(int maxSubscriptionsPerUser) {
+            this.maxSubscriptionsPerUser = maxSubscriptionsPerUser;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+    }
+    /**
+     * Nightly deletion of the not activated users.
+     */
+    public static class UserCleanup {
+
+        /**
+         * Users deleted per transaction.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
@@ -4,12 +4,16 @@ import java.time.Duration;
 import org.ehcache.config.builders.*;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.*;
 import tech.jhipster.config.JHipsterProperties;
@@ -17,13 +21,16 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
 @Configuration
 @EnableCaching
-public class CacheConfiguration {
+public class CacheConfiguration implements CachingConfigurer {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ObjectProvider<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
         jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
@@ -47,6 +54,9 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, ar.edu.um.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, ar.edu.um.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, ar.edu.um.repository.UserRepository.USERS_BY_ID_CACHE);
+            createCache(cm, ar.edu.um.service.UserService.ACCOUNTS_BY_ID_CACHE);
+            createCache(cm, ar.edu.um.repository.AuthorityRepository.AUTHORITY_NAMES_CACHE);
             createCache(cm, ar.edu.um.domain.User.class.getName());
             createCache(cm, ar.edu.um.domain.Authority.class.getName());
             createCache(cm, ar.edu.um.domain.User.class.getName() + ".authorities");
@@ -78,6 +88,14 @@ public class CacheConfiguration {
         this.buildProperties = buildProperties;
     }
 
+    /**
+     * Records the misses of the {@code @Cacheable} methods in the Flight Recorder.
+     */
+    @Override
+    public CacheResolver cacheResolver() {
+        return new JfrCacheResolver(cacheManager::getObject);
+    }
+
     @Bean
     public KeyGenerator keyGenerator() {
         return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
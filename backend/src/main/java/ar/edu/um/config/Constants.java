@@ -8,6 +8,9 @@ public final class Constants {
     // Regex for acceptable logins
     public static final String LOGIN_REGEX = "^(?>[a-zA-Z0-9!$&*+=?^_`{|}~.-]+@[a-zA-Z0-9-]+(?:\\.[a-zA-Z0-9-]+)*)|(?>[_.@A-Za-z0-9-]+)$";
 
+    // Regex for acceptable time zones, region ids such as Europe/Paris or offsets such as UTC-03:00
+    public static final String TIME_ZONE_REGEX = "^[A-Za-z][A-Za-z0-9_+:-]*(?:/[A-Za-z0-9_+-]+)*$";
+
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
 
@@ -1,5 +1,6 @@
 package ar.edu.um.config;
 
+import ar.edu.um.aop.timing.SearchTimingAspect;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -16,6 +17,11 @@ import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomCo
 @Configuration
 public class ElasticsearchConfiguration extends ElasticsearchConfigurationSupport {
 
+    @Bean
+    public SearchTimingAspect searchTimingAspect() {
+        return new SearchTimingAspect();
+    }
+
     @Bean
     @Override
     public ElasticsearchCustomConversions elasticsearchCustomConversions() {
@@ -0,0 +1,135 @@
+package ar.edu.um.config;
+
+import static ar.edu.um.service.util.TransactionUtils.afterCommit;
+
+import ar.edu.um.management.jfr.CacheMissEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+
+/**
+ * Resolves the caches of the {@code @Cacheable} methods, decorated to record their misses as {@link CacheMissEvent}s.
+ * <p>
+ * The {@code @CacheEvict} evictions run again once the transaction commits: a concurrent lookup may have read the
+ * uncommitted rows' previous state and cached it after the first eviction.
+ * <p>
+ * Only the annotation driven lookups are decorated: the {@link CacheManager} itself is left untouched, so that the
+ * cache metrics still recognize its caches.
+ */
+class JfrCacheResolver implements CacheResolver {
+
+    private final Supplier<CacheManager> cacheManager;
+
+    private final Map<Cache, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    JfrCacheResolver(Supplier<CacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<String> cacheNames = context.getOperation().getCacheNames();
+        List<Cache> caches = new ArrayList<>(cacheNames.size());
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.get().getCache(cacheName);
+            if (cache == null) {
+                throw new IllegalArgumentException("Cannot find cache named '" + cacheName + "' for " + context.getOperation());
+            }
+            caches.add(decoratedCaches.computeIfAbsent(cache, JfrCache::new));
+        }
+        return caches;
+    }
+
+    private static final class JfrCache implements Cache {
+
+        private final Cache delegate;
+
+        private JfrCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            CacheMissEvent event = CacheMissEvent.begin(delegate.getName());
+            ValueWrapper value = delegate.get(key);
+            event.end(key, value == null);
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            CacheMissEvent event = CacheMissEvent.begin(delegate.getName());
+            T value = delegate.get(key, type);
+            event.end(key, value == null);
+            return value;
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            CacheMissEvent event = CacheMissEvent.begin(delegate.getName());
+            boolean[] loaded = { false };
+            try {
+                return delegate.get(key, () -> {
+                    loaded[0] = true;
+                    return valueLoader.call();
+                });
+            } finally {
+                event.end(key, loaded[0]);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+            afterCommit(() -> delegate.evict(key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean evicted = delegate.evictIfPresent(key);
+            afterCommit(() -> delegate.evictIfPresent(key));
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            afterCommit(delegate::clear);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean invalidated = delegate.invalidate();
+            afterCommit(delegate::invalidate);
+            return invalidated;
+        }
+    }
+}
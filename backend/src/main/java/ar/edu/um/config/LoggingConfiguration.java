@@ -2,7 +2,12 @@ package ar.edu.um.config;
 
 import static tech.jhipster.config.logging.LoggingUtils.*;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.spi.ContextAwareBase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.HashMap;
@@ -22,6 +27,7 @@ public class LoggingConfiguration {
         @Value("${spring.application.name}") String appName,
         @Value("${server.port}") String serverPort,
         JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
         ObjectMapper mapper
     ) throws JsonProcessingException {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
@@ -33,10 +39,22 @@ public class LoggingConfiguration {
 
         JHipsterProperties.Logging loggingProperties = jHipsterProperties.getLogging();
         JHipsterProperties.Logging.Logstash logstashProperties = loggingProperties.getLogstash();
+        ApplicationProperties.Logging.Spool spoolProperties = applicationProperties.getLogging().getSpool();
 
         if (loggingProperties.isUseJsonFormat()) {
             addJsonConsoleAppender(context, customFields);
         }
+        if (logstashProperties.isEnabled() && spoolProperties.isEnabled()) {
+            addLogstashSpoolingAppender(context, customFields, logstashProperties, spoolProperties);
+            // JHipster's listener would add its own Logstash appender back on reset, it is only given the console
+            JHipsterProperties.Logging consoleProperties = new JHipsterProperties.Logging();
+            consoleProperties.setUseJsonFormat(loggingProperties.isUseJsonFormat());
+            addContextListener(context, customFields, consoleProperties);
+            LogstashSpoolingListener listener = new LogstashSpoolingListener(customFields, logstashProperties, spoolProperties);
+            listener.setContext(context);
+            context.addListener(listener);
+            return;
+        }
         if (logstashProperties.isEnabled()) {
             addLogstashTcpSocketAppender(context, customFields, logstashProperties);
         }
@@ -44,4 +62,76 @@ public class LoggingConfiguration {
             addContextListener(context, customFields, loggingProperties);
         }
     }
+
+    private static void addLogstashSpoolingAppender(
+        LoggerContext context,
+        String customFields,
+        JHipsterProperties.Logging.Logstash logstashProperties,
+        ApplicationProperties.Logging.Spool spoolProperties
+    ) {
+        ch.qos.logback.classic.Logger rootLogger = context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);
+        // the previous appender releases the spool before the new one opens it
+        Appender<ILoggingEvent> previous = rootLogger.getAppender(LogstashSpoolingAppender.APPENDER_NAME);
+        if (previous != null) {
+            rootLogger.detachAppender(previous);
+            previous.stop();
+        }
+        LogstashSpoolingAppender appender = new LogstashSpoolingAppender(
+            logstashProperties.getHost(),
+            logstashProperties.getPort(),
+            logstashProperties.getRingBufferSize(),
+            customFields,
+            spoolProperties
+        );
+        appender.setContext(context);
+        appender.start();
+        rootLogger.addAppender(appender);
+    }
+
+    /**
+     * Adds the spooling Logstash appender back when the logging configuration is reset.
+     */
+    private static final class LogstashSpoolingListener extends ContextAwareBase implements LoggerContextListener {
+
+        private final String customFields;
+
+        private final JHipsterProperties.Logging.Logstash logstashProperties;
+
+        private final ApplicationProperties.Logging.Spool spoolProperties;
+
+        private LogstashSpoolingListener(
+            String customFields,
+            JHipsterProperties.Logging.Logstash logstashProperties,
+            ApplicationProperties.Logging.Spool spoolProperties
+        ) {
+            this.customFields = customFields;
+            this.logstashProperties = logstashProperties;
+            this.spoolProperties = spoolProperties;
+        }
+
+        @Override
+        public boolean isResetResistant() {
+            return true;
+        }
+
+        @Override
+        public void onStart(LoggerContext context) {
+            // nothing to do
+        }
+
+        @Override
+        public void onReset(LoggerContext context) {
+            addLogstashSpoolingAppender(context, customFields, logstashProperties, spoolProperties);
+        }
+
+        @Override
+        public void onStop(LoggerContext context) {
+            // nothing to do
+        }
+
+        @Override
+        public void onLevelChange(ch.qos.logback.classic.Logger logger, Level level) {
+            // nothing to do
+        }
+    }
 }
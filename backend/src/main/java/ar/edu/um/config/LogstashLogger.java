@@ -1,21 +1,28 @@
 package ar.edu.um.config;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.net.Socket;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * LogstashLogger - Sends structured logs to Logstash via TCP
  * 
+ * Events are only enqueued on the caller's thread, they are serialized and sent in batches by a background
+ * {@link LogstashTransport} over a persistent connection. When spooling is enabled, events produced while Logstash is
+ * unavailable are kept on disk and replayed once it is back.
+ * 
  * Usage:
  * @Autowired
  * private LogstashLogger logstashLogger;
@@ -23,10 +30,15 @@ import java.util.Map;
  * logstashLogger.sendLog("INFO", "User logged in", "UserService", Map.of("userId", 123));
  */
 @Component
-public class LogstashLogger {
+public class LogstashLogger implements InitializingBean, DisposableBean {
+    
+    private static final Set<String> STANDARD_FIELDS =
+        Set.of("timestamp", "level", "logger", "message", "application", "environment", "thread");
     
-    private static final Logger logger = LoggerFactory.getLogger(LogstashLogger.class);
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties applicationProperties;
+    private final MeterRegistry meterRegistry;
+    private LogstashTransport<LogEvent> transport;
     
     @Value("${elk.logstash.host:localhost}")
     private String logstashHost;
@@ -37,12 +49,48 @@ public class LogstashLogger {
     @Value("${elk.logstash.enabled:true}")
     private boolean enabled;
     
+    @Value("${elk.logstash.buffer-size:8192}")
+    private int bufferSize;
+    
+    @Value("${elk.logstash.batch-size:256}")
+    private int batchSize;
+    
+    @Value("${elk.logstash.drop-policy:DROP_NEWEST}")
+    private LogstashTransport.DropPolicy dropPolicy;
+    
     @Value("${elk.application.name:reminders-app}")
     private String applicationName;
     
     @Value("${elk.application.environment:development}")
     private String environment;
     
+    public LogstashLogger(ObjectMapper objectMapper, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        
+        ApplicationProperties.Logging.Spool spoolProperties = applicationProperties.getLogging().getSpool();
+        transport = new LogstashTransport<>(
+            "logger",
+            logstashHost,
+            logstashPort,
+            bufferSize,
+            batchSize,
+            dropPolicy,
+            this::encode,
+            LogstashSpool.open(spoolProperties, "logger"),
+            spoolProperties.getReplayRatePerSecond(),
+            meterRegistry
+        );
+    }
+    
     /**
      * Send a structured log message to Logstash
      */
@@ -52,21 +100,15 @@ public class LogstashLogger {
     
     /**
      * Send a structured log message to Logstash with additional fields
+     * 
+     * The fields are serialized later on the sender thread, the map must not be modified after this call.
      */
     public void sendLog(String level, String message, String loggerName, Map<String, Object> additionalFields) {
         if (!enabled) {
             return;
         }
         
-        try {
-            Map<String, Object> logData = createLogData(level, message, loggerName, additionalFields);
-            String jsonLog = objectMapper.writeValueAsString(logData);
-            
-            sendToLogstash(jsonLog);
-            
-        } catch (Exception e) {
-            logger.warn("Failed to send log to Logstash: {}", e.getMessage());
-        }
+        transport.send(new LogEvent(Instant.now(), level, loggerName, message, Thread.currentThread().getName(), additionalFields));
     }
     
     /**
@@ -110,31 +152,36 @@ public class LogstashLogger {
         sendLog("INFO", "Performance: " + operation + " took " + durationMs + "ms", "PerformanceLogger", perfFields);
     }
     
-    private Map<String, Object> createLogData(String level, String message, String loggerName, Map<String, Object> additionalFields) {
-        Map<String, Object> logData = new HashMap<>();
-        logData.put("timestamp", Instant.now().toString());
-        logData.put("level", level);
-        logData.put("logger", loggerName);
-        logData.put("message", message);
-        logData.put("application", applicationName);
-        logData.put("environment", environment);
-        logData.put("thread", Thread.currentThread().getName());
-        
-        if (additionalFields != null) {
-            logData.putAll(additionalFields);
+    /**
+     * Serialize an event on the sender thread, streaming the fields instead of building an intermediate map. As before,
+     * an additional field overrides the standard field of the same name instead of repeating its key.
+     */
+    void encode(LogEvent event, OutputStream out) throws IOException {
+        Map<String, Object> fields = event.fields() != null ? event.fields() : Map.of();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            writeStandardField(generator, fields, "timestamp", event.timestamp().toString());
+            writeStandardField(generator, fields, "level", event.level());
+            writeStandardField(generator, fields, "logger", event.logger());
+            writeStandardField(generator, fields, "message", event.message());
+            writeStandardField(generator, fields, "application", applicationName);
+            writeStandardField(generator, fields, "environment", environment);
+            writeStandardField(generator, fields, "thread", event.thread());
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                if (!STANDARD_FIELDS.contains(field.getKey())) {
+                    generator.writeObjectField(field.getKey(), field.getValue());
+                }
+            }
+            generator.writeEndObject();
         }
-        
-        return logData;
     }
     
-    private void sendToLogstash(String jsonLog) {
-        try (Socket socket = new Socket(logstashHost, logstashPort);
-             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
-            
-            out.println(jsonLog);
-            
-        } catch (IOException e) {
-            logger.warn("Failed to connect to Logstash at {}:{} - {}", logstashHost, logstashPort, e.getMessage());
+    private void writeStandardField(JsonGenerator generator, Map<String, Object> fields, String name, String value) throws IOException {
+        if (fields.containsKey(name)) {
+            generator.writeObjectField(name, fields.get(name));
+        } else {
+            generator.writeStringField(name, value);
         }
     }
     
@@ -152,4 +199,16 @@ public class LogstashLogger {
         
         return sb.toString();
     }
+    
+    @Override
+    public void destroy() {
+        if (transport != null) {
+            transport.close();
+        }
+    }
+    
+    /**
+     * A log line waiting to be sent.
+     */
+    record LogEvent(Instant timestamp, String level, String logger, String message, String thread, Map<String, Object> fields) {}
 }
\ No newline at end of file
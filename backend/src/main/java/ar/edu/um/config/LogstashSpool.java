@@ -0,0 +1,400 @@
+package ar.edu.um.config;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durable, append-only spool of encoded events, used while Logstash is unavailable.
+ * <p>
+ * Events are appended to memory-mapped segment files of a fixed size, and read back in order. Each segment starts with
+ * a header holding its write and read offsets and record counts, so the backlog survives a restart of the application.
+ * Fully read segments are deleted; when the number of segments reaches its limit the oldest one is discarded.
+ * <p>
+ * A spool is not thread-safe for writes and reads, which are expected from the single sender thread of a
+ * {@link LogstashTransport}. Its {@link #getStatus() status} can be read from any thread.
+ */
+final class LogstashSpool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LogstashSpool.class);
+
+    private static final Map<String, LogstashSpool> OPEN_SPOOLS = new ConcurrentHashMap<>();
+
+    private static final int MAGIC = 0x4c53504c;
+
+    private static final int WRITE_OFFSET = 4;
+
+    private static final int READ_OFFSET = 8;
+
+    private static final int WRITTEN_RECORDS = 12;
+
+    private static final int READ_RECORDS = 16;
+
+    private static final int HEADER_SIZE = 32;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final String name;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSegmentId;
+
+    private volatile long pendingEvents;
+
+    private volatile long pendingBytes;
+
+    private volatile long spooledEvents;
+
+    private volatile long replayedEvents;
+
+    private volatile long discardedEvents;
+
+    /**
+     * Open the spool stored in the given directory, recovering the segments left by a previous run.
+     *
+     * @param name the name of the spool, as listed by the actuator endpoint.
+     * @param directory the directory holding the segments, created if needed.
+     * @param segmentSize the size in bytes of a segment file.
+     * @param maxSegments the maximum number of segment files.
+     */
+    LogstashSpool(String name, Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize <= HEADER_SIZE + 4) {
+            throw new IllegalArgumentException("Spool segment size is too small: " + segmentSize);
+        }
+        this.name = name;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(2, maxSegments);
+        Files.createDirectories(directory);
+        recover();
+        OPEN_SPOOLS.put(name, this);
+    }
+
+    /**
+     * Open the spool of a transport if spooling is enabled.
+     *
+     * @return the spool, or {@code null} if spooling is disabled or the spool cannot be opened.
+     */
+    static LogstashSpool open(ApplicationProperties.Logging.Spool properties, String name) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Path directory = Path.of(properties.getDirectory(), name);
+        try {
+            return new LogstashSpool(name, directory, properties.getSegmentSizeBytes(), properties.getMaxSegments());
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Cannot open the Logstash spool in {}, events will be dropped during outages: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the spools currently open.
+     */
+    static Collection<LogstashSpool> openSpools() {
+        return OPEN_SPOOLS.values();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.open(file, segmentSize);
+            if (segment == null) {
+                LOG.warn("Discarding unreadable Logstash spool segment {}", file);
+                Files.deleteIfExists(file);
+            } else if (segment.isFullyRead()) {
+                segment.delete();
+            } else {
+                segments.addLast(segment);
+            }
+            nextSegmentId = Math.max(nextSegmentId, Segment.idOf(file) + 1);
+        }
+        updatePending();
+        if (pendingEvents > 0) {
+            LOG.info("Recovered {} spooled Logstash events for {}", pendingEvents, name);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isEmpty() {
+        return pendingEvents == 0;
+    }
+
+    /**
+     * Append an encoded event.
+     *
+     * @return {@code false} if the event is larger than a segment and was discarded.
+     */
+    boolean append(byte[] event) throws IOException {
+        if (event.length > segmentSize - HEADER_SIZE - 4) {
+            discardedEvents++;
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || !tail.hasRoomFor(event.length)) {
+            if (segments.size() >= maxSegments) {
+                Segment oldest = segments.pollFirst();
+                discardedEvents += oldest.pendingRecords();
+                LOG.warn("Logstash spool {} is full, discarding {} events", name, oldest.pendingRecords());
+                oldest.delete();
+            }
+            tail = Segment.create(directory.resolve(Segment.fileName(nextSegmentId++)), segmentSize);
+            segments.addLast(tail);
+        }
+        tail.append(event);
+        spooledEvents++;
+        updatePending();
+        return true;
+    }
+
+    /**
+     * Read the oldest events without consuming them.
+     *
+     * @param max the maximum number of events to read.
+     * @return the events, in order.
+     */
+    List<byte[]> peek(int max) {
+        List<byte[]> events = new ArrayList<>(Math.min(max, 256));
+        for (Segment segment : segments) {
+            if (events.size() >= max) {
+                break;
+            }
+            segment.peek(max - events.size(), events);
+        }
+        return events;
+    }
+
+    /**
+     * Consume the given number of events, previously returned by {@link #peek(int)}.
+     */
+    void commit(int count) throws IOException {
+        int remaining = count;
+        while (remaining > 0 && !segments.isEmpty()) {
+            Segment head = segments.peekFirst();
+            remaining -= head.consume(remaining);
+            if (head.isFullyRead() && (segments.size() > 1 || head.isFull())) {
+                segments.pollFirst().delete();
+            }
+        }
+        replayedEvents += count - remaining;
+        updatePending();
+    }
+
+    private void updatePending() {
+        long events = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            events += segment.pendingRecords();
+            bytes += segment.pendingBytes();
+        }
+        pendingEvents = events;
+        pendingBytes = bytes;
+    }
+
+    Status getStatus() {
+        return new Status(
+            directory.toString(),
+            segments.size(),
+            pendingEvents,
+            pendingBytes,
+            spooledEvents,
+            replayedEvents,
+            discardedEvents
+        );
+    }
+
+    @Override
+    public void close() {
+        OPEN_SPOOLS.remove(name, this);
+        for (Segment segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Backlog of a spool.
+     *
+     * @param directory the directory of the segment files.
+     * @param segments the number of segment files.
+     * @param pendingEvents the number of events waiting to be replayed.
+     * @param pendingBytes the size of the events waiting to be replayed.
+     * @param spooledEvents the number of events spooled since startup.
+     * @param replayedEvents the number of events replayed since startup.
+     * @param discardedEvents the number of events lost since startup because the spool was full.
+     */
+    record Status(
+        String directory,
+        int segments,
+        long pendingEvents,
+        long pendingBytes,
+        long spooledEvents,
+        long replayedEvents,
+        long discardedEvents
+    ) {}
+
+    /**
+     * One memory-mapped segment file: a header followed by length-prefixed records.
+     */
+    private static final class Segment {
+
+        private final Path file;
+
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        static String fileName(long id) {
+            return String.format("%019d%s", id, SEGMENT_SUFFIX);
+        }
+
+        static long idOf(Path file) {
+            String fileName = file.getFileName().toString();
+            try {
+                return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        static Segment create(Path file, int size) throws IOException {
+            Segment segment = new Segment(file, map(file, size));
+            segment.buffer.putInt(WRITE_OFFSET, HEADER_SIZE);
+            segment.buffer.putInt(READ_OFFSET, HEADER_SIZE);
+            segment.buffer.putInt(WRITTEN_RECORDS, 0);
+            segment.buffer.putInt(READ_RECORDS, 0);
+            // the magic number goes last: a segment interrupted while being created is discarded on recovery
+            segment.buffer.putInt(0, MAGIC);
+            return segment;
+        }
+
+        static Segment open(Path file, int size) throws IOException {
+            if (Files.size(file) != size) {
+                return null;
+            }
+            Segment segment = new Segment(file, map(file, size));
+            int writeOffset = segment.writeOffset();
+            int readOffset = segment.readOffset();
+            if (
+                segment.buffer.getInt(0) != MAGIC ||
+                writeOffset < HEADER_SIZE ||
+                writeOffset > size ||
+                readOffset < HEADER_SIZE ||
+                readOffset > writeOffset
+            ) {
+                return null;
+            }
+            return segment;
+        }
+
+        private static MappedByteBuffer map(Path file, int size) throws IOException {
+            try (
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            ) {
+                // the mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+
+        int writeOffset() {
+            return buffer.getInt(WRITE_OFFSET);
+        }
+
+        int readOffset() {
+            return buffer.getInt(READ_OFFSET);
+        }
+
+        int pendingRecords() {
+            return buffer.getInt(WRITTEN_RECORDS) - buffer.getInt(READ_RECORDS);
+        }
+
+        long pendingBytes() {
+            return (long) writeOffset() - readOffset();
+        }
+
+        boolean hasRoomFor(int length) {
+            return writeOffset() + 4 + length <= buffer.capacity();
+        }
+
+        boolean isFull() {
+            return writeOffset() + 4 >= buffer.capacity();
+        }
+
+        boolean isFullyRead() {
+            return pendingRecords() == 0;
+        }
+
+        void append(byte[] event) {
+            int offset = writeOffset();
+            buffer.put(offset + 4, event);
+            buffer.putInt(offset, event.length);
+            // publishing the new offset last keeps a half written record invisible after a crash
+            buffer.putInt(WRITE_OFFSET, offset + 4 + event.length);
+            buffer.putInt(WRITTEN_RECORDS, buffer.getInt(WRITTEN_RECORDS) + 1);
+        }
+
+        void peek(int max, List<byte[]> events) {
+            int offset = readOffset();
+            int end = writeOffset();
+            for (int i = 0; i < max && offset < end; i++) {
+                int length = buffer.getInt(offset);
+                byte[] event = new byte[length];
+                buffer.get(offset + 4, event);
+                events.add(event);
+                offset += 4 + length;
+            }
+        }
+
+        /**
+         * @return the number of records actually consumed.
+         */
+        int consume(int max) {
+            int offset = readOffset();
+            int end = writeOffset();
+            int consumed = 0;
+            while (consumed < max && offset < end) {
+                offset += 4 + buffer.getInt(offset);
+                consumed++;
+            }
+            buffer.putInt(READ_OFFSET, offset);
+            buffer.putInt(READ_RECORDS, buffer.getInt(READ_RECORDS) + consumed);
+            return consumed;
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void delete() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ar.edu.um.config;
+
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the backlog of the Logstash spools, at {@code /management/logstashspool}.
+ */
+@Component
+@Endpoint(id = "logstashspool")
+public class LogstashSpoolEndpoint {
+
+    private final ApplicationProperties applicationProperties;
+
+    public LogstashSpoolEndpoint(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> spools() {
+        Map<String, Object> spools = new TreeMap<>();
+        for (LogstashSpool spool : LogstashSpool.openSpools()) {
+            spools.put(spool.getName(), spool.getStatus());
+        }
+        return Map.of("enabled", applicationProperties.getLogging().getSpool().isEnabled(), "spools", spools);
+    }
+}
@@ -0,0 +1,105 @@
+package ar.edu.um.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import io.micrometer.core.instrument.Metrics;
+import net.logstash.logback.encoder.LogstashEncoder;
+import net.logstash.logback.stacktrace.ShortenedThrowableConverter;
+
+/**
+ * Logback appender sending the application logs to Logstash through a {@link LogstashTransport} backed by a
+ * {@link LogstashSpool}, used instead of JHipster's {@code LogstashTcpSocketAppender} when spooling is enabled.
+ * <p>
+ * Events are encoded like JHipster does, with the same custom fields and shortened stack traces.
+ */
+class LogstashSpoolingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    static final String APPENDER_NAME = "ASYNC_LOGSTASH";
+
+    private static final String TRANSPORT_NAME = "appender";
+
+    private final String host;
+
+    private final int port;
+
+    private final int capacity;
+
+    private final String customFields;
+
+    private final ApplicationProperties.Logging.Spool spoolProperties;
+
+    private LogstashEncoder encoder;
+
+    private LogstashTransport<ILoggingEvent> transport;
+
+    LogstashSpoolingAppender(
+        String host,
+        int port,
+        int capacity,
+        String customFields,
+        ApplicationProperties.Logging.Spool spoolProperties
+    ) {
+        this.host = host;
+        this.port = port;
+        this.capacity = capacity;
+        this.customFields = customFields;
+        this.spoolProperties = spoolProperties;
+        setName(APPENDER_NAME);
+    }
+
+    @Override
+    public void start() {
+        ShortenedThrowableConverter throwableConverter = new ShortenedThrowableConverter();
+        throwableConverter.setMaxDepthPerThrowable(30);
+        throwableConverter.setMaxLength(2048);
+        throwableConverter.setShortenedClassNameLength(20);
+        throwableConverter.setRootCauseFirst(true);
+        throwableConverter.addExclude("sun\\.reflect\\..*\\.invoke.*");
+        throwableConverter.addExclude("net\\.sf\\.cglib\\.proxy\\.MethodProxy\\.invokeSuper");
+
+        encoder = new LogstashEncoder();
+        encoder.setContext(getContext());
+        encoder.setCustomFields(customFields);
+        encoder.setThrowableConverter(throwableConverter);
+        // the transport writes one event per line
+        encoder.setLineSeparator("");
+        encoder.start();
+
+        transport = new LogstashTransport<>(
+            TRANSPORT_NAME,
+            host,
+            port,
+            capacity,
+            256,
+            LogstashTransport.DropPolicy.DROP_NEWEST,
+            (event, out) -> encoder.encode(event, out),
+            LogstashSpool.open(spoolProperties, TRANSPORT_NAME),
+            spoolProperties.getReplayRatePerSecond(),
+            Metrics.globalRegistry
+        );
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // the transport logs its own failures, sending them back to it would feed an outage
+        if (Thread.currentThread().getName().startsWith("logstash-")) {
+            return;
+        }
+        // the event is encoded later on the sender thread
+        event.prepareForDeferredProcessing();
+        transport.send(event);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (transport != null) {
+            transport.close();
+            transport = null;
+        }
+        if (encoder != null) {
+            encoder.stop();
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package ar.edu.um.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous TCP transport of newline-delimited JSON events to Logstash.
+ * <p>
+ * Callers only enqueue into a bounded {@link MpmcRingBuffer}; a single sender thread drains it in batches over one
+ * persistent connection, reconnecting with an exponential backoff when Logstash is unavailable. When the buffer is full
+ * the configured {@link DropPolicy} decides which event is lost.
+ * <p>
+ * With a {@link LogstashSpool}, batches which cannot be sent are written to disk instead, and every later batch follows
+ * them there until the backlog is replayed, so that events reach Logstash in order. Replay is rate limited, to let
+ * Logstash catch up after an outage without being flooded, and an event is only removed from the spool once it was
+ * flushed to the socket: it may be sent twice, but is not lost.
+ *
+ * @param <E> the type of the events.
+ */
+final class LogstashTransport<E> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LogstashTransport.class);
+
+    public static final String EVENTS_METER_NAME = "logstash.transport.events";
+
+    public static final String QUEUED_METER_NAME = "logstash.transport.queued";
+
+    public static final String SPOOLED_METER_NAME = "logstash.transport.spooled";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 500;
+
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * What to do with an event when the buffer is full.
+     */
+    enum DropPolicy {
+        /**
+         * Reject the new event, keeping the backlog.
+         */
+        DROP_NEWEST,
+        /**
+         * Evict the oldest buffered events to make room for the new one.
+         */
+        DROP_OLDEST,
+    }
+
+    /**
+     * Writes one event as a single JSON line, without the trailing newline.
+     */
+    @FunctionalInterface
+    interface EventEncoder<E> {
+        void encode(E event, OutputStream out) throws IOException;
+    }
+
+    private final String name;
+
+    private final InetSocketAddress address;
+
+    private final MpmcRingBuffer<E> buffer;
+
+    private final int batchSize;
+
+    private final DropPolicy dropPolicy;
+
+    private final EventEncoder<E> encoder;
+
+    private final Counter sentCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter spooledCounter;
+
+    private final LogstashSpool spool;
+
+    private final long replayIntervalNanos;
+
+    private final Thread sender;
+
+    private volatile boolean running = true;
+
+    private volatile boolean senderParked;
+
+    private volatile boolean connected;
+
+    private Socket socket;
+
+    private OutputStream out;
+
+    private long reconnectDelayMillis = MIN_RECONNECT_DELAY_MILLIS;
+
+    private long nextConnectAttemptNanos = System.nanoTime();
+
+    private long nextReplayNanos = System.nanoTime();
+
+    LogstashTransport(
+        String name,
+        String host,
+        int port,
+        int capacity,
+        int batchSize,
+        DropPolicy dropPolicy,
+        EventEncoder<E> encoder,
+        MeterRegistry meterRegistry
+    ) {
+        this(name, host, port, capacity, batchSize, dropPolicy, encoder, null, 0, meterRegistry);
+    }
+
+    /**
+     * @param spool the spool of the events which cannot be sent, or {@code null} to drop them.
+     * @param replayRatePerSecond the maximum number of spooled events replayed per second.
+     */
+    LogstashTransport(
+        String name,
+        String host,
+        int port,
+        int capacity,
+        int batchSize,
+        DropPolicy dropPolicy,
+        EventEncoder<E> encoder,
+        LogstashSpool spool,
+        int replayRatePerSecond,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.address = InetSocketAddress.createUnresolved(host, port);
+        this.buffer = new MpmcRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.dropPolicy = dropPolicy;
+        this.encoder = encoder;
+        this.sentCounter = eventsCounter(meterRegistry, "sent");
+        this.droppedCounter = eventsCounter(meterRegistry, "dropped");
+        this.spooledCounter = eventsCounter(meterRegistry, "spooled");
+        this.spool = spool;
+        this.replayIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, replayRatePerSecond);
+        if (spool != null) {
+            Gauge.builder(SPOOLED_METER_NAME, spool, s -> s.getStatus().pendingEvents())
+                .description("Number of events spooled to disk, waiting to be replayed to Logstash")
+                .tag("transport", name)
+                .register(meterRegistry);
+        }
+        Gauge.builder(QUEUED_METER_NAME, buffer, MpmcRingBuffer::size)
+            .description("Number of events waiting to be sent to Logstash")
+            .tag("transport", name)
+            .register(meterRegistry);
+        this.sender = new Thread(this::run, "logstash-" + name + "-sender");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    private Counter eventsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(EVENTS_METER_NAME)
+            .description("Number of events handed to the Logstash transport, by outcome")
+            .tag("transport", name)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Enqueue an event, without blocking.
+     *
+     * @return {@code false} if the event was dropped.
+     */
+    boolean send(E event) {
+        if (!running) {
+            droppedCounter.increment();
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            if (dropPolicy == DropPolicy.DROP_NEWEST) {
+                droppedCounter.increment();
+                return false;
+            }
+            do {
+                if (buffer.poll() != null) {
+                    droppedCounter.increment();
+                }
+            } while (!buffer.offer(event));
+        }
+        if (senderParked) {
+            LockSupport.unpark(sender);
+        }
+        return true;
+    }
+
+    int getQueued() {
+        return buffer.size();
+    }
+
+    long getSpooled() {
+        return spool == null ? 0 : spool.getStatus().pendingEvents();
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    private void run() {
+        List<E> batch = new ArrayList<>(batchSize);
+        ByteArrayOutputStream scratch = new ByteArrayOutputStream(1024);
+        while (running || !batch.isEmpty() || buffer.size() > 0) {
+            if (batch.isEmpty()) {
+                drainTo(batch);
+            }
+            if (spool != null) {
+                boolean online = ensureConnected();
+                if (!batch.isEmpty() && (!online || !spool.isEmpty())) {
+                    spool(batch, scratch);
+                }
+                if (online && running && !spool.isEmpty()) {
+                    replay();
+                    if (batch.isEmpty() && buffer.size() == 0) {
+                        park(Math.min(IDLE_PARK_NANOS, nextReplayNanos - System.nanoTime()));
+                    }
+                    continue;
+                }
+            }
+            if (batch.isEmpty()) {
+                park(IDLE_PARK_NANOS);
+                continue;
+            }
+            if (!ensureConnected()) {
+                if (!running) {
+                    break;
+                }
+                park(Math.min(IDLE_PARK_NANOS, nextConnectAttemptNanos - System.nanoTime()));
+                continue;
+            }
+            try {
+                write(batch, scratch);
+                sentCounter.increment(batch.size());
+                batch.clear();
+            } catch (IOException e) {
+                LOG.debug("Failed to send {} events to Logstash at {}: {}", batch.size(), address, e.getMessage());
+                disconnect();
+            }
+        }
+        int lost = batch.size() + buffer.size();
+        if (lost > 0) {
+            droppedCounter.increment(lost);
+        }
+        disconnect();
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    private void spool(List<E> batch, ByteArrayOutputStream scratch) {
+        for (E event : batch) {
+            scratch.reset();
+            try {
+                encoder.encode(event, scratch);
+                if (spool.append(scratch.toByteArray())) {
+                    spooledCounter.increment();
+                } else {
+                    droppedCounter.increment();
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Failed to spool event for Logstash: {}", e.getMessage());
+                droppedCounter.increment();
+            }
+        }
+        batch.clear();
+    }
+
+    private void replay() {
+        long now = System.nanoTime();
+        if (now - nextReplayNanos < 0) {
+            return;
+        }
+        long allowed = Math.max(1, TimeUnit.SECONDS.toNanos(1) / replayIntervalNanos / 10);
+        List<byte[]> events = spool.peek((int) Math.min(batchSize, allowed));
+        try {
+            for (byte[] event : events) {
+                out.write(event);
+                out.write('\n');
+            }
+            out.flush();
+            spool.commit(events.size());
+            sentCounter.increment(events.size());
+            nextReplayNanos = now + events.size() * replayIntervalNanos;
+        } catch (IOException e) {
+            LOG.debug("Failed to replay {} spooled events to Logstash at {}: {}", events.size(), address, e.getMessage());
+            disconnect();
+        }
+    }
+
+    private void drainTo(List<E> batch) {
+        E event;
+        while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+            batch.add(event);
+        }
+    }
+
+    private void park(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        senderParked = true;
+        // re-check after publishing the flag, so an event enqueued meanwhile is not left waiting for the timeout
+        if (buffer.size() == 0 || !connected) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        senderParked = false;
+    }
+
+    private void write(List<E> batch, ByteArrayOutputStream scratch) throws IOException {
+        for (E event : batch) {
+            scratch.reset();
+            try {
+                encoder.encode(event, scratch);
+            } catch (IOException | RuntimeException e) {
+                // an event which cannot be encoded is skipped, it must not corrupt the stream
+                LOG.debug("Failed to encode event for Logstash: {}", e.getMessage());
+                droppedCounter.increment();
+                continue;
+            }
+            scratch.write('\n');
+            scratch.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private boolean ensureConnected() {
+        if (connected) {
+            return true;
+        }
+        if (System.nanoTime() - nextConnectAttemptNanos < 0) {
+            return false;
+        }
+        Socket candidate = new Socket();
+        try {
+            candidate.setKeepAlive(true);
+            candidate.setTcpNoDelay(true);
+            candidate.connect(new InetSocketAddress(address.getHostString(), address.getPort()), CONNECT_TIMEOUT_MILLIS);
+            socket = candidate;
+            out = new BufferedOutputStream(candidate.getOutputStream(), 64 * 1024);
+            connected = true;
+            reconnectDelayMillis = MIN_RECONNECT_DELAY_MILLIS;
+            LOG.debug("Connected to Logstash at {}", address);
+            return true;
+        } catch (IOException e) {
+            closeQuietly(candidate);
+            nextConnectAttemptNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(reconnectDelayMillis);
+            LOG.debug("Failed to connect to Logstash at {}, retrying in {} ms: {}", address, reconnectDelayMillis, e.getMessage());
+            reconnectDelayMillis = Math.min(MAX_RECONNECT_DELAY_MILLIS, reconnectDelayMillis * 2);
+            return false;
+        }
+    }
+
+    private void disconnect() {
+        connected = false;
+        if (socket != null) {
+            closeQuietly(socket);
+            socket = null;
+            out = null;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // nothing to do
+        }
+    }
+
+    /**
+     * Stop accepting events and give the sender a few seconds to flush the backlog.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(sender);
+        try {
+            sender.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ar.edu.um.config;
+
+import ar.edu.um.aop.timing.RequestTimingAspect;
+import ar.edu.um.management.QueryBudgetMonitor;
+import ar.edu.um.web.filter.ServerTimingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Breakdown of the API request latency in a {@code Server-Timing} header, see {@link ar.edu.um.management.RequestTimings}.
+ * <p>
+ * The JDBC time is collected by {@link ar.edu.um.management.RequestTimingSessionListener}, registered in the JPA
+ * properties.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.server-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfiguration {
+
+    @Bean
+    public RequestTimingAspect requestTimingAspect() {
+        return new RequestTimingAspect();
+    }
+
+    /**
+     * Replaces Spring Boot's JSON converter.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedMappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.ServerTiming properties = applicationProperties.getServerTiming();
+        ApplicationProperties.ServerTiming.QueryBudget queryBudget = properties.getQueryBudget();
+        QueryBudgetMonitor queryBudgetMonitor = queryBudget.isEnabled()
+            ? new QueryBudgetMonitor(
+                meterRegistry,
+                queryBudget.getSampleEvery(),
+                queryBudget.getDefaultMaxStatements(),
+                queryBudget.getEndpoints()
+            )
+            : null;
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+            new ServerTimingFilter(meterRegistry, properties.isMetricsEnabled(), queryBudgetMonitor)
+        );
+        registration.addUrlPatterns("/api/*");
+        // before the security filters, so that the total covers the authentication
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
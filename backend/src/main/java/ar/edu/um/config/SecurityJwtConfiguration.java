@@ -1,8 +1,10 @@
 package ar.edu.um.config;
 
 import static ar.edu.um.security.SecurityUtils.JWT_ALGORITHM;
+import static ar.edu.um.security.SecurityUtils.USER_ID_CLAIM;
 
 import ar.edu.um.management.SecurityMetersService;
+import ar.edu.um.management.jfr.JwtDecodeEvent;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import javax.crypto.SecretKey;
@@ -12,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
@@ -29,9 +32,13 @@ public class SecurityJwtConfiguration {
     public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
         return token -> {
+            JwtDecodeEvent event = JwtDecodeEvent.start();
             try {
-                return jwtDecoder.decode(token);
+                Jwt jwt = jwtDecoder.decode(token);
+                event.end(jwt.getSubject(), jwt.getClaim(USER_ID_CLAIM), true);
+                return jwt;
             } catch (Exception e) {
+                event.end(null, null, false);
                 if (e.getMessage().contains("Invalid signature")) {
                     metersService.trackTokenInvalidSignature();
                 } else if (e.getMessage().contains("Jwt expired at")) {
@@ -0,0 +1,47 @@
+package ar.edu.um.config;
+
+import ar.edu.um.management.RequestTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * JSON converter adding the time spent reading and writing bodies to the {@link RequestTimings} of the current request.
+ * <p>
+ * Response bodies are streamed as they are serialized, so the write time includes sending the body, and is only known
+ * once the {@code Server-Timing} header has been sent: it is recorded in the per-endpoint timers but missing from the
+ * header, which still reports the time spent reading the request body.
+ */
+class TimedMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    TimedMappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+        throws IOException, HttpMessageNotReadableException {
+        long start = RequestTimings.enter(RequestTimings.Phase.SERIALIZATION);
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            RequestTimings.exit(RequestTimings.Phase.SERIALIZATION, start);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+        throws IOException, HttpMessageNotWritableException {
+        long start = RequestTimings.enter(RequestTimings.Phase.SERIALIZATION);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTimings.exit(RequestTimings.Phase.SERIALIZATION, start);
+        }
+    }
+}
@@ -62,6 +62,21 @@ public class Reminder implements Serializable {
     @Column(name = "last_modified_date")
     private Instant lastModifiedDate;
 
+    /**
+     * Recurrence rule, in the syntax of the iCalendar {@code RRULE} property, starting at the due date.
+     * Occurrences are not stored, see {@link ReminderOccurrence}.
+     */
+    @Size(max = 255)
+    @Column(name = "recurrence_rule", length = 255)
+    private String recurrenceRule;
+
+    /**
+     * Version of the reminder, checked by the updates so that concurrent ones are refused instead of lost.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private Category category;
 
@@ -184,6 +199,32 @@ public class Reminder implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public String getRecurrenceRule() {
+        return this.recurrenceRule;
+    }
+
+    public Reminder recurrenceRule(String recurrenceRule) {
+        this.setRecurrenceRule(recurrenceRule);
+        return this;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Reminder version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Category getCategory() {
         return this.category;
     }
@@ -272,6 +313,8 @@ public class Reminder implements Serializable {
             ", priority='" + getPriority() + "'" +
             ", createdDate='" + getCreatedDate() + "'" +
             ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            ", recurrenceRule='" + getRecurrenceRule() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
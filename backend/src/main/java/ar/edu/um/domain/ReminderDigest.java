@@ -0,0 +1,175 @@
+package ar.edu.um.domain;
+
+import ar.edu.um.domain.enumeration.ReminderDigestStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A run of the daily reminder digest.
+ * <p>
+ * There is one run per {@code digestDate}. The node running it holds a lease on the row, and records in
+ * {@code lastUserId} the last user whose digest was handed to the mail outbox, so that a run interrupted by a failure or
+ * a restart resumes after this user, on any node, instead of starting over.
+ */
+@Entity
+@Table(name = "reminder_digest")
+public class ReminderDigest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "digest_date", nullable = false, unique = true)
+    private LocalDate digestDate;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    private ReminderDigestStatus status;
+
+    /**
+     * The checkpoint of the run: the digests of the users up to this id are sent.
+     */
+    @Column(name = "last_user_id")
+    private Long lastUserId;
+
+    @Size(max = 64)
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private Instant claimExpiresAt;
+
+    @NotNull
+    @Column(name = "users_count", nullable = false)
+    private Long usersCount;
+
+    @NotNull
+    @Column(name = "reminders_count", nullable = false)
+    private Long remindersCount;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getDigestDate() {
+        return digestDate;
+    }
+
+    public void setDigestDate(LocalDate digestDate) {
+        this.digestDate = digestDate;
+    }
+
+    public ReminderDigestStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReminderDigestStatus status) {
+        this.status = status;
+    }
+
+    public Long getLastUserId() {
+        return lastUserId;
+    }
+
+    public void setLastUserId(Long lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public Instant getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+
+    public void setClaimExpiresAt(Instant claimExpiresAt) {
+        this.claimExpiresAt = claimExpiresAt;
+    }
+
+    public Long getUsersCount() {
+        return usersCount;
+    }
+
+    public void setUsersCount(Long usersCount) {
+        this.usersCount = usersCount;
+    }
+
+    public Long getRemindersCount() {
+        return remindersCount;
+    }
+
+    public void setRemindersCount(Long remindersCount) {
+        this.remindersCount = remindersCount;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReminderDigest)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ReminderDigest) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReminderDigest{" +
+            "id=" + getId() +
+            ", digestDate='" + getDigestDate() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", lastUserId=" + getLastUserId() +
+            ", usersCount=" + getUsersCount() +
+            ", remindersCount=" + getRemindersCount() +
+            "}";
+    }
+}
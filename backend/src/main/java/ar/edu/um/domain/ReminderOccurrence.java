@@ -0,0 +1,132 @@
+package ar.edu.um.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * An exception to the recurrence rule of a {@link Reminder}.
+ * <p>
+ * Occurrences of recurring reminders are computed from the rule, and only those which differ from it are stored: completed,
+ * cancelled, or moved to another due date. An occurrence is identified by the date the rule gives it, its
+ * {@code occurrenceDate}, which does not change when it is moved.
+ */
+@Entity
+@Table(name = "reminder_occurrence")
+public class ReminderOccurrence implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Reminder reminder;
+
+    @NotNull
+    @Column(name = "occurrence_date", nullable = false)
+    private Instant occurrenceDate;
+
+    /**
+     * The due date the occurrence was moved to, if any.
+     */
+    @Column(name = "due_date")
+    private Instant dueDate;
+
+    @NotNull
+    @Column(name = "is_completed", nullable = false)
+    private Boolean isCompleted;
+
+    @NotNull
+    @Column(name = "is_cancelled", nullable = false)
+    private Boolean isCancelled;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Reminder getReminder() {
+        return reminder;
+    }
+
+    public void setReminder(Reminder reminder) {
+        this.reminder = reminder;
+    }
+
+    public Instant getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(Instant occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    public Instant getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(Instant dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    public Boolean getIsCancelled() {
+        return isCancelled;
+    }
+
+    public void setIsCancelled(Boolean isCancelled) {
+        this.isCancelled = isCancelled;
+    }
+
+    /**
+     * The due date of the occurrence: the date it was moved to, or its date in the rule.
+     */
+    public Instant getEffectiveDueDate() {
+        return dueDate != null ? dueDate : occurrenceDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReminderOccurrence)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ReminderOccurrence) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReminderOccurrence{" +
+            "id=" + getId() +
+            ", occurrenceDate='" + getOccurrenceDate() + "'" +
+            ", dueDate='" + getDueDate() + "'" +
+            ", isCompleted='" + getIsCompleted() + "'" +
+            ", isCancelled='" + getIsCancelled() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,84 @@
+package ar.edu.um.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The trace of a deleted {@link Reminder}, so that clients syncing the changes since a given change sequence learn about
+ * the deletion. Tombstones take their {@code changeSeq} from the same sequence as the reminders, and are compacted once
+ * the sync tokens which could need them have expired.
+ */
+@Entity
+@Table(name = "reminder_tombstone")
+public class ReminderTombstone implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the deleted reminder.
+     */
+    @Id
+    @Column(name = "reminder_id")
+    private Long reminderId;
+
+    @NotNull
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @NotNull
+    @Column(name = "deleted_date", nullable = false)
+    private Instant deletedDate;
+
+    public Long getReminderId() {
+        return reminderId;
+    }
+
+    public void setReminderId(Long reminderId) {
+        this.reminderId = reminderId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public Instant getDeletedDate() {
+        return deletedDate;
+    }
+
+    public void setDeletedDate(Instant deletedDate) {
+        this.deletedDate = deletedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReminderTombstone)) {
+            return false;
+        }
+        return getReminderId() != null && getReminderId().equals(((ReminderTombstone) o).getReminderId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReminderTombstone{" +
+            "reminderId=" + getReminderId() +
+            ", changeSeq=" + getChangeSeq() +
+            ", deletedDate='" + getDeletedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,151 @@
+package ar.edu.um.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The idempotency key of a pushed sync operation, with its result. A key is unique per user: it is inserted in the
+ * transaction applying the operation, so that a replay of the operation, on any node, finds it once that transaction
+ * commits, or waits for it to end if it is still running. Keys are purged once replays are not expected anymore.
+ */
+@Entity
+@Table(name = "sync_operation_key")
+public class SyncOperationKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "login", length = 50, nullable = false)
+    private String login;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "idempotency_key", length = 64, nullable = false)
+    private String idempotencyKey;
+
+    /**
+     * The status of the result, {@code null} while the operation is being applied.
+     */
+    @Size(max = 16)
+    @Column(name = "status", length = 16)
+    private String status;
+
+    @Size(max = 64)
+    @Column(name = "local_id", length = 64)
+    private String localId;
+
+    @Column(name = "reminder_id")
+    private Long reminderId;
+
+    @Size(max = 255)
+    @Column(name = "message", length = 255)
+    private String message;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getLocalId() {
+        return localId;
+    }
+
+    public void setLocalId(String localId) {
+        this.localId = localId;
+    }
+
+    public Long getReminderId() {
+        return reminderId;
+    }
+
+    public void setReminderId(Long reminderId) {
+        this.reminderId = reminderId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SyncOperationKey)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((SyncOperationKey) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SyncOperationKey{" +
+            "id=" + getId() +
+            ", login='" + getLogin() + "'" +
+            ", idempotencyKey='" + getIdempotencyKey() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", localId='" + getLocalId() + "'" +
+            ", reminderId=" + getReminderId() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -66,6 +66,11 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
     @Column(name = "lang_key", length = 10)
     private String langKey;
 
+    @Size(max = 64)
+    @Pattern(regexp = Constants.TIME_ZONE_REGEX)
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
     @Size(max = 256)
     @Column(name = "image_url", length = 256)
     private String imageUrl;
@@ -191,6 +196,14 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
         this.langKey = langKey;
     }
 
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
     public Set<Authority> getAuthorities() {
         return authorities;
     }
@@ -227,6 +240,7 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
             ", imageUrl='" + imageUrl + '\'' +
             ", activated='" + activated + '\'' +
             ", langKey='" + langKey + '\'' +
+            ", timeZone='" + timeZone + '\'' +
             ", activationKey='" + activationKey + '\'' +
             "}";
     }
@@ -0,0 +1,10 @@
+package ar.edu.um.domain.enumeration;
+
+/**
+ * The MailOutboxStatus enumeration.
+ */
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED,
+}
@@ -0,0 +1,9 @@
+package ar.edu.um.domain.enumeration;
+
+/**
+ * The ReminderDigestStatus enumeration.
+ */
+public enum ReminderDigestStatus {
+    RUNNING,
+    DONE,
+}
@@ -0,0 +1,73 @@
+package ar.edu.um.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Flags the API requests executing more SQL statements than the budget of their endpoint, the usual symptom of an N+1
+ * query.
+ * <p>
+ * Only a sample of the requests is checked. The statements are counted in the {@link RequestTimings} of the request.
+ */
+public class QueryBudgetMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryBudgetMonitor.class);
+
+    public static final String EXCEEDED_METER_NAME = "http.server.requests.query-budget.exceeded";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int sampleEvery;
+
+    private final int defaultMaxStatements;
+
+    private final Map<String, Integer> endpointMaxStatements;
+
+    /**
+     * @param sampleEvery one request in this many is checked.
+     * @param defaultMaxStatements the budget of the endpoints without a specific one.
+     * @param endpointMaxStatements the budgets by endpoint, keyed by method and path pattern, as in
+     * {@code GET /api/admin/users}.
+     */
+    public QueryBudgetMonitor(
+        MeterRegistry meterRegistry,
+        int sampleEvery,
+        int defaultMaxStatements,
+        Map<String, Integer> endpointMaxStatements
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.endpointMaxStatements = Map.copyOf(endpointMaxStatements);
+    }
+
+    /**
+     * Check a completed request against the budget of its endpoint.
+     *
+     * @return {@code true} if the request was checked and exceeded its budget.
+     */
+    public boolean check(String method, String uri, RequestTimings timings) {
+        if (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return false;
+        }
+        int statements = timings.getCount(RequestTimings.Phase.DB);
+        int budget = endpointMaxStatements.isEmpty()
+            ? defaultMaxStatements
+            : endpointMaxStatements.getOrDefault(method + " " + uri, defaultMaxStatements);
+        if (statements <= budget) {
+            return false;
+        }
+        LOG.warn("{} {} executed {} SQL statements, over its budget of {}", method, uri, statements, budget);
+        Counter.builder(EXCEEDED_METER_NAME)
+            .description("Number of sampled requests which executed more SQL statements than the budget of their endpoint")
+            .tag("uri", uri)
+            .tag("method", method)
+            .register(meterRegistry)
+            .increment();
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package ar.edu.um.management;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the JDBC statements executed by a Hibernate session, and the time they take, to the {@link RequestTimings} of the
+ * current request.
+ * <p>
+ * Registered for every session with the {@code hibernate.session.events.auto} property.
+ */
+public class RequestTimingSessionListener implements SessionEventListener {
+
+    private long statementStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.record(RequestTimings.Phase.DB, System.nanoTime() - statementStart);
+        }
+    }
+}
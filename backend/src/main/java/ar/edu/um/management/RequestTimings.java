@@ -0,0 +1,144 @@
+package ar.edu.um.management;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breakdown of the time spent by the current HTTP request, by phase.
+ * <p>
+ * A context is bound to the request thread for the duration of the request, and the instrumented components add the
+ * time they spend to it. Outside of a request there is no context and recording is a no-op.
+ */
+public final class RequestTimings {
+
+    /**
+     * The instrumented phases, named as in the {@code Server-Timing} header.
+     */
+    public enum Phase {
+        DB("db"),
+        SEARCH("search"),
+        MAPPING("mapping"),
+        SERIALIZATION("json");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * Request attribute holding the context once the request completed, for the tests asserting statement counts.
+     */
+    public static final String REQUEST_ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private final long[] nanos = new long[PHASES.length];
+
+    private final int[] counts = new int[PHASES.length];
+
+    private final int[] depths = new int[PHASES.length];
+
+    private RequestTimings() {}
+
+    /**
+     * Bind a new context to the current thread.
+     */
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Unbind the context from the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the context of the current request, or {@code null}.
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Enter a phase which may be nested, a mapper calling another mapper for instance: only the outermost call is
+     * timed.
+     *
+     * @return the start of the phase to pass to {@link #exit(Phase, long)}, or {@code -1} if it is not timed.
+     */
+    public static long enter(Phase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || timings.depths[phase.ordinal()]++ > 0) {
+            return -1;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Exit a phase entered with {@link #enter(Phase)}.
+     */
+    public static void exit(Phase phase, long start) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return;
+        }
+        timings.depths[phase.ordinal()]--;
+        if (start >= 0) {
+            timings.record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Phase phase, long durationNanos) {
+        nanos[phase.ordinal()] += durationNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public int getCount(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Format the phases with recorded time, and the total time so far, as a {@code Server-Timing} header value.
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count > 0) {
+                appendMetric(header, phase.getMetricName(), nanos[phase.ordinal()]);
+                header.append(";desc=\"").append(count).append(count == 1 ? " call\"" : " calls\"");
+                header.append(", ");
+            }
+        }
+        appendMetric(header, "total", getElapsedNanos());
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long durationNanos) {
+        header
+            .append(name)
+            .append(";dur=")
+            .append(String.format(Locale.ROOT, "%.1f", durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+}
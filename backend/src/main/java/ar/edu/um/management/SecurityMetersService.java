@@ -2,6 +2,8 @@ package ar.edu.um.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +15,70 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String AUTHENTICATION_QUEUE_WAIT_METER_NAME = "security.authentication.queue-wait";
+    public static final String AUTHENTICATION_QUEUE_WAIT_METER_DESCRIPTION =
+        "Time spent by authentication requests waiting for a free password verification slot.";
+
+    public static final String AUTHENTICATION_HASH_TIME_METER_NAME = "security.authentication.hash-time";
+    public static final String AUTHENTICATION_HASH_TIME_METER_DESCRIPTION =
+        "Time spent verifying credentials, dominated by the password hash.";
+
+    public static final String AUTHENTICATION_REJECTED_METER_NAME = "security.authentication.rejected";
+    public static final String AUTHENTICATION_REJECTED_METER_DESCRIPTION =
+        "Indicates the number of authentication requests rejected because the verification pool was full.";
+
+    public static final String RATE_LIMIT_REJECTED_METER_NAME = "security.rate-limit.rejected";
+    public static final String RATE_LIMIT_REJECTED_METER_DESCRIPTION =
+        "Indicates the number of requests rejected because a per-IP or per-login rate limit was exhausted.";
+    public static final String RATE_LIMIT_ENDPOINT_DIMENSION = "endpoint";
+    public static final String RATE_LIMIT_KEY_DIMENSION = "key";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Timer authenticationQueueWaitTimer;
+    private final Timer authenticationHashTimer;
+    private final Counter authenticationRejectedCounter;
+
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.authenticationQueueWaitTimer = Timer.builder(AUTHENTICATION_QUEUE_WAIT_METER_NAME)
+            .description(AUTHENTICATION_QUEUE_WAIT_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.authenticationHashTimer = Timer.builder(AUTHENTICATION_HASH_TIME_METER_NAME)
+            .description(AUTHENTICATION_HASH_TIME_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.authenticationRejectedCounter = Counter.builder(AUTHENTICATION_REJECTED_METER_NAME)
+            .baseUnit(INVALID_TOKENS_METER_BASE_UNIT)
+            .description(AUTHENTICATION_REJECTED_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    /**
+     * Build the rejection counter of a rate limit, callers are expected to keep the returned counter.
+     *
+     * @param endpoint the limited endpoint path.
+     * @param key the kind of key the limit applies to, {@code ip} or {@code login}.
+     * @return the registered counter.
+     */
+    public Counter rateLimitRejectedCounter(String endpoint, String key) {
+        return Counter.builder(RATE_LIMIT_REJECTED_METER_NAME)
+            .baseUnit(INVALID_TOKENS_METER_BASE_UNIT)
+            .description(RATE_LIMIT_REJECTED_METER_DESCRIPTION)
+            .tag(RATE_LIMIT_ENDPOINT_DIMENSION, endpoint)
+            .tag(RATE_LIMIT_KEY_DIMENSION, key)
+            .register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -47,4 +103,16 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void recordAuthenticationQueueWait(long nanos) {
+        this.authenticationQueueWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAuthenticationHashTime(long nanos) {
+        this.authenticationHashTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackAuthenticationRejected() {
+        this.authenticationRejectedCounter.increment();
+    }
 }
@@ -0,0 +1,43 @@
+package ar.edu.um.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A lookup of a {@code @Cacheable} method which missed the cache.
+ */
+@Name("ar.edu.um.CacheMiss")
+@Label("Cache Miss")
+@Category({ "Reminders", "Cache" })
+@Description("Lookup of a @Cacheable method which missed the cache")
+public class CacheMissEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    /**
+     * Create and begin an event.
+     */
+    public static CacheMissEvent begin(String cache) {
+        CacheMissEvent event = new CacheMissEvent();
+        event.cache = cache;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if the lookup missed, the event is enabled and over its threshold.
+     */
+    public void end(Object key, boolean missed) {
+        if (missed && shouldCommit()) {
+            this.key = String.valueOf(key);
+            commit();
+        }
+    }
+}
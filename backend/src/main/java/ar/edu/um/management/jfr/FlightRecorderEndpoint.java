@@ -0,0 +1,154 @@
+package ar.edu.um.management.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint managing an on-demand, continuous Flight Recorder recording, at {@code /management/jfr}.
+ * <ul>
+ * <li>{@code POST /management/jfr} starts the recording, bounded in age and size;</li>
+ * <li>{@code GET /management/jfr} returns its state;</li>
+ * <li>{@code GET /management/jfr/dump} downloads its current content as a {@code .jfr} file;</li>
+ * <li>{@code DELETE /management/jfr} stops it.</li>
+ * </ul>
+ * The recording uses the low-overhead {@code default} settings of the JDK, plus the application events of this package.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    private static final String RECORDING_NAME = "reminders-on-demand";
+
+    static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+
+    static final Duration MAX_MAX_AGE = Duration.ofHours(1);
+
+    static final long DEFAULT_MAX_SIZE_MB = 64;
+
+    static final long MAX_MAX_SIZE_MB = 256;
+
+    private static final List<Class<? extends Event>> EVENT_CLASSES = List.of(
+        ReminderOperationEvent.class,
+        ReminderQueryEvent.class,
+        SearchEvent.class,
+        CacheMissEvent.class,
+        JwtDecodeEvent.class,
+        PasswordHashEvent.class
+    );
+
+    private Recording recording;
+
+    private Path lastDump;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", RecordingState.CLOSED.name());
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+
+    /**
+     * Start the recording, if it is not already running.
+     *
+     * @param maxAgeSeconds how long the recorded events are kept, capped to an hour.
+     * @param maxSizeMb the maximum size of the recorded events, capped to 256 MB.
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long maxAgeSeconds, @Nullable Long maxSizeMb)
+        throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+        Duration maxAge = maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : DEFAULT_MAX_AGE;
+        long maxSize = maxSizeMb != null ? maxSizeMb : DEFAULT_MAX_SIZE_MB;
+        Recording started = new Recording(Configuration.getConfiguration("default"));
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge.compareTo(MAX_MAX_AGE) > 0 || maxAge.isNegative() ? MAX_MAX_AGE : maxAge);
+        started.setMaxSize(Math.min(Math.max(1, maxSize), MAX_MAX_SIZE_MB) * 1024 * 1024);
+        for (Class<? extends Event> eventClass : EVENT_CLASSES) {
+            started.enable(eventClass);
+        }
+        started.start();
+        recording = started;
+        LOG.info("Started Flight Recorder recording, keeping {} and at most {} bytes", started.getMaxAge(), started.getMaxSize());
+        return status();
+    }
+
+    /**
+     * Dump the events recorded so far.
+     *
+     * @param action must be {@code dump}.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!"dump".equals(action) || recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        deleteLastDump();
+        lastDump = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+        recording.dump(lastDump);
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump));
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() throws IOException {
+        closeRecording();
+        deleteLastDump();
+        return status();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        stop();
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void deleteLastDump() throws IOException {
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+            lastDump = null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ar.edu.um.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The decoding and validation of a JWT.
+ */
+@Name("ar.edu.um.JwtDecode")
+@Label("JWT Decode")
+@Category({ "Reminders", "Security" })
+@Description("Decoding and validation of a JWT")
+public class JwtDecodeEvent extends Event {
+
+    @Label("Subject")
+    String subject;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Valid")
+    boolean valid;
+
+    /**
+     * Create and begin an event.
+     */
+    public static JwtDecodeEvent start() {
+        JwtDecodeEvent event = new JwtDecodeEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if it is enabled and over its threshold.
+     */
+    public void end(String subject, Object userId, boolean valid) {
+        if (shouldCommit()) {
+            this.subject = subject;
+            this.userId = userId instanceof Number number ? number.longValue() : 0;
+            this.valid = valid;
+            commit();
+        }
+    }
+}
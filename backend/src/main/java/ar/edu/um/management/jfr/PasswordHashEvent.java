@@ -0,0 +1,43 @@
+package ar.edu.um.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A password hash computation, to encode a new password or to verify one.
+ */
+@Name("ar.edu.um.PasswordHash")
+@Label("Password Hash")
+@Category({ "Reminders", "Security" })
+@Description("Password hash computation, to encode a new password or to verify one")
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Matched")
+    boolean matched;
+
+    /**
+     * Create and begin an event.
+     */
+    public static PasswordHashEvent begin(String operation) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if it is enabled and over its threshold.
+     */
+    public void end(boolean matched) {
+        if (shouldCommit()) {
+            this.matched = matched;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ar.edu.um.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A create, read, update or delete of a reminder.
+ */
+@Name("ar.edu.um.ReminderOperation")
+@Label("Reminder Operation")
+@Category({ "Reminders", "Service" })
+@Description("Create, read, update or delete of a reminder")
+public class ReminderOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Reminder Id")
+    long reminderId;
+
+    /**
+     * Create and begin an event.
+     */
+    public static ReminderOperationEvent begin(String operation) {
+        ReminderOperationEvent event = new ReminderOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if it is enabled and over its threshold.
+     */
+    public void end(Long reminderId) {
+        if (shouldCommit()) {
+            this.reminderId = reminderId != null ? reminderId : 0;
+            commit();
+        }
+    }
+}
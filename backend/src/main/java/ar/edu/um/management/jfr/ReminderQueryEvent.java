@@ -0,0 +1,48 @@
+package ar.edu.um.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A criteria query on the reminders.
+ */
+@Name("ar.edu.um.ReminderQuery")
+@Label("Reminder Query")
+@Category({ "Reminders", "Service" })
+@Description("Criteria query on the reminders")
+public class ReminderQueryEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Criteria")
+    String criteria;
+
+    @Label("Result Count")
+    @Description("Number of results, or -1 if the query failed")
+    long resultCount;
+
+    /**
+     * Create and begin an event.
+     */
+    public static ReminderQueryEvent begin(String operation) {
+        ReminderQueryEvent event = new ReminderQueryEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if it is enabled and over its threshold, the criteria is only formatted then.
+     */
+    public void end(Object criteria, long resultCount) {
+        if (shouldCommit()) {
+            this.criteria = String.valueOf(criteria);
+            this.resultCount = resultCount;
+            commit();
+        }
+    }
+}
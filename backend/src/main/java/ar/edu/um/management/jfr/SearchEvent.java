@@ -0,0 +1,48 @@
+package ar.edu.um.management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A call to the Elasticsearch client, see {@code SearchTimingAspect}.
+ */
+@Name("ar.edu.um.Search")
+@Label("Search")
+@Category({ "Reminders", "Elasticsearch" })
+@Description("Call to the Elasticsearch client")
+public class SearchEvent extends Event {
+
+    @Label("Entity")
+    String entity;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Hits")
+    @Description("Total hits of a search, or -1 for the other calls")
+    long hits;
+
+    /**
+     * Create and begin an event.
+     */
+    public static SearchEvent begin(String operation) {
+        SearchEvent event = new SearchEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the event if it is enabled and over its threshold.
+     */
+    public void end(String entity, long hits) {
+        if (shouldCommit()) {
+            this.entity = entity;
+            this.hits = hits;
+            commit();
+        }
+    }
+}
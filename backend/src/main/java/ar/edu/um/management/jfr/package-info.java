@@ -0,0 +1,4 @@
+/**
+ * JDK Flight Recorder events of the application hot paths.
+ */
+package ar.edu.um.management.jfr;
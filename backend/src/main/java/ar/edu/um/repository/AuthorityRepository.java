@@ -1,6 +1,9 @@
 package ar.edu.um.repository;
 
 import ar.edu.um.domain.Authority;
+import java.util.List;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +12,62 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AuthorityRepository extends JpaRepository<Authority, String> {}
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+    /**
+     * Snapshot of the authority names, which only change through this repository: every one of its mutators evicts it,
+     * again once the transaction commits.
+     */
+    String AUTHORITY_NAMES_CACHE = "authorityNames";
+
+    @Query("select authority.name from Authority authority order by authority.name")
+    @Cacheable(cacheNames = AUTHORITY_NAMES_CACHE, key = "'all'")
+    List<String> findAllNames();
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    <S extends Authority> S save(S authority);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    <S extends Authority> S saveAndFlush(S authority);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    <S extends Authority> List<S> saveAll(Iterable<S> authorities);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    <S extends Authority> List<S> saveAllAndFlush(Iterable<S> authorities);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void delete(Authority authority);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteById(String name);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteAllById(Iterable<? extends String> names);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteAll(Iterable<? extends Authority> authorities);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteAllInBatch(Iterable<Authority> authorities);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<String> names);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITY_NAMES_CACHE, allEntries = true)
+    void deleteAllInBatch();
+}
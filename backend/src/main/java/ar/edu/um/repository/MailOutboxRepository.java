@@ -0,0 +1,106 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.MailOutbox;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutbox} entity.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+    /**
+     * Query space of the native statements, so that they do not invalidate the whole second level cache.
+     */
+    String MAIL_OUTBOX_SPACE = "mail_outbox";
+
+    /**
+     * Status literals of the JPQL statements.
+     */
+    String PENDING = "ar.edu.um.domain.enumeration.MailOutboxStatus.PENDING";
+
+    String SENT = "ar.edu.um.domain.enumeration.MailOutboxStatus.SENT";
+
+    String FAILED = "ar.edu.um.domain.enumeration.MailOutboxStatus.FAILED";
+
+    /**
+     * Add a pending email, unless an email with the same delivery key was already added.
+     *
+     * @return {@code 1} if the email was added, {@code 0} if it is a duplicate.
+     */
+    @Modifying
+    @Query(
+        value = "insert into mail_outbox" +
+        " (id, delivery_key, recipient, subject, content, multipart, html, status, attempts, created_date, next_attempt_at)" +
+        " values (nextval('sequence_generator'), :deliveryKey, :recipient, :subject, :content, :multipart, :html," +
+        " 'PENDING', 0, :now, :now)" +
+        " on conflict (delivery_key) do nothing",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = MAIL_OUTBOX_SPACE))
+    int insertIfAbsent(
+        @Param("deliveryKey") String deliveryKey,
+        @Param("recipient") String recipient,
+        @Param("subject") String subject,
+        @Param("content") String content,
+        @Param("multipart") boolean multipart,
+        @Param("html") boolean html,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Lock a batch of the pending emails which are due and not claimed by a live node.
+     * Rows locked by the other nodes are skipped, so concurrent workers get disjoint batches.
+     */
+    @Query(
+        value = "select id from mail_outbox where status = 'PENDING' and next_attempt_at <= :now" +
+        " order by next_attempt_at limit :limit for update skip locked",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = MAIL_OUTBOX_SPACE))
+    List<Long> lockClaimable(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Claim locked emails until {@code leaseExpiresAt}, when they are claimed again if they were not sent.
+     */
+    @Modifying
+    @Query("update MailOutbox mail set mail.nextAttemptAt = :leaseExpiresAt, mail.attempts = mail.attempts + 1 where mail.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    @Modifying
+    @Query(
+        "update MailOutbox mail set mail.status = " + SENT + ", mail.sentDate = :now, mail.lastError = null" +
+        " where mail.id in :ids and mail.status = " + PENDING
+    )
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Query(
+        "update MailOutbox mail set mail.nextAttemptAt = :nextAttemptAt, mail.lastError = :error" +
+        " where mail.id = :id and mail.status = " + PENDING
+    )
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query(
+        "update MailOutbox mail set mail.status = " + FAILED + ", mail.lastError = :error" +
+        " where mail.id = :id and mail.status = " + PENDING
+    )
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Delete the emails sent before a date, after which their delivery keys can be used again.
+     */
+    @Modifying
+    @Query("delete from MailOutbox mail where mail.status = " + SENT + " and mail.sentDate < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
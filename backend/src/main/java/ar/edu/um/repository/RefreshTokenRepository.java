@@ -0,0 +1,37 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findOneWithUserByTokenHash(String tokenHash);
+
+    /**
+     * Atomically consume a token, so concurrent uses of the same token cannot both succeed.
+     *
+     * @return {@code 1} if the token was consumed, {@code 0} if it was already rotated or revoked.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update RefreshToken token set token.rotatedAt = :now where token.id = :id and token.rotatedAt is null")
+    int markRotated(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from RefreshToken token where token.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+}
@@ -0,0 +1,92 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.ReminderDigest;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link ReminderDigest} entity.
+ */
+@Repository
+public interface ReminderDigestRepository extends JpaRepository<ReminderDigest, Long> {
+    /**
+     * Query space of the native statements, so that they do not invalidate the whole second level cache.
+     */
+    String REMINDER_DIGEST_SPACE = "reminder_digest";
+
+    /**
+     * Status literals of the JPQL statements.
+     */
+    String RUNNING = "ar.edu.um.domain.enumeration.ReminderDigestStatus.RUNNING";
+
+    String DONE = "ar.edu.um.domain.enumeration.ReminderDigestStatus.DONE";
+
+    Optional<ReminderDigest> findOneByDigestDate(LocalDate digestDate);
+
+    /**
+     * Add the run of a date, unless it was already added by another node.
+     */
+    @Modifying
+    @Query(
+        value = "insert into reminder_digest (id, digest_date, status, users_count, reminders_count, started_at)" +
+        " values (nextval('sequence_generator'), :digestDate, 'RUNNING', 0, 0, :now)" +
+        " on conflict (digest_date) do nothing",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REMINDER_DIGEST_SPACE))
+    int insertIfAbsent(@Param("digestDate") LocalDate digestDate, @Param("now") Instant now);
+
+    /**
+     * Claim the run of a date until {@code expiresAt}, unless it is done or claimed by another live node.
+     *
+     * @return {@code 1} if the run was claimed.
+     */
+    @Modifying
+    @Query(
+        "update ReminderDigest digest set digest.claimedBy = :node, digest.claimExpiresAt = :expiresAt" +
+        " where digest.digestDate = :digestDate and digest.status = " + RUNNING +
+        " and (digest.claimedBy is null or digest.claimedBy = :node or digest.claimExpiresAt < :now)"
+    )
+    int claim(
+        @Param("digestDate") LocalDate digestDate,
+        @Param("node") String node,
+        @Param("now") Instant now,
+        @Param("expiresAt") Instant expiresAt
+    );
+
+    /**
+     * Record the progress of a claimed run and extend its lease.
+     *
+     * @return {@code 0} if the run is not claimed by the node anymore.
+     */
+    @Modifying
+    @Query(
+        "update ReminderDigest digest set digest.lastUserId = :lastUserId, digest.usersCount = digest.usersCount + :users," +
+        " digest.remindersCount = digest.remindersCount + :reminders, digest.claimExpiresAt = :expiresAt" +
+        " where digest.id = :id and digest.claimedBy = :node and digest.status = " + RUNNING
+    )
+    int checkpoint(
+        @Param("id") Long id,
+        @Param("node") String node,
+        @Param("lastUserId") long lastUserId,
+        @Param("users") long users,
+        @Param("reminders") long reminders,
+        @Param("expiresAt") Instant expiresAt
+    );
+
+    @Modifying
+    @Query(
+        "update ReminderDigest digest set digest.status = " + DONE + ", digest.finishedAt = :now, digest.claimedBy = null," +
+        " digest.claimExpiresAt = null where digest.id = :id and digest.claimedBy = :node and digest.status = " + RUNNING
+    )
+    int finish(@Param("id") Long id, @Param("node") String node, @Param("now") Instant now);
+}
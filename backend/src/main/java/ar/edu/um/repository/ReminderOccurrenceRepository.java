@@ -0,0 +1,34 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.ReminderOccurrence;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link ReminderOccurrence} entity.
+ */
+@Repository
+public interface ReminderOccurrenceRepository extends JpaRepository<ReminderOccurrence, Long> {
+    Optional<ReminderOccurrence> findOneByReminderIdAndOccurrenceDate(Long reminderId, Instant occurrenceDate);
+
+    /**
+     * The exceptions of the occurrences of some reminders which are in {@code [from, to]}, by their date in the rule or the
+     * date they were moved to.
+     */
+    @Query(
+        "select occurrence from ReminderOccurrence occurrence where occurrence.reminder.id in :reminderIds" +
+        " and ((occurrence.occurrenceDate >= :from and occurrence.occurrenceDate <= :to)" +
+        " or (occurrence.dueDate >= :from and occurrence.dueDate <= :to))"
+    )
+    List<ReminderOccurrence> findInRange(
+        @Param("reminderIds") Collection<Long> reminderIds,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+}
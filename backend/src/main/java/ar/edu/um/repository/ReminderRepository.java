@@ -1,11 +1,17 @@
 package ar.edu.um.repository;
 
 import ar.edu.um.domain.Reminder;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -16,9 +22,201 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ReminderRepository
-    extends ReminderRepositoryWithBagRelationships, JpaRepository<Reminder, Long>, JpaSpecificationExecutor<Reminder> {
-    @Query("select reminder from Reminder reminder where reminder.user.login = ?#{authentication.name}")
-    List<Reminder> findByUserIsCurrentUser();
+    extends
+        ReminderRepositoryWithBagRelationships,
+        ReminderRepositoryWithProjections,
+        JpaRepository<Reminder, Long>,
+        JpaSpecificationExecutor<Reminder> {
+    /**
+     * Query space of the native statements on the notification claim columns. These columns are not mapped, so the statements
+     * are synchronized on a space no entity uses instead of invalidating the whole second level cache.
+     */
+    String NOTIFICATION_CLAIM_SPACE = "reminder_notification_claim";
+
+    /**
+     * Query space of the native statements on the change sequence column, which is not mapped either.
+     */
+    String CHANGE_SEQ_SPACE = "reminder_change_seq";
+
+    /**
+     * Sequence of the changes of the reminders, shared with their tombstones.
+     */
+    String CHANGE_SEQUENCE = "reminder_change_sequence";
+
+    /**
+     * The id of the current transaction, recorded with each change sequence.
+     */
+    String CURRENT_TRANSACTION = "cast(cast(pg_current_xact_id() as text) as bigint)";
+
+    /**
+     * Rows fetched at once by the digest cursor.
+     */
+    String DIGEST_FETCH_SIZE = "1000";
+
+    /**
+     * A batch of the open reminders due in {@code [from, to)}, after the {@code (afterDueDate, afterId)} cursor.
+     * Served by the {@code (is_completed, due_date)} index.
+     */
+    @Query(
+        "select reminder.id as id, reminder.dueDate as dueDate from Reminder reminder" +
+        " where reminder.isCompleted = false and reminder.dueDate >= :from and reminder.dueDate < :to" +
+        " and (reminder.dueDate > :afterDueDate or (reminder.dueDate = :afterDueDate and reminder.id > :afterId))" +
+        " order by reminder.dueDate, reminder.id"
+    )
+    List<DueReminder> findDue(
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("afterDueDate") Instant afterDueDate,
+        @Param("afterId") long afterId,
+        Pageable pageable
+    );
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Reminder> findOneWithUserById(Long id);
+
+    /**
+     * Stream the open one-off reminders due before {@code before}, of the activated users with an email after
+     * {@code afterUserId}, ordered by user then due date, so that the rows of a user are consecutive.
+     * <p>
+     * The rows are read through a cursor, {@link #DIGEST_FETCH_SIZE} at a time, and are not managed by the persistence
+     * context, so the stream must be consumed and closed in a transaction but memory does not grow with the table.
+     * Served by the {@code (user_id, due_date)} index.
+     */
+    @Query(
+        "select owner.id as userId, owner.login as login, owner.email as email, owner.langKey as langKey," +
+        " reminder.id as id, reminder.title as title, reminder.dueDate as dueDate" +
+        " from Reminder reminder join reminder.user owner" +
+        " where reminder.isCompleted = false and reminder.dueDate < :before and reminder.recurrenceRule is null" +
+        " and owner.id > :afterUserId and owner.activated = true and owner.email is not null" +
+        " order by owner.id, reminder.dueDate, reminder.id"
+    )
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = DIGEST_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        }
+    )
+    Stream<DigestReminder> streamDigest(@Param("before") Instant before, @Param("afterUserId") long afterUserId);
+
+    /**
+     * Lock a batch of the due reminders which are neither notified for their current due date nor claimed by a live node.
+     * Rows locked by the other nodes are skipped, so concurrent dispatchers get disjoint batches.
+     */
+    @Query(
+        value = "select id from reminder" +
+        " where is_completed = false and due_date <= :now and due_date > :notBefore" +
+        " and (notified_due_date is null or notified_due_date <> due_date)" +
+        " and (claim_expires_at is null or claim_expires_at < :now)" +
+        " order by due_date limit :limit for update skip locked",
+        nativeQuery = true
+    )
+    List<Long> lockClaimable(@Param("now") Instant now, @Param("notBefore") Instant notBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(
+        value = "update reminder set claimed_by = :node, claim_expires_at = :expiresAt where id in (:ids)",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NOTIFICATION_CLAIM_SPACE))
+    int claim(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Record the notification of a claimed reminder for the given due date and release it.
+     */
+    @Modifying
+    @Query(
+        value = "update reminder set notified_due_date = :dueDate, claimed_by = null, claim_expires_at = null" +
+        " where id = :id and claimed_by = :node",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NOTIFICATION_CLAIM_SPACE))
+    int markNotified(@Param("id") Long id, @Param("node") String node, @Param("dueDate") Instant dueDate);
+
+    @Modifying
+    @Query(
+        value = "update reminder set claimed_by = null, claim_expires_at = null where id = :id and claimed_by = :node",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NOTIFICATION_CLAIM_SPACE))
+    int release(@Param("id") Long id, @Param("node") String node);
+
+    /**
+     * Give a reminder the next change sequence, so that it is listed in the changes since the previous one, along with the
+     * current transaction. New reminders get theirs from the default values of the columns.
+     */
+    @Modifying
+    @Query(
+        value = "update reminder set change_seq = nextval('" + CHANGE_SEQUENCE + "'), change_xid = " + CURRENT_TRANSACTION +
+        " where id = :id",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CHANGE_SEQ_SPACE))
+    int touch(@Param("id") Long id);
+
+    /**
+     * Give reminders the next change sequences in a single statement, see {@link #touch(Long)}.
+     */
+    @Modifying
+    @Query(
+        value = "update reminder set change_seq = nextval('" + CHANGE_SEQUENCE + "'), change_xid = " + CURRENT_TRANSACTION +
+        " where id in (:ids)",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CHANGE_SEQ_SPACE))
+    int touchAll(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The reminders changed after a change sequence, in change sequence order. Served by the {@code change_seq} index.
+     */
+    @Query(
+        value = "select id as id, change_seq as \"changeSeq\" from reminder where change_seq > :since order by change_seq limit :limit",
+        nativeQuery = true
+    )
+    List<ChangedReminder> findChangedSince(@Param("since") long since, @Param("limit") int limit);
+
+    /**
+     * The oldest transaction still running, or the next one if none is: every transaction which did not commit yet has
+     * this id or a later one.
+     */
+    @Query(value = "select cast(cast(pg_snapshot_xmin(pg_current_snapshot()) as text) as bigint)", nativeQuery = true)
+    long findOldestRunningTransaction();
+
+    /**
+     * The first change sequence taken by a transaction from {@code transaction} on, of a reminder or a tombstone, or
+     * {@code null} if there is none. Served by the {@code change_xid} indexes.
+     */
+    @Query(
+        value = "select min(change_seq) from (" +
+        "select min(change_seq) as change_seq from reminder where change_xid >= :transaction" +
+        " union all select min(change_seq) from reminder_tombstone where change_xid >= :transaction) changes",
+        nativeQuery = true
+    )
+    Long findFirstChangeSeqSince(@Param("transaction") long transaction);
+
+    /**
+     * The reminder with its tags, in a single select: the read of an update, which then merges into it without selecting
+     * the reminder or its tags again.
+     */
+    @EntityGraph(attributePaths = "tags")
+    Optional<Reminder> findOneWithTagsById(Long id);
+
+    /**
+     * The ids of the tags of reminders, read from the join table without selecting the tags.
+     */
+    @Query("select reminder.id as reminderId, tag.id as tagId from Reminder reminder join reminder.tags tag where reminder.id in :ids")
+    List<ReminderTagId> findTagIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The owners of the reminders in a category.
+     */
+    @Query("select distinct owner.id from Reminder reminder join reminder.user owner where reminder.category.id = :categoryId")
+    List<Long> findUserIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * The owners of the reminders with a tag, read from the join table without selecting the tags.
+     */
+    @Query("select distinct owner.id from Reminder reminder join reminder.user owner join reminder.tags tag where tag.id = :tagId")
+    List<Long> findUserIdsByTagId(@Param("tagId") Long tagId);
 
     default Optional<Reminder> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
@@ -31,4 +229,38 @@ public interface ReminderRepository
     default Page<Reminder> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    interface DueReminder {
+        Long getId();
+
+        Instant getDueDate();
+    }
+
+    interface ChangedReminder {
+        Long getId();
+
+        Long getChangeSeq();
+    }
+
+    interface ReminderTagId {
+        Long getReminderId();
+
+        Long getTagId();
+    }
+
+    interface DigestReminder {
+        Long getUserId();
+
+        String getLogin();
+
+        String getEmail();
+
+        String getLangKey();
+
+        Long getId();
+
+        String getTitle();
+
+        Instant getDueDate();
+    }
 }
@@ -0,0 +1,20 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.Reminder;
+import jakarta.persistence.Tuple;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ReminderRepositoryWithProjections {
+    /**
+     * Read only some attributes of the reminders matching a specification, in the order of the page.
+     *
+     * @param specification the specification the reminders should match.
+     * @param pageable the page, sorted by attribute paths like {@code attributes}: an association other than by its id would
+     * be inner joined, dropping the reminders without it.
+     * @param attributes the attribute paths to select, the ids of the to-one associations being read from their foreign keys.
+     * @return a tuple of the attributes for each reminder, aliased by their paths.
+     */
+    List<Tuple> findAllAttributes(Specification<Reminder> specification, Pageable pageable, List<String> attributes);
+}
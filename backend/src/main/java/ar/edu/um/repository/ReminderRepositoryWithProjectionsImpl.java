@@ -0,0 +1,71 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.Reminder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Utility repository to select the attributes of a sparse fieldset only, instead of the whole entities.
+ */
+public class ReminderRepositoryWithProjectionsImpl implements ReminderRepositoryWithProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findAllAttributes(Specification<Reminder> specification, Pageable pageable, List<String> attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Reminder> root = query.from(Reminder.class);
+        // the sort properties are selected too, as a distinct query can only be ordered by its selection
+        Map<String, Path<?>> selected = new LinkedHashMap<>();
+        attributes.forEach(attribute -> selected.put(attribute, path(root, attribute)));
+        pageable.getSort().forEach(order -> selected.computeIfAbsent(order.getProperty(), property -> path(root, property)));
+        List<Selection<?>> selections = selected
+            .entrySet()
+            .stream()
+            .<Selection<?>>map(attribute -> attribute.getValue().alias(attribute.getKey()))
+            .toList();
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // ordered by the same paths, without joining the associations again
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            Path<?> path = selected.get(order.getProperty());
+            orders.add(order.isAscending() ? builder.asc(path) : builder.desc(path));
+        }
+        query.orderBy(orders);
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private static Path<?> path(Root<Reminder> root, String attribute) {
+        Path<?> path = root;
+        for (String name : attribute.split("\\.")) {
+            path = path.get(name);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,67 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.ReminderTombstone;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link ReminderTombstone} entity.
+ */
+@Repository
+public interface ReminderTombstoneRepository extends JpaRepository<ReminderTombstone, Long> {
+    /**
+     * Query space of the native statements, so that they do not invalidate the whole second level cache.
+     */
+    String REMINDER_TOMBSTONE_SPACE = "reminder_tombstone";
+
+    /**
+     * Add the tombstone of a reminder about to be deleted, with the next change sequence. The owner of the reminder is
+     * returned by the same statement, to tell them about the deletion without loading the reminder.
+     *
+     * @return the id of the owner, empty if the reminder does not exist or has no owner.
+     */
+    @Query(
+        value = "insert into reminder_tombstone (reminder_id, change_seq, deleted_date)" +
+        " select id, nextval('" + ReminderRepository.CHANGE_SEQUENCE + "'), :now from reminder where id = :id" +
+        " returning (select reminder.user_id from reminder where reminder.id = reminder_tombstone.reminder_id)",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REMINDER_TOMBSTONE_SPACE))
+    Optional<Long> insertForReminder(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Add the tombstones of reminders about to be deleted in a single statement, see {@link #insertForReminder(Long, Instant)}.
+     */
+    @Modifying
+    @Query(
+        value = "insert into reminder_tombstone (reminder_id, change_seq, deleted_date)" +
+        " select id, nextval('" + ReminderRepository.CHANGE_SEQUENCE + "'), :now from reminder where id in (:ids)",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = REMINDER_TOMBSTONE_SPACE))
+    int insertForReminders(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * The tombstones after a change sequence, in change sequence order. Served by the {@code change_seq} index.
+     */
+    @Query("select tombstone from ReminderTombstone tombstone where tombstone.changeSeq > :since order by tombstone.changeSeq")
+    List<ReminderTombstone> findChangedSince(@Param("since") long since, Pageable pageable);
+
+    /**
+     * Compact the tombstones of the reminders deleted before a date.
+     */
+    @Modifying
+    @Query("delete from ReminderTombstone tombstone where tombstone.deletedDate < :before")
+    int deleteDeletedBefore(@Param("before") Instant before);
+}
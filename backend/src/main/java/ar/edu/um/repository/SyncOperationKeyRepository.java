@@ -0,0 +1,53 @@
+package ar.edu.um.repository;
+
+import ar.edu.um.domain.SyncOperationKey;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link SyncOperationKey} entity.
+ */
+@Repository
+public interface SyncOperationKeyRepository extends JpaRepository<SyncOperationKey, Long> {
+    /**
+     * Query space of the native statements, so that they do not invalidate the whole second level cache.
+     */
+    String SYNC_OPERATION_KEY_SPACE = "sync_operation_key";
+
+    List<SyncOperationKey> findAllByLoginAndIdempotencyKeyIn(String login, Collection<String> idempotencyKeys);
+
+    Optional<SyncOperationKey> findOneByLoginAndIdempotencyKey(String login, String idempotencyKey);
+
+    /**
+     * Claim the idempotency key of an operation, without its result which is written once the operation is applied. If
+     * the key is being claimed by another transaction, this waits for it to end.
+     *
+     * @return {@code 0} if the key was already claimed by a committed transaction.
+     */
+    @Modifying
+    @Query(
+        value = "insert into sync_operation_key (id, login, idempotency_key, created_date)" +
+        " values (nextval('sequence_generator'), :login, :idempotencyKey, :now)" +
+        " on conflict (login, idempotency_key) do nothing",
+        nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SYNC_OPERATION_KEY_SPACE))
+    int claim(@Param("login") String login, @Param("idempotencyKey") String idempotencyKey, @Param("now") Instant now);
+
+    /**
+     * Purge the keys claimed before a date.
+     */
+    @Modifying
+    @Query("delete from SyncOperationKey syncOperationKey where syncOperationKey.createdDate < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
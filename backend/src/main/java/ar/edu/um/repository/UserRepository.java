@@ -1,13 +1,21 @@
 package ar.edu.um.repository;
 
 import ar.edu.um.domain.User;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,8 +26,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    String USERS_BY_ID_CACHE = "usersById";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+
+    /**
+     * A chunk of the not activated users created before {@code dateTime}, after the {@code afterId} cursor in id order.
+     */
+    @Query(
+        "select u.id as id, u.login as login, u.email as email from User u" +
+        " where u.activated = false and u.activationKey is not null and u.createdDate < :dateTime and u.id > :afterId order by u.id"
+    )
+    List<UserKeys> findNotActivatedUserKeys(@Param("dateTime") Instant dateTime, @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Bulk delete, the authorities of the users are removed from the join table along with them.
+     */
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
@@ -28,9 +54,78 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, unless = "#result == null")
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    @EntityGraph(attributePaths = "authorities")
+    @Cacheable(cacheNames = USERS_BY_ID_CACHE, unless = "#result == null")
+    Optional<User> findOneWithAuthoritiesById(Long id);
+
     @EntityGraph(attributePaths = "authorities")
     @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, unless = "#result == null")
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
-    Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+    Slice<User> findSliceBy(Pageable pageable);
+
+    /**
+     * Second phase of the admin listing: the authorities of a page of users, read from the join table in one query.
+     */
+    @Query("select u.id as userId, a.name as authority from User u join u.authorities a where u.id in :ids")
+    List<UserAuthority> findAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The ids among {@code ids} of the users which exist.
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The time zones of users, in which their recurring reminders are expanded.
+     */
+    @Query("select u.id as id, u.timeZone as timeZone from User u where u.id in :ids")
+    List<UserTimeZone> findTimeZonesByIdIn(@Param("ids") Collection<Long> ids);
+
+    Page<PublicUser> findAllByActivatedIsTrue(Pageable pageable);
+
+    Slice<PublicUser> findSliceByActivatedIsTrue(Pageable pageable);
+
+    /**
+     * The keys of the user caches.
+     */
+    interface UserKeys {
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+    }
+
+    interface UserAuthority {
+        Long getUserId();
+
+        String getAuthority();
+    }
+
+    interface UserTimeZone {
+        Long getId();
+
+        String getTimeZone();
+
+        /**
+         * The time zone of the user, UTC if they have none or it is not known to this JVM.
+         */
+        default ZoneId getZoneId() {
+            try {
+                return getTimeZone() != null ? ZoneId.of(getTimeZone()) : ZoneOffset.UTC;
+            } catch (DateTimeException e) {
+                return ZoneOffset.UTC;
+            }
+        }
+    }
+
+    /**
+     * Only the public columns of a user.
+     */
+    interface PublicUser {
+        Long getId();
+
+        String getLogin();
+    }
 }
@@ -3,6 +3,7 @@ package ar.edu.um.repository.search;
 import ar.edu.um.domain.Reminder;
 import ar.edu.um.repository.ReminderRepository;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -11,6 +12,8 @@ import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.scheduling.annotation.Async;
@@ -23,6 +26,11 @@ public interface ReminderSearchRepository extends ElasticsearchRepository<Remind
 interface ReminderSearchRepositoryInternal {
     Page<Reminder> search(String query, Pageable pageable);
 
+    /**
+     * Search for the reminders corresponding to the query, fetching only some fields of their documents.
+     */
+    Page<Reminder> search(String query, Pageable pageable, Collection<String> includes);
+
     Page<Reminder> search(Query query);
 
     @Async
@@ -30,6 +38,18 @@ interface ReminderSearchRepositoryInternal {
 
     @Async
     void deleteFromIndexById(Long id);
+
+    /**
+     * Index reminders in a single bulk request.
+     */
+    @Async
+    void indexAll(Collection<Long> ids);
+
+    /**
+     * Remove reminders from the index in a single request.
+     */
+    @Async
+    void deleteAllFromIndexById(Collection<Long> ids);
 }
 
 class ReminderSearchRepositoryInternalImpl implements ReminderSearchRepositoryInternal {
@@ -48,6 +68,13 @@ class ReminderSearchRepositoryInternalImpl implements ReminderSearchRepositoryIn
         return search(nativeQuery.setPageable(pageable));
     }
 
+    @Override
+    public Page<Reminder> search(String query, Pageable pageable, Collection<String> includes) {
+        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        nativeQuery.addSourceFilter(FetchSourceFilter.of(filter -> filter.withIncludes(includes.toArray(String[]::new))));
+        return search(nativeQuery.setPageable(pageable));
+    }
+
     @Override
     public Page<Reminder> search(Query query) {
         SearchHits<Reminder> searchHits = elasticsearchTemplate.search(query, Reminder.class);
@@ -64,4 +91,18 @@ class ReminderSearchRepositoryInternalImpl implements ReminderSearchRepositoryIn
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), Reminder.class);
     }
+
+    @Override
+    public void indexAll(Collection<Long> ids) {
+        List<Reminder> reminders = repository.fetchBagRelationships(repository.findAllById(ids));
+        if (!reminders.isEmpty()) {
+            elasticsearchTemplate.save(reminders);
+        }
+    }
+
+    @Override
+    public void deleteAllFromIndexById(Collection<Long> ids) {
+        List<String> documentIds = ids.stream().map(String::valueOf).toList();
+        elasticsearchTemplate.delete(DeleteQuery.builder(NativeQuery.builder().withIds(documentIds).build()).build(), Reminder.class);
+    }
 }
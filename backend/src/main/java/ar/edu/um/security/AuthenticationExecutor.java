@@ -0,0 +1,101 @@
+package ar.edu.um.security;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.management.SecurityMetersService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs credential verification on a dedicated, bounded pool.
+ * <p>
+ * BCrypt verification is CPU bound: running it on the web workers lets a login burst starve every other request.
+ * Verifications are limited to a fixed number of threads (by default one per core) with a small waiting queue,
+ * and requests arriving when both are full are rejected immediately with an {@link AuthenticationOverloadedException}.
+ * <p>
+ * The calling thread still waits for its verification, so a web worker is held for the duration of the hash: the gain is
+ * that at most the pool size of hashes compete for the cores, and that the excess is shed quickly instead of queueing on
+ * the workers. Verifications run outside the caller's transaction, so they only see committed users.
+ */
+@Component
+public class AuthenticationExecutor implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuthenticationExecutor.class);
+
+    private final ThreadPoolTaskExecutor executor;
+
+    private final SecurityMetersService metersService;
+
+    private final int retryAfterSeconds;
+
+    public AuthenticationExecutor(ApplicationProperties applicationProperties, SecurityMetersService metersService) {
+        ApplicationProperties.Security.Authentication properties = applicationProperties.getSecurity().getAuthentication();
+        this.metersService = metersService;
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(properties.getConcurrency());
+        this.executor.setMaxPoolSize(properties.getConcurrency());
+        this.executor.setQueueCapacity(properties.getQueueCapacity());
+        this.executor.setThreadNamePrefix("reminders-authentication-");
+        this.executor.setDaemon(true);
+        this.executor.initialize();
+        LOG.debug(
+            "Created authentication executor with {} threads and a queue of {}",
+            properties.getConcurrency(),
+            properties.getQueueCapacity()
+        );
+    }
+
+    /**
+     * Authenticate the given token with the given manager on the verification pool, blocking until it completes.
+     *
+     * @param authenticationManager the manager doing the actual verification.
+     * @param authenticationToken the credentials to verify.
+     * @return the authenticated token.
+     * @throws AuthenticationOverloadedException if the pool is saturated.
+     */
+    public Authentication authenticate(AuthenticationManager authenticationManager, Authentication authenticationToken) {
+        long enqueuedAt = System.nanoTime();
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> verify(authenticationManager, authenticationToken, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            metersService.trackAuthenticationRejected();
+            throw new AuthenticationOverloadedException(retryAfterSeconds);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new AuthenticationOverloadedException(retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Authentication verify(AuthenticationManager authenticationManager, Authentication authenticationToken, long enqueuedAt) {
+        long startedAt = System.nanoTime();
+        metersService.recordAuthenticationQueueWait(startedAt - enqueuedAt);
+        try {
+            return authenticationManager.authenticate(authenticationToken);
+        } finally {
+            metersService.recordAuthenticationHashTime(System.nanoTime() - startedAt);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
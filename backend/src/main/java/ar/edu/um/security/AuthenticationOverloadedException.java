@@ -0,0 +1,20 @@
+package ar.edu.um.security;
+
+/**
+ * This exception is thrown when the password verification pool cannot accept another authentication request.
+ */
+public class AuthenticationOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int retryAfterSeconds;
+
+    public AuthenticationOverloadedException(int retryAfterSeconds) {
+        super("Too many concurrent authentication requests");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package ar.edu.um.security;
+
+import java.util.Set;
+
+/**
+ * The authenticated user of the current request, as carried by its token.
+ * <p>
+ * Built from the security context without any database access, see {@link SecurityUtils#getCurrentUser()}.
+ *
+ * @param id the id of the user, {@code null} if the authentication does not carry it (e.g. in tests using a mock user).
+ * @param login the login of the user.
+ * @param authorities the authorities granted to the user.
+ */
+public record CurrentUser(Long id, String login, Set<String> authorities) {
+    public boolean hasAuthority(String authority) {
+        return authorities.contains(authority);
+    }
+}
@@ -0,0 +1,181 @@
+package ar.edu.um.security;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.management.SecurityMetersService;
+import io.micrometer.core.instrument.Counter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process token bucket rate limiter for the anonymous authentication and registration endpoints.
+ * <p>
+ * Each configured endpoint has one bucket per client IP and one per login. Buckets live in {@link ConcurrentHashMap}s,
+ * whose bins are locked independently, and are updated with a single compare-and-set, so the hot path never blocks.
+ * Buckets which have been idle (and are therefore full again) are evicted periodically to bound memory.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final Map<String, EndpointLimiter> endpoints;
+
+    private final long idleTimeoutMillis;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimiter(ApplicationProperties applicationProperties, SecurityMetersService metersService) {
+        this(applicationProperties, metersService, monotonicMillis());
+    }
+
+    RateLimiter(ApplicationProperties applicationProperties, SecurityMetersService metersService, LongSupplier clock) {
+        ApplicationProperties.Security.RateLimit properties = applicationProperties.getSecurity().getRateLimit();
+        this.clock = clock;
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(properties.getIdleTimeoutSeconds());
+        Map<String, EndpointLimiter> limiters = new HashMap<>();
+        if (properties.isEnabled()) {
+            for (ApplicationProperties.Security.RateLimit.Endpoint endpoint : properties.getEndpoints()) {
+                limiters.put(endpoint.getPath(), new EndpointLimiter(endpoint, metersService));
+            }
+        }
+        this.endpoints = Map.copyOf(limiters);
+        LOG.debug("Rate limiting {} endpoints", endpoints.size());
+    }
+
+    /**
+     * Get the limiter of the given endpoint.
+     *
+     * @param path the request path, without the context path.
+     * @return the limiter, or empty if the endpoint is not rate limited.
+     */
+    public Optional<EndpointLimiter> forPath(String path) {
+        return Optional.ofNullable(endpoints.get(path));
+    }
+
+    /**
+     * Evict idle buckets.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (EndpointLimiter endpoint : endpoints.values()) {
+            evicted += endpoint.ip.evictIdle(now, idleTimeoutMillis);
+            evicted += endpoint.login.evictIdle(now, idleTimeoutMillis);
+        }
+        if (evicted > 0) {
+            LOG.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    int bucketCount() {
+        return endpoints.values().stream().mapToInt(endpoint -> endpoint.ip.buckets.size() + endpoint.login.buckets.size()).sum();
+    }
+
+    private static LongSupplier monotonicMillis() {
+        long origin = System.nanoTime();
+        return () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    /**
+     * The buckets of one endpoint.
+     */
+    public final class EndpointLimiter {
+
+        private final String loginField;
+
+        private final KeyedBuckets ip;
+
+        private final KeyedBuckets login;
+
+        private EndpointLimiter(ApplicationProperties.Security.RateLimit.Endpoint endpoint, SecurityMetersService metersService) {
+            this.loginField = endpoint.getLoginField();
+            this.ip = new KeyedBuckets(endpoint.getIp(), metersService.rateLimitRejectedCounter(endpoint.getPath(), "ip"));
+            this.login = new KeyedBuckets(endpoint.getLogin(), metersService.rateLimitRejectedCounter(endpoint.getPath(), "login"));
+        }
+
+        /**
+         * @return the JSON field of the request body holding the login, or {@code null} if the whole body is the login.
+         */
+        public String getLoginField() {
+            return loginField;
+        }
+
+        public boolean isLoginLimited() {
+            return login.isLimited();
+        }
+
+        /**
+         * Take a token from the bucket of the given client address.
+         *
+         * @return {@code 0} if the request is allowed, otherwise the number of seconds to wait before retrying.
+         */
+        public long tryAcquireIp(String address) {
+            return ip.tryAcquire(address, clock.getAsLong());
+        }
+
+        /**
+         * Take a token from the bucket of the given login, which is expected to be normalized by the caller.
+         *
+         * @return {@code 0} if the request is allowed, otherwise the number of seconds to wait before retrying.
+         */
+        public long tryAcquireLogin(String key) {
+            return login.tryAcquire(key, clock.getAsLong());
+        }
+    }
+
+    private static final class KeyedBuckets {
+
+        private final int capacity;
+
+        private final int refillPerMinute;
+
+        private final Counter rejected;
+
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private KeyedBuckets(ApplicationProperties.Security.RateLimit.Limit limit, Counter rejected) {
+            this.capacity = Math.min(limit.getCapacity(), TokenBucket.MAX_CAPACITY);
+            this.refillPerMinute = limit.getRefillPerMinute();
+            this.rejected = rejected;
+        }
+
+        private boolean isLimited() {
+            return capacity > 0;
+        }
+
+        private long tryAcquire(String key, long now) {
+            if (!isLimited() || key == null) {
+                return 0;
+            }
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute, now));
+            }
+            long waitMillis = bucket.tryConsume(now);
+            if (waitMillis == 0) {
+                return 0;
+            }
+            rejected.increment();
+            return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(Math.min(waitMillis, TimeUnit.DAYS.toMillis(1)) + 999));
+        }
+
+        private int evictIdle(long now, long idleMillis) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleMillis));
+            return before - buckets.size();
+        }
+    }
+}
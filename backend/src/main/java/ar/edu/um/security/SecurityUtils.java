@@ -1,8 +1,11 @@
 package ar.edu.um.security;
 
+import ar.edu.um.security.DomainUserDetailsService.UserWithId;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
@@ -11,6 +14,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.ClaimAccessor;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * Utility class for Spring Security.
@@ -23,8 +28,60 @@ public final class SecurityUtils {
 
     public static final String USER_ID_CLAIM = "userId";
 
+    private static final String CURRENT_USER_ATTRIBUTE = SecurityUtils.class.getName() + ".CURRENT_USER";
+
     private SecurityUtils() {}
 
+    /**
+     * Get the current user from the claims of its token, without any database access.
+     * <p>
+     * The result is memoized in the current request, if any, for as long as its authentication does not change.
+     *
+     * @return the current user, or empty if the request is not authenticated.
+     */
+    public static Optional<CurrentUser> getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (
+            requestAttributes != null &&
+            requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CurrentUserHolder holder &&
+            holder.authentication() == authentication
+        ) {
+            return Optional.of(holder.currentUser());
+        }
+        String login = extractPrincipal(authentication);
+        if (login == null) {
+            return Optional.empty();
+        }
+        CurrentUser currentUser = new CurrentUser(
+            extractUserId(authentication),
+            login,
+            getAuthorities(authentication).collect(Collectors.toUnmodifiableSet())
+        );
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(
+                CURRENT_USER_ATTRIBUTE,
+                new CurrentUserHolder(authentication, currentUser),
+                RequestAttributes.SCOPE_REQUEST
+            );
+        }
+        return Optional.of(currentUser);
+    }
+
+    private static Long extractUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserWithId user) {
+            return user.getId();
+        } else if (authentication.getPrincipal() instanceof ClaimAccessor claims && claims.getClaim(USER_ID_CLAIM) instanceof Number id) {
+            return id.longValue();
+        }
+        return null;
+    }
+
+    private record CurrentUserHolder(Authentication authentication, CurrentUser currentUser) {}
+
     /**
      * Get the login of the current user.
      *
@@ -0,0 +1,82 @@
+package ar.edu.um.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket.
+ * <p>
+ * The whole state fits in a single {@code long} updated with compare-and-set: the upper 40 bits hold the time of the
+ * last refill (in milliseconds relative to the owner's origin) and the lower 24 bits hold the available tokens, in
+ * thousandths of a token so slow refill rates do not lose precision.
+ */
+final class TokenBucket {
+
+    private static final int TOKEN_BITS = 24;
+
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private static final long TOKEN = 1000;
+
+    /**
+     * Elapsed time is capped to avoid overflowing the refill computation, any bucket is full again after a day.
+     */
+    private static final long MAX_ELAPSED_MILLIS = 86_400_000L;
+
+    static final int MAX_CAPACITY = (int) (TOKEN_MASK / TOKEN);
+
+    private final long capacity;
+
+    private final int refillPerMinute;
+
+    private final AtomicLong state;
+
+    TokenBucket(int capacity, int refillPerMinute, long nowMillis) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Token bucket capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = capacity * TOKEN;
+        this.refillPerMinute = Math.max(0, refillPerMinute);
+        this.state = new AtomicLong(pack(nowMillis, this.capacity));
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @param nowMillis the current time, relative to the same origin as the creation time.
+     * @return {@code 0} if a token was taken, otherwise the number of milliseconds until one is available.
+     */
+    long tryConsume(long nowMillis) {
+        while (true) {
+            long current = state.get();
+            long stored = current & TOKEN_MASK;
+            long tokens = refilled(current, nowMillis);
+            if (tokens < TOKEN) {
+                return refillPerMinute == 0 ? Long.MAX_VALUE : ((TOKEN - tokens) * 60 + refillPerMinute - 1) / refillPerMinute;
+            }
+            // only move the refill time forward once it produced something, so frequent calls keep accumulating fractions
+            long refillTime = tokens > stored || stored == capacity ? nowMillis : current >>> TOKEN_BITS;
+            if (state.compareAndSet(current, pack(refillTime, tokens - TOKEN))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the bucket has been full again for at least {@code idleMillis}, so dropping it loses nothing.
+     */
+    boolean isIdle(long nowMillis, long idleMillis) {
+        long current = state.get();
+        return nowMillis - (current >>> TOKEN_BITS) >= idleMillis && refilled(current, nowMillis) >= capacity;
+    }
+
+    private long refilled(long current, long nowMillis) {
+        long tokens = current & TOKEN_MASK;
+        long elapsed = Math.min(MAX_ELAPSED_MILLIS, Math.max(0, nowMillis - (current >>> TOKEN_BITS)));
+        // milliseconds * tokens per minute / 60 gives thousandths of a token
+        return Math.min(capacity, tokens + (elapsed * refillPerMinute) / 60);
+    }
+
+    private static long pack(long timeMillis, long tokens) {
+        return (timeMillis << TOKEN_BITS) | tokens;
+    }
+}
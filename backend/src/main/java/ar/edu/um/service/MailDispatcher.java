@@ -0,0 +1,403 @@
+package ar.edu.um.service;
+
+import ar.edu.um.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+/**
+ * Queue of the outgoing emails, sent in batches over pooled SMTP connections.
+ * <p>
+ * {@link JavaMailSender#send(MimeMessage)} opens and closes a connection for every message. Here each of the configured
+ * connections is owned by one sender thread, which takes a batch of messages from the queue and sends them one at a time
+ * over the same connection, so that the server never sees more than one message in flight per connection. Connections
+ * are recycled after a number of messages and closed when idle.
+ * <p>
+ * Messages rejected with a transient error are queued again after an exponential backoff, until the maximum number of
+ * attempts; permanent errors (5xx replies) are not retried. When the queue is full, or when the sender is not a
+ * {@link JavaMailSenderImpl}, the message is sent directly on the caller thread. Either way the caller gets a future of
+ * the delivery.
+ */
+@Service
+public class MailDispatcher implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailDispatcher.class);
+
+    public static final String MESSAGES_METER_NAME = "mail.dispatch.messages";
+
+    public static final String QUEUED_METER_NAME = "mail.dispatch.queued";
+
+    public static final String CONNECTIONS_METER_NAME = "mail.dispatch.connections";
+
+    private static final long POLL_MILLIS = 500;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JavaMailSenderImpl pooledSender;
+
+    private final BlockingQueue<OutgoingMail> queue;
+
+    private final int batchSize;
+
+    private final int messagesPerConnection;
+
+    private final long idleTimeoutMillis;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter connectionsCounter;
+
+    private final List<Thread> senders = new ArrayList<>();
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private volatile boolean running = true;
+
+    public MailDispatcher(JavaMailSender javaMailSender, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.MailDispatch properties = applicationProperties.getMailDispatch();
+        this.javaMailSender = javaMailSender;
+        this.pooledSender = properties.isEnabled() && javaMailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.messagesPerConnection = Math.max(1, properties.getMessagesPerConnection());
+        this.idleTimeoutMillis = properties.getIdleTimeoutMillis();
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.initialBackoffMillis = properties.getInitialBackoffMillis();
+        this.maxBackoffMillis = properties.getMaxBackoffMillis();
+        this.sentCounter = messagesCounter(meterRegistry, "sent");
+        this.retriedCounter = messagesCounter(meterRegistry, "retried");
+        this.failedCounter = messagesCounter(meterRegistry, "failed");
+        this.connectionsCounter = Counter.builder(CONNECTIONS_METER_NAME)
+            .description("Number of SMTP connections opened to send emails")
+            .register(meterRegistry);
+        Gauge.builder(QUEUED_METER_NAME, queue, BlockingQueue::size)
+            .description("Number of emails waiting to be sent")
+            .register(meterRegistry);
+        if (pooledSender == null) {
+            this.retryScheduler = null;
+            return;
+        }
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatch-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < Math.max(1, properties.getConnections()); i++) {
+            Thread sender = new Thread(this::run, "mail-dispatch-" + i);
+            sender.setDaemon(true);
+            sender.start();
+            senders.add(sender);
+        }
+    }
+
+    private static Counter messagesCounter(MeterRegistry meterRegistry, String status) {
+        return Counter.builder(MESSAGES_METER_NAME)
+            .description("Number of emails handled by the mail dispatcher, by status")
+            .tag("status", status)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a message, or send it directly when it cannot be queued.
+     *
+     * @return the delivery of the message, which fails with a {@link org.springframework.mail.MailException} once the
+     * message is not retried anymore.
+     */
+    public CompletableFuture<Void> send(MimeMessage message) {
+        if (pooledSender == null || !running) {
+            return sendDirectly(message);
+        }
+        try {
+            prepare(message);
+        } catch (MessagingException e) {
+            failedCounter.increment();
+            return CompletableFuture.failedFuture(new MailPreparationException(e));
+        }
+        OutgoingMail mail = new OutgoingMail(message);
+        if (!queue.offer(mail)) {
+            LOG.debug("Mail dispatch queue is full, sending email on the caller thread");
+            return sendDirectly(message);
+        }
+        return mail.result;
+    }
+
+    int getQueued() {
+        return queue.size();
+    }
+
+    private CompletableFuture<Void> sendDirectly(MimeMessage message) {
+        try {
+            javaMailSender.send(message);
+            sentCounter.increment();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Same as {@link JavaMailSenderImpl#send(MimeMessage...)}, which {@link Transport#sendMessage} does not do.
+     */
+    private static void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private void run() {
+        PooledConnection connection = new PooledConnection();
+        List<OutgoingMail> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                OutgoingMail first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    connection.closeIfIdle();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (OutgoingMail mail : batch) {
+                    deliver(connection, mail);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void deliver(PooledConnection connection, OutgoingMail mail) {
+        mail.attempts++;
+        boolean reused = connection.isOpen();
+        try {
+            connection.send(mail.message);
+            sentCounter.increment();
+            mail.result.complete(null);
+            return;
+        } catch (MessagingException e) {
+            connection.close();
+            if (reused && !(e instanceof SendFailedException)) {
+                // the server may have closed the connection meanwhile, try once more on a new one
+                try {
+                    connection.send(mail.message);
+                    sentCounter.increment();
+                    mail.result.complete(null);
+                    return;
+                } catch (MessagingException retryException) {
+                    connection.close();
+                    e = retryException;
+                }
+            }
+            handleFailure(mail, e);
+        }
+    }
+
+    private void handleFailure(OutgoingMail mail, MessagingException e) {
+        if (isPermanent(e) || mail.attempts >= maxAttempts || !running) {
+            failedCounter.increment();
+            LOG.warn("Email could not be sent after {} attempts: {}", mail.attempts, e.getMessage());
+            mail.result.completeExceptionally(new MailSendException("Email could not be sent after " + mail.attempts + " attempts", e));
+            return;
+        }
+        long delayMillis = backoffMillis(mail.attempts);
+        LOG.debug("Failed to send email, retrying in {} ms: {}", delayMillis, e.getMessage());
+        retriedCounter.increment();
+        retryScheduler.schedule(
+            () -> {
+                if (!queue.offer(mail)) {
+                    failedCounter.increment();
+                    LOG.warn("Email could not be queued again for a retry, the mail dispatch queue is full");
+                    mail.result.completeExceptionally(new MailSendException("Mail dispatch queue is full", e));
+                }
+            },
+            delayMillis,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    long backoffMillis(int attempts) {
+        long delay = initialBackoffMillis << Math.min(attempts - 1, 30);
+        return delay < 0 ? maxBackoffMillis : Math.min(maxBackoffMillis, delay);
+    }
+
+    /**
+     * A 5xx reply means the server will reject the message again, as does a message which cannot be prepared.
+     */
+    static boolean isPermanent(Throwable e) {
+        if (e instanceof MailPreparationException) {
+            return true;
+        }
+        if (e instanceof MailSendException sendException) {
+            if (sendException.getFailedMessages().values().stream().anyMatch(MailDispatcher::isPermanent)) {
+                return true;
+            }
+            return sendException.getCause() != null && isPermanent(sendException.getCause());
+        }
+        for (Throwable cause = e; cause != null; ) {
+            if (cause instanceof SMTPSendFailedException failed && failed.getReturnCode() >= 500) {
+                return true;
+            }
+            if (cause instanceof SMTPAddressFailedException failed && failed.getReturnCode() >= 500) {
+                return true;
+            }
+            cause = cause instanceof MessagingException messagingException ? messagingException.getNextException() : null;
+        }
+        return false;
+    }
+
+    /**
+     * Stop accepting messages and give the senders a few seconds to flush the queue; pending retries are lost.
+     */
+    @Override
+    public void destroy() {
+        running = false;
+        if (retryScheduler != null) {
+            int pendingRetries = retryScheduler.shutdownNow().size();
+            if (pendingRetries > 0) {
+                failedCounter.increment(pendingRetries);
+            }
+        }
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+        try {
+            for (Thread sender : senders) {
+                sender.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<OutgoingMail> lost = new ArrayList<>();
+        queue.drainTo(lost);
+        if (!lost.isEmpty()) {
+            failedCounter.increment(lost.size());
+            LOG.warn("{} emails were not sent before shutdown", lost.size());
+            lost.forEach(mail -> mail.result.completeExceptionally(new MailSendException("Email was not sent before shutdown")));
+        }
+    }
+
+    private static final class OutgoingMail {
+
+        private final MimeMessage message;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private int attempts;
+
+        private OutgoingMail(MimeMessage message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * The connection of one sender thread.
+     */
+    private final class PooledConnection {
+
+        private Transport transport;
+
+        private int sent;
+
+        private long lastUsedMillis;
+
+        boolean isOpen() {
+            return transport != null;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            if (transport != null && sent >= messagesPerConnection) {
+                close();
+            }
+            if (transport == null) {
+                open();
+            }
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+            lastUsedMillis = System.currentTimeMillis();
+        }
+
+        private void open() throws MessagingException {
+            // same defaults as JavaMailSenderImpl#getTransport
+            String protocol = pooledSender.getProtocol();
+            if (protocol == null) {
+                protocol = pooledSender.getSession().getProperty("mail.transport.protocol");
+                if (protocol == null) {
+                    protocol = JavaMailSenderImpl.DEFAULT_PROTOCOL;
+                }
+            }
+            Transport candidate = pooledSender.getSession().getTransport(protocol);
+            String username = pooledSender.getUsername();
+            String password = pooledSender.getPassword();
+            if ("".equals(username)) {
+                username = null;
+                if ("".equals(password)) {
+                    password = null;
+                }
+            }
+            candidate.connect(pooledSender.getHost(), pooledSender.getPort(), username, password);
+            connectionsCounter.increment();
+            transport = candidate;
+            sent = 0;
+            lastUsedMillis = System.currentTimeMillis();
+        }
+
+        void closeIfIdle() {
+            if (transport != null && System.currentTimeMillis() - lastUsedMillis >= idleTimeoutMillis) {
+                close();
+            }
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                LOG.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package ar.edu.um.service;
+
+import static ar.edu.um.service.util.TransactionUtils.afterCommit;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.MailOutbox;
+import ar.edu.um.repository.MailOutboxRepository;
+import ar.edu.um.service.util.WakeableWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Persistent outbox of the emails.
+ * <p>
+ * Emails are written in the transaction of the caller, so they only exist once it commits, and at most once per delivery
+ * key: enqueueing the same email twice, for example when a reminder notification is retried, adds it once. Enqueueing
+ * never waits on SMTP, and emails survive restarts.
+ * <p>
+ * Every node runs a worker, which claims batches of pending emails with {@code SELECT ... FOR UPDATE SKIP LOCKED} and hands
+ * them to the {@link MailDispatcher}. A claim is a lease: the emails claimed by a node which stops before recording their
+ * delivery are claimed again once it expires, and sent with the same {@code Message-ID}. The worker stops claiming while
+ * the maximum number of emails are in flight, and the emails the dispatcher gives up on are retried later with a backoff,
+ * unless the server rejected them permanently.
+ */
+@Service
+public class MailOutboxService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailOutboxService.class);
+
+    static final String MAILS_METER_NAME = "mail.outbox.mails";
+
+    static final String IN_FLIGHT_METER_NAME = "mail.outbox.in.flight";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final MailDispatcher mailDispatcher;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+
+    private final WakeableWorker worker;
+
+    private long nextPurgeMillis;
+
+    private final Counter queued;
+
+    private final Counter duplicates;
+
+    private final Counter sent;
+
+    private final Counter retried;
+
+    private final Counter failed;
+
+    public MailOutboxService(
+        MailOutboxRepository mailOutboxRepository,
+        MailDispatcher mailDispatcher,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailDispatcher = mailDispatcher;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMailOutbox();
+        this.queued = mailsCounter(meterRegistry, "queued");
+        this.duplicates = mailsCounter(meterRegistry, "duplicate");
+        this.sent = mailsCounter(meterRegistry, "sent");
+        this.retried = mailsCounter(meterRegistry, "retried");
+        this.failed = mailsCounter(meterRegistry, "failed");
+        Gauge.builder(IN_FLIGHT_METER_NAME, inFlight, AtomicInteger::get)
+            .description("Number of emails claimed by this node and not sent yet")
+            .register(meterRegistry);
+        this.worker = new WakeableWorker("mail-outbox-worker", properties::getPollIntervalMillis, this::processBatch);
+    }
+
+    private static Counter mailsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(MAILS_METER_NAME)
+            .description("Emails of the outbox, by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Add an email to the outbox, in the current transaction if any. It is sent once the transaction commits.
+     *
+     * @param deliveryKey identifies the email: an email whose key is already in the outbox is not added again.
+     * @return {@code false} if the email is a duplicate.
+     */
+    @Transactional
+    public boolean enqueue(String deliveryKey, String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        if (mailOutboxRepository.insertIfAbsent(deliveryKey, to, subject, content, isMultipart, isHtml, Instant.now()) == 0) {
+            LOG.debug("Email '{}' is already in the outbox", deliveryKey);
+            duplicates.increment();
+            return false;
+        }
+        queued.increment();
+        afterCommit(this::wakeUp);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            LOG.debug("Mail outbox is disabled");
+            return;
+        }
+        worker.start();
+    }
+
+    /**
+     * Claim without waiting for the poll interval, when emails were added or sent.
+     */
+    void wakeUp() {
+        worker.wakeUp();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private boolean processBatch() {
+        recordDeliveries();
+        purgeSentMails();
+        return claimBatch();
+    }
+
+    /**
+     * Claim a batch of pending emails and hand them to the mail dispatcher.
+     *
+     * @return {@code true} if the batch was full, so more emails are probably pending.
+     */
+    boolean claimBatch() {
+        int limit = Math.min(properties.getBatchSize(), properties.getMaxInFlight() - inFlight.get());
+        if (limit <= 0) {
+            return false;
+        }
+        Instant now = Instant.now();
+        Instant leaseExpiresAt = now.plusSeconds(properties.getLeaseSeconds());
+        List<MailOutbox> mails = transactionTemplate.execute(status -> {
+            List<Long> ids = mailOutboxRepository.lockClaimable(now, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            mailOutboxRepository.claim(ids, leaseExpiresAt);
+            return mailOutboxRepository.findAllById(ids);
+        });
+        for (MailOutbox mail : mails) {
+            send(mail);
+        }
+        return mails.size() == limit;
+    }
+
+    private void send(MailOutbox mail) {
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> delivery;
+        try {
+            MimeMessage message = MailService.createMimeMessage(
+                javaMailSender,
+                jHipsterProperties.getMail().getFrom(),
+                mail.getRecipient(),
+                mail.getSubject(),
+                mail.getContent(),
+                mail.getMultipart(),
+                mail.getHtml()
+            );
+            message.setHeader("Message-ID", messageId(mail.getDeliveryKey()));
+            delivery = mailDispatcher.send(message);
+        } catch (MessagingException e) {
+            delivery = CompletableFuture.failedFuture(new MailPreparationException(e));
+        } catch (RuntimeException e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+        delivery.whenComplete((result, error) -> {
+            deliveries.add(new Delivery(mail.getId(), mail.getAttempts(), error));
+            inFlight.decrementAndGet();
+            wakeUp();
+        });
+    }
+
+    /**
+     * Same for every attempt, so that the recipients can recognize an email sent again after its claim expired.
+     */
+    private String messageId(String deliveryKey) {
+        String from = jHipsterProperties.getMail().getFrom();
+        String domain = from != null && from.contains("@") ? from.substring(from.lastIndexOf('@') + 1) : "localhost";
+        return "<" + UUID.nameUUIDFromBytes(deliveryKey.getBytes(StandardCharsets.UTF_8)) + ".outbox@" + domain + ">";
+    }
+
+    /**
+     * Record the outcome of the deliveries completed since the last call.
+     */
+    void recordDeliveries() {
+        List<Long> sentIds = new ArrayList<>();
+        List<Delivery> failures = new ArrayList<>();
+        Delivery delivery;
+        while ((delivery = deliveries.poll()) != null) {
+            if (delivery.error() == null) {
+                sentIds.add(delivery.id());
+            } else {
+                failures.add(delivery);
+            }
+        }
+        Instant now = Instant.now();
+        if (!sentIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> mailOutboxRepository.markSent(sentIds, now));
+            sent.increment(sentIds.size());
+        }
+        for (Delivery failure : failures) {
+            Throwable error = failure.error() instanceof CompletionException ? failure.error().getCause() : failure.error();
+            String message = truncate(String.valueOf(error.getMessage()));
+            if (MailDispatcher.isPermanent(error) || failure.attempts() >= properties.getMaxAttempts()) {
+                LOG.warn("Email {} of the outbox could not be sent after {} attempts: {}", failure.id(), failure.attempts(), message);
+                transactionTemplate.executeWithoutResult(status -> mailOutboxRepository.markFailed(failure.id(), message));
+                failed.increment();
+            } else {
+                Instant nextAttemptAt = now.plusSeconds(backoffSeconds(failure.attempts()));
+                transactionTemplate.executeWithoutResult(status -> mailOutboxRepository.reschedule(failure.id(), nextAttemptAt, message));
+                retried.increment();
+            }
+        }
+    }
+
+    long backoffSeconds(int attempts) {
+        long delay = properties.getInitialBackoffSeconds() << Math.min(Math.max(attempts - 1, 0), 30);
+        return delay < 0 ? properties.getMaxBackoffSeconds() : Math.min(properties.getMaxBackoffSeconds(), delay);
+    }
+
+    private void purgeSentMails() {
+        long nowMillis = System.currentTimeMillis();
+        if (nowMillis < nextPurgeMillis) {
+            return;
+        }
+        nextPurgeMillis = nowMillis + PURGE_INTERVAL_MILLIS;
+        Instant before = Instant.now().minus(properties.getRetentionDays(), ChronoUnit.DAYS);
+        Integer deleted = transactionTemplate.execute(status -> mailOutboxRepository.deleteSentBefore(before));
+        LOG.debug("Deleted {} sent emails from the outbox", deleted);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * Emails in flight are claimed again by another node, or by this one after a restart, once their lease expires.
+     */
+    @Override
+    public void destroy() {
+        worker.stop();
+    }
+
+    private record Delivery(Long id, int attempts, Throwable error) {}
+}
@@ -1,26 +1,29 @@
 package ar.edu.um.service;
 
+import ar.edu.um.domain.Reminder;
 import ar.edu.um.domain.User;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Service for sending emails asynchronously.
+ * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Templates are rendered by the {@link MailTemplateRenderer}, and the emails are added to the {@link MailOutboxService}
+ * in the transaction of the caller, so that they are only sent once it commits. When the outbox is disabled, the
+ * messages are handed to the {@link MailDispatcher} directly. Either way the caller never waits on SMTP.
  */
 @Service
 public class MailService {
@@ -31,29 +34,75 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
+    private static final String REMINDER = "reminder";
+
+    private static final String DIGEST_DATE = "date";
+
+    private static final String DIGEST_DUE = "due";
+
+    private static final String DIGEST_OVERDUE = "overdue";
+
+    private static final String DIGEST_MORE = "more";
+
     private final JHipsterProperties jHipsterProperties;
 
     private final JavaMailSender javaMailSender;
 
-    private final MessageSource messageSource;
+    private final MailTemplateRenderer mailTemplateRenderer;
+
+    private final MailDispatcher mailDispatcher;
 
-    private final SpringTemplateEngine templateEngine;
+    private final MailOutboxService mailOutboxService;
 
     public MailService(
         JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        MailTemplateRenderer mailTemplateRenderer,
+        MailDispatcher mailDispatcher,
+        MailOutboxService mailOutboxService
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.mailDispatcher = mailDispatcher;
+        this.mailOutboxService = mailOutboxService;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        sendEmailSync(to, subject, content, isMultipart, isHtml);
+        deliver(UUID.randomUUID().toString(), to, subject, content, isMultipart, isHtml);
+    }
+
+    /**
+     * Add an email to the outbox, or send it right away when the outbox is disabled.
+     *
+     * @param deliveryKey identifies the email, so that it is sent once even if it is requested again.
+     */
+    private void deliver(String deliveryKey, String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        if (mailOutboxService.isEnabled()) {
+            LOG.debug("Queue email '{}' to '{}' with subject '{}'", deliveryKey, to, subject);
+            mailOutboxService.enqueue(deliveryKey, to, subject, content, isMultipart, isHtml);
+        } else {
+            sendEmailSync(to, subject, content, isMultipart, isHtml);
+        }
+    }
+
+    static MimeMessage createMimeMessage(
+        JavaMailSender javaMailSender,
+        String from,
+        String to,
+        String subject,
+        String content,
+        boolean isMultipart,
+        boolean isHtml
+    ) throws MessagingException {
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(from);
+        message.setSubject(subject);
+        message.setText(content, isHtml);
+        return mimeMessage;
     }
 
     private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
@@ -66,55 +115,95 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
+            MimeMessage mimeMessage = createMimeMessage(
+                javaMailSender,
+                jHipsterProperties.getMail().getFrom(),
+                to,
+                subject,
+                content,
+                isMultipart,
+                isHtml
+            );
+            mailDispatcher
+                .send(mimeMessage)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        LOG.warn("Email could not be sent to user '{}'", to, error);
+                    }
+                });
+            LOG.debug("Dispatched email to User '{}'", to);
+        } catch (MessagingException e) {
             LOG.warn("Email could not be sent to user '{}'", to, e);
         }
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        sendEmailFromTemplateSync(user, templateName, titleKey);
+        sendEmailFromTemplateSync(UUID.randomUUID().toString(), user, templateName, titleKey, Map.of(), null);
     }
 
-    private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
+    private void sendEmailFromTemplateSync(
+        String deliveryKey,
+        User user,
+        String templateName,
+        String titleKey,
+        Map<String, Object> variables,
+        Object[] titleArgs
+    ) {
         if (user.getEmail() == null) {
             LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmailSync(user.getEmail(), subject, content, false, true);
+        Map<String, Object> templateVariables = new HashMap<>();
+        templateVariables.put(USER, user);
+        templateVariables.put(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        templateVariables.putAll(variables);
+        MailTemplateRenderer.RenderedMail mail = mailTemplateRenderer.render(templateName, locale, templateVariables, titleKey, titleArgs);
+        deliver(deliveryKey, user.getEmail(), mail.subject(), mail.content(), false, true);
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         LOG.debug("Sending activation email to '{}'", user.getEmail());
-        sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
+        String deliveryKey = "activation/" + user.getLogin() + "/" + user.getActivationKey();
+        sendEmailFromTemplateSync(deliveryKey, user, "mail/activationEmail", "email.activation.title", Map.of(), null);
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         LOG.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
+        String deliveryKey = "creation/" + user.getLogin() + "/" + user.getResetKey();
+        sendEmailFromTemplateSync(deliveryKey, user, "mail/creationEmail", "email.activation.title", Map.of(), null);
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         LOG.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
+        String deliveryKey = "password-reset/" + user.getLogin() + "/" + user.getResetKey();
+        sendEmailFromTemplateSync(deliveryKey, user, "mail/passwordResetEmail", "email.reset.title", Map.of(), null);
+    }
+
+    /**
+     * The email is sent once per due date of the reminder, even if the notification is retried.
+     */
+    public void sendReminderDueEmail(User user, Reminder reminder) {
+        LOG.debug("Sending due reminder {} email to '{}'", reminder.getId(), user.getEmail());
+        String deliveryKey = "reminder-due/" + reminder.getId() + "/" + reminder.getDueDate().toEpochMilli();
+        Object[] titleArgs = { reminder.getTitle() };
+        Map<String, Object> variables = Map.of(REMINDER, reminder);
+        sendEmailFromTemplateSync(deliveryKey, user, "mail/reminderDueEmail", "email.reminder.title", variables, titleArgs);
+    }
+
+    /**
+     * The digest is sent once per user and day, even if the digest run is resumed.
+     *
+     * @param overdue the listed reminders due before the day.
+     * @param due the listed reminders due during the day.
+     * @param more the number of reminders which are not listed.
+     */
+    public void sendReminderDigestEmail(User user, LocalDate date, List<Reminder> overdue, List<Reminder> due, int more) {
+        LOG.debug("Sending reminder digest of {} email to '{}'", date, user.getEmail());
+        String deliveryKey = "reminder-digest/" + user.getLogin() + "/" + date;
+        Object[] titleArgs = { date };
+        Map<String, Object> variables = Map.of(DIGEST_DATE, date, DIGEST_OVERDUE, overdue, DIGEST_DUE, due, DIGEST_MORE, more);
+        sendEmailFromTemplateSync(deliveryKey, user, "mail/reminderDigestEmail", "email.digest.title", variables, titleArgs);
     }
 }
@@ -0,0 +1,408 @@
+package ar.edu.um.service;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * Renders the email templates from precompiled, per-locale fragments.
+ * <p>
+ * The first time a template is rendered for a locale, Thymeleaf processes it with placeholders instead of the variables:
+ * every property read by the template returns a marker, and the output is split on these markers into static fragments
+ * and slots. The following emails only read the same properties and concatenate the fragments with their values, escaped
+ * like Thymeleaf does, without parsing the template nor formatting the messages again. The subject is compiled the same
+ * way, from the message with placeholder arguments.
+ * <p>
+ * The properties which are null or which Thymeleaf evaluates as false in a condition, and the values which are not
+ * printed as their {@code toString()} (numbers, dates), are compiled into the fragments instead, with one variant per
+ * combination of these values. Templates may therefore print variables and test them, but must not transform or compare
+ * them (for example with {@code #strings}), as the output would not depend on the value anymore. Templates reading a
+ * collection, a map or an array, which they iterate, and templates failing to process with placeholders are always
+ * rendered by Thymeleaf. Nothing is precompiled when the Thymeleaf cache is disabled, so that templates can be edited in
+ * development.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    /**
+     * Characters of the private use area, which Thymeleaf neither escapes nor finds in the messages.
+     */
+    private static final char MARKER_START = '\uE000';
+
+    private static final char MARKER_END = '\uE001';
+
+    /**
+     * Ends the index in a marker, so that the output tells whether the slot was escaped.
+     */
+    private static final String RAW_SUFFIX = "&";
+
+    private static final String ESCAPED_SUFFIX = "&amp;";
+
+    /**
+     * {@link #MARKER_START} in a URL encoded value, where a slot cannot be filled.
+     */
+    private static final String ENCODED_MARKER_START = "%EE%80%80";
+
+    private static final String TITLE_ARGUMENT = "#title";
+
+    private static final int MAX_VARIANTS = 16;
+
+    /**
+     * How a variable is compiled.
+     */
+    private enum Kind {
+        /**
+         * The variable is null, the template is compiled without it.
+         */
+        NULL,
+        /**
+         * The variable is an object, its properties are compiled one by one.
+         */
+        BEAN,
+        /**
+         * The variable is printed in the slots.
+         */
+        SLOT,
+        /**
+         * The variable is a collection, a map or an array, the template cannot be compiled.
+         */
+        UNCOMPILABLE,
+    }
+
+    /**
+     * A rendered email.
+     */
+    public record RenderedMail(String subject, String content) {}
+
+    private record TemplateKey(String templateName, String titleKey, Locale locale) {}
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final boolean precompile;
+
+    private final ConcurrentMap<TemplateKey, List<CompiledMail>> compiledMails = new ConcurrentHashMap<>();
+
+    private final Set<TemplateKey> uncompilable = ConcurrentHashMap.newKeySet();
+
+    public MailTemplateRenderer(SpringTemplateEngine templateEngine, MessageSource messageSource, ThymeleafProperties thymeleafProperties) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.precompile = thymeleafProperties.isCache();
+    }
+
+    /**
+     * Render a template and its subject.
+     *
+     * @param variables the variables of the template.
+     * @param titleKey the message key of the subject.
+     * @param titleArgs the arguments of the subject, or {@code null}.
+     */
+    public RenderedMail render(String templateName, Locale locale, Map<String, Object> variables, String titleKey, Object[] titleArgs) {
+        TemplateKey key = new TemplateKey(templateName, titleKey, locale);
+        if (!precompile || uncompilable.contains(key)) {
+            return renderWithTemplateEngine(key, variables, titleArgs);
+        }
+        Map<String, Object> root = new LinkedHashMap<>(variables);
+        int titleArgCount = titleArgs == null ? 0 : titleArgs.length;
+        for (int i = 0; i < titleArgCount; i++) {
+            root.put(TITLE_ARGUMENT + i, titleArgs[i]);
+        }
+        List<CompiledMail> variants = compiledMails.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+        for (CompiledMail compiled : variants) {
+            Object[] values = compiled.resolve(root);
+            if (values != null) {
+                return compiled.fill(values);
+            }
+        }
+        if (variants.size() >= MAX_VARIANTS) {
+            return renderWithTemplateEngine(key, variables, titleArgs);
+        }
+        CompiledMail compiled = compile(key, root, variables.keySet(), titleArgCount);
+        if (compiled == null) {
+            LOG.warn("Email template '{}' prints a variable in a way that cannot be precompiled", templateName);
+            uncompilable.add(key);
+            return renderWithTemplateEngine(key, variables, titleArgs);
+        }
+        variants.add(compiled);
+        return compiled.fill(compiled.resolve(root));
+    }
+
+    private RenderedMail renderWithTemplateEngine(TemplateKey key, Map<String, Object> variables, Object[] titleArgs) {
+        Context context = new Context(key.locale());
+        context.setVariables(variables);
+        String content = templateEngine.process(key.templateName(), context);
+        String subject = messageSource.getMessage(key.titleKey(), titleArgs, key.locale());
+        return new RenderedMail(subject, content);
+    }
+
+    /**
+     * @return the compiled variant, or {@code null} if the template cannot be compiled.
+     */
+    private CompiledMail compile(TemplateKey key, Map<String, Object> root, Set<String> variableNames, int titleArgCount) {
+        LOG.debug("Compiling email template '{}' for locale '{}'", key.templateName(), key.locale());
+        Compiler compiler = new Compiler(root);
+        String content;
+        String subject;
+        try {
+            Context context = new Context(key.locale());
+            for (String name : variableNames) {
+                context.setVariable(name, compiler.placeholder(List.of(name)));
+            }
+            content = templateEngine.process(key.templateName(), context);
+            Object[] titleArgs = null;
+            if (titleArgCount > 0) {
+                titleArgs = new Object[titleArgCount];
+                for (int i = 0; i < titleArgCount; i++) {
+                    titleArgs[i] = compiler.placeholder(List.of(TITLE_ARGUMENT + i));
+                }
+            }
+            subject = messageSource.getMessage(key.titleKey(), titleArgs, key.locale());
+        } catch (RuntimeException e) {
+            // the placeholders are not the values the template expects, Thymeleaf processes the variables themselves
+            LOG.debug("Email template '{}' failed to process with placeholders: {}", key.templateName(), e.getMessage());
+            return null;
+        }
+        if (compiler.uncompilable) {
+            return null;
+        }
+        Fragments subjectFragments = Fragments.parse(subject);
+        Fragments contentFragments = Fragments.parse(content);
+        if (subjectFragments == null || contentFragments == null) {
+            return null;
+        }
+        return new CompiledMail(List.copyOf(compiler.paths), List.copyOf(compiler.kinds), subjectFragments, contentFragments);
+    }
+
+    /**
+     * The kind of a value, or the value itself when it is compiled into the fragments.
+     */
+    private static Object kind(Object value) {
+        if (value == null) {
+            return Kind.NULL;
+        }
+        if (value instanceof CharSequence text) {
+            return isFalse(text.toString()) ? text.toString() : Kind.SLOT;
+        }
+        if (value instanceof Boolean || value instanceof Number || value instanceof Date || value instanceof Calendar) {
+            return value;
+        }
+        if (value instanceof Iterable || value instanceof Map || value.getClass().isArray()) {
+            // compared by their elements, whose properties printed by the template would be stale
+            return Kind.UNCOMPILABLE;
+        }
+        return BeanUtils.isSimpleValueType(value.getClass()) ? Kind.SLOT : Kind.BEAN;
+    }
+
+    /**
+     * Same as Thymeleaf's evaluation of a string as a condition.
+     */
+    private static boolean isFalse(String text) {
+        return text.isEmpty() || "false".equalsIgnoreCase(text) || "off".equalsIgnoreCase(text) || "no".equalsIgnoreCase(text);
+    }
+
+    private static Object resolve(Map<String, Object> root, List<String> path) {
+        Object value = root.get(path.get(0));
+        for (int i = 1; i < path.size() && value != null; i++) {
+            value = property(value, path.get(i));
+        }
+        return value;
+    }
+
+    private static Object property(Object bean, String name) {
+        if (bean instanceof Map<?, ?> map) {
+            return map.get(name);
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(bean.getClass(), name);
+        Method readMethod = descriptor == null ? null : descriptor.getReadMethod();
+        if (readMethod == null) {
+            throw new IllegalArgumentException("Property '" + name + "' cannot be read on " + bean.getClass().getName());
+        }
+        return ReflectionUtils.invokeMethod(readMethod, bean);
+    }
+
+    /**
+     * Records the properties read while a template is processed with placeholders.
+     */
+    private static final class Compiler {
+
+        private final Map<String, Object> root;
+
+        private final List<List<String>> paths = new ArrayList<>();
+
+        private final List<Object> kinds = new ArrayList<>();
+
+        private final Map<List<String>, Object> placeholders = new HashMap<>();
+
+        private boolean uncompilable;
+
+        private Compiler(Map<String, Object> root) {
+            this.root = root;
+        }
+
+        Object placeholder(List<String> path) {
+            if (placeholders.containsKey(path)) {
+                return placeholders.get(path);
+            }
+            Object value = resolve(root, path);
+            Object kind = kind(value);
+            Object placeholder;
+            if (kind == Kind.UNCOMPILABLE) {
+                uncompilable = true;
+                placeholder = value;
+            } else if (kind == Kind.NULL) {
+                placeholder = null;
+            } else if (kind == Kind.BEAN) {
+                placeholder = new Placeholder(this, path);
+            } else if (kind == Kind.SLOT) {
+                placeholder = MARKER_START + Integer.toString(paths.size()) + RAW_SUFFIX + MARKER_END;
+            } else {
+                placeholder = value;
+            }
+            paths.add(path);
+            kinds.add(kind);
+            placeholders.put(path, placeholder);
+            return placeholder;
+        }
+    }
+
+    /**
+     * Stands for an object in the template, read by Spring's {@code MapAccessor}.
+     */
+    private static final class Placeholder extends AbstractMap<String, Object> {
+
+        private final Compiler compiler;
+
+        private final List<String> path;
+
+        private Placeholder(Compiler compiler, List<String> path) {
+            this.compiler = compiler;
+            this.path = path;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return true;
+        }
+
+        @Override
+        public Object get(Object key) {
+            List<String> propertyPath = new ArrayList<>(path);
+            propertyPath.add(String.valueOf(key));
+            return compiler.placeholder(List.copyOf(propertyPath));
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return Set.of();
+        }
+    }
+
+    /**
+     * One variant of a template, for the values of its compiled properties.
+     */
+    private record CompiledMail(List<List<String>> paths, List<Object> kinds, Fragments subject, Fragments content) {
+        /**
+         * @return the values of the properties, or {@code null} if they do not match this variant.
+         */
+        Object[] resolve(Map<String, Object> root) {
+            Object[] values = new Object[paths.size()];
+            for (int i = 0; i < values.length; i++) {
+                Object value = MailTemplateRenderer.resolve(root, paths.get(i));
+                if (!kinds.get(i).equals(kind(value))) {
+                    return null;
+                }
+                values[i] = value;
+            }
+            return values;
+        }
+
+        RenderedMail fill(Object[] values) {
+            return new RenderedMail(subject.fill(values), content.fill(values));
+        }
+    }
+
+    /**
+     * Static texts around the slots: {@code texts} has one more element than {@code slots}.
+     */
+    private record Fragments(String[] texts, int[] slots, boolean[] escaped, int length) {
+        /**
+         * @return the fragments of the output, or {@code null} if a marker was not printed as is.
+         */
+        static Fragments parse(String output) {
+            if (output.toUpperCase(Locale.ROOT).contains(ENCODED_MARKER_START)) {
+                return null;
+            }
+            List<String> texts = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            List<Boolean> escaped = new ArrayList<>();
+            int start = 0;
+            int marker;
+            while ((marker = output.indexOf(MARKER_START, start)) >= 0) {
+                int end = output.indexOf(MARKER_END, marker);
+                if (end < 0) {
+                    return null;
+                }
+                String body = output.substring(marker + 1, end);
+                int suffix = body.indexOf('&');
+                if (suffix <= 0 || !body.substring(0, suffix).chars().allMatch(Character::isDigit)) {
+                    return null;
+                }
+                boolean escapedSlot = body.substring(suffix).equals(ESCAPED_SUFFIX);
+                if (!escapedSlot && !body.substring(suffix).equals(RAW_SUFFIX)) {
+                    return null;
+                }
+                texts.add(output.substring(start, marker));
+                slots.add(Integer.parseInt(body.substring(0, suffix)));
+                escaped.add(escapedSlot);
+                start = end + 1;
+            }
+            String tail = output.substring(start);
+            if (tail.indexOf(MARKER_END) >= 0) {
+                return null;
+            }
+            texts.add(tail);
+            boolean[] escapedSlots = new boolean[escaped.size()];
+            for (int i = 0; i < escapedSlots.length; i++) {
+                escapedSlots[i] = escaped.get(i);
+            }
+            int length = texts.stream().mapToInt(String::length).sum();
+            return new Fragments(texts.toArray(String[]::new), slots.stream().mapToInt(Integer::intValue).toArray(), escapedSlots, length);
+        }
+
+        String fill(Object[] values) {
+            StringBuilder output = new StringBuilder(length + 32 * slots.length);
+            output.append(texts[0]);
+            for (int i = 0; i < slots.length; i++) {
+                String value = String.valueOf(values[slots[i]]);
+                output.append(escaped[i] ? HtmlEscape.escapeHtml4Xml(value) : value).append(texts[i + 1]);
+            }
+            return output.toString();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ar.edu.um.service;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.RefreshToken;
+import ar.edu.um.domain.User;
+import ar.edu.um.repository.RefreshTokenRepository;
+import ar.edu.um.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service issuing and rotating the refresh tokens used to renew access tokens.
+ * <p>
+ * Tokens are random 256-bit values of which only the SHA-256 is stored. A renewal costs no password verification: the
+ * token is read with its user in one query and consumed with a single conditional update. Tokens are single-use, so
+ * their lookups are not cached.
+ * A token presented after it was rotated means it leaked: every token of its user is then revoked.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.Security.RefreshToken properties;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.properties = applicationProperties.getSecurity().getRefreshToken();
+    }
+
+    /**
+     * Issue a new refresh token.
+     *
+     * @param userId the id of the authenticated user.
+     * @param rememberMe whether the long remember-me lifetime applies.
+     * @return the token to hand to the client.
+     */
+    public String createToken(Long userId, boolean rememberMe) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setRememberMe(rememberMe);
+        refreshToken.setExpiresAt(
+            Instant.now()
+                .plus(
+                    rememberMe ? properties.getValidityInSecondsForRememberMe() : properties.getValidityInSeconds(),
+                    ChronoUnit.SECONDS
+                )
+        );
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Consume a refresh token and issue its replacement.
+     *
+     * @param token the token presented by the client.
+     * @return the user with its authorities and the new token, or empty if the token is unknown, expired,
+     * already used, or its user is no longer active.
+     */
+    public Optional<Rotation> rotate(String token) {
+        String tokenHash = hash(token);
+        Optional<RefreshToken> found = refreshTokenRepository.findOneWithUserByTokenHash(tokenHash);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken refreshToken = found.orElseThrow();
+        Instant now = Instant.now();
+        if (refreshToken.getExpiresAt().isBefore(now)) {
+            return Optional.empty();
+        }
+        Long userId = refreshToken.getUser().getId();
+        if (refreshToken.getRotatedAt() != null || refreshTokenRepository.markRotated(refreshToken.getId(), now) == 0) {
+            LOG.warn("Refresh token reuse detected, revoking every refresh token of user {}", userId);
+            revokeTokens(userId);
+            return Optional.empty();
+        }
+
+        boolean rememberMe = Boolean.TRUE.equals(refreshToken.getRememberMe());
+        return userRepository
+            .findOneWithAuthoritiesByLogin(refreshToken.getUser().getLogin())
+            .filter(user -> user.isActivated() && Objects.equals(user.getId(), userId))
+            .map(user -> new Rotation(user, createToken(userId, rememberMe), rememberMe));
+    }
+
+    /**
+     * Revoke every refresh token of a user, e.g. when their password changes.
+     *
+     * @param userId the id of the user.
+     */
+    public void revokeTokens(Long userId) {
+        int revoked = refreshTokenRepository.deleteByUserId(userId);
+        LOG.debug("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    /**
+     * Expired tokens are removed every day.
+     * <p>
+     * This is scheduled to get fired every day, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void removeExpiredTokens() {
+        int removed = refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+        LOG.debug("Removed {} expired refresh tokens", removed);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The outcome of a successful rotation.
+     *
+     * @param user the owner of the token, with its authorities.
+     * @param refreshToken the token replacing the consumed one.
+     * @param rememberMe whether the consumed token had the remember-me lifetime.
+     */
+    public record Rotation(User user, String refreshToken, boolean rememberMe) {}
+}
@@ -0,0 +1,195 @@
+package ar.edu.um.service;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderTombstone;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.ReminderTombstoneRepository;
+import ar.edu.um.service.dto.ReminderChangesDTO;
+import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.mapper.ReminderMapper;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service listing the changes of the reminders since a sync token, for the offline clients.
+ * <p>
+ * Every reminder carries a change sequence, taken again from a database sequence whenever it changes, and a deleted
+ * reminder leaves a {@link ReminderTombstone} with the next value of the same sequence. The changes since a token are the
+ * reminders and tombstones after its sequence, read from the {@code change_seq} indexes, so a sync costs what changed
+ * rather than the number of reminders. Without a token all the reminders are listed, which is the first sync.
+ * <p>
+ * A change sequence is taken when the change is written, not when its transaction commits, so a change can become visible
+ * after a later one was listed. Tokens therefore also hold the oldest transaction still running when their listing started,
+ * and each change records its transaction: the next listing starts again from the first change of that transaction or a
+ * later one, so that a late commit is listed, at the cost of listing again the changes committed meanwhile.
+ * <p>
+ * Tokens also hold the time from which the client has seen every change. Tombstones are compacted once no valid token
+ * can need them: tokens expire a day before, and an expired token is refused with {@link SyncTokenExpiredException}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReminderChangeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderChangeService.class);
+
+    private static final char TOKEN_SEPARATOR = '-';
+
+    private final ReminderRepository reminderRepository;
+
+    private final ReminderTombstoneRepository reminderTombstoneRepository;
+
+    private final ReminderMapper reminderMapper;
+
+    private final ApplicationProperties.ReminderSync properties;
+
+    public ReminderChangeService(
+        ReminderRepository reminderRepository,
+        ReminderTombstoneRepository reminderTombstoneRepository,
+        ReminderMapper reminderMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.reminderRepository = reminderRepository;
+        this.reminderTombstoneRepository = reminderTombstoneRepository;
+        this.reminderMapper = reminderMapper;
+        this.properties = applicationProperties.getReminderSync();
+    }
+
+    /**
+     * A position in the changes: every change up to {@code changeSeq} was listed, except those of the transactions from
+     * {@code transaction} on, and the changes listed since {@code issuedAt} at the latest. A {@code partial} token is that of
+     * a listing with more changes, which the next one continues from {@code changeSeq}.
+     */
+    record SyncToken(long changeSeq, long transaction, Instant issuedAt, boolean partial) {
+        /**
+         * @throws IllegalArgumentException if the token was not issued by {@link #toString()}.
+         */
+        static SyncToken parse(String token) {
+            String[] parts = token.split(String.valueOf(TOKEN_SEPARATOR), -1);
+            try {
+                if (parts.length != 4 || !(parts[3].equals("0") || parts[3].equals("1"))) {
+                    throw new IllegalArgumentException("Invalid sync token: " + token);
+                }
+                long changeSeq = Long.parseLong(parts[0]);
+                long transaction = Long.parseLong(parts[1]);
+                long issuedAt = Long.parseLong(parts[2]);
+                return new SyncToken(changeSeq, transaction, Instant.ofEpochSecond(issuedAt), parts[3].equals("1"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sync token: " + token, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return (
+                Long.toString(changeSeq) +
+                TOKEN_SEPARATOR +
+                transaction +
+                TOKEN_SEPARATOR +
+                issuedAt.getEpochSecond() +
+                TOKEN_SEPARATOR +
+                (partial ? '1' : '0')
+            );
+        }
+    }
+
+    /**
+     * List the changes of the reminders since a sync token, in change order.
+     *
+     * @param since the token returned by the previous call, or {@code null} to list all the reminders.
+     * @param size the maximum number of changes, up to the configured limit.
+     * @return the changes, with the token to ask for the next ones.
+     * @throws IllegalArgumentException if the token is not valid.
+     * @throws SyncTokenExpiredException if the token has expired, the client must then sync without a token.
+     */
+    public ReminderChangesDTO findChanges(String since, int size) {
+        LOG.debug("Request to get the changes of Reminders since {}", since);
+        Instant now = Instant.now();
+        SyncToken token = since == null ? new SyncToken(0, 0, now, false) : SyncToken.parse(since);
+        if (token.issuedAt().isBefore(now.minus(properties.getTombstoneRetentionDays() - 1L, ChronoUnit.DAYS))) {
+            throw new SyncTokenExpiredException();
+        }
+        long from = token.changeSeq();
+        long transaction = token.transaction();
+        if (!token.partial()) {
+            // read before the changes: those which are not visible yet will be from this transaction on
+            transaction = reminderRepository.findOldestRunningTransaction();
+            if (since != null) {
+                Long first = reminderRepository.findFirstChangeSeqSince(token.transaction());
+                if (first != null && first <= from) {
+                    from = first - 1;
+                }
+            }
+        }
+        int limit = Math.max(1, Math.min(size, properties.getMaxChanges()));
+        List<ReminderRepository.ChangedReminder> changed = reminderRepository.findChangedSince(from, limit + 1);
+        // the first sync lists the reminders which exist, none of the deleted ones was seen
+        List<ReminderTombstone> deleted = since == null
+            ? List.of()
+            : reminderTombstoneRepository.findChangedSince(from, PageRequest.ofSize(limit + 1));
+
+        // merge both lists in change order, up to the limit
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        long lastChangeSeq = from;
+        int c = 0;
+        int d = 0;
+        while (c + d < limit && (c < changed.size() || d < deleted.size())) {
+            if (d == deleted.size() || (c < changed.size() && changed.get(c).getChangeSeq() < deleted.get(d).getChangeSeq())) {
+                changedIds.add(changed.get(c).getId());
+                lastChangeSeq = changed.get(c++).getChangeSeq();
+            } else {
+                deletedIds.add(deleted.get(d).getReminderId());
+                lastChangeSeq = deleted.get(d++).getChangeSeq();
+            }
+        }
+        boolean more = c < changed.size() || d < deleted.size();
+
+        ReminderChangesDTO changes = new ReminderChangesDTO();
+        changes.setChanged(findReminders(changedIds));
+        changes.setDeleted(deletedIds);
+        changes.setMore(more);
+        // the next changes may include deletions from the start of the listing, until it is complete
+        changes.setToken(new SyncToken(lastChangeSeq, transaction, more ? token.issuedAt() : now, more).toString());
+        return changes;
+    }
+
+    /**
+     * The reminders of the given ids, in the same order. The reminders deleted since their ids were read are left out,
+     * their tombstones are listed in the next changes.
+     */
+    private List<ReminderDTO> findReminders(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Reminder> reminders = reminderRepository
+            .fetchBagRelationships(reminderRepository.findAllById(ids))
+            .stream()
+            .collect(Collectors.toMap(Reminder::getId, Function.identity()));
+        return ids.stream().filter(reminders::containsKey).map(id -> reminderMapper.toDto(reminders.get(id))).toList();
+    }
+
+    /**
+     * Tombstones are compacted a day after the sync tokens which could need them have expired.
+     * <p>
+     * This is scheduled to get fired every day, at 01:45 (am).
+     */
+    @Scheduled(cron = "0 45 1 * * ?")
+    @Transactional
+    public void compactTombstones() {
+        Instant before = Instant.now().minus(properties.getTombstoneRetentionDays(), ChronoUnit.DAYS);
+        int compacted = reminderTombstoneRepository.deleteDeletedBefore(before);
+        LOG.debug("Compacted {} reminder tombstones", compacted);
+    }
+}
@@ -2,26 +2,59 @@ package ar.edu.um.service;
 
 import ar.edu.um.domain.*; // for static metamodels
 import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderOccurrence;
+import ar.edu.um.management.jfr.ReminderQueryEvent;
+import ar.edu.um.repository.ReminderOccurrenceRepository;
 import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.UserRepository;
 import ar.edu.um.repository.search.ReminderSearchRepository;
 import ar.edu.um.service.criteria.ReminderCriteria;
 import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.ReminderFields;
+import ar.edu.um.service.dto.TagDTO;
 import ar.edu.um.service.mapper.ReminderMapper;
+import ar.edu.um.service.recurrence.RecurrenceRule;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.JoinType;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.BooleanFilter;
+import tech.jhipster.service.filter.InstantFilter;
 
 /**
  * Service for executing complex queries for {@link Reminder} entities in the database.
  * The main input is a {@link ReminderCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link Page} of {@link ReminderDTO} which fulfills the criteria.
+ * <p>
+ * When the criteria bound the due date on both sides, recurring reminders are expanded into their occurrences in that
+ * range, which are filtered and paginated together with the one-off reminders, in due date order. The occurrences are
+ * computed on the fly from the recurrence rules, with the {@link ReminderOccurrence} exceptions applied, and the sources
+ * are merged lazily: no list of all the matching occurrences or reminders is built. The rules are expanded in the time zone
+ * of the owner of each reminder.
  */
 @Service
 @Transactional(readOnly = true)
@@ -29,45 +62,316 @@ public class ReminderQueryService extends QueryService<Reminder> {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReminderQueryService.class);
 
+    /**
+     * Number of one-off reminders read at once while merging them with the occurrences.
+     */
+    private static final int ONE_OFF_BATCH_SIZE = 200;
+
+    /**
+     * Maximum number of reminders whose exceptions are read in one statement.
+     */
+    private static final int EXCEPTIONS_BATCH_SIZE = 1000;
+
+    private static final Sort DUE_DATE_ORDER = Sort.by(Reminder_.DUE_DATE, Reminder_.ID);
+
+    private static final Comparator<Occurrence> OCCURRENCE_ORDER = Comparator.comparing(Occurrence::dueDate)
+        .thenComparing(occurrence -> occurrence.reminder().getId())
+        .thenComparing(Occurrence::occurrenceDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final ReminderRepository reminderRepository;
 
+    private final ReminderOccurrenceRepository reminderOccurrenceRepository;
+
     private final ReminderMapper reminderMapper;
 
     private final ReminderSearchRepository reminderSearchRepository;
 
+    private final UserRepository userRepository;
+
     public ReminderQueryService(
         ReminderRepository reminderRepository,
+        ReminderOccurrenceRepository reminderOccurrenceRepository,
         ReminderMapper reminderMapper,
-        ReminderSearchRepository reminderSearchRepository
+        ReminderSearchRepository reminderSearchRepository,
+        UserRepository userRepository
     ) {
         this.reminderRepository = reminderRepository;
+        this.reminderOccurrenceRepository = reminderOccurrenceRepository;
         this.reminderMapper = reminderMapper;
         this.reminderSearchRepository = reminderSearchRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Whether a date is an occurrence of a recurring reminder, its rule being expanded in the time zone of its owner.
+     * @param reminderDTO the reminder.
+     * @param date the date of the occurrence in the rule.
+     * @return {@code false} if the reminder does not recur, or not at that date.
+     */
+    @Transactional(readOnly = true)
+    public boolean isOccurrence(ReminderDTO reminderDTO, Instant date) {
+        String recurrenceRule = reminderDTO.getRecurrenceRule();
+        if (recurrenceRule == null || !RecurrenceRule.isValid(recurrenceRule)) {
+            return false;
+        }
+        ZoneId zone = reminderDTO.getUser() != null
+            ? findZones(List.of(reminderDTO.getUser().getId())).getOrDefault(reminderDTO.getUser().getId(), ZoneOffset.UTC)
+            : ZoneOffset.UTC;
+        return RecurrenceRule.parse(recurrenceRule).isOccurrence(zone, reminderDTO.getDueDate(), date);
     }
 
     /**
      * Return a {@link Page} of {@link ReminderDTO} which matches the criteria from the database.
+     * When recurring reminders are expanded, the page is in due date order, whatever its sort.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
     public Page<ReminderDTO> findByCriteria(ReminderCriteria criteria, Pageable page) {
-        LOG.debug("find by criteria : {}, page: {}", criteria, page);
-        final Specification<Reminder> specification = createSpecification(criteria);
-        return reminderRepository.fetchBagRelationships(reminderRepository.findAll(specification, page)).map(reminderMapper::toDto);
+        return findByCriteria(criteria, page, null);
     }
 
     /**
-     * Return the number of matching entities in the database.
+     * Return a {@link Page} of {@link ReminderDTO} which matches the criteria from the database, with only the fields of a
+     * sparse fieldset: only their columns are selected, and the tags are read only if they are among them.
+     * Expanded recurring reminders are read whole.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @param fields The fields to read, or {@code null} for all of them.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<ReminderDTO> findByCriteria(ReminderCriteria criteria, Pageable page, ReminderFields fields) {
+        LOG.debug("find by criteria : {}, page: {}, fields: {}", criteria, page, fields);
+        ReminderQueryEvent event = ReminderQueryEvent.begin("findByCriteria");
+        Page<ReminderDTO> result = null;
+        try {
+            DueDateRange range = DueDateRange.of(criteria);
+            List<Reminder> series = range != null ? findSeries(criteria, range) : List.of();
+            if (series.isEmpty() && fields != null) {
+                result = findFields(createSpecification(criteria), page, fields);
+            } else if (series.isEmpty()) {
+                final Specification<Reminder> specification = createSpecification(criteria);
+                result = reminderRepository
+                    .fetchBagRelationships(reminderRepository.findAll(specification, page))
+                    .map(reminderMapper::toDto);
+            } else {
+                result = findOccurrences(criteria, range, series, page);
+            }
+            return result;
+        } finally {
+            event.end(criteria, result != null ? result.getNumberOfElements() : -1);
+        }
+    }
+
+    /**
+     * Return the number of matching entities in the database, counting each occurrence of the recurring reminders when they
+     * are expanded.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(ReminderCriteria criteria) {
         LOG.debug("count by criteria : {}", criteria);
-        final Specification<Reminder> specification = createSpecification(criteria);
-        return reminderRepository.count(specification);
+        ReminderQueryEvent event = ReminderQueryEvent.begin("countByCriteria");
+        long count = -1;
+        try {
+            DueDateRange range = DueDateRange.of(criteria);
+            List<Reminder> series = range != null ? findSeries(criteria, range) : List.of();
+            if (series.isEmpty()) {
+                final Specification<Reminder> specification = createSpecification(criteria);
+                count = reminderRepository.count(specification);
+            } else {
+                count = countOccurrences(criteria, range, series);
+            }
+            return count;
+        } finally {
+            event.end(criteria, count);
+        }
+    }
+
+    private Page<ReminderDTO> findFields(Specification<Reminder> specification, Pageable page, ReminderFields fields) {
+        List<ReminderFields.Field> columns = fields.getColumns();
+        List<String> attributes = columns.stream().map(ReminderFields.Field::getAttribute).toList();
+        Map<Long, ReminderDTO> reminders = new LinkedHashMap<>();
+        for (Tuple tuple : reminderRepository.findAllAttributes(specification, page, attributes)) {
+            ReminderDTO reminderDTO = new ReminderDTO();
+            columns.forEach(column -> column.set(reminderDTO, tuple.get(column.getAttribute())));
+            reminders.put(reminderDTO.getId(), reminderDTO);
+        }
+        if (fields.contains(ReminderFields.Field.TAGS) && !reminders.isEmpty()) {
+            for (ReminderRepository.ReminderTagId tagId : reminderRepository.findTagIds(reminders.keySet())) {
+                TagDTO tagDTO = new TagDTO();
+                tagDTO.setId(tagId.getTagId());
+                reminders.get(tagId.getReminderId()).getTags().add(tagDTO);
+            }
+        }
+        List<ReminderDTO> content = new ArrayList<>(reminders.values());
+        return PageableExecutionUtils.getPage(content, page, () -> reminderRepository.count(specification));
+    }
+
+    /**
+     * The recurring reminders which match the criteria, except on their due date and completion which are those of each
+     * occurrence, and start before the end of the range.
+     */
+    private List<Reminder> findSeries(ReminderCriteria criteria, DueDateRange range) {
+        ReminderCriteria seriesCriteria = criteria.copy();
+        seriesCriteria.setDueDate(null);
+        seriesCriteria.setIsCompleted(null);
+        Specification<Reminder> specification = createSpecification(seriesCriteria).and((root, query, builder) ->
+            builder.and(
+                builder.isNotNull(root.get(Reminder_.recurrenceRule)),
+                builder.lessThanOrEqualTo(root.get(Reminder_.dueDate), range.to())
+            )
+        );
+        return reminderRepository.findAll(specification);
+    }
+
+    private Specification<Reminder> oneOffSpecification(ReminderCriteria criteria) {
+        return createSpecification(criteria).and((root, query, builder) -> builder.isNull(root.get(Reminder_.recurrenceRule)));
+    }
+
+    /**
+     * A page of the merged one-off reminders and occurrences. The total is computed in the same pass: the one-off reminders
+     * are counted by the database, and the occurrences by expanding the rest of the range once the page is read.
+     */
+    private Page<ReminderDTO> findOccurrences(ReminderCriteria criteria, DueDateRange range, List<Reminder> series, Pageable page) {
+        CountingIterator seriesOccurrences = new CountingIterator(mergeOccurrences(criteria, range, series));
+        Iterator<Occurrence> occurrences = new MergingIterator(
+            List.of(new OneOffIterator(oneOffSpecification(criteria)), seriesOccurrences)
+        );
+        long offset = page.isPaged() ? page.getOffset() : 0;
+        int size = page.isPaged() ? page.getPageSize() : Integer.MAX_VALUE;
+        List<Occurrence> content = new ArrayList<>();
+        for (long skipped = 0; skipped < offset && occurrences.hasNext(); skipped++) {
+            occurrences.next();
+        }
+        while (content.size() < size && occurrences.hasNext()) {
+            content.add(occurrences.next());
+        }
+        long total = page.isPaged() && (content.size() == size || offset > 0)
+            ? reminderRepository.count(oneOffSpecification(criteria)) + seriesOccurrences.drain()
+            : offset + content.size();
+        return new PageImpl<>(toDtos(content), page, total);
+    }
+
+    private long countOccurrences(ReminderCriteria criteria, DueDateRange range, List<Reminder> series) {
+        CountingIterator occurrences = new CountingIterator(mergeOccurrences(criteria, range, series));
+        return reminderRepository.count(oneOffSpecification(criteria)) + occurrences.drain();
+    }
+
+    /**
+     * Merge the occurrences of the recurring reminders in due date order: those of each reminder as its rule gives them,
+     * expanded in the time zone of its owner, and the occurrences moved to another due date.
+     */
+    private Iterator<Occurrence> mergeOccurrences(ReminderCriteria criteria, DueDateRange range, List<Reminder> series) {
+        Map<Long, Map<Instant, ReminderOccurrence>> exceptions = findExceptions(series, range);
+        Map<Long, ZoneId> zones = findZones(
+            series.stream().map(Reminder::getUser).filter(Objects::nonNull).map(User::getId).distinct().toList()
+        );
+        BooleanFilter isCompleted = criteria.getIsCompleted();
+        List<Iterator<Occurrence>> sources = new ArrayList<>(series.size() + 1);
+        List<Occurrence> moved = new ArrayList<>();
+        for (Reminder reminder : series) {
+            Map<Instant, ReminderOccurrence> reminderExceptions = exceptions.getOrDefault(reminder.getId(), Map.of());
+            for (ReminderOccurrence exception : reminderExceptions.values()) {
+                Instant dueDate = exception.getEffectiveDueDate();
+                if (!exception.getIsCancelled() && !dueDate.equals(exception.getOccurrenceDate()) && range.contains(dueDate)) {
+                    moved.add(new Occurrence(reminder, dueDate, exception.getOccurrenceDate(), exception.getIsCompleted()));
+                }
+            }
+            try {
+                RecurrenceRule rule = RecurrenceRule.parse(reminder.getRecurrenceRule());
+                ZoneId zone = reminder.getUser() != null ? zones.getOrDefault(reminder.getUser().getId(), ZoneOffset.UTC) : ZoneOffset.UTC;
+                sources.add(
+                    rule
+                        .occurrences(zone, reminder.getDueDate(), range.from(), range.to())
+                        .map(date -> occurrence(reminder, date, reminderExceptions.get(date)))
+                        .filter(Objects::nonNull)
+                        .filter(occurrence -> matches(isCompleted, occurrence.completed()))
+                        .iterator()
+                );
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Recurrence rule of reminder {} is not valid: {}", reminder.getId(), e.getMessage());
+            }
+        }
+        moved.removeIf(occurrence -> !matches(isCompleted, occurrence.completed()));
+        moved.sort(OCCURRENCE_ORDER);
+        sources.add(moved.iterator());
+        return new MergingIterator(sources);
+    }
+
+    /**
+     * The occurrence of a recurring reminder at a date of its rule, or {@code null} if it was cancelled or moved.
+     */
+    private static Occurrence occurrence(Reminder reminder, Instant date, ReminderOccurrence exception) {
+        if (exception == null) {
+            return new Occurrence(reminder, date, date, Boolean.TRUE.equals(reminder.getIsCompleted()));
+        }
+        if (exception.getIsCancelled() || !exception.getEffectiveDueDate().equals(date)) {
+            return null;
+        }
+        return new Occurrence(reminder, date, date, exception.getIsCompleted());
+    }
+
+    private Map<Long, Map<Instant, ReminderOccurrence>> findExceptions(List<Reminder> series, DueDateRange range) {
+        Map<Long, Map<Instant, ReminderOccurrence>> exceptions = new HashMap<>();
+        List<Long> ids = series.stream().map(Reminder::getId).toList();
+        for (int start = 0; start < ids.size(); start += EXCEPTIONS_BATCH_SIZE) {
+            List<Long> batch = ids.subList(start, Math.min(ids.size(), start + EXCEPTIONS_BATCH_SIZE));
+            for (ReminderOccurrence exception : reminderOccurrenceRepository.findInRange(batch, range.from(), range.to())) {
+                exceptions
+                    .computeIfAbsent(exception.getReminder().getId(), id -> new HashMap<>())
+                    .put(exception.getOccurrenceDate(), exception);
+            }
+        }
+        return exceptions;
+    }
+
+    private Map<Long, ZoneId> findZones(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository
+            .findTimeZonesByIdIn(userIds)
+            .stream()
+            .collect(Collectors.toMap(UserRepository.UserTimeZone::getId, UserRepository.UserTimeZone::getZoneId));
+    }
+
+    private static boolean matches(BooleanFilter filter, boolean value) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getEquals() != null && filter.getEquals() != value) {
+            return false;
+        }
+        if (filter.getNotEquals() != null && filter.getNotEquals() == value) {
+            return false;
+        }
+        if (filter.getIn() != null && !filter.getIn().contains(value)) {
+            return false;
+        }
+        if (filter.getNotIn() != null && filter.getNotIn().contains(value)) {
+            return false;
+        }
+        return !Boolean.FALSE.equals(filter.getSpecified());
+    }
+
+    private List<ReminderDTO> toDtos(List<Occurrence> occurrences) {
+        reminderRepository.fetchBagRelationships(occurrences.stream().map(Occurrence::reminder).distinct().toList());
+        return occurrences
+            .stream()
+            .map(occurrence -> {
+                ReminderDTO reminderDTO = reminderMapper.toDto(occurrence.reminder());
+                if (occurrence.occurrenceDate() != null) {
+                    reminderDTO.setDueDate(occurrence.dueDate());
+                    reminderDTO.setIsCompleted(occurrence.completed());
+                    reminderDTO.setOccurrenceDate(occurrence.occurrenceDate());
+                }
+                return reminderDTO;
+            })
+            .toList();
     }
 
     /**
@@ -88,11 +392,180 @@ public class ReminderQueryService extends QueryService<Reminder> {
                 buildSpecification(criteria.getPriority(), Reminder_.priority),
                 buildRangeSpecification(criteria.getCreatedDate(), Reminder_.createdDate),
                 buildRangeSpecification(criteria.getLastModifiedDate(), Reminder_.lastModifiedDate),
-                buildSpecification(criteria.getCategoryId(), root -> root.join(Reminder_.category, JoinType.LEFT).get(Category_.id)),
-                buildSpecification(criteria.getUserId(), root -> root.join(Reminder_.user, JoinType.LEFT).get(User_.id)),
+                // the ids of to-one associations are read from the foreign key columns, without joining
+                buildSpecification(criteria.getCategoryId(), root -> root.get(Reminder_.category).get(Category_.id)),
+                buildSpecification(criteria.getUserId(), root -> root.get(Reminder_.user).get(User_.id)),
                 buildSpecification(criteria.getTagsId(), root -> root.join(Reminder_.tags, JoinType.LEFT).get(Tag_.id))
             );
         }
         return specification;
     }
+
+    /**
+     * The due date range of the criteria, inclusive, if they bound it on both sides and filter it on nothing else.
+     */
+    private record DueDateRange(Instant from, Instant to) {
+        static DueDateRange of(ReminderCriteria criteria) {
+            InstantFilter filter = criteria != null ? criteria.getDueDate() : null;
+            if (
+                filter == null ||
+                filter.getEquals() != null ||
+                filter.getNotEquals() != null ||
+                filter.getIn() != null ||
+                filter.getNotIn() != null ||
+                filter.getSpecified() != null
+            ) {
+                return null;
+            }
+            Instant greaterThan = filter.getGreaterThan() != null ? filter.getGreaterThan().plusNanos(1) : null;
+            Instant lessThan = filter.getLessThan() != null ? filter.getLessThan().minusNanos(1) : null;
+            Instant from = latest(filter.getGreaterThanOrEqual(), greaterThan);
+            Instant to = earliest(filter.getLessThanOrEqual(), lessThan);
+            return from != null && to != null ? new DueDateRange(from, to) : null;
+        }
+
+        private static Instant latest(Instant first, Instant second) {
+            return first == null || (second != null && second.isAfter(first)) ? second : first;
+        }
+
+        private static Instant earliest(Instant first, Instant second) {
+            return first == null || (second != null && second.isBefore(first)) ? second : first;
+        }
+
+        boolean contains(Instant date) {
+            return !date.isBefore(from) && !date.isAfter(to);
+        }
+    }
+
+    /**
+     * A one-off reminder, or an occurrence of a recurring one, with its {@code occurrenceDate} in the rule.
+     */
+    private record Occurrence(Reminder reminder, Instant dueDate, Instant occurrenceDate, boolean completed) {
+        static Occurrence of(Reminder reminder) {
+            return new Occurrence(reminder, reminder.getDueDate(), null, Boolean.TRUE.equals(reminder.getIsCompleted()));
+        }
+    }
+
+    /**
+     * The one-off reminders matching a specification in due date order, read in batches after a {@code (dueDate, id)} cursor.
+     */
+    private final class OneOffIterator implements Iterator<Occurrence> {
+
+        private final Specification<Reminder> specification;
+
+        private Iterator<Reminder> batch = List.<Reminder>of().iterator();
+
+        private Reminder last;
+
+        private boolean exhausted;
+
+        private OneOffIterator(Specification<Reminder> specification) {
+            this.specification = specification;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!batch.hasNext() && !exhausted) {
+                Specification<Reminder> next = last == null ? specification : specification.and(after(last));
+                List<Reminder> reminders = reminderRepository.findBy(next, query ->
+                    query.sortBy(DUE_DATE_ORDER).limit(ONE_OFF_BATCH_SIZE).all()
+                );
+                exhausted = reminders.size() < ONE_OFF_BATCH_SIZE;
+                batch = reminders.iterator();
+            }
+            return batch.hasNext();
+        }
+
+        @Override
+        public Occurrence next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = batch.next();
+            return Occurrence.of(last);
+        }
+
+        private static Specification<Reminder> after(Reminder reminder) {
+            return (root, query, builder) ->
+                builder.or(
+                    builder.greaterThan(root.get(Reminder_.dueDate), reminder.getDueDate()),
+                    builder.and(
+                        builder.equal(root.get(Reminder_.dueDate), reminder.getDueDate()),
+                        builder.greaterThan(root.get(Reminder_.id), reminder.getId())
+                    )
+                );
+        }
+    }
+
+    /**
+     * An iterator counting the occurrences read from it.
+     */
+    private static final class CountingIterator implements Iterator<Occurrence> {
+
+        private final Iterator<Occurrence> source;
+
+        private long count;
+
+        private CountingIterator(Iterator<Occurrence> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public Occurrence next() {
+            Occurrence occurrence = source.next();
+            count++;
+            return occurrence;
+        }
+
+        /**
+         * Read the rest of the occurrences.
+         * @return the number of occurrences read from the start.
+         */
+        long drain() {
+            while (source.hasNext()) {
+                next();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Merge sorted iterators of occurrences, reading each one only as far as the merged iteration goes.
+     */
+    private static final class MergingIterator implements Iterator<Occurrence> {
+
+        private record Head(Occurrence occurrence, Iterator<Occurrence> source) {}
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::occurrence, OCCURRENCE_ORDER));
+
+        private MergingIterator(List<Iterator<Occurrence>> sources) {
+            sources.forEach(this::advance);
+        }
+
+        private void advance(Iterator<Occurrence> source) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Occurrence next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.source());
+            return head.occurrence();
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package ar.edu.um.service;
 
 import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.ReminderFields;
+import ar.edu.um.service.dto.ReminderOccurrenceDTO;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,21 +20,32 @@ public interface ReminderService {
     ReminderDTO save(ReminderDTO reminderDTO);
 
     /**
-     * Updates a reminder.
+     * Updates a reminder, if its version is still the one of the DTO, when the DTO has one.
      *
      * @param reminderDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the reminder does not exist.
+     * @throws VersionConflictException if the reminder was updated since the version of the DTO.
      */
-    ReminderDTO update(ReminderDTO reminderDTO);
+    Optional<ReminderDTO> update(ReminderDTO reminderDTO);
 
     /**
-     * Partially updates a reminder.
+     * Partially updates a reminder, if its version is still the one of the DTO, when the DTO has one.
      *
      * @param reminderDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the reminder does not exist.
+     * @throws VersionConflictException if the reminder was updated since the version of the DTO.
      */
     Optional<ReminderDTO> partialUpdate(ReminderDTO reminderDTO);
 
+    /**
+     * Save an exception to the recurrence rule of a reminder: the completion, cancellation or move of one of its occurrences.
+     *
+     * @param reminderId the id of the recurring reminder.
+     * @param reminderOccurrenceDTO the occurrence, identified by its date in the rule.
+     * @return the persisted entity, or empty if the reminder does not exist.
+     */
+    Optional<ReminderOccurrenceDTO> saveOccurrence(Long reminderId, ReminderOccurrenceDTO reminderOccurrenceDTO);
+
     /**
      * Get all the reminders with eager load of many-to-many relationships.
      *
@@ -65,4 +78,14 @@ public interface ReminderService {
      * @return the list of entities.
      */
     Page<ReminderDTO> search(String query, Pageable pageable);
+
+    /**
+     * Search for the reminder corresponding to the query, with only the fields of a sparse fieldset.
+     *
+     * @param query the query of the search.
+     * @param pageable the pagination information.
+     * @param fields the fields to fetch from the search documents.
+     * @return the list of entities.
+     */
+    Page<ReminderDTO> search(String query, Pageable pageable, ReminderFields fields);
 }
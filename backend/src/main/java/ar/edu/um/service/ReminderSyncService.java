@@ -0,0 +1,532 @@
+package ar.edu.um.service;
+
+import static ar.edu.um.service.util.TransactionUtils.afterCommit;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.SyncOperationKey;
+import ar.edu.um.repository.CategoryRepository;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.ReminderTombstoneRepository;
+import ar.edu.um.repository.SyncOperationKeyRepository;
+import ar.edu.um.repository.TagRepository;
+import ar.edu.um.repository.UserRepository;
+import ar.edu.um.repository.search.ReminderSearchRepository;
+import ar.edu.um.security.SecurityUtils;
+import ar.edu.um.service.dto.CategoryDTO;
+import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.SyncOperationDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO.Status;
+import ar.edu.um.service.dto.TagDTO;
+import ar.edu.um.service.dto.UserDTO;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
+import ar.edu.um.service.mapper.ReminderMapper;
+import ar.edu.um.service.notification.ReminderNotificationService;
+import ar.edu.um.service.recurrence.RecurrenceRule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service applying the operations of the offline queue of a client, pushed in batches.
+ * <p>
+ * A batch is applied in a single transaction: the reminders it updates or deletes are loaded with one query, and the
+ * categories, tags and users its reminders reference are checked with one query each, so that an operation referencing
+ * one which does not exist is refused as {@link Status#INVALID} instead of failing the whole batch on flush. The
+ * operations are applied in order in the persistence context, and the writes are flushed once, so that Hibernate sends
+ * them as JDBC batches. The change sequences and tombstones of the batch are then written with one statement each, and
+ * the search index and notifications are updated once it commits.
+ * <p>
+ * Every operation carries an idempotency key, claimed as a {@link SyncOperationKey} in the transaction applying it and
+ * stored there with its result. An operation whose key is found is not applied again: its previous result is returned,
+ * with status {@link Status#DUPLICATE}. The key being unique per user, a replay pushed while the first push is still
+ * running waits for it at the claim, on any node, and gets its result once it commits.
+ */
+@Service
+@Transactional
+public class ReminderSyncService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderSyncService.class);
+
+    private final ReminderRepository reminderRepository;
+
+    private final ReminderTombstoneRepository reminderTombstoneRepository;
+
+    private final ReminderSearchRepository reminderSearchRepository;
+
+    private final ReminderNotificationService reminderNotificationService;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final ReminderMapper reminderMapper;
+
+    private final Validator validator;
+
+    private final SyncOperationKeyRepository syncOperationKeyRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final TagRepository tagRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.ReminderSync properties;
+
+    public ReminderSyncService(
+        ReminderRepository reminderRepository,
+        ReminderTombstoneRepository reminderTombstoneRepository,
+        ReminderSearchRepository reminderSearchRepository,
+        ReminderNotificationService reminderNotificationService,
+        ChangeFeedService changeFeedService,
+        ReminderMapper reminderMapper,
+        Validator validator,
+        SyncOperationKeyRepository syncOperationKeyRepository,
+        CategoryRepository categoryRepository,
+        TagRepository tagRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.reminderRepository = reminderRepository;
+        this.reminderTombstoneRepository = reminderTombstoneRepository;
+        this.reminderSearchRepository = reminderSearchRepository;
+        this.reminderNotificationService = reminderNotificationService;
+        this.changeFeedService = changeFeedService;
+        this.reminderMapper = reminderMapper;
+        this.validator = validator;
+        this.syncOperationKeyRepository = syncOperationKeyRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.userRepository = userRepository;
+        this.properties = applicationProperties.getReminderSync();
+    }
+
+    /**
+     * Apply a batch of operations in order.
+     *
+     * @param operations the operations, in the order of the queue of the client.
+     * @return the result of each operation, in the same order.
+     * @throws SyncBatchTooLargeException if the batch has more than the configured maximum of operations.
+     */
+    public List<SyncOperationResultDTO> sync(List<SyncOperationDTO> operations) {
+        LOG.debug("Request to sync {} operations", operations.size());
+        if (operations.size() > properties.getMaxOperations()) {
+            throw new SyncBatchTooLargeException();
+        }
+        String login = SecurityUtils.getCurrentUserLogin().orElse("");
+        Map<String, SyncOperationResultDTO> results = findResults(login, operations);
+        Batch batch = new Batch(findTargets(operations), findReferences(operations));
+        Instant now = Instant.now();
+
+        List<SyncOperationResultDTO> batchResults = new ArrayList<>(operations.size());
+        Map<String, SyncOperationResultDTO> applied = new LinkedHashMap<>();
+        for (SyncOperationDTO operation : operations) {
+            String key = operation.getIdempotencyKey();
+            SyncOperationResultDTO previous = results.get(key);
+            if (previous == null && syncOperationKeyRepository.claim(login, key, now) == 0) {
+                // claimed by a concurrent push of the same operation, which has committed since
+                previous = syncOperationKeyRepository
+                    .findOneByLoginAndIdempotencyKey(login, key)
+                    .map(ReminderSyncService::result)
+                    .orElse(null);
+            }
+            if (previous != null) {
+                batch.replayed(previous);
+                batchResults.add(duplicate(previous));
+                continue;
+            }
+            SyncOperationResultDTO result = batch.apply(operation);
+            applied.put(key, result);
+            results.put(key, result);
+            batchResults.add(result);
+        }
+        batch.flush();
+        // the saved state is only known once flushed
+        applied.values().forEach(batch::complete);
+        storeResults(login, applied);
+
+        afterCommit(batch::afterCommit);
+        return batchResults;
+    }
+
+    /**
+     * Idempotency keys are purged once a replay of their operations is not expected anymore.
+     * <p>
+     * This is scheduled to get fired every day, at 02:15 (am).
+     */
+    @Scheduled(cron = "0 15 2 * * ?")
+    public void purgeIdempotencyKeys() {
+        Instant before = Instant.now().minusSeconds(properties.getIdempotencyKeyTtlSeconds());
+        int purged = syncOperationKeyRepository.deleteCreatedBefore(before);
+        LOG.debug("Purged {} sync idempotency keys", purged);
+    }
+
+    /**
+     * The results of the operations of a batch already applied by a committed push, by idempotency key, read with one
+     * query.
+     */
+    private Map<String, SyncOperationResultDTO> findResults(String login, List<SyncOperationDTO> operations) {
+        Set<String> keys = operations.stream().map(SyncOperationDTO::getIdempotencyKey).collect(Collectors.toSet());
+        Map<String, SyncOperationResultDTO> results = new HashMap<>();
+        if (!keys.isEmpty()) {
+            syncOperationKeyRepository
+                .findAllByLoginAndIdempotencyKeyIn(login, keys)
+                .forEach(key -> results.put(key.getIdempotencyKey(), result(key)));
+        }
+        return results;
+    }
+
+    /**
+     * Store the results of the applied operations in their claimed keys, written as a batch of updates on commit.
+     */
+    private void storeResults(String login, Map<String, SyncOperationResultDTO> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        for (SyncOperationKey key : syncOperationKeyRepository.findAllByLoginAndIdempotencyKeyIn(login, applied.keySet())) {
+            SyncOperationResultDTO result = applied.get(key.getIdempotencyKey());
+            key.setStatus(result.getStatus().name());
+            key.setLocalId(result.getLocalId());
+            key.setReminderId(result.getReminderId());
+            String message = result.getMessage();
+            key.setMessage(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+        }
+    }
+
+    private static SyncOperationResultDTO result(SyncOperationKey key) {
+        SyncOperationResultDTO result = new SyncOperationResultDTO();
+        result.setIdempotencyKey(key.getIdempotencyKey());
+        result.setStatus(key.getStatus() != null ? Status.valueOf(key.getStatus()) : null);
+        result.setLocalId(key.getLocalId());
+        result.setReminderId(key.getReminderId());
+        result.setMessage(key.getMessage());
+        return result;
+    }
+
+    /**
+     * The reminders updated or deleted by the operations, loaded with one query.
+     */
+    private Map<Long, Reminder> findTargets(List<SyncOperationDTO> operations) {
+        Set<Long> ids = operations
+            .stream()
+            .filter(operation -> operation.getType() != SyncOperationDTO.Type.CREATE)
+            .map(SyncOperationDTO::getReminderId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return reminderRepository.findAllById(ids).stream().collect(Collectors.toMap(Reminder::getId, Function.identity()));
+    }
+
+    /**
+     * The categories, tags and users referenced by the reminders of the operations which exist, loaded with one query each.
+     */
+    private References findReferences(List<SyncOperationDTO> operations) {
+        List<ReminderDTO> reminders = operations.stream().map(SyncOperationDTO::getReminder).filter(Objects::nonNull).toList();
+        Set<Long> categoryIds = distinctIds(
+            reminders.stream().map(ReminderDTO::getCategory).filter(Objects::nonNull).map(CategoryDTO::getId)
+        );
+        Set<Long> tagIds = distinctIds(
+            reminders.stream().map(ReminderDTO::getTags).filter(Objects::nonNull).flatMap(Set::stream).map(TagDTO::getId)
+        );
+        Set<Long> userIds = distinctIds(reminders.stream().map(ReminderDTO::getUser).filter(Objects::nonNull).map(UserDTO::getId));
+        return new References(
+            categoryIds.isEmpty() ? Set.of() : categoryRepository.findIdsByIdIn(categoryIds),
+            tagIds.isEmpty() ? Set.of() : tagRepository.findIdsByIdIn(tagIds),
+            userIds.isEmpty() ? Set.of() : userRepository.findIdsByIdIn(userIds)
+        );
+    }
+
+    private static Set<Long> distinctIds(Stream<Long> ids) {
+        return ids.filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    /**
+     * The ids of the categories, tags and users referenced by a batch which exist.
+     */
+    private record References(Set<Long> categoryIds, Set<Long> tagIds, Set<Long> userIds) {
+        /**
+         * @return the reference of the reminder which does not exist, or {@code null} if they all do.
+         */
+        String missing(ReminderDTO reminderDTO) {
+            CategoryDTO category = reminderDTO.getCategory();
+            if (category != null && category.getId() != null && !categoryIds.contains(category.getId())) {
+                return "category " + category.getId() + " does not exist";
+            }
+            if (reminderDTO.getTags() != null) {
+                for (TagDTO tag : reminderDTO.getTags()) {
+                    if (tag != null && tag.getId() != null && !tagIds.contains(tag.getId())) {
+                        return "tag " + tag.getId() + " does not exist";
+                    }
+                }
+            }
+            UserDTO user = reminderDTO.getUser();
+            if (user != null && user.getId() != null && !userIds.contains(user.getId())) {
+                return "user " + user.getId() + " does not exist";
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The result of a replayed operation, which maps its local id like the first time.
+     */
+    private static SyncOperationResultDTO duplicate(SyncOperationResultDTO previous) {
+        SyncOperationResultDTO result = withoutReminder(previous);
+        if (result.getStatus() == Status.APPLIED) {
+            result.setStatus(Status.DUPLICATE);
+        }
+        return result;
+    }
+
+    /**
+     * The result returned to the replays, the client gets the current state of the reminder from its next changes.
+     */
+    private static SyncOperationResultDTO withoutReminder(SyncOperationResultDTO result) {
+        SyncOperationResultDTO copy = new SyncOperationResultDTO();
+        copy.setIdempotencyKey(result.getIdempotencyKey());
+        copy.setStatus(result.getStatus());
+        copy.setLocalId(result.getLocalId());
+        copy.setReminderId(result.getReminderId());
+        copy.setMessage(result.getMessage());
+        return copy;
+    }
+
+    /**
+     * The state of a batch being applied.
+     */
+    private final class Batch {
+
+        /**
+         * The reminders which can be updated or deleted, by id.
+         */
+        private final Map<Long, Reminder> reminders;
+
+        private final References references;
+
+        /**
+         * The ids of the reminders created by the batch or its previous pushes, by local id.
+         */
+        private final Map<String, Long> created = new HashMap<>();
+
+        /**
+         * The reminders created or updated by the batch, by result.
+         */
+        private final Map<SyncOperationResultDTO, Reminder> saved = new IdentityHashMap<>();
+
+        private final Set<Reminder> updated = new LinkedHashSet<>();
+
+        private final Set<Reminder> deleted = new LinkedHashSet<>();
+
+        private Batch(Map<Long, Reminder> reminders, References references) {
+            this.reminders = reminders;
+            this.references = references;
+        }
+
+        SyncOperationResultDTO apply(SyncOperationDTO operation) {
+            if (operation.getType() == null) {
+                return invalid(operation, "type is required");
+            }
+            return switch (operation.getType()) {
+                case CREATE -> create(operation);
+                case UPDATE -> update(operation);
+                case DELETE -> delete(operation);
+            };
+        }
+
+        private SyncOperationResultDTO create(SyncOperationDTO operation) {
+            ReminderDTO reminderDTO = operation.getReminder();
+            if (reminderDTO == null || reminderDTO.getId() != null) {
+                return invalid(operation, "a new reminder without id is required");
+            }
+            String violation = validate(reminderDTO);
+            if (violation != null) {
+                return invalid(operation, violation);
+            }
+            Reminder reminder = reminderRepository.save(reminderMapper.toEntity(reminderDTO));
+            reminders.put(reminder.getId(), reminder);
+            if (operation.getLocalId() != null) {
+                created.put(operation.getLocalId(), reminder.getId());
+            }
+            return saved(operation, reminder);
+        }
+
+        private SyncOperationResultDTO update(SyncOperationDTO operation) {
+            Reminder target = findTarget(operation);
+            if (target == null) {
+                return new SyncOperationResultDTO(operation, Status.NOT_FOUND);
+            }
+            ReminderDTO reminderDTO = operation.getReminder();
+            if (reminderDTO == null || (reminderDTO.getId() != null && !reminderDTO.getId().equals(target.getId()))) {
+                return invalid(operation, "the reminder of the target is required");
+            }
+            if (reminderDTO.getVersion() != null && !reminderDTO.getVersion().equals(target.getVersion())) {
+                SyncOperationResultDTO result = new SyncOperationResultDTO(operation, Status.CONFLICT);
+                result.setReminderId(target.getId());
+                result.setReminder(reminderMapper.toDto(target));
+                return result;
+            }
+            reminderDTO.setId(target.getId());
+            String violation = validate(reminderDTO);
+            if (violation != null) {
+                return invalid(operation, violation);
+            }
+            // merged into the reminder already loaded, without selecting it again
+            Reminder reminder = reminderMapper.toEntity(reminderDTO);
+            reminder.setVersion(target.getVersion());
+            reminder = reminderRepository.save(reminder);
+            reminders.put(reminder.getId(), reminder);
+            updated.add(reminder);
+            return saved(operation, reminder);
+        }
+
+        private SyncOperationResultDTO delete(SyncOperationDTO operation) {
+            Reminder target = findTarget(operation);
+            if (target == null) {
+                return new SyncOperationResultDTO(operation, Status.NOT_FOUND);
+            }
+            reminders.remove(target.getId());
+            updated.remove(target);
+            deleted.add(target);
+            SyncOperationResultDTO result = new SyncOperationResultDTO(operation, Status.APPLIED);
+            result.setReminderId(target.getId());
+            return result;
+        }
+
+        /**
+         * Keep the local id of a replayed create, for the next operations of the batch on the same reminder.
+         */
+        void replayed(SyncOperationResultDTO previous) {
+            Long id = previous.getReminderId();
+            String localId = previous.getLocalId();
+            if (localId == null || id == null || previous.getStatus() != Status.APPLIED || created.containsKey(localId)) {
+                return;
+            }
+            created.put(localId, id);
+            if (!reminders.containsKey(id)) {
+                // created by a previous push, so it was not loaded with the others
+                reminderRepository.findById(id).ifPresent(reminder -> reminders.put(id, reminder));
+            }
+        }
+
+        private Reminder findTarget(SyncOperationDTO operation) {
+            Long id = operation.getReminderId();
+            if (id == null && operation.getLocalId() != null) {
+                id = created.get(operation.getLocalId());
+            }
+            return id != null ? reminders.get(id) : null;
+        }
+
+        private SyncOperationResultDTO saved(SyncOperationDTO operation, Reminder reminder) {
+            SyncOperationResultDTO result = new SyncOperationResultDTO(operation, Status.APPLIED);
+            result.setReminderId(reminder.getId());
+            saved.put(result, reminder);
+            return result;
+        }
+
+        /**
+         * Write the batch: the creates and updates as JDBC batches, then the change sequences of the updated reminders, and
+         * the tombstones of the deleted ones before they are deleted as a batch as well.
+         */
+        void flush() {
+            reminderRepository.flush();
+            Set<Long> updatedIds = ids(updated);
+            if (!updatedIds.isEmpty()) {
+                reminderRepository.touchAll(updatedIds);
+            }
+            Set<Long> deletedIds = ids(deleted);
+            if (!deletedIds.isEmpty()) {
+                reminderTombstoneRepository.insertForReminders(deletedIds, Instant.now());
+                reminderRepository.deleteAll(deleted);
+                reminderRepository.flush();
+            }
+            // rescheduled and published once the transaction commits
+            saved().forEach(reminder -> {
+                reminderNotificationService.reschedule(reminder.getId(), reminder.getDueDate(), reminder.getIsCompleted());
+                changeFeedService.publish(
+                    ChangeFeedEvent.REMINDER,
+                    reminder.getId(),
+                    created.containsValue(reminder.getId()) ? ChangeFeedEvent.Action.CREATED : ChangeFeedEvent.Action.UPDATED,
+                    reminder.getUser() != null ? reminder.getUser().getId() : null
+                );
+            });
+            deleted.forEach(reminder -> {
+                reminderNotificationService.cancel(reminder.getId());
+                changeFeedService.publish(
+                    ChangeFeedEvent.REMINDER,
+                    reminder.getId(),
+                    ChangeFeedEvent.Action.DELETED,
+                    reminder.getUser() != null ? reminder.getUser().getId() : null
+                );
+            });
+        }
+
+        void complete(SyncOperationResultDTO result) {
+            Reminder reminder = saved.get(result);
+            if (reminder != null && !deleted.contains(reminder)) {
+                result.setReminder(reminderMapper.toDto(reminder));
+            }
+        }
+
+        void afterCommit() {
+            Set<Long> indexed = ids(saved());
+            if (!indexed.isEmpty()) {
+                reminderSearchRepository.indexAll(indexed);
+            }
+            if (!deleted.isEmpty()) {
+                reminderSearchRepository.deleteAllFromIndexById(ids(deleted));
+            }
+        }
+
+        /**
+         * The reminders created or updated by the batch, and not deleted since.
+         */
+        private Set<Reminder> saved() {
+            Set<Reminder> reminders = new HashSet<>(saved.values());
+            reminders.removeAll(deleted);
+            return reminders;
+        }
+
+        private String validate(ReminderDTO reminderDTO) {
+            Set<ConstraintViolation<ReminderDTO>> violations = validator.validate(reminderDTO);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<ReminderDTO> violation = violations.iterator().next();
+                return violation.getPropertyPath() + " " + violation.getMessage();
+            }
+            if (reminderDTO.getRecurrenceRule() != null && !RecurrenceRule.isValid(reminderDTO.getRecurrenceRule())) {
+                return "recurrenceRule is not valid";
+            }
+            return references.missing(reminderDTO);
+        }
+
+        private SyncOperationResultDTO invalid(SyncOperationDTO operation, String message) {
+            SyncOperationResultDTO result = new SyncOperationResultDTO(operation, Status.INVALID);
+            result.setMessage(message);
+            return result;
+        }
+
+        private static Set<Long> ids(Set<Reminder> reminders) {
+            return reminders.stream().map(Reminder::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ar.edu.um.service;
+
+public class SyncBatchTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SyncBatchTooLargeException() {
+        super("Too many operations!");
+    }
+}
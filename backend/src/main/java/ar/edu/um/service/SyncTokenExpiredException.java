@@ -0,0 +1,10 @@
+package ar.edu.um.service;
+
+public class SyncTokenExpiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SyncTokenExpiredException() {
+        super("Sync token has expired!");
+    }
+}
@@ -1,5 +1,8 @@
 package ar.edu.um.service;
 
+import static ar.edu.um.service.util.TransactionUtils.afterCommit;
+
+import ar.edu.um.config.ApplicationProperties;
 import ar.edu.um.config.Constants;
 import ar.edu.um.domain.Authority;
 import ar.edu.um.domain.User;
@@ -10,19 +13,32 @@ import ar.edu.um.security.AuthoritiesConstants;
 import ar.edu.um.security.SecurityUtils;
 import ar.edu.um.service.dto.AdminUserDTO;
 import ar.edu.um.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -34,6 +50,15 @@ public class UserService {
 
     private static final Logger LOG = LoggerFactory.getLogger(UserService.class);
 
+    /**
+     * Serialized accounts of {@code GET /api/account}, by user id.
+     */
+    public static final String ACCOUNTS_BY_ID_CACHE = "accountsById";
+
+    static final String CLEANUP_ROWS_METER_NAME = "user.cleanup.rows";
+
+    static final String CLEANUP_THROUGHPUT_METER_NAME = "user.cleanup.rows.per.second";
+
     private final UserRepository userRepository;
 
     private final PasswordEncoder passwordEncoder;
@@ -44,18 +69,52 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final RefreshTokenService refreshTokenService;
+
+    private final MailService mailService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.UserCleanup cleanupProperties;
+
+    private final Counter cleanupDeleted;
+
+    private final Counter cleanupFailed;
+
+    private final AtomicLong cleanupThroughput = new AtomicLong();
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         UserSearchRepository userSearchRepository,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        RefreshTokenService refreshTokenService,
+        MailService mailService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userSearchRepository = userSearchRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.refreshTokenService = refreshTokenService;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cleanupProperties = applicationProperties.getUserCleanup();
+        this.cleanupDeleted = Counter.builder(CLEANUP_ROWS_METER_NAME)
+            .description("Not activated users processed by the cleanup job")
+            .tag("result", "deleted")
+            .register(meterRegistry);
+        this.cleanupFailed = Counter.builder(CLEANUP_ROWS_METER_NAME)
+            .description("Not activated users processed by the cleanup job")
+            .tag("result", "failed")
+            .register(meterRegistry);
+        Gauge.builder(CLEANUP_THROUGHPUT_METER_NAME, cleanupThroughput, AtomicLong::get)
+            .description("Rows deleted per second by the last run of the cleanup job")
+            .register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -82,11 +141,18 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                refreshTokenService.revokeTokens(user.getId());
                 this.clearUserCaches(user);
                 return user;
             });
     }
 
+    /**
+     * Give the user of an email a reset key, and email it to them in the same transaction.
+     *
+     * @param mail the email of the user.
+     * @return the user, or empty if no activated user has this email.
+     */
     public Optional<User> requestPasswordReset(String mail) {
         return userRepository
             .findOneByEmailIgnoreCase(mail)
@@ -95,10 +161,18 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
 
+    /**
+     * Register a user, and email them their activation link in the same transaction.
+     *
+     * @param userDTO the user to register.
+     * @param password the password of the user.
+     * @return the registered user.
+     */
     public User registerUser(AdminUserDTO userDTO, String password) {
         userRepository
             .findOneByLogin(userDTO.getLogin().toLowerCase())
@@ -128,6 +202,7 @@ public class UserService {
         }
         newUser.setImageUrl(userDTO.getImageUrl());
         newUser.setLangKey(userDTO.getLangKey());
+        newUser.setTimeZone(userDTO.getTimeZone());
         // new user is not active
         newUser.setActivated(true);
         // new user gets registration key
@@ -139,6 +214,7 @@ public class UserService {
         userSearchRepository.save(newUser);
         this.clearUserCaches(newUser);
         LOG.debug("Created Information for User: {}", newUser);
+        mailService.sendActivationEmail(newUser);
         return newUser;
     }
 
@@ -152,6 +228,12 @@ public class UserService {
         return true;
     }
 
+    /**
+     * Create a user for an administrator, and email them the link to set their password in the same transaction.
+     *
+     * @param userDTO the user to create.
+     * @return the created user.
+     */
     public User createUser(AdminUserDTO userDTO) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
@@ -166,25 +248,20 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
+        user.setTimeZone(userDTO.getTimeZone());
         String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
         user.setPassword(encryptedPassword);
         user.setResetKey(RandomUtil.generateResetKey());
         user.setResetDate(Instant.now());
         user.setActivated(true);
         if (userDTO.getAuthorities() != null) {
-            Set<Authority> authorities = userDTO
-                .getAuthorities()
-                .stream()
-                .map(authorityRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
-            user.setAuthorities(authorities);
+            user.setAuthorities(findAuthorities(userDTO.getAuthorities()));
         }
         userRepository.save(user);
         userSearchRepository.index(user);
         this.clearUserCaches(user);
         LOG.debug("Created Information for User: {}", user);
+        mailService.sendCreationEmail(user);
         return user;
     }
 
@@ -209,15 +286,10 @@ public class UserService {
                 user.setImageUrl(userDTO.getImageUrl());
                 user.setActivated(userDTO.isActivated());
                 user.setLangKey(userDTO.getLangKey());
+                user.setTimeZone(userDTO.getTimeZone());
                 Set<Authority> managedAuthorities = user.getAuthorities();
                 managedAuthorities.clear();
-                userDTO
-                    .getAuthorities()
-                    .stream()
-                    .map(authorityRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(managedAuthorities::add);
+                managedAuthorities.addAll(findAuthorities(userDTO.getAuthorities()));
                 userRepository.save(user);
                 userSearchRepository.index(user);
                 this.clearUserCaches(user);
@@ -231,6 +303,7 @@ public class UserService {
         userRepository
             .findOneByLogin(login)
             .ifPresent(user -> {
+                refreshTokenService.revokeTokens(user.getId());
                 userRepository.delete(user);
                 userSearchRepository.deleteFromIndex(user);
                 this.clearUserCaches(user);
@@ -239,17 +312,17 @@ public class UserService {
     }
 
     /**
-     * Update basic information (first name, last name, email, language) for the current user.
+     * Update basic information (first name, last name, email, language, time zone) for the current user.
      *
      * @param firstName first name of user.
      * @param lastName  last name of user.
      * @param email     email id of user.
      * @param langKey   language key.
      * @param imageUrl  image URL of user.
+     * @param timeZone  time zone of user, the recurring reminders of which are expanded in it.
      */
-    public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
-        SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
+    public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl, String timeZone) {
+        findCurrentUser()
             .ifPresent(user -> {
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
@@ -258,6 +331,7 @@ public class UserService {
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
+                user.setTimeZone(timeZone);
                 userRepository.save(user);
                 userSearchRepository.index(user);
                 this.clearUserCaches(user);
@@ -267,8 +341,7 @@ public class UserService {
 
     @Transactional
     public void changePassword(String currentClearTextPassword, String newPassword) {
-        SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
+        findCurrentUser()
             .ifPresent(user -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
@@ -276,6 +349,7 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                refreshTokenService.revokeTokens(user.getId());
                 this.clearUserCaches(user);
                 LOG.debug("Changed password for User: {}", user);
             });
@@ -283,12 +357,46 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+        Page<User> page = userRepository.findAll(pageable);
+        return new PageImpl<>(toAdminUserDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Same as {@link #getAllManagedUsers(Pageable)}, without counting the users.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> getManagedUsersSlice(Pageable pageable) {
+        Slice<User> slice = userRepository.findSliceBy(pageable);
+        return new SliceImpl<>(toAdminUserDTOs(slice.getContent()), slice.getPageable(), slice.hasNext());
+    }
+
+    /**
+     * Map a page of users, loading all their authorities in one query instead of one lazy collection per user.
+     */
+    private List<AdminUserDTO> toAdminUserDTOs(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Set<String>> authoritiesByUserId = new HashMap<>();
+        userRepository
+            .findAuthoritiesByUserIdIn(users.stream().map(User::getId).toList())
+            .forEach(userAuthority ->
+                authoritiesByUserId.computeIfAbsent(userAuthority.getUserId(), id -> new HashSet<>()).add(userAuthority.getAuthority())
+            );
+        return users.stream().map(user -> new AdminUserDTO(user, authoritiesByUserId.getOrDefault(user.getId(), Set.of()))).toList();
     }
 
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
-        return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
+        return userRepository.findAllByActivatedIsTrue(pageable).map(user -> new UserDTO(user.getId(), user.getLogin()));
+    }
+
+    /**
+     * Same as {@link #getAllPublicUsers(Pageable)}, without counting the users.
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getPublicUsersSlice(Pageable pageable) {
+        return userRepository.findSliceByActivatedIsTrue(pageable).map(user -> new UserDTO(user.getId(), user.getLogin()));
     }
 
     @Transactional(readOnly = true)
@@ -298,24 +406,68 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUser()
+            .flatMap(currentUser ->
+                currentUser.id() != null
+                    ? userRepository.findOneWithAuthoritiesById(currentUser.id())
+                    : userRepository.findOneWithAuthoritiesByLogin(currentUser.login())
+            );
+    }
+
+    /**
+     * Load the current user by the id carried in its token, falling back to its login when the token has no id.
+     */
+    private Optional<User> findCurrentUser() {
+        return SecurityUtils.getCurrentUser()
+            .flatMap(currentUser ->
+                currentUser.id() != null ? userRepository.findById(currentUser.id()) : userRepository.findOneByLogin(currentUser.login())
+            );
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
      * This is scheduled to get fired every day, at 01:00 (am).
+     * <p>
+     * The users are deleted by chunks of {@code application.user-cleanup.chunk-size}, each in its own transaction, so an
+     * interrupted run keeps what it deleted and the next run resumes with the remaining users. A chunk which cannot be deleted
+     * is skipped and retried by the next run.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                LOG.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                userSearchRepository.deleteFromIndex(user);
-                this.clearUserCaches(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        long start = System.nanoTime();
+        long afterId = Long.MIN_VALUE;
+        long deleted = 0;
+        int chunkSize = cleanupProperties.getChunkSize();
+        List<UserRepository.UserKeys> chunk;
+        do {
+            chunk = userRepository.findNotActivatedUserKeys(createdBefore, afterId, PageRequest.ofSize(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            List<Long> ids = chunk.stream().map(UserRepository.UserKeys::getId).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> userRepository.deleteAllByIdIn(ids));
+            } catch (DataAccessException e) {
+                LOG.warn("Could not delete {} not activated users after id {}, they are left for the next run", ids.size(), ids.get(0), e);
+                cleanupFailed.increment(ids.size());
+                continue;
+            }
+            try {
+                userSearchRepository.deleteAllById(ids);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not delete {} not activated users from the search index", ids.size(), e);
+            }
+            clearUserCaches(chunk);
+            cleanupDeleted.increment(ids.size());
+            deleted += ids.size();
+        } while (chunk.size() == chunkSize);
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        cleanupThroughput.set(deleted * TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+        LOG.debug("Deleted {} not activated users in {} ms", deleted, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
     }
 
     /**
@@ -324,11 +476,66 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<String> getAuthorities() {
-        return authorityRepository.findAll().stream().map(Authority::getName).toList();
+        return authorityRepository.findAllNames();
+    }
+
+    /**
+     * References to the given authorities, checked against the cached snapshot of the authority names instead of being selected.
+     * Unknown names are ignored.
+     */
+    private Set<Authority> findAuthorities(Set<String> names) {
+        List<String> knownNames = authorityRepository.findAllNames();
+        Set<Authority> authorities = new HashSet<>();
+        for (String name : names) {
+            if (knownNames.contains(name)) {
+                authorities.add(authorityRepository.getReferenceById(name));
+            }
+        }
+        return authorities;
+    }
+
+    private void clearUserCaches(List<UserRepository.UserKeys> users) {
+        Set<Object> logins = new HashSet<>();
+        Set<Object> ids = new HashSet<>();
+        Set<Object> emails = new HashSet<>();
+        for (UserRepository.UserKeys user : users) {
+            logins.add(user.getLogin());
+            ids.add(user.getId());
+            if (user.getEmail() != null) {
+                emails.add(user.getEmail());
+            }
+        }
+        evictAll(UserRepository.USERS_BY_LOGIN_CACHE, logins);
+        evictAll(UserRepository.USERS_BY_ID_CACHE, ids);
+        evictAll(UserRepository.USERS_BY_EMAIL_CACHE, emails);
+        evictAccounts(ids);
+    }
+
+    /**
+     * Evict the serialized accounts of users, again once the transaction commits: a concurrent {@code GET /account} may have
+     * read the users before the commit and cached them after the first eviction.
+     */
+    private void evictAccounts(Set<Object> ids) {
+        evictAll(ACCOUNTS_BY_ID_CACHE, ids);
+        afterCommit(() -> evictAll(ACCOUNTS_BY_ID_CACHE, ids));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictAll(String cacheName, Set<Object> keys) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache) {
+            ((javax.cache.Cache<Object, Object>) nativeCache).removeAll(keys);
+        } else {
+            keys.forEach(cache::evict);
+        }
     }
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evictIfPresent(user.getLogin());
+        if (user.getId() != null) {
+            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_ID_CACHE)).evictIfPresent(user.getId());
+            evictAccounts(Set.of(user.getId()));
+        }
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evictIfPresent(user.getEmail());
         }
@@ -0,0 +1,10 @@
+package ar.edu.um.service;
+
+public class VersionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VersionConflictException() {
+        super("Entity was modified since it was read!");
+    }
+}
@@ -41,6 +41,10 @@ public class AdminUserDTO implements Serializable {
     @Size(min = 2, max = 10)
     private String langKey;
 
+    @Size(max = 64)
+    @Pattern(regexp = Constants.TIME_ZONE_REGEX)
+    private String timeZone;
+
     private String createdBy;
 
     private Instant createdDate;
@@ -56,6 +60,13 @@ public class AdminUserDTO implements Serializable {
     }
 
     public AdminUserDTO(User user) {
+        this(user, user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Build the DTO with authorities loaded separately, leaving the lazy collection of the user untouched.
+     */
+    public AdminUserDTO(User user, Set<String> authorities) {
         this.id = user.getId();
         this.login = user.getLogin();
         this.firstName = user.getFirstName();
@@ -64,11 +75,12 @@ public class AdminUserDTO implements Serializable {
         this.activated = user.isActivated();
         this.imageUrl = user.getImageUrl();
         this.langKey = user.getLangKey();
+        this.timeZone = user.getTimeZone();
         this.createdBy = user.getCreatedBy();
         this.createdDate = user.getCreatedDate();
         this.lastModifiedBy = user.getLastModifiedBy();
         this.lastModifiedDate = user.getLastModifiedDate();
-        this.authorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet());
+        this.authorities = authorities;
     }
 
     public Long getId() {
@@ -135,6 +147,14 @@ public class AdminUserDTO implements Serializable {
         this.langKey = langKey;
     }
 
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
     public String getCreatedBy() {
         return createdBy;
     }
@@ -186,6 +206,7 @@ public class AdminUserDTO implements Serializable {
             ", imageUrl='" + imageUrl + '\'' +
             ", activated=" + activated +
             ", langKey='" + langKey + '\'' +
+            ", timeZone='" + timeZone + '\'' +
             ", createdBy=" + createdBy +
             ", createdDate=" + createdDate +
             ", lastModifiedBy='" + lastModifiedBy + '\'' +
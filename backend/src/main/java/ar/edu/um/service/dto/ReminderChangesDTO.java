@@ -0,0 +1,70 @@
+package ar.edu.um.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes of the reminders since a sync token: the reminders created or updated, and the ids of the deleted ones.
+ */
+public class ReminderChangesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<ReminderDTO> changed = new ArrayList<>();
+
+    private List<Long> deleted = new ArrayList<>();
+
+    /**
+     * The token to ask for the next changes with, opaque to the clients.
+     */
+    private String token;
+
+    /**
+     * Whether there are more changes after the token, which the client should ask for right away.
+     */
+    private boolean more;
+
+    public List<ReminderDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<ReminderDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public boolean isMore() {
+        return more;
+    }
+
+    public void setMore(boolean more) {
+        this.more = more;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReminderChangesDTO{" +
+            "changed=" + getChanged().size() +
+            ", deleted=" + getDeleted().size() +
+            ", token='" + getToken() + "'" +
+            ", more=" + isMore() +
+            "}";
+    }
+}
@@ -38,6 +38,20 @@ public class ReminderDTO implements Serializable {
 
     private Instant lastModifiedDate;
 
+    @Size(max = 255)
+    private String recurrenceRule;
+
+    /**
+     * Version the reminder had when it was read, an update is refused if it changed since.
+     */
+    private Long version;
+
+    /**
+     * Set on the occurrences of a recurring reminder, whose {@code dueDate} and {@code isCompleted} are those of the
+     * occurrence. Not persisted.
+     */
+    private Instant occurrenceDate;
+
     private CategoryDTO category;
 
     private UserDTO user;
@@ -108,6 +122,30 @@ public class ReminderDTO implements Serializable {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public String getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(Instant occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
     public CategoryDTO getCategory() {
         return category;
     }
@@ -165,6 +203,9 @@ public class ReminderDTO implements Serializable {
             ", priority='" + getPriority() + "'" +
             ", createdDate='" + getCreatedDate() + "'" +
             ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            ", recurrenceRule='" + getRecurrenceRule() + "'" +
+            ", version=" + getVersion() +
+            ", occurrenceDate='" + getOccurrenceDate() + "'" +
             ", category=" + getCategory() +
             ", user=" + getUser() +
             ", tags=" + getTags() +
@@ -0,0 +1,190 @@
+package ar.edu.um.service.dto;
+
+import ar.edu.um.domain.enumeration.Priority;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A sparse fieldset of {@link ReminderDTO}, the fields a client asks for with {@code ?fields=}: only their columns are read,
+ * their associations joined, and their properties written.
+ */
+public final class ReminderFields {
+
+    /**
+     * A field of {@link ReminderDTO}, with its property in the JSON and its attribute path in the entity. The associations
+     * are written by id, as in {@link ReminderDTO}, the ids of the to-one ones being read from the foreign key columns.
+     */
+    public enum Field {
+        ID("id", "id", (dto, value) -> dto.setId((Long) value), ReminderDTO::getId),
+        TITLE("title", "title", (dto, value) -> dto.setTitle((String) value), ReminderDTO::getTitle),
+        DESCRIPTION("description", "description", (dto, value) -> dto.setDescription((String) value), ReminderDTO::getDescription),
+        DUE_DATE("dueDate", "dueDate", (dto, value) -> dto.setDueDate((Instant) value), ReminderDTO::getDueDate),
+        IS_COMPLETED("isCompleted", "isCompleted", (dto, value) -> dto.setIsCompleted((Boolean) value), ReminderDTO::getIsCompleted),
+        PRIORITY("priority", "priority", (dto, value) -> dto.setPriority((Priority) value), ReminderDTO::getPriority),
+        CREATED_DATE("createdDate", "createdDate", (dto, value) -> dto.setCreatedDate((Instant) value), ReminderDTO::getCreatedDate),
+        LAST_MODIFIED_DATE(
+            "lastModifiedDate",
+            "lastModifiedDate",
+            (dto, value) -> dto.setLastModifiedDate((Instant) value),
+            ReminderDTO::getLastModifiedDate
+        ),
+        RECURRENCE_RULE(
+            "recurrenceRule",
+            "recurrenceRule",
+            (dto, value) -> dto.setRecurrenceRule((String) value),
+            ReminderDTO::getRecurrenceRule
+        ),
+        OCCURRENCE_DATE("occurrenceDate", null, (dto, value) -> {}, ReminderDTO::getOccurrenceDate),
+        VERSION("version", "version", (dto, value) -> dto.setVersion((Long) value), ReminderDTO::getVersion),
+        CATEGORY(
+            "category",
+            "category.id",
+            (dto, value) -> dto.setCategory(value != null ? category((Long) value) : null),
+            dto -> dto.getCategory() != null ? idOnly(dto.getCategory().getId()) : null
+        ),
+        USER(
+            "user",
+            "user.id",
+            (dto, value) -> dto.setUser(value != null ? user((Long) value) : null),
+            dto -> dto.getUser() != null ? idOnly(dto.getUser().getId()) : null
+        ),
+        TAGS("tags", "tags.id", (dto, value) -> {}, dto -> dto.getTags().stream().map(tag -> idOnly(tag.getId())).toList());
+
+        private final String property;
+
+        private final String attribute;
+
+        private final BiConsumer<ReminderDTO, Object> setter;
+
+        private final Function<ReminderDTO, Object> getter;
+
+        Field(String property, String attribute, BiConsumer<ReminderDTO, Object> setter, Function<ReminderDTO, Object> getter) {
+            this.property = property;
+            this.attribute = attribute;
+            this.setter = setter;
+            this.getter = getter;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        /**
+         * The attribute path of the field in the entity, and in its search document, or {@code null} if it is not stored.
+         */
+        public String getAttribute() {
+            return attribute;
+        }
+
+        /**
+         * Whether the field is read as a column of the reminder, the tags being read from their join table instead.
+         */
+        public boolean isColumn() {
+            return attribute != null && this != TAGS;
+        }
+
+        /**
+         * Set the field of a DTO from the value of its column.
+         */
+        public void set(ReminderDTO reminderDTO, Object value) {
+            setter.accept(reminderDTO, value);
+        }
+
+        private static Field ofProperty(String property) {
+            return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + property));
+        }
+    }
+
+    private final Set<Field> fields;
+
+    private ReminderFields(Set<Field> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parse a sparse fieldset.
+     *
+     * @param fields the comma separated JSON properties of the fields, the {@code id} being always included.
+     * @return the fieldset.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    public static ReminderFields parse(String fields) {
+        Set<Field> parsed = EnumSet.of(Field.ID);
+        for (String property : fields.split(",")) {
+            if (!property.isBlank()) {
+                parsed.add(Field.ofProperty(property.trim()));
+            }
+        }
+        return new ReminderFields(parsed);
+    }
+
+    /**
+     * Whether the reminders can be sorted by an attribute path when their fields are read as columns: only the attributes
+     * of these columns can, the ids of the to-one associations being read without joining them.
+     */
+    public static boolean isSortable(String attribute) {
+        return Arrays.stream(Field.values()).anyMatch(field -> field.isColumn() && field.attribute.equals(attribute));
+    }
+
+    public boolean contains(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * The fields read as columns, the {@code id} first.
+     */
+    public List<Field> getColumns() {
+        return fields.stream().filter(Field::isColumn).toList();
+    }
+
+    /**
+     * The attribute paths to fetch from the search documents.
+     */
+    public List<String> getAttributes() {
+        return fields.stream().map(Field::getAttribute).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * The properties of the fields of a DTO, to be written as JSON instead of the DTO.
+     */
+    public Map<String, Object> write(ReminderDTO reminderDTO) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (Field field : fields) {
+            properties.put(field.property, field.getter.apply(reminderDTO));
+        }
+        return properties;
+    }
+
+    private static Map<String, Object> idOnly(Long id) {
+        return Map.of("id", id);
+    }
+
+    private static CategoryDTO category(Long id) {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(id);
+        return categoryDTO;
+    }
+
+    private static UserDTO user(Long id) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(id);
+        return userDTO;
+    }
+
+    @Override
+    public String toString() {
+        return "ReminderFields{" + fields + "}";
+    }
+}
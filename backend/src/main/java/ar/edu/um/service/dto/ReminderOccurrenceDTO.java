@@ -0,0 +1,99 @@
+package ar.edu.um.service.dto;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link ar.edu.um.domain.ReminderOccurrence} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ReminderOccurrenceDTO implements Serializable {
+
+    private Long id;
+
+    @NotNull
+    private Instant occurrenceDate;
+
+    private Instant dueDate;
+
+    @NotNull
+    private Boolean isCompleted;
+
+    @NotNull
+    private Boolean isCancelled;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getOccurrenceDate() {
+        return occurrenceDate;
+    }
+
+    public void setOccurrenceDate(Instant occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+
+    public Instant getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(Instant dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    public Boolean getIsCancelled() {
+        return isCancelled;
+    }
+
+    public void setIsCancelled(Boolean isCancelled) {
+        this.isCancelled = isCancelled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReminderOccurrenceDTO)) {
+            return false;
+        }
+
+        ReminderOccurrenceDTO reminderOccurrenceDTO = (ReminderOccurrenceDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, reminderOccurrenceDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReminderOccurrenceDTO{" +
+            "id=" + getId() +
+            ", occurrenceDate='" + getOccurrenceDate() + "'" +
+            ", dueDate='" + getDueDate() + "'" +
+            ", isCompleted='" + getIsCompleted() + "'" +
+            ", isCancelled='" + getIsCancelled() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,93 @@
+package ar.edu.um.service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+
+/**
+ * An operation of the offline queue of a client, pushed in a sync batch.
+ * <p>
+ * The target of an update or a delete is either a reminder id, or the local id of a reminder created earlier in the batch.
+ */
+public class SyncOperationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE,
+    }
+
+    /**
+     * Generated by the client for the operation, and sent again when the batch is replayed.
+     */
+    @NotBlank
+    @Size(max = 64)
+    private String idempotencyKey;
+
+    @NotNull
+    private Type type;
+
+    @Size(max = 64)
+    private String localId;
+
+    private Long reminderId;
+
+    /**
+     * The reminder to create, or its new state for an update.
+     */
+    private ReminderDTO reminder;
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getLocalId() {
+        return localId;
+    }
+
+    public void setLocalId(String localId) {
+        this.localId = localId;
+    }
+
+    public Long getReminderId() {
+        return reminderId;
+    }
+
+    public void setReminderId(Long reminderId) {
+        this.reminderId = reminderId;
+    }
+
+    public ReminderDTO getReminder() {
+        return reminder;
+    }
+
+    public void setReminder(ReminderDTO reminder) {
+        this.reminder = reminder;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SyncOperationDTO{" +
+            "idempotencyKey='" + getIdempotencyKey() + "'" +
+            ", type='" + getType() + "'" +
+            ", localId='" + getLocalId() + "'" +
+            ", reminderId=" + getReminderId() +
+            "}";
+    }
+}
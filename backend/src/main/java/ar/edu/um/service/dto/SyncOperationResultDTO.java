@@ -0,0 +1,120 @@
+package ar.edu.um.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The result of a pushed {@link SyncOperationDTO}, which maps its local id to the id of the reminder.
+ */
+public class SyncOperationResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        /**
+         * The operation was applied.
+         */
+        APPLIED,
+        /**
+         * The operation was applied by a previous push of the same idempotency key.
+         */
+        DUPLICATE,
+        /**
+         * The reminder to update or delete does not exist.
+         */
+        NOT_FOUND,
+        /**
+         * The reminder was updated since the version the operation was based on, the result has its current state.
+         */
+        CONFLICT,
+        /**
+         * The operation is not valid, and is not retried.
+         */
+        INVALID,
+    }
+
+    private String idempotencyKey;
+
+    private Status status;
+
+    private String localId;
+
+    private Long reminderId;
+
+    /**
+     * The reminder as saved, for an applied create or update.
+     */
+    private ReminderDTO reminder;
+
+    private String message;
+
+    public SyncOperationResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SyncOperationResultDTO(SyncOperationDTO operation, Status status) {
+        this.idempotencyKey = operation.getIdempotencyKey();
+        this.status = status;
+        this.localId = operation.getLocalId();
+        this.reminderId = operation.getReminderId();
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getLocalId() {
+        return localId;
+    }
+
+    public void setLocalId(String localId) {
+        this.localId = localId;
+    }
+
+    public Long getReminderId() {
+        return reminderId;
+    }
+
+    public void setReminderId(Long reminderId) {
+        this.reminderId = reminderId;
+    }
+
+    public ReminderDTO getReminder() {
+        return reminder;
+    }
+
+    public void setReminder(ReminderDTO reminder) {
+        this.reminder = reminder;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SyncOperationResultDTO{" +
+            "idempotencyKey='" + getIdempotencyKey() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", localId='" + getLocalId() + "'" +
+            ", reminderId=" + getReminderId() +
+            ", message='" + getMessage() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,31 @@
+package ar.edu.um.service.feed;
+
+import java.io.Serializable;
+
+/**
+ * A change of an entity, sent to the clients so that they refresh it.
+ *
+ * @param entity the name of the entity, {@link #REMINDER}, {@link #CATEGORY} or {@link #TAG}.
+ * @param id the id of the entity.
+ * @param action what happened to it.
+ */
+public record ChangeFeedEvent(String entity, Long id, Action action) implements Serializable {
+    public static final String REMINDER = "reminder";
+
+    public static final String CATEGORY = "category";
+
+    public static final String TAG = "tag";
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+
+    /**
+     * The change which sums this one up with the next change of the same entity.
+     */
+    ChangeFeedEvent coalesce(ChangeFeedEvent next) {
+        return action == Action.CREATED && next.action() == Action.UPDATED ? this : next;
+    }
+}
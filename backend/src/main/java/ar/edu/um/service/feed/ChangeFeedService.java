@@ -0,0 +1,311 @@
+package ar.edu.um.service.feed;
+
+import ar.edu.um.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Fans the changes of the reminders, categories and tags out to the connected clients, so that they refresh on change
+ * instead of polling.
+ * <p>
+ * The services publish their changes once their transaction commits. A change is buffered for every subscription of
+ * the users it concerns, the owner of a reminder or the owners of the reminders in a category or with a tag, found in
+ * an index of the subscriptions by user, and never written on the publishing thread: a flush task hands the
+ * subscriptions with pending changes to a few sender threads, at most one at a time per subscription, so a slow client
+ * only delays itself. Changes of the same entity buffered in between are coalesced. The buffers are bounded: when one
+ * overflows its changes are dropped, and the subscriber is told to refresh everything instead. Idle subscriptions get
+ * a heartbeat.
+ */
+@Service
+public class ChangeFeedService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    static final String CONNECTIONS_METER_NAME = "change.feed.connections";
+
+    static final String SENT_METER_NAME = "change.feed.sent";
+
+    static final String DROPPED_METER_NAME = "change.feed.dropped";
+
+    private final ApplicationProperties.ChangeFeed properties;
+
+    /**
+     * Key of the subscriptions without user in {@link #subscriptionsByUser}, which get no change.
+     */
+    private static final long NO_USER = Long.MIN_VALUE;
+
+    /**
+     * Every subscription, swept by the flushes.
+     */
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The subscriptions by user, a user being removed with its last subscription.
+     */
+    private final Map<Long, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final Counter sent;
+
+    private final Counter dropped;
+
+    public ChangeFeedService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getChangeFeed();
+        this.scheduler = new ThreadPoolTaskScheduler();
+        // one thread flushes, the others write
+        this.scheduler.setPoolSize(properties.getSenderThreads() + 1);
+        this.scheduler.setThreadNamePrefix("change-feed-");
+        this.scheduler.setDaemon(true);
+        this.scheduler.initialize();
+        Duration flushPeriod = Duration.ofMillis(properties.getFlushMillis());
+        // nobody is subscribed yet
+        this.scheduler.scheduleAtFixedRate(this::flush, Instant.now().plus(flushPeriod), flushPeriod);
+        Gauge.builder(CONNECTIONS_METER_NAME, subscriptions, Set::size)
+            .description("Clients connected to the change feed")
+            .register(meterRegistry);
+        this.sent = Counter.builder(SENT_METER_NAME).description("Changes sent to the clients").register(meterRegistry);
+        this.dropped = Counter.builder(DROPPED_METER_NAME)
+            .description("Changes dropped by full buffers, replaced by a refresh of everything")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish a change to the owner of an entity, once the current transaction commits.
+     *
+     * @param entity the name of the entity, see {@link ChangeFeedEvent}.
+     * @param id the id of the entity.
+     * @param action what happened to it.
+     * @param userId the owner of the entity, or {@code null} if it has none, in which case nobody is told.
+     */
+    public void publish(String entity, Long id, ChangeFeedEvent.Action action, Long userId) {
+        if (userId != null) {
+            publish(new ChangeFeedEvent(entity, id, action), Set.of(userId));
+        }
+    }
+
+    /**
+     * Publish a change to the users it concerns, once the current transaction commits.
+     *
+     * @param entity the name of the entity, see {@link ChangeFeedEvent}.
+     * @param id the id of the entity.
+     * @param action what happened to it.
+     * @param userIds the users, nobody being told if empty.
+     */
+    public void publish(String entity, Long id, ChangeFeedEvent.Action action, Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            publish(new ChangeFeedEvent(entity, id, action), Set.copyOf(userIds));
+        }
+    }
+
+    private void publish(ChangeFeedEvent event, Set<Long> userIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        dispatch(event, userIds);
+                    }
+                }
+            );
+        } else {
+            dispatch(event, userIds);
+        }
+    }
+
+    /**
+     * Subscribe a client of a user to the changes, closing the oldest subscription of the user beyond the limit.
+     *
+     * @param userId the user, or {@code null} if unknown, in which case no change is sent.
+     * @param subscriber the connection of the client.
+     * @return the subscription, to cancel once the connection is closed.
+     */
+    public Subscription subscribe(Long userId, ChangeFeedSubscriber subscriber) {
+        Subscription subscription = new Subscription(userId, subscriber, sequence.incrementAndGet());
+        subscriptions.add(subscription);
+        Set<Subscription> ofUser = subscriptionsByUser.compute(userKey(userId), (key, userSubscriptions) -> {
+            Set<Subscription> added = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            added.add(subscription);
+            return added;
+        });
+        if (ofUser.size() > properties.getMaxSubscriptionsPerUser()) {
+            ofUser.stream().min(Comparator.comparingLong(other -> other.order)).ifPresent(Subscription::close);
+        }
+        LOG.debug("Subscribed user {} to the change feed, {} subscriptions", userId, subscriptions.size());
+        return subscription;
+    }
+
+    void dispatch(ChangeFeedEvent event, Set<Long> userIds) {
+        for (Long userId : userIds) {
+            Set<Subscription> ofUser = subscriptionsByUser.get(userId);
+            if (ofUser != null) {
+                ofUser.forEach(subscription -> subscription.offer(event));
+            }
+        }
+    }
+
+    /**
+     * Remove a subscription, and its user from the index with its last subscription.
+     *
+     * @return whether the subscription was still there.
+     */
+    private boolean remove(Subscription subscription) {
+        subscriptionsByUser.computeIfPresent(userKey(subscription.userId), (key, ofUser) -> {
+            ofUser.remove(subscription);
+            return ofUser.isEmpty() ? null : ofUser;
+        });
+        return subscriptions.remove(subscription);
+    }
+
+    private static long userKey(Long userId) {
+        return userId != null ? userId : NO_USER;
+    }
+
+    /**
+     * Hand the subscriptions with pending changes, or idle for a heartbeat, to the sender threads.
+     */
+    void flush() {
+        long heartbeatBefore = System.nanoTime() - TimeUnit.SECONDS.toNanos(properties.getHeartbeatSeconds());
+        for (Subscription subscription : subscriptions) {
+            if (subscription.isDue(heartbeatBefore) && subscription.sending.compareAndSet(false, true)) {
+                scheduler.execute(subscription::send);
+            }
+        }
+    }
+
+    int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    int getSubscribedUserCount() {
+        return subscriptionsByUser.size();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        subscriptions.forEach(Subscription::close);
+    }
+
+    /**
+     * The subscription of a client, with its buffer of pending changes.
+     */
+    public final class Subscription {
+
+        private final Long userId;
+
+        private final ChangeFeedSubscriber subscriber;
+
+        private final long order;
+
+        /**
+         * The changes to send, by entity, guarded by {@code this}.
+         */
+        private final Map<String, ChangeFeedEvent> pending = new LinkedHashMap<>();
+
+        /**
+         * Whether changes were dropped since the last send, guarded by {@code this}.
+         */
+        private boolean overflowed;
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile long lastSentNanos = System.nanoTime();
+
+        private Subscription(Long userId, ChangeFeedSubscriber subscriber, long order) {
+            this.userId = userId;
+            this.subscriber = subscriber;
+            this.order = order;
+        }
+
+        synchronized void offer(ChangeFeedEvent event) {
+            if (overflowed) {
+                // the subscriber refreshes everything anyway
+                dropped.increment();
+                return;
+            }
+            String key = event.entity() + '/' + event.id();
+            ChangeFeedEvent previous = pending.get(key);
+            if (previous != null) {
+                pending.put(key, previous.coalesce(event));
+            } else if (pending.size() < properties.getMaxPendingChanges()) {
+                pending.put(key, event);
+            } else {
+                overflowed = true;
+                dropped.increment(pending.size() + 1.0);
+                pending.clear();
+            }
+        }
+
+        /**
+         * Whether the subscription has changes to send, or has sent nothing since the given time.
+         */
+        synchronized boolean isDue(long heartbeatBeforeNanos) {
+            return overflowed || !pending.isEmpty() || lastSentNanos - heartbeatBeforeNanos < 0;
+        }
+
+        private void send() {
+            try {
+                List<ChangeFeedEvent> changes;
+                boolean resync;
+                synchronized (this) {
+                    changes = new ArrayList<>(pending.values());
+                    pending.clear();
+                    resync = overflowed;
+                    overflowed = false;
+                }
+                if (resync) {
+                    subscriber.resync();
+                } else if (!changes.isEmpty()) {
+                    subscriber.send(changes);
+                    sent.increment(changes.size());
+                } else {
+                    subscriber.heartbeat();
+                }
+                lastSentNanos = System.nanoTime();
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Could not write to the change feed of user {}: {}", userId, e.getMessage());
+                close();
+            } finally {
+                sending.set(false);
+            }
+        }
+
+        /**
+         * Cancel the subscription, once its connection is closed.
+         */
+        public void cancel() {
+            remove(this);
+        }
+
+        void close() {
+            if (remove(this)) {
+                subscriber.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ar.edu.um.service.feed;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The connection of a client to the change feed, written by the sender threads of the {@link ChangeFeedService}.
+ */
+public interface ChangeFeedSubscriber {
+    /**
+     * Send the changes since the previous ones, in the order they were first published.
+     */
+    void send(List<ChangeFeedEvent> changes) throws IOException;
+
+    /**
+     * Tell the client that changes were dropped, so that it refreshes everything.
+     */
+    void resync() throws IOException;
+
+    /**
+     * Keep the idle connection open.
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * Close the connection, when the subscription is replaced or the service stops.
+     */
+    void close();
+}
@@ -0,0 +1,4 @@
+/**
+ * Change feed pushed to the connected clients.
+ */
+package ar.edu.um.service.feed;
@@ -2,10 +2,14 @@ package ar.edu.um.service.impl;
 
 import ar.edu.um.domain.Category;
 import ar.edu.um.repository.CategoryRepository;
+import ar.edu.um.repository.ReminderRepository;
 import ar.edu.um.repository.search.CategorySearchRepository;
 import ar.edu.um.service.CategoryService;
 import ar.edu.um.service.dto.CategoryDTO;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
 import ar.edu.um.service.mapper.CategoryMapper;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,14 +33,22 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategorySearchRepository categorySearchRepository;
 
+    private final ChangeFeedService changeFeedService;
+
+    private final ReminderRepository reminderRepository;
+
     public CategoryServiceImpl(
         CategoryRepository categoryRepository,
         CategoryMapper categoryMapper,
-        CategorySearchRepository categorySearchRepository
+        CategorySearchRepository categorySearchRepository,
+        ChangeFeedService changeFeedService,
+        ReminderRepository reminderRepository
     ) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.categorySearchRepository = categorySearchRepository;
+        this.changeFeedService = changeFeedService;
+        this.reminderRepository = reminderRepository;
     }
 
     @Override
@@ -54,6 +66,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryMapper.toEntity(categoryDTO);
         category = categoryRepository.save(category);
         categorySearchRepository.index(category);
+        publish(category.getId(), ChangeFeedEvent.Action.UPDATED);
         return categoryMapper.toDto(category);
     }
 
@@ -71,6 +84,7 @@ public class CategoryServiceImpl implements CategoryService {
             .map(categoryRepository::save)
             .map(savedCategory -> {
                 categorySearchRepository.index(savedCategory);
+                publish(savedCategory.getId(), ChangeFeedEvent.Action.UPDATED);
                 return savedCategory;
             })
             .map(categoryMapper::toDto);
@@ -86,8 +100,11 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Category : {}", id);
+        // the owners are read before the reminders lose the category
+        List<Long> userIds = reminderRepository.findUserIdsByCategoryId(id);
         categoryRepository.deleteById(id);
         categorySearchRepository.deleteFromIndexById(id);
+        changeFeedService.publish(ChangeFeedEvent.CATEGORY, id, ChangeFeedEvent.Action.DELETED, userIds);
     }
 
     @Override
@@ -96,4 +113,11 @@ public class CategoryServiceImpl implements CategoryService {
         LOG.debug("Request to search for a page of Categories for query {}", query);
         return categorySearchRepository.search(query, pageable).map(categoryMapper::toDto);
     }
+
+    /**
+     * Tell the owners of the reminders in the category, a new category being in no reminder yet.
+     */
+    private void publish(Long id, ChangeFeedEvent.Action action) {
+        changeFeedService.publish(ChangeFeedEvent.CATEGORY, id, action, reminderRepository.findUserIdsByCategoryId(id));
+    }
 }
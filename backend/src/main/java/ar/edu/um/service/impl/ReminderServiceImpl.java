@@ -1,14 +1,27 @@
 package ar.edu.um.service.impl;
 
 import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderOccurrence;
+import ar.edu.um.management.jfr.ReminderOperationEvent;
+import ar.edu.um.repository.ReminderOccurrenceRepository;
 import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.ReminderTombstoneRepository;
 import ar.edu.um.repository.search.ReminderSearchRepository;
 import ar.edu.um.service.ReminderService;
+import ar.edu.um.service.VersionConflictException;
 import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.ReminderFields;
+import ar.edu.um.service.dto.ReminderOccurrenceDTO;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
 import ar.edu.um.service.mapper.ReminderMapper;
+import ar.edu.um.service.mapper.ReminderOccurrenceMapper;
+import ar.edu.um.service.notification.ReminderNotificationService;
+import java.time.Instant;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,51 +42,137 @@ public class ReminderServiceImpl implements ReminderService {
 
     private final ReminderSearchRepository reminderSearchRepository;
 
+    private final ReminderNotificationService reminderNotificationService;
+
+    private final ReminderOccurrenceRepository reminderOccurrenceRepository;
+
+    private final ReminderOccurrenceMapper reminderOccurrenceMapper;
+
+    private final ReminderTombstoneRepository reminderTombstoneRepository;
+
+    private final ChangeFeedService changeFeedService;
+
     public ReminderServiceImpl(
         ReminderRepository reminderRepository,
         ReminderMapper reminderMapper,
-        ReminderSearchRepository reminderSearchRepository
+        ReminderSearchRepository reminderSearchRepository,
+        ReminderNotificationService reminderNotificationService,
+        ReminderOccurrenceRepository reminderOccurrenceRepository,
+        ReminderOccurrenceMapper reminderOccurrenceMapper,
+        ReminderTombstoneRepository reminderTombstoneRepository,
+        ChangeFeedService changeFeedService
     ) {
         this.reminderRepository = reminderRepository;
         this.reminderMapper = reminderMapper;
         this.reminderSearchRepository = reminderSearchRepository;
+        this.reminderNotificationService = reminderNotificationService;
+        this.reminderOccurrenceRepository = reminderOccurrenceRepository;
+        this.reminderOccurrenceMapper = reminderOccurrenceMapper;
+        this.reminderTombstoneRepository = reminderTombstoneRepository;
+        this.changeFeedService = changeFeedService;
     }
 
     @Override
     public ReminderDTO save(ReminderDTO reminderDTO) {
         LOG.debug("Request to save Reminder : {}", reminderDTO);
+        ReminderOperationEvent event = ReminderOperationEvent.begin("save");
         Reminder reminder = reminderMapper.toEntity(reminderDTO);
-        reminder = reminderRepository.save(reminder);
-        reminderSearchRepository.index(reminder);
-        return reminderMapper.toDto(reminder);
+        try {
+            reminder = reminderRepository.save(reminder);
+            reminderSearchRepository.index(reminder);
+            reminderNotificationService.reschedule(reminder.getId(), reminder.getDueDate(), reminder.getIsCompleted());
+            publish(reminder, ChangeFeedEvent.Action.CREATED);
+            return reminderMapper.toDto(reminder);
+        } finally {
+            event.end(reminder.getId());
+        }
     }
 
     @Override
-    public ReminderDTO update(ReminderDTO reminderDTO) {
+    public Optional<ReminderDTO> update(ReminderDTO reminderDTO) {
         LOG.debug("Request to update Reminder : {}", reminderDTO);
-        Reminder reminder = reminderMapper.toEntity(reminderDTO);
-        reminder = reminderRepository.save(reminder);
-        reminderSearchRepository.index(reminder);
-        return reminderMapper.toDto(reminder);
+        ReminderOperationEvent event = ReminderOperationEvent.begin("update");
+
+        try {
+            return reminderRepository
+                .findOneWithTagsById(reminderDTO.getId())
+                .map(existingReminder -> {
+                    checkVersion(existingReminder, reminderDTO);
+                    // merged into the reminder just read, without selecting it again
+                    Reminder reminder = reminderMapper.toEntity(reminderDTO);
+                    reminder.setVersion(existingReminder.getVersion());
+                    return reminder;
+                })
+                .map(this::update)
+                .map(reminderMapper::toDto);
+        } finally {
+            event.end(reminderDTO.getId());
+        }
     }
 
     @Override
     public Optional<ReminderDTO> partialUpdate(ReminderDTO reminderDTO) {
         LOG.debug("Request to partially update Reminder : {}", reminderDTO);
+        ReminderOperationEvent event = ReminderOperationEvent.begin("partialUpdate");
+
+        try {
+            return reminderRepository
+                .findOneWithTagsById(reminderDTO.getId())
+                .map(existingReminder -> {
+                    checkVersion(existingReminder, reminderDTO);
+                    reminderMapper.partialUpdate(existingReminder, reminderDTO);
+
+                    return existingReminder;
+                })
+                .map(this::update)
+                .map(reminderMapper::toDto);
+        } finally {
+            event.end(reminderDTO.getId());
+        }
+    }
+
+    private static void checkVersion(Reminder reminder, ReminderDTO reminderDTO) {
+        if (reminderDTO.getVersion() != null && !reminderDTO.getVersion().equals(reminder.getVersion())) {
+            throw new VersionConflictException();
+        }
+    }
 
+    /**
+     * Write the update of a reminder: a single {@code UPDATE ... WHERE id = ? AND version = ?}, refused if another update
+     * was written since the reminder was read.
+     */
+    private Reminder update(Reminder reminder) {
+        try {
+            reminder = reminderRepository.saveAndFlush(reminder);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException();
+        }
+        reminderRepository.touch(reminder.getId());
+        reminderSearchRepository.index(reminder);
+        reminderNotificationService.reschedule(reminder.getId(), reminder.getDueDate(), reminder.getIsCompleted());
+        publish(reminder, ChangeFeedEvent.Action.UPDATED);
+        return reminder;
+    }
+
+    @Override
+    public Optional<ReminderOccurrenceDTO> saveOccurrence(Long reminderId, ReminderOccurrenceDTO reminderOccurrenceDTO) {
+        LOG.debug("Request to save occurrence of Reminder {} : {}", reminderId, reminderOccurrenceDTO);
         return reminderRepository
-            .findById(reminderDTO.getId())
-            .map(existingReminder -> {
-                reminderMapper.partialUpdate(existingReminder, reminderDTO);
-
-                return existingReminder;
-            })
-            .map(reminderRepository::save)
-            .map(savedReminder -> {
-                reminderSearchRepository.index(savedReminder);
-                return savedReminder;
-            })
-            .map(reminderMapper::toDto);
+            .findById(reminderId)
+            .map(reminder -> {
+                ReminderOccurrence occurrence = reminderOccurrenceRepository
+                    .findOneByReminderIdAndOccurrenceDate(reminderId, reminderOccurrenceDTO.getOccurrenceDate())
+                    .orElseGet(ReminderOccurrence::new);
+                occurrence.setReminder(reminder);
+                occurrence.setOccurrenceDate(reminderOccurrenceDTO.getOccurrenceDate());
+                occurrence.setDueDate(reminderOccurrenceDTO.getDueDate());
+                occurrence.setIsCompleted(reminderOccurrenceDTO.getIsCompleted());
+                occurrence.setIsCancelled(reminderOccurrenceDTO.getIsCancelled());
+                // the occurrences are part of the reminder for the clients syncing its changes
+                reminderRepository.touch(reminderId);
+                publish(reminder, ChangeFeedEvent.Action.UPDATED);
+                return reminderOccurrenceMapper.toDto(reminderOccurrenceRepository.save(occurrence));
+            });
     }
 
     public Page<ReminderDTO> findAllWithEagerRelationships(Pageable pageable) {
@@ -84,14 +183,27 @@ public class ReminderServiceImpl implements ReminderService {
     @Transactional(readOnly = true)
     public Optional<ReminderDTO> findOne(Long id) {
         LOG.debug("Request to get Reminder : {}", id);
-        return reminderRepository.findOneWithEagerRelationships(id).map(reminderMapper::toDto);
+        ReminderOperationEvent event = ReminderOperationEvent.begin("findOne");
+        try {
+            return reminderRepository.findOneWithEagerRelationships(id).map(reminderMapper::toDto);
+        } finally {
+            event.end(id);
+        }
     }
 
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Reminder : {}", id);
-        reminderRepository.deleteById(id);
-        reminderSearchRepository.deleteFromIndexById(id);
+        ReminderOperationEvent event = ReminderOperationEvent.begin("delete");
+        try {
+            Long userId = reminderTombstoneRepository.insertForReminder(id, Instant.now()).orElse(null);
+            reminderRepository.deleteById(id);
+            reminderSearchRepository.deleteFromIndexById(id);
+            reminderNotificationService.cancel(id);
+            changeFeedService.publish(ChangeFeedEvent.REMINDER, id, ChangeFeedEvent.Action.DELETED, userId);
+        } finally {
+            event.end(id);
+        }
     }
 
     @Override
@@ -100,4 +212,16 @@ public class ReminderServiceImpl implements ReminderService {
         LOG.debug("Request to search for a page of Reminders for query {}", query);
         return reminderSearchRepository.search(query, pageable).map(reminderMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReminderDTO> search(String query, Pageable pageable, ReminderFields fields) {
+        LOG.debug("Request to search for a page of Reminders for query {} and fields {}", query, fields);
+        return reminderSearchRepository.search(query, pageable, fields.getAttributes()).map(reminderMapper::toDto);
+    }
+
+    private void publish(Reminder reminder, ChangeFeedEvent.Action action) {
+        Long userId = reminder.getUser() != null ? reminder.getUser().getId() : null;
+        changeFeedService.publish(ChangeFeedEvent.REMINDER, reminder.getId(), action, userId);
+    }
 }
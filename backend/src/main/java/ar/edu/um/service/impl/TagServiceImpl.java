@@ -1,10 +1,13 @@
 package ar.edu.um.service.impl;
 
 import ar.edu.um.domain.Tag;
+import ar.edu.um.repository.ReminderRepository;
 import ar.edu.um.repository.TagRepository;
 import ar.edu.um.repository.search.TagSearchRepository;
 import ar.edu.um.service.TagService;
 import ar.edu.um.service.dto.TagDTO;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
 import ar.edu.um.service.mapper.TagMapper;
 import java.util.LinkedList;
 import java.util.List;
@@ -31,10 +34,22 @@ public class TagServiceImpl implements TagService {
 
     private final TagSearchRepository tagSearchRepository;
 
-    public TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper, TagSearchRepository tagSearchRepository) {
+    private final ChangeFeedService changeFeedService;
+
+    private final ReminderRepository reminderRepository;
+
+    public TagServiceImpl(
+        TagRepository tagRepository,
+        TagMapper tagMapper,
+        TagSearchRepository tagSearchRepository,
+        ChangeFeedService changeFeedService,
+        ReminderRepository reminderRepository
+    ) {
         this.tagRepository = tagRepository;
         this.tagMapper = tagMapper;
         this.tagSearchRepository = tagSearchRepository;
+        this.changeFeedService = changeFeedService;
+        this.reminderRepository = reminderRepository;
     }
 
     @Override
@@ -52,6 +67,7 @@ public class TagServiceImpl implements TagService {
         Tag tag = tagMapper.toEntity(tagDTO);
         tag = tagRepository.save(tag);
         tagSearchRepository.index(tag);
+        publish(tag.getId(), ChangeFeedEvent.Action.UPDATED);
         return tagMapper.toDto(tag);
     }
 
@@ -69,6 +85,7 @@ public class TagServiceImpl implements TagService {
             .map(tagRepository::save)
             .map(savedTag -> {
                 tagSearchRepository.index(savedTag);
+                publish(savedTag.getId(), ChangeFeedEvent.Action.UPDATED);
                 return savedTag;
             })
             .map(tagMapper::toDto);
@@ -91,8 +108,11 @@ public class TagServiceImpl implements TagService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Tag : {}", id);
+        // the owners are read before the reminders lose the tag
+        List<Long> userIds = reminderRepository.findUserIdsByTagId(id);
         tagRepository.deleteById(id);
         tagSearchRepository.deleteFromIndexById(id);
+        changeFeedService.publish(ChangeFeedEvent.TAG, id, ChangeFeedEvent.Action.DELETED, userIds);
     }
 
     @Override
@@ -105,4 +125,11 @@ public class TagServiceImpl implements TagService {
             throw e;
         }
     }
+
+    /**
+     * Tell the owners of the reminders with the tag, a new tag being in no reminder yet.
+     */
+    private void publish(Long id, ChangeFeedEvent.Action action) {
+        changeFeedService.publish(ChangeFeedEvent.TAG, id, action, reminderRepository.findUserIdsByTagId(id));
+    }
 }
@@ -20,11 +20,23 @@ public interface ReminderMapper extends EntityMapper<ReminderDTO, Reminder> {
     @Mapping(target = "category", source = "category", qualifiedByName = "categoryId")
     @Mapping(target = "user", source = "user", qualifiedByName = "userId")
     @Mapping(target = "tags", source = "tags", qualifiedByName = "tagIdSet")
+    @Mapping(target = "occurrenceDate", ignore = true)
     ReminderDTO toDto(Reminder s);
 
+    /**
+     * The version is not mapped: it is the one read by the update, or none for a new reminder.
+     */
     @Mapping(target = "removeTags", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Reminder toEntity(ReminderDTO reminderDTO);
 
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "removeTags", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget Reminder entity, ReminderDTO dto);
+
     @Named("categoryId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
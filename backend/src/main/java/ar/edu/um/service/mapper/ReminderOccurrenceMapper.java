@@ -0,0 +1,20 @@
+package ar.edu.um.service.mapper;
+
+import ar.edu.um.domain.ReminderOccurrence;
+import ar.edu.um.service.dto.ReminderOccurrenceDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link ReminderOccurrence} and its DTO {@link ReminderOccurrenceDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface ReminderOccurrenceMapper extends EntityMapper<ReminderOccurrenceDTO, ReminderOccurrence> {
+    @Mapping(target = "reminder", ignore = true)
+    ReminderOccurrence toEntity(ReminderOccurrenceDTO reminderOccurrenceDTO);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "reminder", ignore = true)
+    void partialUpdate(@MappingTarget ReminderOccurrence entity, ReminderOccurrenceDTO dto);
+}
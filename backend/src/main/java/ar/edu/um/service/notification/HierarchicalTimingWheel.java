@@ -0,0 +1,210 @@
+package ar.edu.um.service.notification;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel, in the style of the Linux kernel timers.
+ * <p>
+ * Level {@code n} has {@link #SLOTS} slots of {@code SLOTS^n} ticks each. A timeout is put in the lowest level whose range
+ * covers its delay, and moved down a level each time the wheel below completes a turn, until it expires from level 0.
+ * Scheduling and cancelling are O(1), and each tick only touches the slots it expires or cascades.
+ * <p>
+ * Not thread-safe: callers serialize the calls to {@link #schedule}, {@link #cancel} and {@link #advance}.
+ *
+ * @param <T> the type of the task held by the timeouts.
+ */
+final class HierarchicalTimingWheel<T> {
+
+    static final int SLOT_BITS = 8;
+
+    static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    static final int LEVELS = 4;
+
+    /**
+     * Timeouts further away are parked in the last slot of the top level, and placed again when it cascades.
+     */
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+
+    private final Slot<T>[][] wheels;
+
+    private long currentTick;
+
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Slot[LEVELS][SLOTS];
+        for (Slot<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * Schedule a task, timeouts in the past expire on the next tick.
+     *
+     * @param task the task.
+     * @param deadlineMillis the epoch millisecond at which the task expires.
+     * @return the timeout, to cancel it.
+     */
+    Timeout<T> schedule(T task, long deadlineMillis) {
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a timeout.
+     *
+     * @return {@code false} if the timeout already expired or was cancelled.
+     */
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel up to the given time, handing the expired timeouts to the consumer tick by tick.
+     */
+    void advance(long nowMillis, Consumer<Timeout<T>> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Slot<T> slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+            for (Timeout<T> timeout = slot.poll(); timeout != null; timeout = slot.poll()) {
+                size--;
+                expired.accept(timeout);
+            }
+        }
+    }
+
+    /**
+     * Number of pending timeouts.
+     */
+    int size() {
+        return size;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Slot<T> slot = wheels[level][(int) ((currentTick >>> shift) & SLOT_MASK)];
+            for (Timeout<T> timeout = slot.poll(); timeout != null; timeout = slot.poll()) {
+                place(timeout);
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delay = timeout.deadlineTick - currentTick;
+        long tick = delay > MAX_DELAY_TICKS ? currentTick + MAX_DELAY_TICKS : timeout.deadlineTick;
+        int level = 0;
+        while (level < LEVELS - 1 && tick - currentTick >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+    }
+
+    /**
+     * A scheduled task.
+     */
+    static final class Timeout<T> {
+
+        private final T task;
+
+        private final long deadlineMillis;
+
+        private final long deadlineTick;
+
+        private Slot<T> slot;
+
+        private Timeout<T> previous;
+
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadlineMillis, long deadlineTick) {
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T getTask() {
+            return task;
+        }
+
+        long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+
+    /**
+     * The timeouts of a slot, as an intrusive doubly linked list.
+     */
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> poll() {
+            Timeout<T> timeout = head;
+            if (timeout != null) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ar.edu.um.service.notification;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.service.MailService;
+import ar.edu.um.service.util.WakeableWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Notifies the due reminders claimed by this node.
+ * <p>
+ * Every node runs a dispatcher, which claims batches of due reminders with {@code SELECT ... FOR UPDATE SKIP LOCKED}: the
+ * nodes get disjoint batches without a leader, and the throughput grows with their number. A claim is a lease written on the
+ * reminder row, so the reminders claimed by a node which died before notifying them are claimed again once the lease expires.
+ * The batch size doubles while the batches come back full and shrinks when the backlog is drained.
+ */
+@Service
+public class ReminderClaimDispatcher implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderClaimDispatcher.class);
+
+    static final String CLAIMED_METER_NAME = "reminder.notification.claimed";
+
+    static final String BATCH_SIZE_METER_NAME = "reminder.notification.claim.batch.size";
+
+    static final String NOTIFICATIONS_METER_NAME = "reminder.notification.notifications";
+
+    private static final int MAX_NODE_LENGTH = 64;
+
+    private final ReminderRepository reminderRepository;
+
+    private final MailService mailService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.ReminderNotification.Claim properties;
+
+    /**
+     * Identifies the claims of this dispatcher, unique across restarts.
+     */
+    private final String node;
+
+    private volatile int batchSize;
+
+    private final WakeableWorker worker;
+
+    private final Counter claimed;
+
+    private final Counter sent;
+
+    private final Counter skipped;
+
+    private final Counter failed;
+
+    public ReminderClaimDispatcher(
+        ReminderRepository reminderRepository,
+        MailService mailService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reminderRepository = reminderRepository;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getReminderNotification().getClaim();
+        String node = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.node = node.length() > MAX_NODE_LENGTH ? node.substring(node.length() - MAX_NODE_LENGTH) : node;
+        this.batchSize = properties.getMinBatchSize();
+        this.claimed = Counter.builder(CLAIMED_METER_NAME).description("Due reminders claimed by this node").register(meterRegistry);
+        Gauge.builder(BATCH_SIZE_METER_NAME, this, dispatcher -> dispatcher.batchSize)
+            .description("Current size of the claim batches")
+            .register(meterRegistry);
+        this.sent = notificationCounter(meterRegistry, "sent");
+        this.skipped = notificationCounter(meterRegistry, "skipped");
+        this.failed = notificationCounter(meterRegistry, "failed");
+        this.worker = new WakeableWorker("reminders-notification-dispatcher", properties::getPollIntervalMillis, this::dispatchBatch);
+    }
+
+    private static Counter notificationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(NOTIFICATIONS_METER_NAME)
+            .description("Claimed reminder notifications, by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start claiming on a dedicated thread.
+     */
+    void start() {
+        worker.start();
+        LOG.debug("Started reminder claim dispatcher {}", node);
+    }
+
+    /**
+     * Claim without waiting for the poll interval, when reminders are known to be due.
+     */
+    void wakeUp() {
+        worker.wakeUp();
+    }
+
+    String getNode() {
+        return node;
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Claim a batch of due reminders and notify them.
+     *
+     * @return {@code true} if the batch was full, so more reminders are probably due.
+     */
+    boolean dispatchBatch() {
+        int size = batchSize;
+        Instant now = Instant.now();
+        Instant notBefore = now.minus(properties.getMaxLatenessMinutes(), ChronoUnit.MINUTES);
+        Instant expiresAt = now.plusSeconds(properties.getLeaseSeconds());
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Long> claimable = reminderRepository.lockClaimable(now, notBefore, size);
+            if (!claimable.isEmpty()) {
+                reminderRepository.claim(claimable, node, expiresAt);
+            }
+            return claimable;
+        });
+        claimed.increment(ids.size());
+        for (Long id : ids) {
+            notify(id, now);
+        }
+        batchSize = nextBatchSize(size, ids.size(), properties.getMinBatchSize(), properties.getMaxBatchSize());
+        return ids.size() == size;
+    }
+
+    static int nextBatchSize(int current, int claimed, int min, int max) {
+        if (claimed >= current) {
+            return Math.min(current * 2, max);
+        }
+        return Math.max(Math.max(claimed, current / 2), min);
+    }
+
+    private void notify(Long id, Instant claimedAt) {
+        try {
+            Optional<Reminder> found = reminderRepository.findOneWithUserById(id);
+            if (found.isEmpty()) {
+                skipped.increment();
+                return;
+            }
+            Reminder reminder = found.get();
+            if (reminder.getDueDate().isAfter(claimedAt)) {
+                // moved to a later due date since it was claimed
+                transactionTemplate.executeWithoutResult(status -> reminderRepository.release(id, node));
+                skipped.increment();
+                return;
+            }
+            boolean due = !Boolean.TRUE.equals(reminder.getIsCompleted()) && reminder.getUser() != null;
+            // the email is added to the outbox in the transaction which records the notification
+            transactionTemplate.executeWithoutResult(status -> {
+                if (due) {
+                    mailService.sendReminderDueEmail(reminder.getUser(), reminder);
+                }
+                reminderRepository.markNotified(id, node, reminder.getDueDate());
+            });
+            (due ? sent : skipped).increment();
+        } catch (RuntimeException e) {
+            // the claim expires and the reminder is claimed again
+            LOG.warn("Could not notify reminder {}", id, e);
+            failed.increment();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        worker.stop();
+    }
+}
@@ -0,0 +1,333 @@
+package ar.edu.um.service.notification;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderDigest;
+import ar.edu.um.domain.User;
+import ar.edu.um.domain.enumeration.ReminderDigestStatus;
+import ar.edu.um.repository.ReminderDigestRepository;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.service.MailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sends every user one email per day, listing their due and overdue reminders.
+ * <p>
+ * The digest is generated in a single pass: the open reminders are streamed through a cursor, ordered by user then due
+ * date, and grouped per user as they come, holding at most the reminders listed in one digest. The digests are handed to
+ * the mail outbox in batches, each in its own transaction together with a checkpoint of the last user, so a run stopped
+ * by a failure or a restart resumes after that user. The run of a day is claimed with a lease, so a single node runs it
+ * and another one takes over if it stops. Emails are keyed per user and day, so a batch replayed after a lost checkpoint
+ * does not send them twice.
+ */
+@Service
+public class ReminderDigestService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderDigestService.class);
+
+    static final String DIGESTS_METER_NAME = "reminder.digest.digests";
+
+    static final String REMINDERS_METER_NAME = "reminder.digest.reminders";
+
+    static final String PROGRESS_METER_NAME = "reminder.digest.progress";
+
+    static final String DURATION_METER_NAME = "reminder.digest.duration";
+
+    private static final int MAX_NODE_LENGTH = 64;
+
+    private final ReminderRepository reminderRepository;
+
+    private final ReminderDigestRepository reminderDigestRepository;
+
+    private final MailService mailService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate cursorTransactionTemplate;
+
+    private final TransactionTemplate batchTransactionTemplate;
+
+    private final ApplicationProperties.ReminderDigest properties;
+
+    /**
+     * Identifies the claims of this node, unique across restarts.
+     */
+    private final String node;
+
+    /**
+     * The last day whose digest is known to be done, so that it is not checked again.
+     */
+    private volatile LocalDate doneDate;
+
+    /**
+     * Digests sent by the current run of this node.
+     */
+    private volatile long progress;
+
+    private final Counter digests;
+
+    private final Counter reminders;
+
+    private final Timer duration;
+
+    public ReminderDigestService(
+        ReminderRepository reminderRepository,
+        ReminderDigestRepository reminderDigestRepository,
+        MailService mailService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reminderRepository = reminderRepository;
+        this.reminderDigestRepository = reminderDigestRepository;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cursorTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.cursorTransactionTemplate.setReadOnly(true);
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getReminderDigest();
+        String node = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.node = node.length() > MAX_NODE_LENGTH ? node.substring(node.length() - MAX_NODE_LENGTH) : node;
+        this.digests = Counter.builder(DIGESTS_METER_NAME)
+            .description("Reminder digests handed to the mail outbox")
+            .register(meterRegistry);
+        this.reminders = Counter.builder(REMINDERS_METER_NAME).description("Reminders read by the digest runs").register(meterRegistry);
+        Gauge.builder(PROGRESS_METER_NAME, this, service -> service.progress)
+            .description("Digests sent by the current run of this node")
+            .register(meterRegistry);
+        this.duration = Timer.builder(DURATION_METER_NAME).description("Duration of the digest runs of this node").register(meterRegistry);
+    }
+
+    /**
+     * Run the digest of the day once its send hour has passed, unless it is done.
+     * <p>
+     * This is scheduled to get fired every minute, so that a run interrupted on another node is resumed within its lease.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void sendDailyDigest() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        LocalDate date = now.toLocalDate();
+        if (now.getHour() < properties.getSendHour() || date.equals(doneDate)) {
+            return;
+        }
+        try {
+            if (runDigest(date)) {
+                doneDate = date;
+            }
+        } catch (RuntimeException e) {
+            // the lease expires and the run is resumed from its checkpoint
+            LOG.warn("Could not run the reminder digest of {}", date, e);
+        }
+    }
+
+    /**
+     * Claim the digest run of a date, and run it from its checkpoint.
+     *
+     * @return {@code true} if the digest of the date is done.
+     */
+    boolean runDigest(LocalDate date) {
+        Instant now = Instant.now();
+        Optional<ReminderDigest> claimed = transactionTemplate.execute(status -> {
+            reminderDigestRepository.insertIfAbsent(date, now);
+            if (reminderDigestRepository.claim(date, node, now, now.plusSeconds(properties.getLeaseSeconds())) == 0) {
+                return Optional.empty();
+            }
+            return reminderDigestRepository.findOneByDigestDate(date);
+        });
+        if (claimed.isEmpty()) {
+            return reminderDigestRepository
+                .findOneByDigestDate(date)
+                .map(digest -> digest.getStatus() == ReminderDigestStatus.DONE)
+                .orElse(false);
+        }
+        ReminderDigest digest = claimed.get();
+        long start = System.nanoTime();
+        long afterUserId = digest.getLastUserId() == null ? Long.MIN_VALUE : digest.getLastUserId();
+        LOG.info("Running the reminder digest of {} after user {}", date, digest.getLastUserId());
+        progress = 0;
+        DigestRun run = new DigestRun(digest.getId(), date);
+        boolean completed = Boolean.TRUE.equals(
+            cursorTransactionTemplate.execute(status -> {
+                Instant before = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+                try (Stream<ReminderRepository.DigestReminder> rows = reminderRepository.streamDigest(before, afterUserId)) {
+                    return run.consume(rows.iterator());
+                }
+            })
+        );
+        long elapsedNanos = System.nanoTime() - start;
+        duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!completed) {
+            LOG.warn("Lost the lease of the reminder digest of {} after {} digests", date, progress);
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> reminderDigestRepository.finish(digest.getId(), node, Instant.now()));
+        LOG.info("Sent {} reminder digests of {} in {} ms", progress, date, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return true;
+    }
+
+    String getNode() {
+        return node;
+    }
+
+    long getProgress() {
+        return progress;
+    }
+
+    /**
+     * Groups the streamed rows per user and sends the digests in batches.
+     */
+    private final class DigestRun {
+
+        private final Long digestId;
+
+        private final LocalDate date;
+
+        private final Instant startOfDay;
+
+        private final List<UserDigest> batch = new ArrayList<>();
+
+        private long batchReminders;
+
+        private DigestRun(Long digestId, LocalDate date) {
+            this.digestId = digestId;
+            this.date = date;
+            this.startOfDay = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        /**
+         * @return {@code false} if the lease of the run was lost.
+         */
+        boolean consume(Iterator<ReminderRepository.DigestReminder> rows) {
+            UserDigest current = null;
+            while (rows.hasNext()) {
+                ReminderRepository.DigestReminder row = rows.next();
+                if (current == null || !current.userId.equals(row.getUserId())) {
+                    if (current != null && !add(current)) {
+                        return false;
+                    }
+                    current = new UserDigest(row, properties.getMaxReminders());
+                }
+                current.add(row, startOfDay);
+                reminders.increment();
+            }
+            if (current != null) {
+                batch.add(current);
+                batchReminders += current.count;
+            }
+            return batch.isEmpty() || flush();
+        }
+
+        private boolean add(UserDigest digest) {
+            batch.add(digest);
+            batchReminders += digest.count;
+            return batch.size() < properties.getBatchSize() || flush();
+        }
+
+        /**
+         * Hand the digests of the batch to the mail outbox, and checkpoint the last user in the same transaction.
+         */
+        private boolean flush() {
+            long lastUserId = batch.get(batch.size() - 1).userId;
+            Instant expiresAt = Instant.now().plusSeconds(properties.getLeaseSeconds());
+            boolean checkpointed = Boolean.TRUE.equals(
+                batchTransactionTemplate.execute(status -> {
+                    for (UserDigest digest : batch) {
+                        mailService.sendReminderDigestEmail(digest.user(), date, digest.overdue, digest.due, digest.more);
+                    }
+                    int updated = reminderDigestRepository.checkpoint(digestId, node, lastUserId, batch.size(), batchReminders, expiresAt);
+                    if (updated == 0) {
+                        // another node took the run over, it sends this batch again
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                })
+            );
+            if (checkpointed) {
+                digests.increment(batch.size());
+                progress += batch.size();
+                LOG.debug("Sent {} reminder digests of {} up to user {}", progress, date, lastUserId);
+            }
+            batch.clear();
+            batchReminders = 0;
+            return checkpointed;
+        }
+    }
+
+    /**
+     * The digest of a user, which lists at most {@code maxReminders} overdue and due reminders, and counts the others.
+     */
+    private static final class UserDigest {
+
+        private final Long userId;
+
+        private final String login;
+
+        private final String email;
+
+        private final String langKey;
+
+        private final int maxReminders;
+
+        private final List<Reminder> overdue = new ArrayList<>();
+
+        private final List<Reminder> due = new ArrayList<>();
+
+        private int more;
+
+        private long count;
+
+        private UserDigest(ReminderRepository.DigestReminder row, int maxReminders) {
+            this.userId = row.getUserId();
+            this.login = row.getLogin();
+            this.email = row.getEmail();
+            this.langKey = row.getLangKey();
+            this.maxReminders = maxReminders;
+        }
+
+        void add(ReminderRepository.DigestReminder row, Instant startOfDay) {
+            count++;
+            List<Reminder> reminders = row.getDueDate().isBefore(startOfDay) ? overdue : due;
+            if (reminders.size() < maxReminders) {
+                reminders.add(new Reminder().id(row.getId()).title(row.getTitle()).dueDate(row.getDueDate()));
+            } else {
+                more++;
+            }
+        }
+
+        User user() {
+            User user = new User();
+            user.setId(userId);
+            user.setLogin(login);
+            user.setEmail(email);
+            user.setLangKey(langKey);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ar.edu.um.service.notification;
+
+import static ar.edu.um.service.util.TransactionUtils.afterCommit;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.repository.ReminderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Wakes the {@link ReminderClaimDispatcher} up when reminders come due.
+ * <p>
+ * The open reminders due within the look-ahead window are loaded, every half window, in a {@link HierarchicalTimingWheel}
+ * ticking on its own thread, and the reminder service reschedules the ones it saves or deletes. The wheel only tells when to
+ * claim: the claims decide which node notifies a reminder, and the dispatcher polls anyway for the reminders missed here.
+ */
+@Service
+public class ReminderNotificationService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReminderNotificationService.class);
+
+    static final String LAG_METER_NAME = "reminder.notification.lag";
+
+    static final String SCHEDULED_METER_NAME = "reminder.notification.scheduled";
+
+    private final ReminderRepository reminderRepository;
+
+    private final ReminderClaimDispatcher dispatcher;
+
+    private final ApplicationProperties.ReminderNotification properties;
+
+    private final HierarchicalTimingWheel<Long> wheel;
+
+    /**
+     * The pending timeouts by reminder id, guarded by {@code this} like the wheel.
+     */
+    private final Map<Long, HierarchicalTimingWheel.Timeout<Long>> timeouts = new HashMap<>();
+
+    /**
+     * End of the window loaded in the wheel, reminders due later are left to the next load.
+     */
+    private long horizonMillis;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final Timer lag;
+
+    public ReminderNotificationService(
+        ReminderRepository reminderRepository,
+        ReminderClaimDispatcher dispatcher,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.reminderRepository = reminderRepository;
+        this.dispatcher = dispatcher;
+        this.properties = applicationProperties.getReminderNotification();
+        this.wheel = new HierarchicalTimingWheel<>(properties.getTickMillis(), System.currentTimeMillis());
+        this.scheduler = new ThreadPoolTaskScheduler();
+        // one thread ticks, the other loads the window
+        this.scheduler.setPoolSize(2);
+        this.scheduler.setThreadNamePrefix("reminders-notification-scheduler-");
+        this.scheduler.setDaemon(true);
+        this.lag = Timer.builder(LAG_METER_NAME).description("Delay between the due date of a reminder and its notification").register(
+            meterRegistry
+        );
+        Gauge.builder(SCHEDULED_METER_NAME, this, service -> service.wheel.size())
+            .description("Notifications pending in the timing wheel")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            LOG.debug("Reminder notifications are disabled");
+            return;
+        }
+        dispatcher.start();
+        scheduler.initialize();
+        scheduler.scheduleAtFixedRate(this::tick, Duration.ofMillis(properties.getTickMillis()));
+        scheduler.scheduleWithFixedDelay(this::load, Duration.ofSeconds(Math.max(properties.getLookAheadSeconds() / 2, 1)));
+    }
+
+    /**
+     * Schedule the notification of a saved reminder, once the current transaction commits.
+     *
+     * @param id the id of the reminder.
+     * @param dueDate its due date.
+     * @param completed whether it is completed.
+     */
+    public void reschedule(Long id, Instant dueDate, Boolean completed) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (Boolean.TRUE.equals(completed) || dueDate == null || !isInWindow(dueDate.toEpochMilli())) {
+                    cancelTimeout(id);
+                } else {
+                    schedule(id, dueDate.toEpochMilli());
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancel the notification of a deleted reminder, once the current transaction commits.
+     *
+     * @param id the id of the reminder.
+     */
+    public void cancel(Long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                cancelTimeout(id);
+            }
+        });
+    }
+
+    /**
+     * Load the reminders due within the look-ahead window, by batches in due date order.
+     */
+    void load() {
+        Instant from = Instant.now();
+        Instant to = from.plusSeconds(properties.getLookAheadSeconds());
+        synchronized (this) {
+            horizonMillis = to.toEpochMilli();
+        }
+        Instant afterDueDate = from;
+        long afterId = Long.MIN_VALUE;
+        int loaded = 0;
+        List<ReminderRepository.DueReminder> batch;
+        do {
+            batch = reminderRepository.findDue(from, to, afterDueDate, afterId, PageRequest.ofSize(properties.getLoadBatchSize()));
+            if (batch.isEmpty()) {
+                break;
+            }
+            synchronized (this) {
+                for (ReminderRepository.DueReminder reminder : batch) {
+                    schedule(reminder.getId(), reminder.getDueDate().toEpochMilli());
+                }
+            }
+            ReminderRepository.DueReminder last = batch.get(batch.size() - 1);
+            afterDueDate = last.getDueDate();
+            afterId = last.getId();
+            loaded += batch.size();
+        } while (batch.size() == properties.getLoadBatchSize());
+        LOG.debug("Loaded {} reminders due before {}", loaded, to);
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        List<HierarchicalTimingWheel.Timeout<Long>> expired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(now, timeout -> {
+                timeouts.remove(timeout.getTask());
+                expired.add(timeout);
+            });
+        }
+        if (!expired.isEmpty()) {
+            expired.forEach(timeout -> lag.record(Math.max(now - timeout.getDeadlineMillis(), 0), TimeUnit.MILLISECONDS));
+            dispatcher.wakeUp();
+        }
+    }
+
+    private boolean isInWindow(long dueMillis) {
+        return dueMillis >= System.currentTimeMillis() && dueMillis < horizonMillis;
+    }
+
+    private void schedule(Long id, long dueMillis) {
+        HierarchicalTimingWheel.Timeout<Long> existing = timeouts.get(id);
+        if (existing != null) {
+            if (existing.getDeadlineMillis() == dueMillis) {
+                return;
+            }
+            wheel.cancel(existing);
+        }
+        timeouts.put(id, wheel.schedule(id, dueMillis));
+    }
+
+    private void cancelTimeout(Long id) {
+        HierarchicalTimingWheel.Timeout<Long> existing = timeouts.remove(id);
+        if (existing != null) {
+            wheel.cancel(existing);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Notifications sent when reminders come due.
+ */
+package ar.edu.um.service.notification;
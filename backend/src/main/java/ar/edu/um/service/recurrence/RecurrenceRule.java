@@ -0,0 +1,354 @@
+package ar.edu.um.service.recurrence;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Recurrence rule of a reminder, in the syntax of the iCalendar {@code RRULE} property (RFC 5545).
+ * <p>
+ * The supported parts are {@code FREQ} ({@code DAILY}, {@code WEEKLY}, {@code MONTHLY} or {@code YEARLY}), {@code INTERVAL},
+ * {@code COUNT}, {@code UNTIL} and, for weekly rules, {@code BYDAY}; for example {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH}.
+ * The due date of the reminder is the start of the rule: it is the first occurrence, and every occurrence is at its time of
+ * day. Like in RFC 5545, monthly and yearly occurrences which fall on a day the month does not have are skipped.
+ * <p>
+ * The rule is expanded in the time zone of the reminder's owner: the days, weeks and months are those of its calendar, so
+ * that a daily reminder at 9:00 stays at 9:00 local time across daylight saving changes, and an {@code UNTIL} date
+ * includes the whole day in that zone. A local time skipped by a daylight saving gap is moved forward by the length of
+ * the gap, and one repeated by an overlap is taken at its first offset.
+ * <p>
+ * Occurrences are computed lazily, so that a rule without end can be expanded over any bounded range.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY(ChronoUnit.DAYS),
+        WEEKLY(ChronoUnit.WEEKS),
+        MONTHLY(ChronoUnit.MONTHS),
+        YEARLY(ChronoUnit.YEARS);
+
+        private final ChronoUnit unit;
+
+        Frequency(ChronoUnit unit) {
+            this.unit = unit;
+        }
+    }
+
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final List<String> DAYS = List.of("MO", "TU", "WE", "TH", "FR", "SA", "SU");
+
+    private final Frequency frequency;
+
+    private final int interval;
+
+    private final Integer count;
+
+    private final Instant until;
+
+    private final LocalDate untilDate;
+
+    private final List<DayOfWeek> byDay;
+
+    private RecurrenceRule(Frequency frequency, int interval, Integer count, Instant until, LocalDate untilDate, List<DayOfWeek> byDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.untilDate = untilDate;
+        this.byDay = byDay;
+    }
+
+    /**
+     * Parse a recurrence rule.
+     *
+     * @param rule the rule, with or without the {@code RRULE:} prefix.
+     * @return the rule.
+     * @throws IllegalArgumentException if the rule is not valid, or uses an unsupported part.
+     */
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Empty recurrence rule");
+        }
+        String value = rule.strip().toUpperCase(Locale.ROOT);
+        if (value.startsWith("RRULE:")) {
+            value = value.substring("RRULE:".length());
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        Instant until = null;
+        LocalDate untilDate = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : value.split(";")) {
+            int separator = part.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String name = part.substring(0, separator);
+            String partValue = part.substring(separator + 1);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(partValue);
+                    case "INTERVAL" -> interval = positive(name, Integer.parseInt(partValue));
+                    case "COUNT" -> count = positive(name, Integer.parseInt(partValue));
+                    case "UNTIL" -> {
+                        // a date includes the whole day, in the zone the rule is expanded in
+                        if (partValue.length() == 8) {
+                            untilDate = LocalDate.parse(partValue, UNTIL_DATE);
+                        } else {
+                            until = LocalDateTime.parse(partValue, UNTIL_DATE_TIME).toInstant(ZoneOffset.UTC);
+                        }
+                    }
+                    case "BYDAY" -> {
+                        for (String day : partValue.split(",")) {
+                            int index = DAYS.indexOf(day);
+                            if (index < 0) {
+                                throw new IllegalArgumentException("Invalid recurrence rule day: " + day);
+                            }
+                            byDay.add(DayOfWeek.of(index + 1));
+                        }
+                    }
+                    case "WKST" -> {
+                        if (!"MO".equals(partValue)) {
+                            throw new IllegalArgumentException("Unsupported recurrence rule week start: " + partValue);
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part, e);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule without FREQ");
+        }
+        if (count != null && (until != null || untilDate != null)) {
+            throw new IllegalArgumentException("Recurrence rule with both COUNT and UNTIL");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported in weekly recurrence rules");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, untilDate, List.copyOf(byDay));
+    }
+
+    /**
+     * Check a rule, as {@link #parse(String)} would.
+     *
+     * @return {@code true} if the rule is valid.
+     */
+    public static boolean isValid(String rule) {
+        try {
+            parse(rule);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int positive(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("Recurrence rule " + name + " must be positive");
+        }
+        return value;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * The occurrences in {@code [from, to]} of the rule starting at {@code start}, in chronological order.
+     * <p>
+     * The stream is lazy: rules without {@code COUNT} skip the periods before {@code from} without computing them, and no
+     * occurrence after {@code to} is computed.
+     *
+     * @param zone the time zone the rule is expanded in, that of the owner of the reminder.
+     */
+    public Stream<Instant> occurrences(ZoneId zone, Instant start, Instant from, Instant to) {
+        Iterator<Instant> iterator = new OccurrenceIterator(zone, start, from, to);
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false
+        );
+    }
+
+    /**
+     * Whether {@code date} is an occurrence of the rule starting at {@code start}, expanded in {@code zone}.
+     */
+    public boolean isOccurrence(ZoneId zone, Instant start, Instant date) {
+        return occurrences(zone, start, date, date).findFirst().isPresent();
+    }
+
+    /**
+     * The last instant of the rule in a time zone, if it has an {@code UNTIL}.
+     */
+    private Instant until(ZoneId zone) {
+        if (untilDate != null) {
+            return untilDate.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1);
+        }
+        return until;
+    }
+
+    private LocalDateTime periodStart(LocalDateTime start) {
+        return switch (frequency) {
+            case DAILY -> start;
+            case WEEKLY -> start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> start.withDayOfMonth(1);
+            case YEARLY -> start.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * The candidate occurrences of a period, before the start, count and until limits are applied.
+     */
+    private List<LocalDateTime> candidates(LocalDateTime period, LocalDateTime start) {
+        switch (frequency) {
+            case DAILY:
+                return List.of(period);
+            case WEEKLY:
+                if (byDay.isEmpty()) {
+                    return List.of(period.with(TemporalAdjusters.nextOrSame(start.getDayOfWeek())));
+                }
+                // the days are in week order, so are their occurrences
+                List<LocalDateTime> days = new ArrayList<>(byDay.size());
+                for (DayOfWeek day : byDay) {
+                    days.add(period.with(TemporalAdjusters.nextOrSame(day)));
+                }
+                return days;
+            case MONTHLY:
+                if (!YearMonth.from(period).isValidDay(start.getDayOfMonth())) {
+                    return List.of();
+                }
+                return List.of(period.withDayOfMonth(start.getDayOfMonth()));
+            default:
+                YearMonth month = YearMonth.of(period.getYear(), start.getMonth());
+                if (!month.isValidDay(start.getDayOfMonth())) {
+                    return List.of();
+                }
+                return List.of(month.atDay(start.getDayOfMonth()).atTime(start.toLocalTime()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (count != null) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(UNTIL_DATE_TIME.format(until.atOffset(ZoneOffset.UTC)));
+        }
+        if (untilDate != null) {
+            rule.append(";UNTIL=").append(UNTIL_DATE.format(untilDate));
+        }
+        if (!byDay.isEmpty()) {
+            rule.append(";BYDAY=").append(String.join(",", byDay.stream().map(day -> DAYS.get(day.getValue() - 1)).toList()));
+        }
+        return rule.toString();
+    }
+
+    private final class OccurrenceIterator implements Iterator<Instant> {
+
+        private final ZoneId zone;
+
+        private final LocalDateTime start;
+
+        private final Instant from;
+
+        private final Instant to;
+
+        private final LocalDateTime firstPeriod;
+
+        private long period;
+
+        private int emitted;
+
+        private Iterator<LocalDateTime> candidates = List.<LocalDateTime>of().iterator();
+
+        private Instant next;
+
+        private boolean done;
+
+        private OccurrenceIterator(ZoneId zone, Instant start, Instant from, Instant to) {
+            Instant last = until(zone);
+            this.zone = zone;
+            this.start = LocalDateTime.ofInstant(start, zone);
+            this.from = from;
+            this.to = last != null && last.isBefore(to) ? last : to;
+            this.firstPeriod = periodStart(this.start);
+            if (count == null && from.isAfter(start)) {
+                // jump to the period before the one of from, which can hold an occurrence after from
+                long periods = frequency.unit.between(firstPeriod, periodStart(LocalDateTime.ofInstant(from, zone)));
+                this.period = Math.max(0, periods / interval - 1);
+            }
+            this.done = this.to.isBefore(from) || this.to.isBefore(start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !done) {
+                if (!candidates.hasNext()) {
+                    LocalDateTime periodStart = firstPeriod.plus(period * interval, frequency.unit);
+                    if (periodStart.atZone(zone).toInstant().isAfter(to)) {
+                        done = true;
+                        break;
+                    }
+                    candidates = candidates(periodStart, start).iterator();
+                    period++;
+                    continue;
+                }
+                LocalDateTime candidate = candidates.next();
+                if (candidate.isBefore(start)) {
+                    continue;
+                }
+                Instant occurrence = candidate.atZone(zone).toInstant();
+                if (occurrence.isAfter(to)) {
+                    done = true;
+                } else if (count != null && emitted >= count) {
+                    done = true;
+                } else {
+                    emitted++;
+                    if (!occurrence.isBefore(from)) {
+                        next = occurrence;
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Instant next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Instant occurrence = next;
+            next = null;
+            return occurrence;
+        }
+    }
+}
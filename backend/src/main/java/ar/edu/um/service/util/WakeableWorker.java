@@ -0,0 +1,94 @@
+package ar.edu.um.service.util;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A daemon thread running batches of work: right away while they report a backlog, otherwise after the poll interval or
+ * as soon as it is woken up.
+ */
+public final class WakeableWorker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WakeableWorker.class);
+
+    private final String name;
+
+    private final LongSupplier pollIntervalMillis;
+
+    private final BooleanSupplier batch;
+
+    private final Object signal = new Object();
+
+    private boolean wakeUpRequested;
+
+    private volatile Thread thread;
+
+    /**
+     * @param name the name of the thread.
+     * @param pollIntervalMillis the longest wait between two batches.
+     * @param batch runs a batch, and tells whether more work is probably pending.
+     */
+    public WakeableWorker(String name, LongSupplier pollIntervalMillis, BooleanSupplier batch) {
+        this.name = name;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.batch = batch;
+    }
+
+    public void start() {
+        Thread worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    /**
+     * Run the next batch without waiting for the poll interval.
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeUpRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Stop after the current batch, if any.
+     */
+    public void stop() {
+        Thread worker = thread;
+        thread = null;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (thread == Thread.currentThread()) {
+            boolean backlog = false;
+            try {
+                backlog = batch.getAsBoolean();
+            } catch (RuntimeException e) {
+                LOG.warn("Batch of {} failed", name, e);
+            }
+            if (!backlog) {
+                try {
+                    awaitWakeUp();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitWakeUp() throws InterruptedException {
+        synchronized (signal) {
+            if (!wakeUpRequested) {
+                signal.wait(pollIntervalMillis.getAsLong());
+            }
+            wakeUpRequested = false;
+        }
+    }
+}
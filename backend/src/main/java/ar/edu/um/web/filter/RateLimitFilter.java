@@ -0,0 +1,197 @@
+package ar.edu.um.web.filter;
+
+import ar.edu.um.security.RateLimiter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies the {@link RateLimiter} buckets to the anonymous {@code POST} endpoints, first by client IP then by login.
+ * <p>
+ * The login is read from the JSON request body, whose first bytes are buffered so the controller can still read it.
+ * Behind a proxy, the client IP is the one resolved from the forwarded headers by {@code server.forward-headers-strategy}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Bodies larger than this are not inspected for a login, they are still limited by IP.
+     */
+    private static final int MAX_INSPECTED_BODY_SIZE = 4096;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // Request URI includes the contextPath if any, removed it.
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Optional<RateLimiter.EndpointLimiter> limiter = rateLimiter.forPath(path);
+        if (limiter.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = limiter.orElseThrow().tryAcquireIp(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            reject(response, retryAfter);
+            return;
+        }
+
+        if (limiter.orElseThrow().isLoginLimited()) {
+            CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+            String login = cachedRequest.isComplete() ? extractLogin(cachedRequest.head, limiter.orElseThrow().getLoginField()) : null;
+            if (login != null) {
+                retryAfter = limiter.orElseThrow().tryAcquireLogin(login.trim().toLowerCase(Locale.ENGLISH));
+                if (retryAfter > 0) {
+                    reject(response, retryAfter);
+                    return;
+                }
+            }
+            request = cachedRequest;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String extractLogin(byte[] body, String loginField) {
+        if (body.length == 0) {
+            return null;
+        }
+        if (loginField == null) {
+            // plain text body, e.g. the e-mail of a password reset
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (loginField.equals(name)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // malformed bodies are left to the controller to reject
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response
+            .getWriter()
+            .write(
+                "{\"title\":\"Too Many Requests\",\"status\":429,\"detail\":\"Too many requests, retry later\",\"message\":\"error.http.429\"}"
+            );
+    }
+
+    /**
+     * Replays the first {@link #MAX_INSPECTED_BODY_SIZE} bytes of the body, read ahead, then the rest from the request.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] head;
+
+        private final ServletInputStream tail;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            ServletInputStream in = request.getInputStream();
+            this.head = in.readNBytes(MAX_INSPECTED_BODY_SIZE + 1);
+            this.tail = head.length <= MAX_INSPECTED_BODY_SIZE ? null : in;
+        }
+
+        /**
+         * Whether the whole body was read ahead, larger bodies are not inspected.
+         */
+        private boolean isComplete() {
+            return tail == null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(head);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0 && (tail == null || tail.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return in.available() > 0 || tail == null || tail.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    if (tail != null) {
+                        tail.setReadListener(readListener);
+                        return;
+                    }
+                    // the whole body is already available
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() throws IOException {
+                    int read = in.read();
+                    return read < 0 && tail != null ? tail.read() : read;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = in.read(b, off, len);
+                    return read <= 0 && tail != null && len > 0 ? tail.read(b, off, len) : read;
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(
+                new InputStreamReader(getInputStream(), encoding != null ? encoding : StandardCharsets.UTF_8.name())
+            );
+        }
+    }
+}
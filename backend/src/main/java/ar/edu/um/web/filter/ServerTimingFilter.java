@@ -0,0 +1,158 @@
+package ar.edu.um.web.filter;
+
+import ar.edu.um.management.QueryBudgetMonitor;
+import ar.edu.um.management.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Binds a {@link RequestTimings} context to the API requests, and reports it in a {@code Server-Timing} header.
+ * <p>
+ * The header is added just before the response is committed. Optionally, the phases are also recorded in a timer per
+ * endpoint, with a percentile histogram, and a sample of the requests is checked by a {@link QueryBudgetMonitor}.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    public static final String PHASES_METER_NAME = "http.server.requests.phases";
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean metricsEnabled;
+
+    private final QueryBudgetMonitor queryBudgetMonitor;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param queryBudgetMonitor the monitor of the statement counts, or {@code null}.
+     */
+    public ServerTimingFilter(MeterRegistry meterRegistry, boolean metricsEnabled, QueryBudgetMonitor queryBudgetMonitor) {
+        this.meterRegistry = meterRegistry;
+        this.metricsEnabled = metricsEnabled;
+        this.queryBudgetMonitor = queryBudgetMonitor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        request.setAttribute(RequestTimings.REQUEST_ATTRIBUTE, timings);
+        ServerTimingResponseWrapper responseWrapper = new ServerTimingResponseWrapper(response, timings);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            RequestTimings.end();
+            responseWrapper.addServerTiming();
+            if (metricsEnabled || queryBudgetMonitor != null) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                if (metricsEnabled) {
+                    record(request, uri, timings);
+                }
+                if (queryBudgetMonitor != null) {
+                    queryBudgetMonitor.check(request.getMethod(), uri, timings);
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, String uri, RequestTimings timings) {
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            if (timings.getCount(phase) > 0) {
+                timer(uri, request.getMethod(), phase.getMetricName()).record(timings.getNanos(phase), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer timer(String uri, String method, String phase) {
+        return timers.computeIfAbsent(new TimerKey(uri, method, phase), key ->
+            Timer.builder(PHASES_METER_NAME)
+                .description("Time spent by the API requests in each phase")
+                .tag("uri", key.uri())
+                .tag("method", key.method())
+                .tag("phase", key.phase())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+        );
+    }
+
+    private record TimerKey(String uri, String method, String phase) {}
+
+    /**
+     * Adds the {@code Server-Timing} header the first time the body is accessed or the response is committed.
+     */
+    private static final class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+
+        private boolean headerAdded;
+
+        private ServerTimingResponseWrapper(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addServerTiming() {
+            if (!headerAdded && !isCommitted()) {
+                headerAdded = true;
+                setHeader(SERVER_TIMING_HEADER, timings.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
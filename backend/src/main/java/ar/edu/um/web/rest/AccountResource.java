@@ -2,20 +2,30 @@ package ar.edu.um.web.rest;
 
 import ar.edu.um.domain.User;
 import ar.edu.um.repository.UserRepository;
+import ar.edu.um.security.CurrentUser;
 import ar.edu.um.security.SecurityUtils;
-import ar.edu.um.service.MailService;
 import ar.edu.um.service.UserService;
 import ar.edu.um.service.dto.AdminUserDTO;
 import ar.edu.um.service.dto.PasswordChangeDTO;
 import ar.edu.um.web.rest.errors.*;
 import ar.edu.um.web.rest.vm.KeyAndPasswordVM;
 import ar.edu.um.web.rest.vm.ManagedUserVM;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import java.io.Serializable;
 import java.util.*;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -38,12 +48,20 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
+    private final Cache accountsCache;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final ObjectMapper objectMapper;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        CacheManager cacheManager,
+        ObjectMapper objectMapper
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
+        this.accountsCache = Objects.requireNonNull(cacheManager.getCache(UserService.ACCOUNTS_BY_ID_CACHE));
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -60,8 +78,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -80,16 +97,44 @@ public class AccountResource {
 
     /**
      * {@code GET  /account} : get the current user.
+     * <p>
+     * The serialized account is cached per user id until {@link UserService} changes the user, and is served with an
+     * {@code ETag} so clients revalidating with {@code If-None-Match} get a {@code 304 (Not Modified)}.
      *
-     * @return the current user.
+     * @param ifNoneMatch the {@code If-None-Match} header, if any.
+     * @return the current user, as an {@link AdminUserDTO}.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public AdminUserDTO getAccount() {
-        return userService
-            .getUserWithAuthorities()
-            .map(AdminUserDTO::new)
-            .orElseThrow(() -> new AccountResourceException("User could not be found"));
+    public ResponseEntity<byte[]> getAccount(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long userId = SecurityUtils.getCurrentUser().map(CurrentUser::id).orElse(null);
+        CachedAccount account = userId != null ? accountsCache.get(userId, CachedAccount.class) : null;
+        if (account == null) {
+            account = serializeAccount(
+                userService
+                    .getUserWithAuthorities()
+                    .map(AdminUserDTO::new)
+                    .orElseThrow(() -> new AccountResourceException("User could not be found"))
+            );
+            if (userId != null) {
+                accountsCache.put(userId, account);
+            }
+        }
+
+        boolean notModified = ifNoneMatch != null && (ifNoneMatch.contains(account.etag()) || "*".equals(ifNoneMatch.trim()));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+            .eTag(account.etag())
+            .cacheControl(CacheControl.noCache().cachePrivate());
+        return notModified ? response.build() : response.contentType(MediaType.APPLICATION_JSON).body(account.body());
+    }
+
+    private CachedAccount serializeAccount(AdminUserDTO account) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(account);
+            return new CachedAccount(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new AccountResourceException("User could not be serialized");
+        }
     }
 
     /**
@@ -101,13 +146,14 @@ public class AccountResource {
      */
     @PostMapping("/account")
     public void saveAccount(@Valid @RequestBody AdminUserDTO userDTO) {
-        String userLogin = SecurityUtils.getCurrentUserLogin()
+        String userLogin = SecurityUtils.getCurrentUser()
+            .map(CurrentUser::login)
             .orElseThrow(() -> new AccountResourceException("Current user login not found"));
         Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
         if (existingUser.isPresent() && (!existingUser.orElseThrow().getLogin().equalsIgnoreCase(userLogin))) {
             throw new EmailAlreadyUsedException();
         }
-        Optional<User> user = userRepository.findOneByLogin(userLogin);
+        Optional<User> user = userService.getUserWithAuthorities();
         if (!user.isPresent()) {
             throw new AccountResourceException("User could not be found");
         }
@@ -116,7 +162,8 @@ public class AccountResource {
             userDTO.getLastName(),
             userDTO.getEmail(),
             userDTO.getLangKey(),
-            userDTO.getImageUrl()
+            userDTO.getImageUrl(),
+            userDTO.getTimeZone()
         );
     }
 
@@ -142,9 +189,7 @@ public class AccountResource {
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
         Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.orElseThrow());
-        } else {
+        if (user.isEmpty()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             LOG.warn("Password reset requested for non existing mail");
@@ -177,4 +222,9 @@ public class AccountResource {
             password.length() > ManagedUserVM.PASSWORD_MAX_LENGTH
         );
     }
+
+    /**
+     * The serialized account of a user with its entity tag.
+     */
+    private record CachedAccount(byte[] body, String etag) implements Serializable {}
 }
@@ -4,8 +4,12 @@ import static ar.edu.um.security.SecurityUtils.AUTHORITIES_CLAIM;
 import static ar.edu.um.security.SecurityUtils.JWT_ALGORITHM;
 import static ar.edu.um.security.SecurityUtils.USER_ID_CLAIM;
 
+import ar.edu.um.security.AuthenticationExecutor;
 import ar.edu.um.security.DomainUserDetailsService.UserWithId;
+import ar.edu.um.service.RefreshTokenService;
 import ar.edu.um.web.rest.vm.LoginVM;
+import ar.edu.um.web.rest.vm.RefreshTokenVM;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import java.security.Principal;
@@ -18,6 +22,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
@@ -43,16 +48,34 @@ public class AuthenticateController {
     @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds:0}")
     private long tokenValidityInSeconds;
 
-    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}")
-    private long tokenValidityInSecondsForRememberMe;
-
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final AuthenticationExecutor authenticationExecutor;
+
+    private final RefreshTokenService refreshTokenService;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        AuthenticationExecutor authenticationExecutor,
+        RefreshTokenService refreshTokenService
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.authenticationExecutor = authenticationExecutor;
+        this.refreshTokenService = refreshTokenService;
     }
 
+    /**
+     * {@code POST /authenticate} : authenticate the user and issue a short-lived JWT and a refresh token.
+     * <p>
+     * Credentials are verified on the bounded {@link AuthenticationExecutor} pool. The remember-me flag only extends
+     * the lifetime of the refresh token.
+     *
+     * @param loginVM the login credentials.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tokens in body,
+     * or with status {@code 503 (Service Unavailable)} and a {@code Retry-After} header if the verification pool is full.
+     */
     @PostMapping("/authenticate")
     public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
@@ -60,12 +83,38 @@ public class AuthenticateController {
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        Authentication authentication = authenticationExecutor.authenticate(authenticationManagerBuilder.getObject(), authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = this.createToken(authentication, loginVM.isRememberMe());
+        String refreshToken = null;
+        if (authentication.getPrincipal() instanceof UserWithId user) {
+            refreshToken = refreshTokenService.createToken(user.getId(), loginVM.isRememberMe());
+        }
+        return tokenResponse(this.createToken(authentication), refreshToken);
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : exchange a refresh token for a new JWT and a new refresh token.
+     * <p>
+     * The presented refresh token is consumed, presenting it again revokes every refresh token of the user.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tokens in body,
+     * or with status {@code 401 (Unauthorized)} if the refresh token is not valid.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        RefreshTokenService.Rotation rotation = refreshTokenService
+            .rotate(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        UserWithId user = UserWithId.fromUser(rotation.user());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        return tokenResponse(this.createToken(authentication), rotation.refreshToken());
+    }
+
+    private ResponseEntity<JWTToken> tokenResponse(String jwt, String refreshToken) {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -80,16 +129,11 @@ public class AuthenticateController {
         return ResponseEntity.status(principal == null ? HttpStatus.UNAUTHORIZED : HttpStatus.NO_CONTENT).build();
     }
 
-    public String createToken(Authentication authentication, boolean rememberMe) {
+    public String createToken(Authentication authentication) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
 
         Instant now = Instant.now();
-        Instant validity;
-        if (rememberMe) {
-            validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
-        } else {
-            validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
-        }
+        Instant validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
 
         // @formatter:off
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
@@ -108,12 +152,16 @@ public class AuthenticateController {
     /**
      * Object to return as body in JWT Authentication.
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class JWTToken {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -124,5 +172,14 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
@@ -0,0 +1,83 @@
+package ar.edu.um.web.rest;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.security.SecurityUtils;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
+import ar.edu.um.service.feed.ChangeFeedSubscriber;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming the changes of the reminders, categories and tags to the clients.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChangeFeedResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeFeedResource.class);
+
+    static final String CHANGES_EVENT = "changes";
+
+    static final String RESYNC_EVENT = "resync";
+
+    private final ChangeFeedService changeFeedService;
+
+    private final ApplicationProperties.ChangeFeed properties;
+
+    public ChangeFeedResource(ChangeFeedService changeFeedService, ApplicationProperties applicationProperties) {
+        this.changeFeedService = changeFeedService;
+        this.properties = applicationProperties.getChangeFeed();
+    }
+
+    /**
+     * {@code GET  /changes/stream} : stream the changes visible to the current user, as server-sent events.
+     * <p>
+     * A {@code changes} event carries the list of the entities which changed since the previous one, each with its
+     * {@code entity} name, {@code id} and {@code action}. A {@code resync} event tells that changes were dropped, and that
+     * the client should refresh everything. The connection is closed after a while, the client then connects again.
+     *
+     * @return the stream of events.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        Long userId = SecurityUtils.getCurrentUserId().orElse(null);
+        LOG.debug("REST request to stream the changes of user {}", userId);
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(properties.getTimeoutSeconds()));
+        ChangeFeedService.Subscription subscription = changeFeedService.subscribe(userId, new EmitterSubscriber(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    private record EmitterSubscriber(SseEmitter emitter) implements ChangeFeedSubscriber {
+        @Override
+        public void send(List<ChangeFeedEvent> changes) throws IOException {
+            emitter.send(SseEmitter.event().name(CHANGES_EVENT).data(changes, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void resync() throws IOException {
+            emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment(""));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -1,24 +1,33 @@
 package ar.edu.um.web.rest;
 
-import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.service.ReminderChangeService;
 import ar.edu.um.service.ReminderQueryService;
 import ar.edu.um.service.ReminderService;
 import ar.edu.um.service.criteria.ReminderCriteria;
+import ar.edu.um.service.dto.ReminderChangesDTO;
 import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.ReminderFields;
+import ar.edu.um.service.dto.ReminderOccurrenceDTO;
+import ar.edu.um.service.recurrence.RecurrenceRule;
 import ar.edu.um.web.rest.errors.BadRequestAlertException;
 import ar.edu.um.web.rest.errors.ElasticsearchExceptionMapper;
+import ar.edu.um.web.rest.errors.VersionConflictException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -43,18 +52,18 @@ public class ReminderResource {
 
     private final ReminderService reminderService;
 
-    private final ReminderRepository reminderRepository;
-
     private final ReminderQueryService reminderQueryService;
 
+    private final ReminderChangeService reminderChangeService;
+
     public ReminderResource(
         ReminderService reminderService,
-        ReminderRepository reminderRepository,
-        ReminderQueryService reminderQueryService
+        ReminderQueryService reminderQueryService,
+        ReminderChangeService reminderChangeService
     ) {
         this.reminderService = reminderService;
-        this.reminderRepository = reminderRepository;
         this.reminderQueryService = reminderQueryService;
+        this.reminderChangeService = reminderChangeService;
     }
 
     /**
@@ -70,6 +79,7 @@ public class ReminderResource {
         if (reminderDTO.getId() != null) {
             throw new BadRequestAlertException("A new reminder cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        validateRecurrenceRule(reminderDTO);
         reminderDTO = reminderService.save(reminderDTO);
         return ResponseEntity.created(new URI("/api/reminders/" + reminderDTO.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, reminderDTO.getId().toString()))
@@ -78,17 +88,23 @@ public class ReminderResource {
 
     /**
      * {@code PUT  /reminders/:id} : Updates an existing reminder.
+     * <p>
+     * The update is conditional on the version of the reminder, given by the {@code If-Match} header as the {@code ETag}
+     * of the reminder, or else by the {@code version} of the reminderDTO, if any.
      *
      * @param id the id of the reminderDTO to save.
+     * @param ifMatch the {@code If-Match} header, if any.
      * @param reminderDTO the reminderDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated reminderDTO,
      * or with status {@code 400 (Bad Request)} if the reminderDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the reminder was updated since the version,
      * or with status {@code 500 (Internal Server Error)} if the reminderDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ReminderDTO> updateReminder(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody ReminderDTO reminderDTO
     ) throws URISyntaxException {
         LOG.debug("REST request to update Reminder : {}, {}", id, reminderDTO);
@@ -99,30 +115,35 @@ public class ReminderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!reminderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        reminderDTO = reminderService.update(reminderDTO);
+        validateRecurrenceRule(reminderDTO);
+        applyIfMatch(ifMatch, reminderDTO);
+        reminderDTO = reminderService
+            .update(reminderDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, reminderDTO.getId().toString()))
+            .eTag(eTag(reminderDTO))
             .body(reminderDTO);
     }
 
     /**
      * {@code PATCH  /reminders/:id} : Partial updates given fields of an existing reminder, field will ignore if it is null
+     * <p>
+     * The update is conditional on the version of the reminder, as for {@link #updateReminder}.
      *
      * @param id the id of the reminderDTO to save.
+     * @param ifMatch the {@code If-Match} header, if any.
      * @param reminderDTO the reminderDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated reminderDTO,
-     * or with status {@code 400 (Bad Request)} if the reminderDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the reminderDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the reminderDTO is not valid or not found,
+     * or with status {@code 412 (Precondition Failed)} if the reminder was updated since the version,
      * or with status {@code 500 (Internal Server Error)} if the reminderDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<ReminderDTO> partialUpdateReminder(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody ReminderDTO reminderDTO
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Reminder partially : {}, {}", id, reminderDTO);
@@ -133,20 +154,49 @@ public class ReminderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!reminderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        validateRecurrenceRule(reminderDTO);
+        applyIfMatch(ifMatch, reminderDTO);
+        ReminderDTO result = reminderService
+            .partialUpdate(reminderDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
 
-        Optional<ReminderDTO> result = reminderService.partialUpdate(reminderDTO);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(eTag(result))
+            .body(result);
+    }
 
+    /**
+     * {@code PUT  /reminders/:id/occurrences} : Complete, cancel or move an occurrence of a recurring reminder.
+     *
+     * @param id the id of the recurring reminder.
+     * @param reminderOccurrenceDTO the occurrence, identified by its date in the recurrence rule.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saved occurrence,
+     * or with status {@code 400 (Bad Request)} if the reminder does not exist or has no such occurrence.
+     */
+    @PutMapping("/{id}/occurrences")
+    public ResponseEntity<ReminderOccurrenceDTO> updateReminderOccurrence(
+        @PathVariable("id") final Long id,
+        @Valid @RequestBody ReminderOccurrenceDTO reminderOccurrenceDTO
+    ) {
+        LOG.debug("REST request to update occurrence of Reminder : {}, {}", id, reminderOccurrenceDTO);
+        ReminderDTO reminderDTO = reminderService
+            .findOne(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        if (!reminderQueryService.isOccurrence(reminderDTO, reminderOccurrenceDTO.getOccurrenceDate())) {
+            throw new BadRequestAlertException("Not an occurrence of the reminder", ENTITY_NAME, "occurrenceinvalid");
+        }
         return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, reminderDTO.getId().toString())
+            reminderService.saveOccurrence(id, reminderOccurrenceDTO),
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString())
         );
     }
 
     /**
      * {@code GET  /reminders} : get all the reminders.
+     * <p>
+     * When the due date is bounded on both sides, for example with {@code dueDate.greaterThanOrEqual} and
+     * {@code dueDate.lessThan}, recurring reminders are returned once per occurrence in that range, in due date order.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
@@ -164,6 +214,32 @@ public class ReminderResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /reminders?fields=:fields} : get all the reminders, with only some of their fields.
+     * <p>
+     * Only the columns of the fields are read, and the tags only if they are among them. The {@code id} is always written, and
+     * the associations by their id only.
+     *
+     * @param fields the comma separated fields to return, for example {@code title,dueDate,priority,isCompleted}.
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of reminders in body,
+     * or with status {@code 400 (Bad Request)} if a field is unknown, or the sort is not by the columns of the fields.
+     */
+    @GetMapping(value = "", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllReminderFields(
+        @RequestParam("fields") String fields,
+        ReminderCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get the fields {} of Reminders by criteria: {}", fields, criteria);
+        ReminderFields reminderFields = parseFields(fields);
+        validateSort(pageable);
+        Page<ReminderDTO> page = reminderQueryService.findByCriteria(criteria, pageable, reminderFields);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent().stream().map(reminderFields::write).toList());
+    }
+
     /**
      * {@code GET  /reminders/count} : count all the reminders.
      *
@@ -176,17 +252,45 @@ public class ReminderResource {
         return ResponseEntity.ok().body(reminderQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /reminders/changes?since=:token} : get the reminders created, updated or deleted since a sync token.
+     * <p>
+     * The first sync has no token and lists all the reminders. While {@code more} is true, the client asks for the next
+     * changes with the returned token right away; otherwise it keeps the token for its next sync.
+     *
+     * @param since the token returned by the previous call, if any.
+     * @param size the maximum number of changes to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the changes in body,
+     * or with status {@code 400 (Bad Request)} if the token is not valid,
+     * or with status {@code 410 (Gone)} if the token has expired, the client must then sync again without a token.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ReminderChangesDTO> getReminderChanges(
+        @RequestParam(value = "since", required = false) String since,
+        @RequestParam(value = "size", defaultValue = "100") int size
+    ) {
+        LOG.debug("REST request to get the changes of Reminders since {}", since);
+        try {
+            return ResponseEntity.ok().body(reminderChangeService.findChanges(since, size));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid sync token", ENTITY_NAME, "synctokeninvalid");
+        }
+    }
+
     /**
      * {@code GET  /reminders/:id} : get the "id" reminder.
      *
      * @param id the id of the reminderDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the reminderDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the reminderDTO, and its version as
+     * {@code ETag}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
     public ResponseEntity<ReminderDTO> getReminder(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Reminder : {}", id);
         Optional<ReminderDTO> reminderDTO = reminderService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(reminderDTO);
+        HttpHeaders headers = new HttpHeaders();
+        reminderDTO.ifPresent(dto -> headers.setETag(eTag(dto)));
+        return ResponseUtil.wrapOrNotFound(reminderDTO, headers);
     }
 
     /**
@@ -226,4 +330,106 @@ public class ReminderResource {
             throw ElasticsearchExceptionMapper.mapException(e);
         }
     }
+
+    /**
+     * {@code SEARCH  /reminders/_search?query=:query&fields=:fields} : search for the reminder corresponding
+     * to the query, with only some of their fields, which are the only ones fetched from the search documents.
+     *
+     * @param query the query of the reminder search.
+     * @param fields the comma separated fields to return.
+     * @param pageable the pagination information.
+     * @return the result of the search, or with status {@code 400 (Bad Request)} if a field is unknown.
+     */
+    @GetMapping(value = "/_search", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> searchReminderFields(
+        @RequestParam("query") String query,
+        @RequestParam("fields") String fields,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search for the fields {} of a page of Reminders for query {}", fields, query);
+        ReminderFields reminderFields = parseFields(fields);
+        try {
+            Page<ReminderDTO> page = reminderService.search(query, pageable, reminderFields);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent().stream().map(reminderFields::write).toList());
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+    }
+
+    private static ReminderFields parseFields(String fields) {
+        try {
+            return ReminderFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+    }
+
+    private static void validateSort(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!ReminderFields.isSortable(order.getProperty())) {
+                throw new BadRequestAlertException("Invalid sort property: " + order.getProperty(), ENTITY_NAME, "sortinvalid");
+            }
+        }
+    }
+
+    private static String eTag(ReminderDTO reminderDTO) {
+        return "\"" + reminderDTO.getVersion() + "\"";
+    }
+
+    /**
+     * Update the version read by the client, from the {@code If-Match} header. The header may list several entity tags,
+     * any of which matches: when they differ, the version of the current reminder is kept if listed. A tag which is not the
+     * {@code ETag} of a reminder never matches.
+     * <p>
+     * A weak tag is compared by its version as well, which deliberately departs from the strong comparison that RFC 9110
+     * requires for {@code If-Match}: proxies compressing the responses weaken their {@code ETag}, and the version alone
+     * identifies the state of the reminder.
+     */
+    private void applyIfMatch(String ifMatch, ReminderDTO reminderDTO) {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            Long version = parseVersion(tag.trim());
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new VersionConflictException();
+        }
+        Long version = versions.iterator().next();
+        if (versions.size() > 1) {
+            Long current = reminderService.findOne(reminderDTO.getId()).map(ReminderDTO::getVersion).orElse(null);
+            if (versions.contains(current)) {
+                version = current;
+            }
+        }
+        reminderDTO.setVersion(version);
+    }
+
+    /**
+     * @return the version of an {@code ETag}, or {@code null} if the tag is not the {@code ETag} of a reminder.
+     */
+    private static Long parseVersion(String tag) {
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void validateRecurrenceRule(ReminderDTO reminderDTO) {
+        if (reminderDTO.getRecurrenceRule() != null && !RecurrenceRule.isValid(reminderDTO.getRecurrenceRule())) {
+            throw new BadRequestAlertException("Invalid recurrence rule", ENTITY_NAME, "recurrenceruleinvalid");
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package ar.edu.um.web.rest;
+
+import ar.edu.um.service.ReminderSyncService;
+import ar.edu.um.service.SyncBatchTooLargeException;
+import ar.edu.um.service.dto.SyncOperationDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO;
+import ar.edu.um.web.rest.errors.BadRequestAlertException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for pushing the offline changes of the clients.
+ */
+@RestController
+@RequestMapping("/api")
+public class SyncResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyncResource.class);
+
+    private static final String ENTITY_NAME = "reminder";
+
+    private final ReminderSyncService reminderSyncService;
+
+    public SyncResource(ReminderSyncService reminderSyncService) {
+        this.reminderSyncService = reminderSyncService;
+    }
+
+    /**
+     * {@code POST  /sync} : Apply a batch of offline operations on the reminders, in order and in a single transaction.
+     * <p>
+     * Each operation carries an idempotency key: when a batch is sent again, for example because its response was lost,
+     * the operations already applied are not applied twice and are reported as {@code DUPLICATE}. An operation which
+     * cannot be applied is reported as {@code NOT_FOUND} or {@code INVALID}, without failing the others.
+     *
+     * @param operations the operations, in the order of the offline queue.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the result of each operation in body, in the same order,
+     * or with status {@code 400 (Bad Request)} if an operation has no idempotency key or the batch is too large.
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<List<SyncOperationResultDTO>> sync(@NotNull @RequestBody List<@Valid @NotNull SyncOperationDTO> operations) {
+        LOG.debug("REST request to sync {} operations", operations.size());
+        try {
+            return ResponseEntity.ok().body(reminderSyncService.sync(operations));
+        } catch (SyncBatchTooLargeException e) {
+            throw new BadRequestAlertException("Too many operations", ENTITY_NAME, "syncbatchtoolarge");
+        }
+    }
+}
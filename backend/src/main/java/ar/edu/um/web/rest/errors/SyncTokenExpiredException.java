@@ -0,0 +1,28 @@
+package ar.edu.um.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * The changes since a sync token cannot be listed anymore, as the tombstones of the reminders deleted since then are
+ * compacted: the client must sync all the reminders again.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class SyncTokenExpiredException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SyncTokenExpiredException() {
+        super(
+            HttpStatus.GONE,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.GONE.value())
+                .withType(ErrorConstants.SYNC_TOKEN_EXPIRED_TYPE)
+                .withTitle("Sync token has expired!")
+                .withProperty("message", "error.synctokenexpired")
+                .build(),
+            null
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package ar.edu.um.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * The entity was modified since the client read it, or the version the client read cannot be parsed: the update is
+ * refused so that the other changes are not lost, and the client must read the entity again.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class VersionConflictException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VersionConflictException() {
+        super(
+            HttpStatus.PRECONDITION_FAILED,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.PRECONDITION_FAILED.value())
+                .withType(ErrorConstants.VERSION_CONFLICT_TYPE)
+                .withTitle("Entity was modified since it was read!")
+                .withProperty("message", "error.versionconflict")
+                .build(),
+            null
+        );
+    }
+}
@@ -0,0 +1,50 @@
+package ar.edu.um.web.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Pagination headers for a {@link Slice}, the count-free counterpart of {@link tech.jhipster.web.util.PaginationUtil}.
+ * <p>
+ * There is no {@code X-Total-Count} nor {@code last} link, clients page with the {@code next} link and the
+ * {@code X-Has-Next-Page} header instead.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String HEADER_X_HAS_NEXT_PAGE = "X-Has-Next-Page";
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Generate the pagination headers of a slice.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the slice.
+     * @param <T> the type of the slice content.
+     * @return the {@code Link} and {@code X-Has-Next-Page} headers.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_X_HAS_NEXT_PAGE, Boolean.toString(slice.hasNext()));
+        int number = slice.getNumber();
+        int size = slice.getSize();
+        List<String> links = new ArrayList<>(3);
+        if (slice.hasNext()) {
+            links.add(link(uriBuilder, number + 1, size, "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(link(uriBuilder, number - 1, size, "prev"));
+        }
+        links.add(link(uriBuilder, 0, size, "first"));
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String link(UriComponentsBuilder uriBuilder, int page, int size, String relType) {
+        String uri = uriBuilder.replaceQueryParam("page", page).replaceQueryParam("size", size).toUriString();
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Utilities for the REST controllers.
+ */
+package ar.edu.um.web.util;
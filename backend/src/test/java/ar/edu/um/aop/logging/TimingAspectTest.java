@@ -0,0 +1,133 @@
+package ar.edu.um.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Test class for the {@link TimingAspect}.
+ */
+class TimingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties.Logging.Timing properties;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties.Logging.Timing();
+        Method method = String.class.getMethod("trim");
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getName()).thenReturn("trim");
+        when(signature.getDeclaringTypeName()).thenReturn(String.class.getName());
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[] { "argument" });
+        when(joinPoint.getTarget()).thenReturn("target");
+    }
+
+    private TimingAspect aspect() {
+        return new TimingAspect(meterRegistry, properties);
+    }
+
+    private Timer timer(String outcome) {
+        return timer("String", "trim", outcome);
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return meterRegistry
+            .find(TimingAspect.METER_NAME)
+            .tag("class", className)
+            .tag("method", methodName)
+            .tag("outcome", outcome)
+            .timer();
+    }
+
+    @Test
+    void testEveryCallIsTimedWithoutSampling() throws Throwable {
+        properties.setSampleEvery(1);
+        when(joinPoint.proceed()).thenReturn("result");
+        TimingAspect aspect = aspect();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(aspect.timeAround(joinPoint)).isEqualTo("result");
+        }
+
+        assertThat(timer("success").count()).isEqualTo(5);
+        assertThat(meterRegistry.find(TimingAspect.METER_NAME).timers()).hasSize(2);
+    }
+
+    @Test
+    void testFailuresAreTimedSeparately() throws Throwable {
+        properties.setSampleEvery(1);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("failure"));
+        TimingAspect aspect = aspect();
+
+        assertThatThrownBy(() -> aspect.timeAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timer("error").count()).isEqualTo(1);
+        assertThat(timer("success").count()).isZero();
+    }
+
+    @Test
+    void testOnlyASampleOfTheCallsIsTimed() throws Throwable {
+        properties.setSampleEvery(10);
+        when(joinPoint.proceed()).thenReturn("result");
+        TimingAspect aspect = aspect();
+
+        for (int i = 0; i < 1000; i++) {
+            aspect.timeAround(joinPoint);
+        }
+
+        assertThat(timer("success").count()).isBetween(30L, 300L);
+    }
+
+    @Test
+    void testInheritedRepositoryMethodsAreTimedByRepository() throws Throwable {
+        properties.setSampleEvery(1);
+        Method count = CrudRepository.class.getMethod("count");
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        when(signature.getMethod()).thenReturn(count);
+        when(joinPoint.proceed()).thenReturn(0L);
+        TimingAspect aspect = aspect();
+
+        when(joinPoint.getTarget()).thenReturn(proxy(SampleRepository.class));
+        aspect.timeAround(joinPoint);
+        when(joinPoint.getTarget()).thenReturn(proxy(OtherRepository.class));
+        aspect.timeAround(joinPoint);
+        aspect.timeAround(joinPoint);
+
+        assertThat(timer("SampleRepository", "count", "success").count()).isEqualTo(1);
+        assertThat(timer("OtherRepository", "count", "success").count()).isEqualTo(2);
+        assertThat(meterRegistry.find(TimingAspect.METER_NAME).tag("class", "CrudRepository").timers()).isEmpty();
+    }
+
+    private static Object proxy(Class<?> repositoryInterface) {
+        return Proxy.newProxyInstance(
+            repositoryInterface.getClassLoader(),
+            new Class<?>[] { repositoryInterface },
+            (proxy, method, args) -> null
+        );
+    }
+
+    interface SampleRepository extends CrudRepository<Object, Long> {}
+
+    interface OtherRepository extends CrudRepository<Object, Long> {}
+}
@@ -0,0 +1,44 @@
+package ar.edu.um.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LogstashLogger}.
+ */
+class LogstashLoggerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LogstashLogger logstashLogger = new LogstashLogger(objectMapper, new ApplicationProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void testAdditionalFieldsOverrideStandardFields() throws Exception {
+        LogstashLogger.LogEvent event = new LogstashLogger.LogEvent(
+            Instant.parse("2026-10-19T10:00:00Z"),
+            "INFO",
+            "UserService",
+            "User logged in",
+            "main",
+            Map.of("level", "WARN", "userId", 123)
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        logstashLogger.encode(event, out);
+
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+        assertThat(json.get("level").asText()).isEqualTo("WARN");
+        assertThat(json.get("userId").asInt()).isEqualTo(123);
+        assertThat(json.get("message").asText()).isEqualTo("User logged in");
+        // The parser keeps the last of duplicate keys, so look for them in the raw line.
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\"level\"", -1)).hasSize(2);
+    }
+}
@@ -0,0 +1,109 @@
+package ar.edu.um.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link LogstashSpool}.
+ */
+class LogstashSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] event(int i) {
+        return ("{\"message\":\"event-" + i + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<byte[]> events) {
+        return events.stream().map(event -> new String(event, StandardCharsets.UTF_8)).toList();
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testEventsAreReplayedInOrderAcrossSegments() throws Exception {
+        try (LogstashSpool spool = new LogstashSpool("test", directory, 256, 16)) {
+            for (int i = 0; i < 50; i++) {
+                assertThat(spool.append(event(i))).isTrue();
+            }
+            assertThat(spool.getStatus().segments()).isGreaterThan(1);
+            assertThat(spool.getStatus().pendingEvents()).isEqualTo(50);
+
+            assertThat(strings(spool.peek(3))).containsExactly(
+                "{\"message\":\"event-0\"}",
+                "{\"message\":\"event-1\"}",
+                "{\"message\":\"event-2\"}"
+            );
+            // peeking does not consume
+            assertThat(strings(spool.peek(1))).containsExactly("{\"message\":\"event-0\"}");
+
+            int replayed = 0;
+            while (!spool.isEmpty()) {
+                List<byte[]> events = spool.peek(7);
+                for (byte[] event : events) {
+                    assertThat(event).isEqualTo(event(replayed++));
+                }
+                spool.commit(events.size());
+            }
+            assertThat(replayed).isEqualTo(50);
+            assertThat(spool.getStatus().replayedEvents()).isEqualTo(50);
+            assertThat(spool.getStatus().pendingBytes()).isZero();
+            assertThat(segmentFiles()).isLessThanOrEqualTo(1);
+        }
+    }
+
+    @Test
+    void testBacklogSurvivesRestart() throws Exception {
+        try (LogstashSpool spool = new LogstashSpool("test", directory, 256, 16)) {
+            for (int i = 0; i < 20; i++) {
+                spool.append(event(i));
+            }
+            spool.commit(5);
+        }
+
+        try (LogstashSpool spool = new LogstashSpool("test", directory, 256, 16)) {
+            assertThat(spool.getStatus().pendingEvents()).isEqualTo(15);
+            assertThat(spool.peek(1).get(0)).isEqualTo(event(5));
+            spool.append(event(20));
+            assertThat(spool.getStatus().pendingEvents()).isEqualTo(16);
+        }
+    }
+
+    @Test
+    void testOldestSegmentIsDiscardedWhenFull() throws Exception {
+        try (LogstashSpool spool = new LogstashSpool("test", directory, 256, 2)) {
+            for (int i = 0; i < 100; i++) {
+                spool.append(event(i));
+            }
+            LogstashSpool.Status status = spool.getStatus();
+            assertThat(status.segments()).isEqualTo(2);
+            assertThat(segmentFiles()).isEqualTo(2);
+            assertThat(status.discardedEvents()).isPositive();
+            assertThat(status.pendingEvents() + status.discardedEvents()).isEqualTo(100);
+            // the most recent events are kept
+            List<byte[]> events = spool.peek(Integer.MAX_VALUE);
+            assertThat(events.get(events.size() - 1)).isEqualTo(event(99));
+        }
+    }
+
+    @Test
+    void testEventLargerThanSegmentIsDiscarded() throws Exception {
+        try (LogstashSpool spool = new LogstashSpool("test", directory, 64, 2)) {
+            assertThat(spool.append(new byte[128])).isFalse();
+            assertThat(spool.isEmpty()).isTrue();
+            assertThat(spool.getStatus().discardedEvents()).isEqualTo(1);
+        }
+    }
+}
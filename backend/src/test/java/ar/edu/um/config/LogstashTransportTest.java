@@ -0,0 +1,183 @@
+package ar.edu.um.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link LogstashTransport}.
+ */
+class LogstashTransportTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LogstashTransport<String> transport(int port, int capacity, LogstashTransport.DropPolicy dropPolicy) {
+        return new LogstashTransport<>(
+            "test",
+            "localhost",
+            port,
+            capacity,
+            16,
+            dropPolicy,
+            (event, out) -> out.write(("{\"message\":\"" + event + "\"}").getBytes(StandardCharsets.UTF_8)),
+            meterRegistry
+        );
+    }
+
+    private double events(String result) {
+        return meterRegistry.get(LogstashTransport.EVENTS_METER_NAME).tag("result", result).counter().count();
+    }
+
+    @Test
+    void testEventsAreSentAsLinesOverOneConnection() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            List<String> lines = new ArrayList<>();
+            AtomicInteger connections = new AtomicInteger();
+            CountDownLatch received = new CountDownLatch(100);
+            Thread acceptor = new Thread(() -> {
+                try (Socket socket = server.accept()) {
+                    connections.incrementAndGet();
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        synchronized (lines) {
+                            lines.add(line);
+                        }
+                        received.countDown();
+                    }
+                } catch (Exception e) {
+                    // test ends
+                }
+            });
+            acceptor.start();
+
+            try (LogstashTransport<String> transport = transport(server.getLocalPort(), 1024, LogstashTransport.DropPolicy.DROP_NEWEST)) {
+                for (int i = 0; i < 100; i++) {
+                    assertThat(transport.send("event-" + i)).isTrue();
+                }
+                assertThat(received.await(10, TimeUnit.SECONDS)).isTrue();
+                assertThat(transport.isConnected()).isTrue();
+            }
+
+            synchronized (lines) {
+                assertThat(lines).hasSize(100).startsWith("{\"message\":\"event-0\"}").endsWith("{\"message\":\"event-99\"}");
+            }
+            assertThat(connections.get()).isEqualTo(1);
+            assertThat(events("sent")).isEqualTo(100);
+            assertThat(events("dropped")).isZero();
+        }
+    }
+
+    @Test
+    void testDropNewestWhenDownstreamIsUnavailable() throws Exception {
+        int port;
+        try (ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        try (LogstashTransport<String> transport = transport(port, 4, LogstashTransport.DropPolicy.DROP_NEWEST)) {
+            int accepted = 0;
+            for (int i = 0; i < 100; i++) {
+                if (transport.send("event-" + i)) {
+                    accepted++;
+                }
+            }
+            // the sender may hold a batch while it fails to connect, on top of the 4 buffered events
+            assertThat(accepted).isBetween(4, 20);
+            assertThat(events("dropped")).isEqualTo(100 - accepted);
+            assertThat(meterRegistry.get(LogstashTransport.QUEUED_METER_NAME).gauge().value()).isLessThanOrEqualTo(4);
+        }
+    }
+
+    @Test
+    void testDropOldestKeepsAcceptingEvents() throws Exception {
+        int port;
+        try (ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        try (LogstashTransport<String> transport = transport(port, 4, LogstashTransport.DropPolicy.DROP_OLDEST)) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(transport.send("event-" + i)).isTrue();
+            }
+            assertThat(events("dropped")).isGreaterThanOrEqualTo(80);
+        }
+    }
+
+    @Test
+    void testEventsAreSpooledDuringOutageAndReplayedInOrder(@TempDir Path directory) throws Exception {
+        int port;
+        try (ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        LogstashSpool spool = new LogstashSpool("test", directory, 4096, 4);
+        try (
+            LogstashTransport<String> transport = new LogstashTransport<>(
+                "test",
+                "localhost",
+                port,
+                64,
+                16,
+                LogstashTransport.DropPolicy.DROP_NEWEST,
+                (event, out) -> out.write(event.getBytes(StandardCharsets.UTF_8)),
+                spool,
+                1000,
+                meterRegistry
+            )
+        ) {
+            for (int i = 0; i < 50; i++) {
+                assertThat(transport.send("event-" + i)).isTrue();
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (transport.getSpooled() < 50 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(transport.getSpooled()).isEqualTo(50);
+
+            try (ServerSocket server = new ServerSocket(port)) {
+                List<String> lines = new ArrayList<>();
+                CountDownLatch received = new CountDownLatch(60);
+                Thread acceptor = new Thread(() -> {
+                    try (Socket socket = server.accept()) {
+                        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            synchronized (lines) {
+                                lines.add(line);
+                            }
+                            received.countDown();
+                        }
+                    } catch (Exception e) {
+                        // test ends
+                    }
+                });
+                acceptor.start();
+                for (int i = 50; i < 60; i++) {
+                    assertThat(transport.send("event-" + i)).isTrue();
+                }
+
+                assertThat(received.await(10, TimeUnit.SECONDS)).isTrue();
+                synchronized (lines) {
+                    assertThat(lines).hasSize(60);
+                    for (int i = 0; i < 60; i++) {
+                        assertThat(lines.get(i)).isEqualTo("event-" + i);
+                    }
+                }
+                assertThat(events("dropped")).isZero();
+                assertThat(transport.getSpooled()).isZero();
+            }
+        }
+    }
+}
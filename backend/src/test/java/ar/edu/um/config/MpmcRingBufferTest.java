@@ -0,0 +1,87 @@
+package ar.edu.um.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link MpmcRingBuffer}.
+ */
+class MpmcRingBufferTest {
+
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new MpmcRingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new MpmcRingBuffer<>(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void testFifoAndBounded() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+        List<Integer> drained = new ArrayList<>();
+        Integer element;
+        while ((element = buffer.poll()) != null) {
+            drained.add(element);
+        }
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void testConcurrentProducersAndConsumersLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(64);
+        ConcurrentLinkedQueue<Integer> consumed = new ConcurrentLinkedQueue<>();
+        AtomicInteger remaining = new AtomicInteger(producers * perProducer);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+        CountDownLatch done = new CountDownLatch(producers + 2);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            for (int c = 0; c < 2; c++) {
+                executor.execute(() -> {
+                    while (remaining.get() > 0) {
+                        Integer element = buffer.poll();
+                        if (element != null) {
+                            consumed.add(element);
+                            remaining.decrementAndGet();
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(consumed).hasSize(producers * perProducer).doesNotHaveDuplicates();
+    }
+}
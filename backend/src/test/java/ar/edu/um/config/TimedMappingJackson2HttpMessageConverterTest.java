@@ -0,0 +1,45 @@
+package ar.edu.um.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.management.RequestTimings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+/**
+ * Test class for the {@link TimedMappingJackson2HttpMessageConverter}.
+ */
+class TimedMappingJackson2HttpMessageConverterTest {
+
+    private final TimedMappingJackson2HttpMessageConverter converter = new TimedMappingJackson2HttpMessageConverter(new ObjectMapper());
+
+    @AfterEach
+    void cleanup() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void testWriteIsStreamedAndTimed() throws Exception {
+        RequestTimings timings = RequestTimings.start();
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(Map.of("title", "Reminder"), MediaType.APPLICATION_JSON, outputMessage);
+
+        assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).isEqualTo("{\"title\":\"Reminder\"}");
+        assertThat(timings.getCount(RequestTimings.Phase.SERIALIZATION)).isEqualTo(1);
+    }
+
+    @Test
+    void testWriteOutsideOfARequest() throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+        converter.write(Map.of("title", "Reminder"), MediaType.APPLICATION_JSON, outputMessage);
+
+        assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_8)).isEqualTo("{\"title\":\"Reminder\"}");
+    }
+}
@@ -0,0 +1,59 @@
+package ar.edu.um.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link QueryBudgetMonitor}.
+ */
+class QueryBudgetMonitorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void cleanup() {
+        RequestTimings.end();
+    }
+
+    private static RequestTimings timingsWithStatements(int statements) {
+        RequestTimings timings = RequestTimings.start();
+        for (int i = 0; i < statements; i++) {
+            timings.record(RequestTimings.Phase.DB, 1000);
+        }
+        return timings;
+    }
+
+    @Test
+    void testRequestsOverTheirBudgetAreFlagged() {
+        QueryBudgetMonitor monitor = new QueryBudgetMonitor(meterRegistry, 1, 5, Map.of("GET /api/admin/users", 2));
+
+        assertThat(monitor.check("GET", "/api/reminders", timingsWithStatements(5))).isFalse();
+        assertThat(monitor.check("GET", "/api/reminders", timingsWithStatements(6))).isTrue();
+        assertThat(monitor.check("GET", "/api/admin/users", timingsWithStatements(3))).isTrue();
+        assertThat(monitor.check("POST", "/api/admin/users", timingsWithStatements(3))).isFalse();
+
+        assertThat(
+            meterRegistry.get(QueryBudgetMonitor.EXCEEDED_METER_NAME).tag("uri", "/api/admin/users").tag("method", "GET").counter().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void testOnlyASampleOfTheRequestsIsChecked() {
+        QueryBudgetMonitor monitor = new QueryBudgetMonitor(meterRegistry, 10, 0, Map.of());
+        RequestTimings timings = timingsWithStatements(1);
+
+        int flagged = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (monitor.check("GET", "/api/reminders", timings)) {
+                flagged++;
+            }
+        }
+
+        assertThat(flagged).isBetween(30, 300);
+    }
+}
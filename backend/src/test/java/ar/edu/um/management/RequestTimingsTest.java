@@ -0,0 +1,55 @@
+package ar.edu.um.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RequestTimings}.
+ */
+class RequestTimingsTest {
+
+    @AfterEach
+    void cleanup() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void testNothingIsRecordedOutsideOfARequest() {
+        long start = RequestTimings.enter(RequestTimings.Phase.MAPPING);
+        RequestTimings.exit(RequestTimings.Phase.MAPPING, start);
+
+        assertThat(start).isEqualTo(-1);
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    @Test
+    void testOnlyTheOutermostNestedCallIsTimed() {
+        RequestTimings timings = RequestTimings.start();
+
+        long outer = RequestTimings.enter(RequestTimings.Phase.MAPPING);
+        long inner = RequestTimings.enter(RequestTimings.Phase.MAPPING);
+        RequestTimings.exit(RequestTimings.Phase.MAPPING, inner);
+        RequestTimings.exit(RequestTimings.Phase.MAPPING, outer);
+        long next = RequestTimings.enter(RequestTimings.Phase.MAPPING);
+        RequestTimings.exit(RequestTimings.Phase.MAPPING, next);
+
+        assertThat(outer).isNotNegative();
+        assertThat(inner).isEqualTo(-1);
+        assertThat(next).isNotNegative();
+        assertThat(timings.getCount(RequestTimings.Phase.MAPPING)).isEqualTo(2);
+    }
+
+    @Test
+    void testServerTimingListsRecordedPhases() {
+        RequestTimings timings = RequestTimings.start();
+        timings.record(RequestTimings.Phase.DB, TimeUnit.MICROSECONDS.toNanos(1250));
+        timings.record(RequestTimings.Phase.SERIALIZATION, TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertThat(timings.toServerTiming()).matches(
+            "db;dur=1\\.3;desc=\"1 call\", json;dur=4\\.0;desc=\"1 call\", total;dur=\\d+\\.\\d"
+        );
+    }
+}
@@ -67,4 +67,15 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testAuthenticationExecutorMetersAreBoundToCorrectMeters() {
+        securityMetersService.recordAuthenticationQueueWait(1_000_000);
+        securityMetersService.recordAuthenticationHashTime(100_000_000);
+        securityMetersService.trackAuthenticationRejected();
+
+        assertThat(meterRegistry.get("security.authentication.queue-wait").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.authentication.hash-time").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.authentication.rejected").counter().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,55 @@
+package ar.edu.um.management.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+/**
+ * Test class for the {@link FlightRecorderEndpoint}.
+ */
+class FlightRecorderEndpointTest {
+
+    private final FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint();
+
+    @AfterEach
+    void cleanup() throws Exception {
+        endpoint.stop();
+    }
+
+    @Test
+    void testRecordingIsBoundedAndDumpsApplicationEvents() throws Exception {
+        assertThat(endpoint.status()).containsEntry("state", "CLOSED");
+        assertThat(endpoint.dump("dump").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        assertThat(endpoint.start(24 * 3600L, 10_000L))
+            .containsEntry("state", "RUNNING")
+            .containsEntry("maxAge", FlightRecorderEndpoint.MAX_MAX_AGE)
+            .containsEntry("maxSizeBytes", FlightRecorderEndpoint.MAX_MAX_SIZE_MB * 1024 * 1024);
+
+        ReminderOperationEvent event = ReminderOperationEvent.begin("findOne");
+        event.end(42L);
+
+        WebEndpointResponse<Resource> dump = endpoint.dump("dump");
+        assertThat(dump.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path file = dump.getBody().getFile().toPath();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+            .stream()
+            .filter(recorded -> recorded.getEventType().getName().equals("ar.edu.um.ReminderOperation"))
+            .toList();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("operation")).isEqualTo("findOne");
+        assertThat(events.get(0).getLong("reminderId")).isEqualTo(42);
+        assertThat(events.get(0).getDuration()).isGreaterThanOrEqualTo(Duration.ZERO);
+
+        assertThat(endpoint.stop()).containsEntry("state", "CLOSED");
+        assertThat(file).doesNotExist();
+    }
+}
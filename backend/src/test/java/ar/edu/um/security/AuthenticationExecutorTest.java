@@ -0,0 +1,101 @@
+package ar.edu.um.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Test class for the {@link AuthenticationExecutor}.
+ */
+class AuthenticationExecutorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private AuthenticationExecutor authenticationExecutor;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getAuthentication().setConcurrency(2);
+        applicationProperties.getSecurity().getAuthentication().setQueueCapacity(0);
+        applicationProperties.getSecurity().getAuthentication().setRetryAfterSeconds(3);
+        meterRegistry = new SimpleMeterRegistry();
+        authenticationExecutor = new AuthenticationExecutor(applicationProperties, new SecurityMetersService(meterRegistry));
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        authenticationExecutor.destroy();
+    }
+
+    @Test
+    void testAuthenticateReturnsManagerResult() {
+        Authentication token = new UsernamePasswordAuthenticationToken("user", "password");
+
+        Authentication result = authenticationExecutor.authenticate(authentication -> authentication, token);
+
+        assertThat(result).isSameAs(token);
+        assertThat(meterRegistry.get(SecurityMetersService.AUTHENTICATION_QUEUE_WAIT_METER_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SecurityMetersService.AUTHENTICATION_HASH_TIME_METER_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAuthenticatePropagatesAuthenticationExceptions() {
+        AuthenticationManager failing = authentication -> {
+            throw new BadCredentialsException("bad");
+        };
+
+        assertThatThrownBy(() -> authenticationExecutor.authenticate(failing, new UsernamePasswordAuthenticationToken("user", "wrong")))
+            .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void testAuthenticateIsRejectedWhenPoolIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AuthenticationManager blocking = authentication -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return authentication;
+        };
+        Authentication token = new UsernamePasswordAuthenticationToken("user", "password");
+
+        // Both verification threads busy, without a queue: the pool is full once both have started
+        callers.submit(() -> authenticationExecutor.authenticate(blocking, token));
+        callers.submit(() -> authenticationExecutor.authenticate(blocking, token));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> authenticationExecutor.authenticate(blocking, token))
+                .isInstanceOf(AuthenticationOverloadedException.class)
+                .extracting(e -> ((AuthenticationOverloadedException) e).getRetryAfterSeconds())
+                .isEqualTo(3);
+            assertThat(meterRegistry.get(SecurityMetersService.AUTHENTICATION_REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ar.edu.um.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RateLimiter} and its {@link TokenBucket}s.
+ */
+class RateLimiterTest {
+
+    private static final String PATH = "/api/authenticate";
+
+    private final AtomicLong now = new AtomicLong();
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Security.RateLimit rateLimit = applicationProperties.getSecurity().getRateLimit();
+        rateLimit.setIdleTimeoutSeconds(60);
+        rateLimit.setEndpoints(
+            List.of(
+                new ApplicationProperties.Security.RateLimit.Endpoint(
+                    PATH,
+                    "username",
+                    new ApplicationProperties.Security.RateLimit.Limit(3, 60),
+                    new ApplicationProperties.Security.RateLimit.Limit(2, 1)
+                )
+            )
+        );
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RateLimiter rateLimiter() {
+        return new RateLimiter(applicationProperties, new SecurityMetersService(meterRegistry), now::get);
+    }
+
+    @Test
+    void testUnknownPathIsNotLimited() {
+        assertThat(rateLimiter().forPath("/api/account")).isEmpty();
+    }
+
+    @Test
+    void testDisabledLimiterHasNoEndpoints() {
+        applicationProperties.getSecurity().getRateLimit().setEnabled(false);
+
+        assertThat(rateLimiter().forPath(PATH)).isEmpty();
+    }
+
+    @Test
+    void testIpBucketRejectsWhenExhaustedAndRefills() {
+        RateLimiter.EndpointLimiter limiter = rateLimiter().forPath(PATH).orElseThrow();
+
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isEqualTo(1);
+        assertThat(limiter.tryAcquireIp("10.0.0.2")).isZero();
+
+        // one token per second
+        now.addAndGet(1000);
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isEqualTo(1);
+
+        assertThat(
+            meterRegistry.get(SecurityMetersService.RATE_LIMIT_REJECTED_METER_NAME).tags("endpoint", PATH, "key", "ip").counter().count()
+        ).isEqualTo(2);
+    }
+
+    @Test
+    void testSlowRefillAccumulatesAcrossFrequentCalls() {
+        RateLimiter.EndpointLimiter limiter = rateLimiter().forPath(PATH).orElseThrow();
+
+        assertThat(limiter.tryAcquireLogin("user")).isZero();
+        assertThat(limiter.tryAcquireLogin("user")).isZero();
+        // one token per minute
+        assertThat(limiter.tryAcquireLogin("user")).isEqualTo(60);
+        for (int i = 0; i < 59; i++) {
+            now.addAndGet(1000);
+            assertThat(limiter.tryAcquireLogin("user")).isPositive();
+        }
+        now.addAndGet(1000);
+        assertThat(limiter.tryAcquireLogin("user")).isZero();
+        assertThat(
+            meterRegistry.get(SecurityMetersService.RATE_LIMIT_REJECTED_METER_NAME).tags("endpoint", PATH, "key", "login").counter().count()
+        ).isEqualTo(60);
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        RateLimiter rateLimiter = rateLimiter();
+        RateLimiter.EndpointLimiter limiter = rateLimiter.forPath(PATH).orElseThrow();
+        limiter.tryAcquireIp("10.0.0.1");
+        limiter.tryAcquireLogin("user");
+        limiter.tryAcquireLogin("user");
+
+        now.addAndGet(30_000);
+        rateLimiter.evictIdleBuckets();
+        assertThat(rateLimiter.bucketCount()).isEqualTo(2);
+
+        // the IP bucket is full again, the login bucket still needs another minute
+        now.addAndGet(30_000);
+        rateLimiter.evictIdleBuckets();
+        assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+
+        now.addAndGet(60_000);
+        rateLimiter.evictIdleBuckets();
+        assertThat(rateLimiter.bucketCount()).isZero();
+    }
+}
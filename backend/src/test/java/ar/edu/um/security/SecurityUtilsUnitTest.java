@@ -6,14 +6,19 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * Test class for the {@link SecurityUtils} utility class.
@@ -24,6 +29,7 @@ class SecurityUtilsUnitTest {
     @AfterEach
     void cleanup() {
         SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
     }
 
     @Test
@@ -61,6 +67,52 @@ class SecurityUtilsUnitTest {
         assertThat(contextUserId.orElse(null)).isEqualTo(userId);
     }
 
+    @Test
+    void testGetCurrentUserFromJwt() {
+        var securityContext = SecurityContextHolder.createEmptyContext();
+        var now = Instant.now();
+        var jwt = Jwt.withTokenValue("token")
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(60))
+            .subject("admin")
+            .claim(USER_ID_CLAIM, 1)
+            .header("Test", "test")
+            .build();
+        var authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN));
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(jwt, "token", authorities));
+        SecurityContextHolder.setContext(securityContext);
+
+        Optional<CurrentUser> currentUser = SecurityUtils.getCurrentUser();
+
+        assertThat(currentUser).contains(new CurrentUser(1L, "admin", Set.of(AuthoritiesConstants.ADMIN)));
+        assertThat(currentUser.orElseThrow().hasAuthority(AuthoritiesConstants.ADMIN)).isTrue();
+    }
+
+    @Test
+    void testGetCurrentUserIsMemoizedPerRequestAndAuthentication() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        SecurityContextHolder.setContext(securityContext);
+
+        CurrentUser first = SecurityUtils.getCurrentUser().orElseThrow();
+        assertThat(SecurityUtils.getCurrentUser()).containsSame(first);
+        assertThat(first.id()).isNull();
+
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("user", "user"));
+        assertThat(SecurityUtils.getCurrentUser().map(CurrentUser::login)).contains("user");
+    }
+
+    @Test
+    void testAnonymousHasNoCurrentUser() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        var authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
+        securityContext.setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser", authorities));
+        SecurityContextHolder.setContext(securityContext);
+
+        assertThat(SecurityUtils.getCurrentUser()).isEmpty();
+    }
+
     @Test
     void testIsAuthenticated() {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
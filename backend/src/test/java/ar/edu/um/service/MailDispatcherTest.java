@@ -0,0 +1,178 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+/**
+ * Test class for the {@link MailDispatcher}, against a local {@link SmtpTestServer}.
+ */
+class MailDispatcherTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private SmtpTestServer server;
+
+    private JavaMailSenderImpl javaMailSender;
+
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new SmtpTestServer();
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(server.getPort());
+        ApplicationProperties.MailDispatch properties = applicationProperties.getMailDispatch();
+        properties.setConnections(2);
+        properties.setBatchSize(10);
+        properties.setInitialBackoffMillis(10);
+        properties.setMaxBackoffMillis(100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mailDispatcher != null) {
+            mailDispatcher.destroy();
+        }
+        server.close();
+    }
+
+    private MailDispatcher mailDispatcher() {
+        mailDispatcher = new MailDispatcher(javaMailSender, applicationProperties, meterRegistry);
+        return mailDispatcher;
+    }
+
+    private MimeMessage message(String to, int index) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom("reminders@localhost");
+        message.setSubject("message " + index);
+        message.setText("content " + index);
+        return mimeMessage;
+    }
+
+    private double messages(String status) {
+        return meterRegistry.get(MailDispatcher.MESSAGES_METER_NAME).tag("status", status).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void testMessagesAreSentInBatchesOverPooledConnections() throws Exception {
+        MailDispatcher dispatcher = mailDispatcher();
+        for (int i = 0; i < 100; i++) {
+            dispatcher.send(message("john.doe@example.com", i));
+        }
+
+        await(() -> server.getMessages().size() == 100);
+        assertThat(server.getMessages()).allMatch(message -> message.contains("To: john.doe@example.com"));
+        assertThat(server.getMessages()).anyMatch(message -> message.contains("Subject: message 99"));
+        assertThat(server.getConnections()).isBetween(1, 2);
+        assertThat(server.getMaxOpenConnections()).isLessThanOrEqualTo(2);
+        assertThat(messages("sent")).isEqualTo(100);
+        assertThat(messages("failed")).isZero();
+        assertThat(meterRegistry.get(MailDispatcher.CONNECTIONS_METER_NAME).counter().count()).isEqualTo(server.getConnections());
+    }
+
+    @Test
+    void testConnectionIsRecycledAfterMessagesPerConnection() throws Exception {
+        applicationProperties.getMailDispatch().setConnections(1);
+        applicationProperties.getMailDispatch().setMessagesPerConnection(10);
+        MailDispatcher dispatcher = mailDispatcher();
+        for (int i = 0; i < 25; i++) {
+            dispatcher.send(message("john.doe@example.com", i));
+        }
+
+        await(() -> server.getMessages().size() == 25);
+        assertThat(server.getConnections()).isEqualTo(3);
+        assertThat(server.getMaxOpenConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testTransientFailureIsRetriedWithBackoff() throws Exception {
+        server.failNextTransactions(2);
+        MailDispatcher dispatcher = mailDispatcher();
+        dispatcher.send(message("john.doe@example.com", 0));
+
+        await(() -> server.getMessages().size() == 1);
+        await(() -> messages("sent") == 1);
+        assertThat(messages("retried")).isEqualTo(2);
+        assertThat(messages("failed")).isZero();
+    }
+
+    @Test
+    void testTransientFailureIsGivenUpAfterMaxAttempts() throws Exception {
+        applicationProperties.getMailDispatch().setMaxAttempts(3);
+        server.failNextTransactions(10);
+        MailDispatcher dispatcher = mailDispatcher();
+        dispatcher.send(message("john.doe@example.com", 0));
+
+        await(() -> messages("failed") == 1);
+        assertThat(messages("retried")).isEqualTo(2);
+        assertThat(server.getMessages()).isEmpty();
+    }
+
+    @Test
+    void testPermanentFailureIsNotRetried() throws Exception {
+        server.rejectRecipient("nobody@example.com");
+        MailDispatcher dispatcher = mailDispatcher();
+        CompletableFuture<Void> rejected = dispatcher.send(message("nobody@example.com", 0));
+        CompletableFuture<Void> accepted = dispatcher.send(message("john.doe@example.com", 1));
+
+        await(() -> messages("failed") == 1 && messages("sent") == 1);
+        assertThat(messages("retried")).isZero();
+        assertThat(accepted).succeedsWithin(Duration.ofSeconds(10));
+        assertThat(rejected).failsWithin(Duration.ofSeconds(10)).withThrowableThat().havingCause().isInstanceOf(MailSendException.class);
+        assertThat(MailDispatcher.isPermanent(rejected.handle((result, error) -> error).join())).isTrue();
+        assertThat(server.getMessages()).singleElement().asString().contains("To: john.doe@example.com");
+    }
+
+    @Test
+    void testMessagesAreSentDirectlyWhenDisabled() throws Exception {
+        applicationProperties.getMailDispatch().setEnabled(false);
+        MailDispatcher dispatcher = mailDispatcher();
+        for (int i = 0; i < 3; i++) {
+            dispatcher.send(message("john.doe@example.com", i));
+        }
+
+        assertThat(server.getMessages()).hasSize(3);
+        assertThat(server.getConnections()).isEqualTo(3);
+        assertThat(messages("sent")).isEqualTo(3);
+    }
+
+    @Test
+    void testBackoffIsExponentialAndCapped() {
+        MailDispatcher dispatcher = mailDispatcher();
+
+        assertThat(dispatcher.backoffMillis(1)).isEqualTo(10);
+        assertThat(dispatcher.backoffMillis(2)).isEqualTo(20);
+        assertThat(dispatcher.backoffMillis(4)).isEqualTo(80);
+        assertThat(dispatcher.backoffMillis(5)).isEqualTo(100);
+        assertThat(dispatcher.backoffMillis(100)).isEqualTo(100);
+    }
+}
@@ -0,0 +1,101 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.MailOutbox;
+import ar.edu.um.domain.enumeration.MailOutboxStatus;
+import ar.edu.um.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for the {@link MailOutboxService}.
+ */
+@IntegrationTest
+class MailOutboxIT {
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        mailOutboxRepository.deleteAll();
+    }
+
+    private void enqueue(String deliveryKey) {
+        mailOutboxService.enqueue(deliveryKey, "john.doe@example.com", "subject", "<p>content</p>", false, true);
+    }
+
+    @Test
+    void testMailIsQueuedOnlyWhenTheTransactionCommits() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            enqueue("rolled-back");
+            status.setRollbackOnly();
+        });
+        assertThat(mailOutboxRepository.count()).isZero();
+
+        transactionTemplate.executeWithoutResult(status -> enqueue("committed"));
+        assertThat(mailOutboxRepository.findAll()).singleElement().extracting(MailOutbox::getDeliveryKey).isEqualTo("committed");
+    }
+
+    @Test
+    void testMailIsQueuedOncePerDeliveryKey() {
+        enqueue("reminder-due/1/0");
+        enqueue("reminder-due/1/0");
+        enqueue("reminder-due/1/1");
+
+        assertThat(mailOutboxRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void testClaimedMailsAreMarkedSent() {
+        enqueue("first");
+        enqueue("second");
+        MailDispatcher mailDispatcher = mock(MailDispatcher.class);
+        when(mailDispatcher.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+        MailOutboxService worker = new MailOutboxService(
+            mailOutboxRepository,
+            mailDispatcher,
+            javaMailSender,
+            jHipsterProperties,
+            transactionManager,
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+
+        assertThat(worker.claimBatch()).isFalse();
+        assertThat(worker.claimBatch()).isFalse();
+        worker.recordDeliveries();
+
+        assertThat(mailOutboxRepository.findAll()).hasSize(2).allSatisfy(mail -> {
+            assertThat(mail.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+            assertThat(mail.getAttempts()).isEqualTo(1);
+            assertThat(mail.getSentDate()).isNotNull();
+        });
+    }
+}
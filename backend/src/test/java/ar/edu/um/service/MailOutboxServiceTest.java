@@ -0,0 +1,176 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.MailOutbox;
+import ar.edu.um.domain.enumeration.MailOutboxStatus;
+import ar.edu.um.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailOutboxService}.
+ */
+class MailOutboxServiceTest {
+
+    private final MailOutboxRepository mailOutboxRepository = mock(MailOutboxRepository.class);
+
+    private final MailDispatcher mailDispatcher = mock(MailDispatcher.class);
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("reminders@example.com");
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+        properties.setBatchSize(2);
+        properties.setMaxInFlight(3);
+        properties.setMaxAttempts(3);
+        mailOutboxService = new MailOutboxService(
+            mailOutboxRepository,
+            mailDispatcher,
+            new JavaMailSenderImpl(),
+            jHipsterProperties,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    private static MailOutbox mail(Long id, int attempts) {
+        MailOutbox mail = new MailOutbox();
+        mail.setId(id);
+        mail.setDeliveryKey("key-" + id);
+        mail.setRecipient("john" + id + "@example.com");
+        mail.setSubject("subject " + id);
+        mail.setContent("<p>content " + id + "</p>");
+        mail.setMultipart(false);
+        mail.setHtml(true);
+        mail.setStatus(MailOutboxStatus.PENDING);
+        mail.setAttempts(attempts);
+        return mail;
+    }
+
+    private void claimable(MailOutbox... mails) {
+        List<Long> ids = Arrays.stream(mails).map(MailOutbox::getId).toList();
+        when(mailOutboxRepository.lockClaimable(any(), anyInt())).thenReturn(ids);
+        when(mailOutboxRepository.findAllById(ids)).thenReturn(List.of(mails));
+    }
+
+    private double mails(String result) {
+        return meterRegistry.get(MailOutboxService.MAILS_METER_NAME).tag("result", result).counter().count();
+    }
+
+    @Test
+    void testDuplicateMailsAreNotQueued() {
+        when(mailOutboxRepository.insertIfAbsent(eq("key"), anyString(), anyString(), anyString(), anyBoolean(), anyBoolean(), any()))
+            .thenReturn(1)
+            .thenReturn(0);
+
+        assertThat(mailOutboxService.enqueue("key", "john@example.com", "subject", "content", false, true)).isTrue();
+        assertThat(mailOutboxService.enqueue("key", "john@example.com", "subject", "content", false, true)).isFalse();
+        assertThat(mails("queued")).isEqualTo(1);
+        assertThat(mails("duplicate")).isEqualTo(1);
+    }
+
+    @Test
+    void testClaimedMailsAreSentWithAMessageIdOfTheirDeliveryKey() throws Exception {
+        claimable(mail(1L, 1), mail(2L, 1));
+        when(mailDispatcher.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(mailOutboxService.claimBatch()).isTrue();
+
+        verify(mailOutboxRepository).claim(eq(List.of(1L, 2L)), any());
+        ArgumentCaptor<MimeMessage> messages = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailDispatcher, times(2)).send(messages.capture());
+        MimeMessage message = messages.getAllValues().get(0);
+        assertThat(message.getAllRecipients()[0]).hasToString("john1@example.com");
+        assertThat(message.getSubject()).isEqualTo("subject 1");
+        assertThat(message.getHeader("Message-ID")[0]).endsWith(".outbox@example.com>");
+        assertThat(message.getHeader("Message-ID")[0]).isNotEqualTo(messages.getAllValues().get(1).getHeader("Message-ID")[0]);
+
+        mailOutboxService.recordDeliveries();
+
+        verify(mailOutboxRepository).markSent(eq(List.of(1L, 2L)), any());
+        assertThat(mails("sent")).isEqualTo(2);
+        assertThat(mailOutboxService.getInFlight()).isZero();
+    }
+
+    @Test
+    void testFailedMailsAreRetriedUnlessPermanentOrOutOfAttempts() {
+        claimable(mail(1L, 1), mail(2L, 1));
+        when(mailDispatcher.send(any()))
+            .thenReturn(CompletableFuture.failedFuture(new MailSendException("451 try again later")))
+            .thenReturn(CompletableFuture.failedFuture(new MailPreparationException("invalid address")));
+        mailOutboxService.claimBatch();
+        claimable(mail(3L, 3));
+        when(mailDispatcher.send(any())).thenReturn(CompletableFuture.failedFuture(new MailSendException("451 try again later")));
+        mailOutboxService.claimBatch();
+
+        mailOutboxService.recordDeliveries();
+
+        verify(mailOutboxRepository).reschedule(eq(1L), any(), eq("451 try again later"));
+        verify(mailOutboxRepository).markFailed(2L, "invalid address");
+        verify(mailOutboxRepository).markFailed(3L, "451 try again later");
+        verify(mailOutboxRepository, never()).markSent(any(), any());
+        assertThat(mails("retried")).isEqualTo(1);
+        assertThat(mails("failed")).isEqualTo(2);
+    }
+
+    @Test
+    void testClaimsAreLimitedByTheMailsInFlight() {
+        claimable(mail(1L, 1), mail(2L, 1));
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        when(mailDispatcher.send(any())).thenReturn(pending);
+
+        mailOutboxService.claimBatch();
+        verify(mailOutboxRepository).lockClaimable(any(), eq(2));
+        claimable(mail(3L, 1));
+        mailOutboxService.claimBatch();
+        verify(mailOutboxRepository).lockClaimable(any(), eq(1));
+        assertThat(mailOutboxService.getInFlight()).isEqualTo(3);
+
+        assertThat(mailOutboxService.claimBatch()).isFalse();
+        verify(mailOutboxRepository, times(2)).lockClaimable(any(), anyInt());
+
+        pending.complete(null);
+        assertThat(mailOutboxService.getInFlight()).isZero();
+    }
+
+    @Test
+    void testBackoffIsExponentialAndCapped() {
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+
+        assertThat(mailOutboxService.backoffSeconds(1)).isEqualTo(properties.getInitialBackoffSeconds());
+        assertThat(mailOutboxService.backoffSeconds(2)).isEqualTo(2 * properties.getInitialBackoffSeconds());
+        assertThat(mailOutboxService.backoffSeconds(100)).isEqualTo(properties.getMaxBackoffSeconds());
+    }
+}
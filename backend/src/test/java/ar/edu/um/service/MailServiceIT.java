@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 
 import ar.edu.um.IntegrationTest;
 import ar.edu.um.config.Constants;
+import ar.edu.um.domain.Reminder;
 import ar.edu.um.domain.User;
 import jakarta.mail.Multipart;
 import jakarta.mail.Session;
@@ -18,6 +19,9 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -182,6 +186,39 @@ class MailServiceIT {
         assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
     }
 
+    @Test
+    void testSendReminderDueEmail() throws Exception {
+        User user = new User();
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        Reminder reminder = new Reminder().id(1L).title("Pay the rent").dueDate(Instant.parse("2026-10-19T12:00:00Z"));
+        mailService.sendReminderDueEmail(user, reminder);
+        verify(javaMailSender).send(messageCaptor.capture());
+        MimeMessage message = messageCaptor.getValue();
+        assertThat(message.getSubject()).isEqualTo("Reminder: Pay the rent");
+        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
+        assertThat(message.getContent().toString()).contains("Pay the rent", "2026-10-19T12:00:00Z");
+        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+    }
+
+    @Test
+    void testSendReminderDigestEmail() throws Exception {
+        User user = new User();
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setLogin("john");
+        user.setEmail("john.doe@example.com");
+        Reminder overdue = new Reminder().id(1L).title("Pay the rent").dueDate(Instant.parse("2026-10-17T12:00:00Z"));
+        Reminder due = new Reminder().id(2L).title("Call mom").dueDate(Instant.parse("2026-10-19T18:00:00Z"));
+        mailService.sendReminderDigestEmail(user, LocalDate.parse("2026-10-19"), List.of(overdue), List.of(due), 3);
+        verify(javaMailSender).send(messageCaptor.capture());
+        MimeMessage message = messageCaptor.getValue();
+        assertThat(message.getSubject()).isEqualTo("Your reminders for 2026-10-19");
+        assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
+        assertThat(message.getContent().toString()).contains("Pay the rent", "Call mom", "2026-10-19T18:00:00Z", "And 3 more reminders.");
+        assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
+    }
+
     @Test
     void testSendEmailWithException() {
         doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
@@ -0,0 +1,103 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+/**
+ * Throughput of the {@link MailTemplateRenderer} against Thymeleaf, for reminder due emails.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=MailTemplateRendererBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MailTemplateRendererBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTemplateRendererBenchmarkTest.class);
+
+    private static final int MAILS = 20_000;
+
+    private static final int ROUNDS = 5;
+
+    private static final Locale[] LOCALES = { Locale.ENGLISH, Locale.FRENCH, Locale.forLanguageTag("es-AR") };
+
+    private final MessageSource messageSource = MailTemplateRendererTest.messageSource();
+
+    private final SpringTemplateEngine templateEngine = MailTemplateRendererTest.templateEngine(messageSource);
+
+    private final MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, new ThymeleafProperties());
+
+    private final List<Map<String, Object>> mails = new ArrayList<>(MAILS);
+
+    MailTemplateRendererBenchmarkTest() {
+        for (int i = 0; i < MAILS; i++) {
+            User user = MailTemplateRendererTest.user("user" + i);
+            Reminder reminder = MailTemplateRendererTest.reminder("Reminder #" + i, i % 3 == 0 ? null : "Description of reminder " + i);
+            mails.add(Map.of("user", user, "baseUrl", MailTemplateRendererTest.BASE_URL, "reminder", reminder));
+        }
+    }
+
+    @Test
+    void benchmarkReminderDueEmails() {
+        double thymeleaf = 0;
+        double precompiled = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            thymeleaf = measure("thymeleaf", this::renderWithThymeleaf);
+            precompiled = measure("precompiled", this::renderPrecompiled);
+        }
+        LOG.info("Reminder due emails: {} per second with Thymeleaf, {} per second precompiled", (long) thymeleaf, (long) precompiled);
+        assertThat(precompiled).isGreaterThan(thymeleaf).isGreaterThan(1000);
+    }
+
+    private double measure(String name, Runnable render) {
+        long start = System.nanoTime();
+        render.run();
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        LOG.debug("{}: {} emails in {} s", name, MAILS, seconds);
+        return MAILS / seconds;
+    }
+
+    private void renderWithThymeleaf() {
+        int length = 0;
+        for (int i = 0; i < MAILS; i++) {
+            Map<String, Object> variables = mails.get(i);
+            Locale locale = LOCALES[i % LOCALES.length];
+            Context context = new Context(locale);
+            context.setVariables(variables);
+            Object[] titleArgs = { ((Reminder) variables.get("reminder")).getTitle() };
+            length += templateEngine.process("mail/reminderDueEmail", context).length();
+            length += messageSource.getMessage("email.reminder.title", titleArgs, locale).length();
+        }
+        assertThat(length).isPositive();
+    }
+
+    private void renderPrecompiled() {
+        int length = 0;
+        for (int i = 0; i < MAILS; i++) {
+            Map<String, Object> variables = mails.get(i);
+            Object[] titleArgs = { ((Reminder) variables.get("reminder")).getTitle() };
+            MailTemplateRenderer.RenderedMail mail = renderer.render(
+                "mail/reminderDueEmail",
+                LOCALES[i % LOCALES.length],
+                variables,
+                "email.reminder.title",
+                titleArgs
+            );
+            length += mail.content().length() + mail.subject().length();
+        }
+        assertThat(length).isPositive();
+    }
+}
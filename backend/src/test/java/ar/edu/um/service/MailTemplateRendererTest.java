@@ -0,0 +1,193 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.User;
+import ar.edu.um.domain.enumeration.Priority;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Test class for the {@link MailTemplateRenderer}, which must render the same emails as Thymeleaf.
+ */
+class MailTemplateRendererTest {
+
+    static final String BASE_URL = "http://127.0.0.1:8080";
+
+    private final MessageSource messageSource = messageSource();
+
+    private final SpringTemplateEngine templateEngine = templateEngine(messageSource);
+
+    private final MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, new ThymeleafProperties());
+
+    static MessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        return messageSource;
+    }
+
+    static SpringTemplateEngine templateEngine(MessageSource messageSource) {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        return templateEngine;
+    }
+
+    static User user(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey("en");
+        user.setActivationKey("activation<&>" + login);
+        user.setResetKey("reset\"'" + login);
+        return user;
+    }
+
+    static Reminder reminder(String title, String description) {
+        return new Reminder()
+            .title(title)
+            .description(description)
+            .dueDate(Instant.parse("2026-10-19T10:15:30Z"))
+            .priority(Priority.MEDIUM)
+            .isCompleted(false);
+    }
+
+    private MailTemplateRenderer.RenderedMail expected(
+        String templateName,
+        String titleKey,
+        Object[] titleArgs,
+        Map<String, Object> variables
+    ) {
+        Context context = new Context(Locale.ENGLISH);
+        context.setVariables(variables);
+        return new MailTemplateRenderer.RenderedMail(
+            messageSource.getMessage(titleKey, titleArgs, Locale.ENGLISH),
+            templateEngine.process(templateName, context)
+        );
+    }
+
+    private void assertRendersLikeThymeleaf(String templateName, String titleKey, Object[] titleArgs, Map<String, Object> variables) {
+        assertThat(renderer.render(templateName, Locale.ENGLISH, variables, titleKey, titleArgs)).isEqualTo(
+            expected(templateName, titleKey, titleArgs, variables)
+        );
+    }
+
+    @Test
+    void testAccountEmailsAreRenderedLikeThymeleaf() {
+        for (String login : new String[] { "john", "<b>jane</b> & \"joe\"", "o'brien" }) {
+            Map<String, Object> variables = Map.of("user", user(login), "baseUrl", BASE_URL);
+            assertRendersLikeThymeleaf("mail/activationEmail", "email.activation.title", null, variables);
+            assertRendersLikeThymeleaf("mail/creationEmail", "email.activation.title", null, variables);
+            assertRendersLikeThymeleaf("mail/passwordResetEmail", "email.reset.title", null, variables);
+        }
+    }
+
+    @Test
+    void testReminderDueEmailIsRenderedLikeThymeleaf() {
+        for (Reminder reminder : new Reminder[] {
+            reminder("Pay rent", "Before noon"),
+            reminder("<script>alert('x')</script>", "Tom & Jerry"),
+            reminder("Call mom", null),
+            reminder("Call dad", "no"),
+            reminder("Call dad", "false"),
+            reminder("Water plants", "Every other day"),
+        }) {
+            Map<String, Object> variables = Map.of("user", user("john"), "baseUrl", BASE_URL, "reminder", reminder);
+            Object[] titleArgs = { reminder.getTitle() };
+            assertRendersLikeThymeleaf("mail/reminderDueEmail", "email.reminder.title", titleArgs, variables);
+        }
+    }
+
+    @Test
+    void testDigestListsAreRenderedByThymeleaf() {
+        SpringTemplateEngine spiedTemplateEngine = spy(templateEngine);
+        MailTemplateRenderer spiedRenderer = new MailTemplateRenderer(spiedTemplateEngine, messageSource, new ThymeleafProperties());
+        LocalDate date = LocalDate.parse("2026-10-19");
+
+        // the reminders are equal by id, their titles must not be taken from a previous email
+        for (String title : new String[] { "Pay rent", "Call mom" }) {
+            Reminder reminder = reminder(title, null);
+            reminder.setId(1L);
+            Map<String, Object> variables = Map.of(
+                "user",
+                user("john"),
+                "baseUrl",
+                BASE_URL,
+                "date",
+                date,
+                "overdue",
+                List.of(reminder),
+                "due",
+                List.of(),
+                "more",
+                0
+            );
+            assertThat(
+                spiedRenderer.render("mail/reminderDigestEmail", Locale.ENGLISH, variables, "email.digest.title", new Object[] { date })
+            ).isEqualTo(expected("mail/reminderDigestEmail", "email.digest.title", new Object[] { date }, variables));
+        }
+        verify(spiedTemplateEngine, times(3)).process(eq("mail/reminderDigestEmail"), any(IContext.class));
+    }
+
+    @Test
+    void testNullVariableIsRenderedLikeThymeleaf() {
+        User user = user("john");
+        user.setActivationKey(null);
+        Map<String, Object> variables = Map.of("user", user, "baseUrl", BASE_URL);
+        assertRendersLikeThymeleaf("mail/activationEmail", "email.activation.title", null, variables);
+    }
+
+    @Test
+    void testTemplateIsProcessedOncePerLocale() {
+        SpringTemplateEngine spiedTemplateEngine = spy(templateEngine);
+        MailTemplateRenderer spiedRenderer = new MailTemplateRenderer(spiedTemplateEngine, messageSource, new ThymeleafProperties());
+
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> variables = Map.of("user", user("user" + i), "baseUrl", BASE_URL);
+            spiedRenderer.render("mail/activationEmail", Locale.ENGLISH, variables, "email.activation.title", null);
+        }
+        verify(spiedTemplateEngine, times(1)).process(eq("mail/activationEmail"), any(IContext.class));
+
+        Map<String, Object> variables = Map.of("user", user("jean"), "baseUrl", BASE_URL);
+        spiedRenderer.render("mail/activationEmail", Locale.FRENCH, variables, "email.activation.title", null);
+        spiedRenderer.render("mail/activationEmail", Locale.FRENCH, variables, "email.activation.title", null);
+        verify(spiedTemplateEngine, times(2)).process(eq("mail/activationEmail"), any(IContext.class));
+    }
+
+    @Test
+    void testTemplatesAreRenderedByThymeleafWhenCacheIsDisabled() {
+        ThymeleafProperties thymeleafProperties = new ThymeleafProperties();
+        thymeleafProperties.setCache(false);
+        MailTemplateRenderer uncachedRenderer = new MailTemplateRenderer(templateEngine, messageSource, thymeleafProperties);
+        Map<String, Object> variables = Map.of("user", user("john"), "baseUrl", BASE_URL);
+
+        assertThat(uncachedRenderer.render("mail/activationEmail", Locale.ENGLISH, variables, "email.activation.title", null)).isEqualTo(
+            expected("mail/activationEmail", "email.activation.title", null, variables)
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.enumeration.Priority;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.service.dto.ReminderChangesDTO;
+import ar.edu.um.service.dto.ReminderDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ReminderChangeService}.
+ */
+@IntegrationTest
+class ReminderChangeServiceIT {
+
+    @Autowired
+    private ReminderChangeService reminderChangeService;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> ids = List.of();
+
+    @AfterEach
+    void cleanup() {
+        reminderRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void testChangeCommittedAfterALaterOneIsListedInTheNextChanges() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Reminder first = reminderRepository.saveAndFlush(reminder());
+        Reminder second = reminderRepository.saveAndFlush(reminder());
+        ids = List.of(first.getId(), second.getId());
+        String token = listAll(null).getToken();
+
+        // the first reminder takes its change sequence, but its transaction commits after the second one's
+        CountDownLatch touched = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slowTransaction = CompletableFuture.runAsync(() ->
+            transactionTemplate.executeWithoutResult(status -> {
+                reminderRepository.touch(first.getId());
+                touched.countDown();
+                await(commit);
+            })
+        );
+        assertThat(touched.await(10, TimeUnit.SECONDS)).isTrue();
+        transactionTemplate.executeWithoutResult(status -> reminderRepository.touch(second.getId()));
+
+        ReminderChangesDTO whileRunning = listAll(token);
+        // the token is now after the change sequence of the second reminder, the first one is not visible yet
+        assertThat(whileRunning.getChanged()).extracting(ReminderDTO::getId).contains(second.getId());
+
+        commit.countDown();
+        slowTransaction.get(10, TimeUnit.SECONDS);
+
+        ReminderChangesDTO afterCommit = listAll(whileRunning.getToken());
+        assertThat(afterCommit.getChanged()).extracting(ReminderDTO::getId).contains(first.getId());
+    }
+
+    private static Reminder reminder() {
+        Instant now = Instant.now();
+        return new Reminder()
+            .title("change")
+            .dueDate(now)
+            .isCompleted(false)
+            .priority(Priority.MEDIUM)
+            .createdDate(now)
+            .lastModifiedDate(now);
+    }
+
+    /**
+     * All the changes since a token, read page after page, with the token of the last page.
+     */
+    private ReminderChangesDTO listAll(String since) {
+        ReminderChangesDTO all = new ReminderChangesDTO();
+        all.setChanged(new ArrayList<>());
+        ReminderChangesDTO changes;
+        do {
+            changes = reminderChangeService.findChanges(since, Integer.MAX_VALUE);
+            all.getChanged().addAll(changes.getChanged());
+            since = changes.getToken();
+        } while (changes.isMore());
+        all.setToken(since);
+        return all;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
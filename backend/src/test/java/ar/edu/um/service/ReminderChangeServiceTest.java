@@ -0,0 +1,175 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderTombstone;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.ReminderTombstoneRepository;
+import ar.edu.um.service.dto.ReminderChangesDTO;
+import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.mapper.ReminderMapper;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ReminderChangeService}.
+ */
+class ReminderChangeServiceTest {
+
+    private final ReminderRepository reminderRepository = mock(ReminderRepository.class);
+
+    private final ReminderTombstoneRepository reminderTombstoneRepository = mock(ReminderTombstoneRepository.class);
+
+    private final ReminderMapper reminderMapper = mock(ReminderMapper.class);
+
+    private ReminderChangeService reminderChangeService;
+
+    private record Changed(Long getId, Long getChangeSeq) implements ReminderRepository.ChangedReminder {}
+
+    @BeforeEach
+    void setUp() {
+        reminderChangeService = new ReminderChangeService(
+            reminderRepository,
+            reminderTombstoneRepository,
+            reminderMapper,
+            new ApplicationProperties()
+        );
+        when(reminderRepository.findFirstChangeSeqSince(anyLong())).thenReturn(null);
+        when(reminderRepository.fetchBagRelationships(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reminderRepository.findAllById(any())).thenAnswer(invocation ->
+            ((List<Long>) invocation.getArgument(0)).stream().map(id -> new Reminder().id(id)).toList()
+        );
+        when(reminderMapper.toDto(any(Reminder.class))).thenAnswer(invocation -> {
+            ReminderDTO reminderDTO = new ReminderDTO();
+            reminderDTO.setId(((Reminder) invocation.getArgument(0)).getId());
+            return reminderDTO;
+        });
+    }
+
+    private static ReminderTombstone tombstone(long reminderId, long changeSeq) {
+        ReminderTombstone tombstone = new ReminderTombstone();
+        tombstone.setReminderId(reminderId);
+        tombstone.setChangeSeq(changeSeq);
+        return tombstone;
+    }
+
+    private static String token(long changeSeq, Instant issuedAt) {
+        return new ReminderChangeService.SyncToken(changeSeq, 0, issuedAt, false).toString();
+    }
+
+    @Test
+    void testChangesAreMergedInChangeOrderUpToTheSize() {
+        Instant issuedAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        when(reminderRepository.findChangedSince(10L, 4)).thenReturn(List.of(new Changed(1L, 11L), new Changed(2L, 13L)));
+        when(reminderTombstoneRepository.findChangedSince(eq(10L), any())).thenReturn(
+            List.of(tombstone(3L, 12L), tombstone(4L, 14L))
+        );
+
+        ReminderChangesDTO changes = reminderChangeService.findChanges(token(10, issuedAt), 3);
+
+        assertThat(changes.getChanged()).extracting(ReminderDTO::getId).containsExactly(1L, 2L);
+        assertThat(changes.getDeleted()).containsExactly(3L);
+        assertThat(changes.isMore()).isTrue();
+        // the next changes are since the last listed one, and may include deletions from the start of the listing
+        assertThat(changes.getToken()).isEqualTo(new ReminderChangeService.SyncToken(13, 0, issuedAt, true).toString());
+    }
+
+    @Test
+    void testChangesOfTheTransactionsRunningAtTheLastListingAreListedAgain() {
+        Instant issuedAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        // the transaction 7 took the change sequence 8 before the last listing, and committed after it
+        when(reminderRepository.findFirstChangeSeqSince(7L)).thenReturn(8L);
+        when(reminderRepository.findOldestRunningTransaction()).thenReturn(9L);
+        when(reminderRepository.findChangedSince(7L, 101)).thenReturn(List.of(new Changed(1L, 8L), new Changed(2L, 11L)));
+
+        String since = new ReminderChangeService.SyncToken(10, 7, issuedAt, false).toString();
+        ReminderChangesDTO changes = reminderChangeService.findChanges(since, 100);
+
+        assertThat(changes.getChanged()).extracting(ReminderDTO::getId).containsExactly(1L, 2L);
+        verify(reminderTombstoneRepository).findChangedSince(eq(7L), any());
+        ReminderChangeService.SyncToken next = ReminderChangeService.SyncToken.parse(changes.getToken());
+        assertThat(next.changeSeq()).isEqualTo(11);
+        assertThat(next.transaction()).isEqualTo(9);
+        assertThat(next.partial()).isFalse();
+    }
+
+    @Test
+    void testPartialTokenContinuesFromItsChangeSequence() {
+        Instant issuedAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        when(reminderRepository.findChangedSince(10L, 101)).thenReturn(List.of(new Changed(1L, 11L)));
+
+        String since = new ReminderChangeService.SyncToken(10, 7, issuedAt, true).toString();
+        ReminderChangesDTO changes = reminderChangeService.findChanges(since, 100);
+
+        assertThat(changes.getChanged()).extracting(ReminderDTO::getId).containsExactly(1L);
+        verify(reminderRepository, never()).findFirstChangeSeqSince(anyLong());
+        verify(reminderRepository, never()).findOldestRunningTransaction();
+        // the listing is complete, the next one starts again from the changes of the transactions running when it started
+        ReminderChangeService.SyncToken next = ReminderChangeService.SyncToken.parse(changes.getToken());
+        assertThat(next.transaction()).isEqualTo(7);
+        assertThat(next.partial()).isFalse();
+    }
+
+    @Test
+    void testLastChangesRenewTheToken() {
+        Instant issuedAt = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        when(reminderTombstoneRepository.findChangedSince(eq(10L), any())).thenReturn(List.of(tombstone(3L, 12L)));
+
+        ReminderChangesDTO changes = reminderChangeService.findChanges(token(10, issuedAt), 100);
+
+        assertThat(changes.getChanged()).isEmpty();
+        assertThat(changes.getDeleted()).containsExactly(3L);
+        assertThat(changes.isMore()).isFalse();
+        ReminderChangeService.SyncToken next = ReminderChangeService.SyncToken.parse(changes.getToken());
+        assertThat(next.changeSeq()).isEqualTo(12);
+        assertThat(next.issuedAt()).isAfter(issuedAt);
+    }
+
+    @Test
+    void testFirstSyncListsNoTombstones() {
+        when(reminderRepository.findChangedSince(0L, 101)).thenReturn(List.of(new Changed(1L, 5L)));
+
+        ReminderChangesDTO changes = reminderChangeService.findChanges(null, 100);
+
+        assertThat(changes.getChanged()).extracting(ReminderDTO::getId).containsExactly(1L);
+        assertThat(changes.isMore()).isFalse();
+        verify(reminderTombstoneRepository, never()).findChangedSince(anyLong(), any());
+    }
+
+    @Test
+    void testSizeIsCapped() {
+        int maxChanges = new ApplicationProperties().getReminderSync().getMaxChanges();
+
+        reminderChangeService.findChanges(null, Integer.MAX_VALUE);
+
+        verify(reminderRepository).findChangedSince(0L, maxChanges + 1);
+    }
+
+    @Test
+    void testInvalidAndExpiredTokensAreRefused() {
+        int retentionDays = new ApplicationProperties().getReminderSync().getTombstoneRetentionDays();
+
+        assertThatThrownBy(() -> reminderChangeService.findChanges("invalid", 100)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reminderChangeService.findChanges("12-3-1760000000-2", 100)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+        assertThatThrownBy(() ->
+            reminderChangeService.findChanges(token(12, Instant.now().minus(retentionDays, ChronoUnit.DAYS)), 100)
+        ).isInstanceOf(SyncTokenExpiredException.class);
+        verify(reminderRepository, never()).findChangedSince(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,297 @@
+package ar.edu.um.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.SyncOperationKey;
+import ar.edu.um.domain.enumeration.Priority;
+import ar.edu.um.repository.CategoryRepository;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.ReminderTombstoneRepository;
+import ar.edu.um.repository.SyncOperationKeyRepository;
+import ar.edu.um.repository.TagRepository;
+import ar.edu.um.repository.UserRepository;
+import ar.edu.um.repository.search.ReminderSearchRepository;
+import ar.edu.um.service.dto.CategoryDTO;
+import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.SyncOperationDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO.Status;
+import ar.edu.um.service.dto.TagDTO;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
+import ar.edu.um.service.mapper.ReminderMapperImpl;
+import ar.edu.um.service.notification.ReminderNotificationService;
+import jakarta.validation.Validation;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ReminderSyncService}.
+ */
+class ReminderSyncServiceTest {
+
+    private static final Long EXISTING_ID = 1L;
+
+    private final ReminderRepository reminderRepository = mock(ReminderRepository.class);
+
+    private final ReminderTombstoneRepository reminderTombstoneRepository = mock(ReminderTombstoneRepository.class);
+
+    private final ReminderSearchRepository reminderSearchRepository = mock(ReminderSearchRepository.class);
+
+    private final ReminderNotificationService reminderNotificationService = mock(ReminderNotificationService.class);
+
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+
+    private final SyncOperationKeyRepository syncOperationKeyRepository = mock(SyncOperationKeyRepository.class);
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    /**
+     * The claimed idempotency keys, as committed.
+     */
+    private final Map<String, SyncOperationKey> keys = new HashMap<>();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    private ReminderSyncService reminderSyncService;
+
+    @BeforeEach
+    void setUp() {
+        reminderSyncService = new ReminderSyncService(
+            reminderRepository,
+            reminderTombstoneRepository,
+            reminderSearchRepository,
+            reminderNotificationService,
+            changeFeedService,
+            new ReminderMapperImpl(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            syncOperationKeyRepository,
+            categoryRepository,
+            tagRepository,
+            userRepository,
+            applicationProperties
+        );
+        when(reminderRepository.save(any(Reminder.class))).thenAnswer(invocation -> {
+            Reminder reminder = invocation.getArgument(0);
+            if (reminder.getId() == null) {
+                reminder.setId(ids.incrementAndGet());
+            }
+            return reminder;
+        });
+        when(reminderRepository.findAllById(any())).thenAnswer(invocation ->
+            ((Set<Long>) invocation.getArgument(0)).contains(EXISTING_ID) ? List.of(new Reminder().id(EXISTING_ID)) : List.of()
+        );
+        when(syncOperationKeyRepository.claim(any(), any(), any())).thenAnswer(invocation -> {
+            SyncOperationKey key = new SyncOperationKey();
+            key.setIdempotencyKey(invocation.getArgument(1));
+            return keys.putIfAbsent(key.getIdempotencyKey(), key) == null ? 1 : 0;
+        });
+        when(syncOperationKeyRepository.findAllByLoginAndIdempotencyKeyIn(any(), anyCollection())).thenAnswer(invocation ->
+            ((Collection<String>) invocation.getArgument(1)).stream().map(keys::get).filter(Objects::nonNull).toList()
+        );
+    }
+
+    private static SyncOperationDTO operation(String key, SyncOperationDTO.Type type) {
+        SyncOperationDTO operation = new SyncOperationDTO();
+        operation.setIdempotencyKey(key);
+        operation.setType(type);
+        return operation;
+    }
+
+    private static ReminderDTO reminder(String title) {
+        ReminderDTO reminderDTO = new ReminderDTO();
+        reminderDTO.setTitle(title);
+        reminderDTO.setDueDate(Instant.parse("2026-10-20T09:00:00Z"));
+        reminderDTO.setIsCompleted(false);
+        reminderDTO.setPriority(Priority.LOW);
+        reminderDTO.setCreatedDate(Instant.parse("2026-10-19T09:00:00Z"));
+        return reminderDTO;
+    }
+
+    private static SyncOperationDTO create(String key, String localId) {
+        SyncOperationDTO operation = operation(key, SyncOperationDTO.Type.CREATE);
+        operation.setLocalId(localId);
+        operation.setReminder(reminder("created"));
+        return operation;
+    }
+
+    @Test
+    void testOperationsAreAppliedInOrderAndWrittenInBatches() {
+        SyncOperationDTO update = operation("update", SyncOperationDTO.Type.UPDATE);
+        update.setLocalId("local");
+        update.setReminder(reminder("updated"));
+        SyncOperationDTO delete = operation("delete", SyncOperationDTO.Type.DELETE);
+        delete.setReminderId(EXISTING_ID);
+
+        List<SyncOperationResultDTO> results = reminderSyncService.sync(List.of(create("create", "local"), update, delete));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsOnly(Status.APPLIED);
+        Long createdId = results.get(0).getReminderId();
+        assertThat(results).extracting(SyncOperationResultDTO::getReminderId).containsExactly(createdId, createdId, EXISTING_ID);
+        assertThat(results.get(1).getReminder().getTitle()).isEqualTo("updated");
+        verify(reminderRepository).findAllById(Set.of(EXISTING_ID));
+        verify(reminderRepository).touchAll(Set.of(createdId));
+        verify(reminderTombstoneRepository).insertForReminders(eq(Set.of(EXISTING_ID)), any());
+        verify(reminderRepository).deleteAll(Set.of(new Reminder().id(EXISTING_ID)));
+        verify(reminderSearchRepository).indexAll(Set.of(createdId));
+        verify(reminderSearchRepository).deleteAllFromIndexById(Set.of(EXISTING_ID));
+        verify(reminderNotificationService).cancel(EXISTING_ID);
+        verify(changeFeedService).publish(ChangeFeedEvent.REMINDER, createdId, ChangeFeedEvent.Action.CREATED, (Long) null);
+        verify(changeFeedService).publish(ChangeFeedEvent.REMINDER, EXISTING_ID, ChangeFeedEvent.Action.DELETED, (Long) null);
+    }
+
+    @Test
+    void testReplayedOperationsAreNotAppliedTwice() {
+        List<SyncOperationResultDTO> results = reminderSyncService.sync(List.of(create("create", "local")));
+        Long createdId = results.get(0).getReminderId();
+        when(reminderRepository.findById(createdId)).thenReturn(Optional.of(new Reminder().id(createdId)));
+        SyncOperationDTO delete = operation("delete", SyncOperationDTO.Type.DELETE);
+        delete.setLocalId("local");
+
+        List<SyncOperationResultDTO> replayed = reminderSyncService.sync(List.of(create("create", "local"), delete, delete));
+
+        assertThat(replayed).extracting(SyncOperationResultDTO::getStatus).containsExactly(
+            Status.DUPLICATE,
+            Status.APPLIED,
+            Status.DUPLICATE
+        );
+        assertThat(replayed).extracting(SyncOperationResultDTO::getReminderId).containsOnly(createdId);
+        assertThat(replayed.get(0).getLocalId()).isEqualTo("local");
+        verify(reminderRepository, times(1)).save(any(Reminder.class));
+        verify(reminderTombstoneRepository).insertForReminders(eq(Set.of(createdId)), any());
+        assertThat(keys.get("create").getStatus()).isEqualTo(Status.APPLIED.name());
+        assertThat(keys.get("create").getReminderId()).isEqualTo(createdId);
+    }
+
+    @Test
+    void testOperationsClaimedByAConcurrentPushAreNotApplied() {
+        SyncOperationKey committed = new SyncOperationKey();
+        committed.setIdempotencyKey("create");
+        committed.setStatus(Status.APPLIED.name());
+        committed.setLocalId("local");
+        committed.setReminderId(EXISTING_ID);
+        // committed by the concurrent push after this one read the keys of its batch
+        when(syncOperationKeyRepository.claim(any(), eq("create"), any())).thenReturn(0);
+        when(syncOperationKeyRepository.findOneByLoginAndIdempotencyKey(any(), eq("create"))).thenReturn(Optional.of(committed));
+
+        List<SyncOperationResultDTO> results = reminderSyncService.sync(List.of(create("create", "local")));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(Status.DUPLICATE);
+        assertThat(results.get(0).getReminderId()).isEqualTo(EXISTING_ID);
+        verify(reminderRepository, never()).save(any(Reminder.class));
+    }
+
+    @Test
+    void testFailedOperationsDoNotFailTheBatch() {
+        SyncOperationDTO invalid = operation("invalid", SyncOperationDTO.Type.CREATE);
+        invalid.setReminder(reminder(null));
+        SyncOperationDTO invalidRule = create("invalid-rule", null);
+        invalidRule.getReminder().setRecurrenceRule("FREQ=SOMETIMES");
+        SyncOperationDTO missing = operation("missing", SyncOperationDTO.Type.UPDATE);
+        missing.setReminderId(2L);
+        missing.setReminder(reminder("updated"));
+
+        List<SyncOperationResultDTO> results = reminderSyncService.sync(List.of(invalid, invalidRule, missing, create("create", null)));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(
+            Status.INVALID,
+            Status.INVALID,
+            Status.NOT_FOUND,
+            Status.APPLIED
+        );
+        assertThat(results.get(0).getMessage()).startsWith("title");
+        verify(reminderRepository, times(1)).save(any(Reminder.class));
+        verify(reminderRepository, never()).touchAll(anyCollection());
+    }
+
+    @Test
+    void testOperationsReferencingMissingEntitiesAreInvalid() {
+        when(categoryRepository.findIdsByIdIn(anyCollection())).thenReturn(Set.of(EXISTING_ID));
+        when(tagRepository.findIdsByIdIn(anyCollection())).thenReturn(Set.of());
+        SyncOperationDTO missingCategory = create("missing-category", null);
+        CategoryDTO category = new CategoryDTO();
+        category.setId(2L);
+        missingCategory.getReminder().setCategory(category);
+        SyncOperationDTO missingTag = create("missing-tag", null);
+        TagDTO tag = new TagDTO();
+        tag.setId(3L);
+        missingTag.getReminder().setTags(Set.of(tag));
+        SyncOperationDTO existingCategory = create("existing-category", null);
+        CategoryDTO existing = new CategoryDTO();
+        existing.setId(EXISTING_ID);
+        existingCategory.getReminder().setCategory(existing);
+
+        List<SyncOperationResultDTO> results = reminderSyncService.sync(List.of(missingCategory, missingTag, existingCategory));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(
+            Status.INVALID,
+            Status.INVALID,
+            Status.APPLIED
+        );
+        assertThat(results.get(0).getMessage()).isEqualTo("category 2 does not exist");
+        assertThat(results.get(1).getMessage()).isEqualTo("tag 3 does not exist");
+        // checked with one query each
+        verify(categoryRepository).findIdsByIdIn(Set.of(2L, EXISTING_ID));
+        verify(tagRepository).findIdsByIdIn(Set.of(3L));
+        verify(userRepository, never()).findIdsByIdIn(any());
+        verify(reminderRepository, times(1)).save(any(Reminder.class));
+    }
+
+    @Test
+    void testUpdatesOfAnOlderVersionAreConflicts() {
+        doReturn(List.of(new Reminder().id(EXISTING_ID).title("current").version(3L))).when(reminderRepository).findAllById(any());
+        SyncOperationDTO stale = operation("stale", SyncOperationDTO.Type.UPDATE);
+        stale.setReminderId(EXISTING_ID);
+        stale.setReminder(reminder("stale"));
+        stale.getReminder().setVersion(2L);
+        SyncOperationDTO current = operation("current", SyncOperationDTO.Type.UPDATE);
+        current.setReminderId(EXISTING_ID);
+        current.setReminder(reminder("updated"));
+        current.getReminder().setVersion(3L);
+
+        List<SyncOperationResultDTO> results = reminderSyncService.sync(List.of(stale, current));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(Status.CONFLICT, Status.APPLIED);
+        assertThat(results.get(0).getReminder().getTitle()).isEqualTo("current");
+        verify(reminderRepository).save(argThat(reminder -> reminder.getVersion() == 3L && "updated".equals(reminder.getTitle())));
+    }
+
+    @Test
+    void testBatchIsBounded() {
+        applicationProperties.getReminderSync().setMaxOperations(1);
+
+        assertThatThrownBy(() -> reminderSyncService.sync(List.of(create("a", null), create("b", null)))).isInstanceOf(
+            SyncBatchTooLargeException.class
+        );
+        assertThat(reminderSyncService.sync(Collections.emptyList())).isEmpty();
+    }
+}
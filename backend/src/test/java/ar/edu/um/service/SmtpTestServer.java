@@ -0,0 +1,154 @@
+package ar.edu.um.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server listening on a local port, which records the messages it receives.
+ * <p>
+ * It speaks just enough of RFC 5321 for Jakarta Mail, and can reject the next transactions with a transient error or
+ * some recipients with a permanent one.
+ */
+final class SmtpTestServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final List<String> messages = new ArrayList<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final AtomicInteger maxOpenConnections = new AtomicInteger();
+
+    private final AtomicInteger transientFailures = new AtomicInteger();
+
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+
+    SmtpTestServer() throws IOException {
+        this.serverSocket = new ServerSocket(0);
+        executor.execute(this::accept);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<String> getMessages() {
+        synchronized (messages) {
+            return List.copyOf(messages);
+        }
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    int getMaxOpenConnections() {
+        return maxOpenConnections.get();
+    }
+
+    /**
+     * Reply 451 to the next {@code count} MAIL commands.
+     */
+    void failNextTransactions(int count) {
+        transientFailures.set(count);
+    }
+
+    /**
+     * Reply 550 to the RCPT commands for this address.
+     */
+    void rejectRecipient(String address) {
+        rejectedRecipients.add(address);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // server closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        connections.incrementAndGet();
+        maxOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+        try (
+            socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)
+        ) {
+            reply(out, "220 localhost ESMTP test server");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost");
+                    reply(out, "250 8BITMIME");
+                } else if (command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM:")) {
+                    reply(out, transientFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0 ? "451 try again later" : "250 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    reply(out, rejectedRecipients.contains(address) ? "550 no such user" : "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 end data with <CR><LF>.<CR><LF>");
+                    readData(in);
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 bye");
+                    break;
+                } else if (command.equals("RSET") || command.equals("NOOP")) {
+                    reply(out, "250 OK");
+                } else {
+                    reply(out, "502 command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } finally {
+            openConnections.decrementAndGet();
+        }
+    }
+
+    private void readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        synchronized (messages) {
+            messages.add(data.toString());
+        }
+    }
+
+    private static void reply(PrintWriter out, String reply) {
+        out.print(reply + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
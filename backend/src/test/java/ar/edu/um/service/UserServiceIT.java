@@ -1,21 +1,28 @@
 package ar.edu.um.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ar.edu.um.IntegrationTest;
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
 import ar.edu.um.domain.User;
+import ar.edu.um.domain.enumeration.Priority;
+import ar.edu.um.repository.ReminderRepository;
 import ar.edu.um.repository.UserRepository;
 import ar.edu.um.repository.search.UserSearchRepository;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +34,7 @@ import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -58,6 +66,15 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * This repository is mocked in the ar.edu.um.repository.search test package.
      *
@@ -202,7 +219,7 @@ class UserServiceIT {
         assertThat(users).isEmpty();
 
         // Verify Elasticsearch mock
-        verify(spiedUserSearchRepository, times(1)).deleteFromIndex(user);
+        verify(spiedUserSearchRepository, times(1)).deleteAllById(List.of(dbUser.getId()));
     }
 
     @Test
@@ -222,6 +239,87 @@ class UserServiceIT {
         assertThat(maybeDbUser).contains(dbUser);
 
         // Verify Elasticsearch mock
-        verify(spiedUserSearchRepository, never()).deleteFromIndex(user);
+        verify(spiedUserSearchRepository, never()).deleteAllById(any());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatNotActivatedUsersAreDeletedByChunks() {
+        List<User> staleUsers = createStaleUsers(5);
+        double deletedBefore = cleanupRows("deleted");
+        int chunkSize = applicationProperties.getUserCleanup().getChunkSize();
+        applicationProperties.getUserCleanup().setChunkSize(2);
+        try {
+            userService.removeNotActivatedUsers();
+        } finally {
+            applicationProperties.getUserCleanup().setChunkSize(chunkSize);
+        }
+
+        assertThat(userRepository.findAllById(staleUsers.stream().map(User::getId).toList())).isEmpty();
+        assertThat(cleanupRows("deleted") - deletedBefore).isEqualTo(5);
+        assertThat(meterRegistry.get(UserService.CLEANUP_THROUGHPUT_METER_NAME).gauge().value()).isPositive();
+        verify(spiedUserSearchRepository, times(3)).deleteAllById(any());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatCleanupSkipsTheChunksItCannotDelete() {
+        List<User> staleUsers = createStaleUsers(5);
+        // The reminders of a user keep it from being deleted, along with the rest of its chunk
+        Reminder reminder = reminderRepository.saveAndFlush(
+            new Reminder()
+                .title("reminder of a not activated user")
+                .dueDate(Instant.now())
+                .isCompleted(false)
+                .priority(Priority.LOW)
+                .createdDate(Instant.now())
+                .user(staleUsers.get(0))
+        );
+        double deletedBefore = cleanupRows("deleted");
+        double failedBefore = cleanupRows("failed");
+        int chunkSize = applicationProperties.getUserCleanup().getChunkSize();
+        applicationProperties.getUserCleanup().setChunkSize(2);
+        try {
+            userService.removeNotActivatedUsers();
+
+            assertThat(userRepository.findAllById(staleUsers.stream().map(User::getId).toList()))
+                .extracting(User::getId)
+                .containsExactlyInAnyOrder(staleUsers.get(0).getId(), staleUsers.get(1).getId());
+            assertThat(cleanupRows("deleted") - deletedBefore).isEqualTo(3);
+            assertThat(cleanupRows("failed") - failedBefore).isEqualTo(2);
+
+            // The next run deletes the skipped chunk
+            reminderRepository.delete(reminder);
+            userService.removeNotActivatedUsers();
+        } finally {
+            applicationProperties.getUserCleanup().setChunkSize(chunkSize);
+        }
+
+        assertThat(userRepository.findAllById(staleUsers.stream().map(User::getId).toList())).isEmpty();
+        assertThat(cleanupRows("deleted") - deletedBefore).isEqualTo(5);
+        assertThat(cleanupRows("failed") - failedBefore).isEqualTo(2);
+    }
+
+    private List<User> createStaleUsers(int count) {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        List<User> staleUsers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User staleUser = new User();
+            staleUser.setLogin("stale_user_" + i);
+            staleUser.setPassword(RandomStringUtils.insecure().nextAlphanumeric(60));
+            staleUser.setActivated(false);
+            staleUser.setActivationKey(RandomStringUtils.insecure().nextAlphanumeric(20));
+            staleUser.setEmail("stale_user_" + i + "@localhost");
+            staleUser.setLangKey(DEFAULT_LANGKEY);
+            staleUser = userRepository.saveAndFlush(staleUser);
+            staleUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+            staleUsers.add(userRepository.saveAndFlush(staleUser));
+        }
+        return staleUsers;
+    }
+
+    private double cleanupRows(String result) {
+        return meterRegistry.get(UserService.CLEANUP_ROWS_METER_NAME).tag("result", result).counter().count();
     }
 }
@@ -0,0 +1,46 @@
+package ar.edu.um.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import ar.edu.um.domain.enumeration.Priority;
+import ar.edu.um.service.dto.ReminderFields.Field;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ReminderFieldsTest {
+
+    @Test
+    void testParseAlwaysIncludesTheId() {
+        ReminderFields fields = ReminderFields.parse("title, priority,,tags");
+
+        assertThat(fields.getColumns()).containsExactly(Field.ID, Field.TITLE, Field.PRIORITY);
+        assertThat(fields.contains(Field.TAGS)).isTrue();
+        assertThat(fields.getAttributes()).containsExactly("id", "title", "priority", "tags.id");
+    }
+
+    @Test
+    void testParseRejectsUnknownFields() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ReminderFields.parse("title,owner"));
+    }
+
+    @Test
+    void testWriteOnlyTheFieldsAndTheAssociationsById() {
+        ReminderDTO reminderDTO = new ReminderDTO();
+        Field.ID.set(reminderDTO, 1L);
+        Field.TITLE.set(reminderDTO, "title");
+        Field.PRIORITY.set(reminderDTO, Priority.HIGH);
+        Field.CATEGORY.set(reminderDTO, 2L);
+        reminderDTO.setDescription("description");
+        TagDTO tagDTO = new TagDTO();
+        tagDTO.setId(3L);
+        reminderDTO.getTags().add(tagDTO);
+
+        Map<String, Object> written = ReminderFields.parse("title,priority,category,tags").write(reminderDTO);
+
+        assertThat(written).containsOnlyKeys("id", "title", "priority", "category", "tags");
+        assertThat(written).containsEntry("id", 1L).containsEntry("title", "title").containsEntry("priority", Priority.HIGH);
+        assertThat(written).containsEntry("category", Map.of("id", 2L)).containsEntry("tags", List.of(Map.of("id", 3L)));
+    }
+}
@@ -0,0 +1,126 @@
+package ar.edu.um.service.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.service.feed.ChangeFeedEvent.Action;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ChangeFeedService}.
+ */
+class ChangeFeedServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private ChangeFeedService service;
+
+    @BeforeEach
+    void setup() {
+        // flushed by the tests only
+        applicationProperties.getChangeFeed().setFlushMillis(3_600_000);
+        applicationProperties.getChangeFeed().setMaxPendingChanges(2);
+        applicationProperties.getChangeFeed().setMaxSubscriptionsPerUser(2);
+        service = new ChangeFeedService(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        service.destroy();
+    }
+
+    @Test
+    void testChangesAreCoalescedAndSentToTheirOwner() throws IOException {
+        ChangeFeedSubscriber owner = mock(ChangeFeedSubscriber.class);
+        ChangeFeedSubscriber other = mock(ChangeFeedSubscriber.class);
+        service.subscribe(1L, owner);
+        service.subscribe(2L, other);
+
+        service.publish(ChangeFeedEvent.REMINDER, 10L, Action.CREATED, 1L);
+        service.publish(ChangeFeedEvent.REMINDER, 10L, Action.UPDATED, 1L);
+        service.publish(ChangeFeedEvent.TAG, 20L, Action.DELETED, List.of(1L, 2L));
+        // without owner, nobody is told
+        service.publish(ChangeFeedEvent.REMINDER, 11L, Action.DELETED, (Long) null);
+        service.flush();
+
+        ChangeFeedEvent tagDeleted = new ChangeFeedEvent(ChangeFeedEvent.TAG, 20L, Action.DELETED);
+        verify(owner, timeout(5000)).send(List.of(new ChangeFeedEvent(ChangeFeedEvent.REMINDER, 10L, Action.CREATED), tagDeleted));
+        verify(other, timeout(5000)).send(List.of(tagDeleted));
+        assertThat(meterRegistry.get(ChangeFeedService.SENT_METER_NAME).counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testFullBufferDropsTheChangesForAResync() throws IOException {
+        ChangeFeedSubscriber subscriber = mock(ChangeFeedSubscriber.class);
+        service.subscribe(1L, subscriber);
+
+        for (long id = 1; id <= 4; id++) {
+            service.publish(ChangeFeedEvent.REMINDER, id, Action.UPDATED, 1L);
+        }
+        service.flush();
+
+        verify(subscriber, timeout(5000)).resync();
+        verify(subscriber, after(100).never()).send(anyList());
+        assertThat(meterRegistry.get(ChangeFeedService.DROPPED_METER_NAME).counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void testIdleSubscriptionsGetAHeartbeat() throws IOException {
+        applicationProperties.getChangeFeed().setHeartbeatSeconds(0);
+        ChangeFeedSubscriber subscriber = mock(ChangeFeedSubscriber.class);
+        service.subscribe(1L, subscriber);
+
+        service.flush();
+
+        verify(subscriber, timeout(5000)).heartbeat();
+    }
+
+    @Test
+    void testOldestSubscriptionIsClosedBeyondTheLimit() {
+        ChangeFeedSubscriber oldest = mock(ChangeFeedSubscriber.class);
+        ChangeFeedSubscriber newer = mock(ChangeFeedSubscriber.class);
+        service.subscribe(1L, oldest);
+        service.subscribe(1L, newer);
+        service.subscribe(2L, mock(ChangeFeedSubscriber.class));
+
+        service.subscribe(1L, mock(ChangeFeedSubscriber.class));
+
+        verify(oldest).close();
+        verify(newer, never()).close();
+        assertThat(service.getSubscriptionCount()).isEqualTo(3);
+        assertThat(service.getSubscribedUserCount()).isEqualTo(2);
+        assertThat(meterRegistry.get(ChangeFeedService.CONNECTIONS_METER_NAME).gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void testFailedSubscriptionsAreClosed() throws IOException {
+        ChangeFeedSubscriber subscriber = mock(ChangeFeedSubscriber.class);
+        doThrow(new IOException("Broken pipe")).when(subscriber).send(anyList());
+        ChangeFeedService.Subscription subscription = service.subscribe(1L, subscriber);
+        ChangeFeedService.Subscription cancelled = service.subscribe(2L, mock(ChangeFeedSubscriber.class));
+        cancelled.cancel();
+
+        service.publish(ChangeFeedEvent.CATEGORY, 1L, Action.UPDATED, List.of(1L, 2L));
+        service.flush();
+
+        verify(subscriber, timeout(5000)).close();
+        assertThat(service.getSubscriptionCount()).isZero();
+        assertThat(service.getSubscribedUserCount()).isZero();
+        subscription.cancel();
+    }
+}
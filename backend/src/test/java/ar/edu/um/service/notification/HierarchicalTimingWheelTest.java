@@ -0,0 +1,119 @@
+package ar.edu.um.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link HierarchicalTimingWheel}.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 0);
+
+    private final List<String> expired = new ArrayList<>();
+
+    private void advance(long nowMillis) {
+        wheel.advance(nowMillis, timeout -> {
+            assertThat(timeout.getDeadlineMillis()).isLessThanOrEqualTo(nowMillis);
+            expired.add(timeout.getTask());
+        });
+    }
+
+    private static long tick(long deadlineMillis) {
+        return (deadlineMillis + TICK - 1) / TICK;
+    }
+
+    @Test
+    void testTimeoutsExpireOnTheirTick() {
+        wheel.schedule("b", 25);
+        wheel.schedule("a", 10);
+        wheel.schedule("c", 30);
+        assertThat(wheel.size()).isEqualTo(3);
+
+        advance(9);
+        assertThat(expired).isEmpty();
+        advance(10);
+        assertThat(expired).containsExactly("a");
+        // the deadline is rounded up to the next tick
+        advance(29);
+        assertThat(expired).containsExactly("a");
+        advance(30);
+        assertThat(expired).containsExactly("a", "b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testPastTimeoutsExpireOnTheNextTick() {
+        advance(1000);
+        wheel.schedule("late", 0);
+
+        advance(1009);
+        assertThat(expired).isEmpty();
+        advance(1010);
+        assertThat(expired).containsExactly("late");
+    }
+
+    @Test
+    void testTimeoutsCascadeFromTheUpperLevels() {
+        long level1 = TICK * HierarchicalTimingWheel.SLOTS * 3 + 7 * TICK;
+        long level2 = TICK * HierarchicalTimingWheel.SLOTS * HierarchicalTimingWheel.SLOTS * 2 + 5 * TICK;
+        wheel.schedule("level2", level2);
+        wheel.schedule("level1", level1);
+
+        advance(level1 - 1);
+        assertThat(expired).isEmpty();
+        advance(level1);
+        assertThat(expired).containsExactly("level1");
+        advance(level2 - 1);
+        assertThat(expired).containsExactly("level1");
+        advance(level2);
+        assertThat(expired).containsExactly("level1", "level2");
+    }
+
+    @Test
+    void testCancelledTimeoutsDoNotExpire() {
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 50);
+        wheel.schedule("kept", 50);
+        HierarchicalTimingWheel.Timeout<String> far = wheel.schedule("far", 100_000);
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(wheel.cancel(far)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advance(200_000);
+        assertThat(expired).containsExactly("kept");
+    }
+
+    @Test
+    void testRandomTimeoutsExpireInTickOrder() {
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        HierarchicalTimingWheel<Long> randomWheel = new HierarchicalTimingWheel<>(TICK, 0);
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = 1 + random.nextInt(10_000_000);
+            deadlines.add(deadline);
+            randomWheel.schedule(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+        long[] now = { 0 };
+        while (now[0] < 10_000_000) {
+            now[0] += 1 + random.nextInt(50_000);
+            randomWheel.advance(now[0], timeout -> {
+                long deadline = timeout.getTask();
+                // expired on the first tick at or after the deadline
+                assertThat(deadline).isLessThanOrEqualTo(now[0]);
+                assertThat(fired.isEmpty() || tick(deadline) >= tick(fired.get(fired.size() - 1))).isTrue();
+                fired.add(deadline);
+            });
+        }
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines);
+        assertThat(randomWheel.size()).isZero();
+    }
+}
@@ -0,0 +1,158 @@
+package ar.edu.um.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.enumeration.Priority;
+import ar.edu.um.domain.User;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.UserRepository;
+import ar.edu.um.service.MailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ReminderClaimDispatcher}, with several dispatchers standing for several nodes.
+ */
+@IntegrationTest
+class ReminderClaimDispatcherIT {
+
+    private static final int REMINDERS = 200;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    @BeforeEach
+    void initTest() {
+        applicationProperties.getReminderNotification().getClaim().setMaxBatchSize(50);
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Instant dueDate = Instant.now().minus(1, ChronoUnit.MINUTES);
+        for (int i = 0; i < REMINDERS; i++) {
+            Reminder reminder = new Reminder()
+                .title("reminder-" + i)
+                .dueDate(dueDate)
+                .isCompleted(false)
+                .priority(Priority.MEDIUM)
+                .createdDate(dueDate);
+            reminder.setUser(user);
+            ids.add(reminderRepository.save(reminder).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        reminderRepository.deleteAllById(ids);
+    }
+
+    private ReminderClaimDispatcher dispatcher(MailService mailService) {
+        return new ReminderClaimDispatcher(
+            reminderRepository,
+            mailService,
+            transactionManager,
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    private static List<Long> notifiedIds(MailService mailService) {
+        return mockingDetails(mailService)
+            .getInvocations()
+            .stream()
+            .map(invocation -> invocation.<Reminder>getArgument(1).getId())
+            .toList();
+    }
+
+    private int notifiedInDatabase() {
+        return jdbcTemplate.queryForObject(
+            "select count(*) from reminder where notified_due_date = due_date and claimed_by is null and id between ? and ?",
+            Integer.class,
+            ids.get(0),
+            ids.get(ids.size() - 1)
+        );
+    }
+
+    @Test
+    void testNodesNotifyDisjointShares() throws Exception {
+        List<MailService> mailServices = List.of(mock(MailService.class), mock(MailService.class), mock(MailService.class));
+        ExecutorService nodes = Executors.newFixedThreadPool(mailServices.size());
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (MailService mailService : mailServices) {
+                ReminderClaimDispatcher dispatcher = dispatcher(mailService);
+                runs.add(
+                    nodes.submit(() -> {
+                        while (dispatcher.dispatchBatch()) {
+                            // claim until the backlog is drained
+                        }
+                    })
+                );
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } finally {
+            nodes.shutdown();
+        }
+        // a node may stop on a partial batch while another still claims, sweep what is left
+        MailService sweeperMailService = mock(MailService.class);
+        ReminderClaimDispatcher sweeper = dispatcher(sweeperMailService);
+        while (sweeper.dispatchBatch()) {
+            // claim until the backlog is drained
+        }
+
+        List<Long> notified = new ArrayList<>(notifiedIds(sweeperMailService));
+        mailServices.forEach(mailService -> notified.addAll(notifiedIds(mailService)));
+        assertThat(notified).hasSize(REMINDERS).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(notifiedInDatabase()).isEqualTo(REMINDERS);
+    }
+
+    @Test
+    void testRemindersOfADeadNodeAreClaimedAgainWhenTheLeaseExpires() {
+        Instant now = Instant.now();
+        List<Long> held = ids.subList(0, 10);
+        List<Long> expired = ids.subList(10, 20);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reminderRepository.claim(ids.subList(20, REMINDERS), "done", now.plusSeconds(3600));
+            reminderRepository.claim(held, "live", now.plusSeconds(3600));
+            reminderRepository.claim(expired, "dead", now.minusSeconds(1));
+        });
+
+        MailService mailService = mock(MailService.class);
+        ReminderClaimDispatcher dispatcher = dispatcher(mailService);
+        while (dispatcher.dispatchBatch()) {
+            // claim until the backlog is drained
+        }
+
+        assertThat(notifiedIds(mailService)).containsExactlyInAnyOrderElementsOf(expired);
+    }
+}
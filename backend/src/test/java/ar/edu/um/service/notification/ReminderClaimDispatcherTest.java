@@ -0,0 +1,88 @@
+package ar.edu.um.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.User;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.service.MailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Test class for the {@link ReminderClaimDispatcher}.
+ */
+class ReminderClaimDispatcherTest {
+
+    private final ReminderRepository reminderRepository = mock(ReminderRepository.class);
+
+    private final MailService mailService = mock(MailService.class);
+
+    private final ReminderClaimDispatcher dispatcher = new ReminderClaimDispatcher(
+        reminderRepository,
+        mailService,
+        mock(PlatformTransactionManager.class),
+        new ApplicationProperties(),
+        new SimpleMeterRegistry()
+    );
+
+    private Reminder reminder(Long id, Instant dueDate, boolean completed) {
+        Reminder reminder = new Reminder().id(id).title("reminder-" + id).dueDate(dueDate).isCompleted(completed);
+        reminder.setUser(new User());
+        when(reminderRepository.findOneWithUserById(id)).thenReturn(Optional.of(reminder));
+        return reminder;
+    }
+
+    @Test
+    void testClaimedRemindersAreNotifiedOnce() {
+        Instant past = Instant.now().minusSeconds(1);
+        Reminder due = reminder(1L, past, false);
+        Reminder moved = reminder(2L, Instant.now().plusSeconds(3600), false);
+        Reminder completed = reminder(3L, past, true);
+        when(reminderRepository.lockClaimable(any(), any(), anyInt())).thenReturn(List.of(1L, 2L, 3L, 4L));
+
+        assertThat(dispatcher.dispatchBatch()).isFalse();
+
+        verify(reminderRepository).claim(eq(List.of(1L, 2L, 3L, 4L)), eq(dispatcher.getNode()), any());
+        verify(mailService).sendReminderDueEmail(due.getUser(), due);
+        verify(reminderRepository).markNotified(1L, dispatcher.getNode(), past);
+        verify(mailService, never()).sendReminderDueEmail(moved.getUser(), moved);
+        verify(reminderRepository).release(2L, dispatcher.getNode());
+        verify(mailService, never()).sendReminderDueEmail(completed.getUser(), completed);
+        verify(reminderRepository).markNotified(3L, dispatcher.getNode(), past);
+        verify(reminderRepository, never()).markNotified(eq(4L), any(), any());
+    }
+
+    @Test
+    void testBatchSizeAdaptsToTheBacklog() {
+        int min = new ApplicationProperties().getReminderNotification().getClaim().getMinBatchSize();
+        when(reminderRepository.lockClaimable(any(), any(), eq(min))).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+
+        assertThat(dispatcher.dispatchBatch()).isTrue();
+        assertThat(dispatcher.getBatchSize()).isEqualTo(2 * min);
+        assertThat(dispatcher.dispatchBatch()).isFalse();
+        assertThat(dispatcher.getBatchSize()).isEqualTo(min);
+    }
+
+    @Test
+    void testNextBatchSize() {
+        assertThat(ReminderClaimDispatcher.nextBatchSize(10, 10, 10, 500)).isEqualTo(20);
+        assertThat(ReminderClaimDispatcher.nextBatchSize(400, 400, 10, 500)).isEqualTo(500);
+        assertThat(ReminderClaimDispatcher.nextBatchSize(500, 500, 10, 500)).isEqualTo(500);
+        assertThat(ReminderClaimDispatcher.nextBatchSize(320, 300, 10, 500)).isEqualTo(300);
+        assertThat(ReminderClaimDispatcher.nextBatchSize(320, 0, 10, 500)).isEqualTo(160);
+        assertThat(ReminderClaimDispatcher.nextBatchSize(12, 0, 10, 500)).isEqualTo(10);
+    }
+}
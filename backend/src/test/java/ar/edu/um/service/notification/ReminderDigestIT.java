@@ -0,0 +1,109 @@
+package ar.edu.um.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderDigest;
+import ar.edu.um.domain.User;
+import ar.edu.um.domain.enumeration.Priority;
+import ar.edu.um.domain.enumeration.ReminderDigestStatus;
+import ar.edu.um.repository.ReminderDigestRepository;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.UserRepository;
+import ar.edu.um.service.MailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for the {@link ReminderDigestService}.
+ */
+@IntegrationTest
+class ReminderDigestIT {
+
+    private static final LocalDate DATE = LocalDate.now(ZoneOffset.UTC);
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private ReminderDigestRepository reminderDigestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void initTest() {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Instant startOfDay = DATE.atStartOfDay(ZoneOffset.UTC).toInstant();
+        reminder(user, startOfDay.minus(2, ChronoUnit.DAYS), false);
+        reminder(user, startOfDay.plus(1, ChronoUnit.HOURS), false);
+        reminder(user, startOfDay.plus(2, ChronoUnit.HOURS), true);
+        reminder(user, startOfDay.plus(2, ChronoUnit.DAYS), false);
+    }
+
+    private void reminder(User user, Instant dueDate, boolean completed) {
+        Reminder reminder = new Reminder()
+            .title("digest-" + ids.size())
+            .dueDate(dueDate)
+            .isCompleted(completed)
+            .priority(Priority.MEDIUM)
+            .createdDate(dueDate);
+        reminder.setUser(user);
+        ids.add(reminderRepository.save(reminder).getId());
+    }
+
+    @AfterEach
+    void cleanup() {
+        reminderRepository.deleteAllById(ids);
+        reminderDigestRepository.findOneByDigestDate(DATE).ifPresent(reminderDigestRepository::delete);
+    }
+
+    private ReminderDigestService reminderDigestService(MailService mailService) {
+        return new ReminderDigestService(
+            reminderRepository,
+            reminderDigestRepository,
+            mailService,
+            transactionManager,
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void testDigestIsSentOncePerDay() {
+        MailService mailService = mock(MailService.class);
+
+        assertThat(reminderDigestService(mailService).runDigest(DATE)).isTrue();
+        assertThat(reminderDigestService(mailService).runDigest(DATE)).isTrue();
+
+        verify(mailService, times(1)).sendReminderDigestEmail(any(User.class), eq(DATE), any(), any(), anyInt());
+        ReminderDigest digest = reminderDigestRepository.findOneByDigestDate(DATE).orElseThrow();
+        assertThat(digest.getStatus()).isEqualTo(ReminderDigestStatus.DONE);
+        assertThat(digest.getUsersCount()).isEqualTo(1);
+        assertThat(digest.getRemindersCount()).isEqualTo(2);
+        assertThat(digest.getLastUserId()).isEqualTo(userRepository.findOneByLogin("user").orElseThrow().getId());
+    }
+}
@@ -0,0 +1,213 @@
+package ar.edu.um.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.domain.ReminderDigest;
+import ar.edu.um.domain.User;
+import ar.edu.um.domain.enumeration.ReminderDigestStatus;
+import ar.edu.um.repository.ReminderDigestRepository;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.service.MailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Test class for the {@link ReminderDigestService}.
+ */
+class ReminderDigestServiceTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2026-10-19");
+
+    private final ReminderRepository reminderRepository = mock(ReminderRepository.class);
+
+    private final ReminderDigestRepository reminderDigestRepository = mock(ReminderDigestRepository.class);
+
+    private final MailService mailService = mock(MailService.class);
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReminderDigestService reminderDigestService;
+
+    private ReminderDigest digest;
+
+    private record Row(Long userId, Long id, Instant dueDate) implements ReminderRepository.DigestReminder {
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getLogin() {
+            return "user-" + userId;
+        }
+
+        @Override
+        public String getEmail() {
+            return "user-" + userId + "@example.com";
+        }
+
+        @Override
+        public String getLangKey() {
+            return "en";
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return "reminder-" + id;
+        }
+
+        @Override
+        public Instant getDueDate() {
+            return dueDate;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        ApplicationProperties.ReminderDigest properties = applicationProperties.getReminderDigest();
+        properties.setBatchSize(2);
+        properties.setMaxReminders(2);
+        reminderDigestService = new ReminderDigestService(
+            reminderRepository,
+            reminderDigestRepository,
+            mailService,
+            transactionManager,
+            applicationProperties,
+            meterRegistry
+        );
+        digest = new ReminderDigest();
+        digest.setId(1L);
+        digest.setDigestDate(DATE);
+        digest.setStatus(ReminderDigestStatus.RUNNING);
+        when(reminderDigestRepository.findOneByDigestDate(DATE)).thenReturn(Optional.of(digest));
+        when(reminderDigestRepository.claim(eq(DATE), eq(reminderDigestService.getNode()), any(), any())).thenReturn(1);
+        when(reminderDigestRepository.checkpoint(any(), any(), anyLong(), anyLong(), anyLong(), any())).thenReturn(1);
+    }
+
+    private static Row row(long userId, long id, String dueDate) {
+        return new Row(userId, id, Instant.parse(dueDate));
+    }
+
+    private static List<Long> ids(List<Reminder> reminders) {
+        return reminders.stream().map(Reminder::getId).toList();
+    }
+
+    @Test
+    void testRemindersAreGroupedPerUserInBatches() {
+        when(reminderRepository.streamDigest(any(), eq(Long.MIN_VALUE))).thenReturn(
+            Stream.of(
+                row(1, 10, "2026-10-01T09:00:00Z"),
+                row(1, 11, "2026-10-19T09:00:00Z"),
+                row(2, 20, "2026-10-19T10:00:00Z"),
+                row(3, 30, "2026-10-19T11:00:00Z")
+            )
+        );
+
+        assertThat(reminderDigestService.runDigest(DATE)).isTrue();
+
+        ArgumentCaptor<User> users = ArgumentCaptor.forClass(User.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reminder>> overdue = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reminder>> due = ArgumentCaptor.forClass(List.class);
+        verify(mailService, times(3)).sendReminderDigestEmail(users.capture(), eq(DATE), overdue.capture(), due.capture(), eq(0));
+        assertThat(users.getAllValues()).extracting(User::getLogin).containsExactly("user-1", "user-2", "user-3");
+        assertThat(ids(overdue.getAllValues().get(0))).containsExactly(10L);
+        assertThat(ids(due.getAllValues().get(0))).containsExactly(11L);
+        assertThat(overdue.getAllValues().get(1)).isEmpty();
+        assertThat(ids(due.getAllValues().get(1))).containsExactly(20L);
+
+        String node = reminderDigestService.getNode();
+        verify(reminderDigestRepository).checkpoint(eq(1L), eq(node), eq(2L), eq(2L), eq(3L), any());
+        verify(reminderDigestRepository).checkpoint(eq(1L), eq(node), eq(3L), eq(1L), eq(1L), any());
+        verify(reminderDigestRepository).finish(eq(1L), eq(node), any());
+        assertThat(meterRegistry.get(ReminderDigestService.DIGESTS_METER_NAME).counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(ReminderDigestService.REMINDERS_METER_NAME).counter().count()).isEqualTo(4);
+        assertThat(reminderDigestService.getProgress()).isEqualTo(3);
+    }
+
+    @Test
+    void testDigestListsAtMostTheMaximumOfReminders() {
+        when(reminderRepository.streamDigest(any(), anyLong())).thenReturn(
+            Stream.of(
+                row(1, 10, "2026-10-19T09:00:00Z"),
+                row(1, 11, "2026-10-19T10:00:00Z"),
+                row(1, 12, "2026-10-19T11:00:00Z"),
+                row(1, 13, "2026-10-19T12:00:00Z")
+            )
+        );
+
+        reminderDigestService.runDigest(DATE);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reminder>> due = ArgumentCaptor.forClass(List.class);
+        verify(mailService).sendReminderDigestEmail(any(), eq(DATE), eq(List.of()), due.capture(), eq(2));
+        assertThat(ids(due.getValue())).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void testRunResumesAfterItsCheckpoint() {
+        digest.setLastUserId(41L);
+        when(reminderRepository.streamDigest(any(), eq(41L))).thenReturn(Stream.of(row(42, 420, "2026-10-19T09:00:00Z")));
+
+        assertThat(reminderDigestService.runDigest(DATE)).isTrue();
+
+        verify(reminderRepository).streamDigest(Instant.parse("2026-10-20T00:00:00Z"), 41L);
+        verify(mailService).sendReminderDigestEmail(any(), eq(DATE), any(), any(), anyInt());
+    }
+
+    @Test
+    void testRunStopsWhenItsLeaseIsLost() {
+        when(reminderRepository.streamDigest(any(), anyLong())).thenReturn(
+            Stream.of(row(1, 10, "2026-10-19T09:00:00Z"), row(2, 20, "2026-10-19T09:00:00Z"), row(3, 30, "2026-10-19T09:00:00Z"))
+        );
+        when(reminderDigestRepository.checkpoint(any(), any(), anyLong(), anyLong(), anyLong(), any())).thenReturn(0);
+
+        assertThat(reminderDigestService.runDigest(DATE)).isFalse();
+
+        verify(mailService, times(2)).sendReminderDigestEmail(any(), any(), any(), any(), anyInt());
+        verify(reminderDigestRepository, never()).finish(any(), any(), any());
+        assertThat(reminderDigestService.getProgress()).isZero();
+    }
+
+    @Test
+    void testRunClaimedByAnotherNodeIsNotRun() {
+        when(reminderDigestRepository.claim(any(), any(), any(), any())).thenReturn(0);
+
+        assertThat(reminderDigestService.runDigest(DATE)).isFalse();
+        digest.setStatus(ReminderDigestStatus.DONE);
+        assertThat(reminderDigestService.runDigest(DATE)).isTrue();
+
+        verify(reminderRepository, never()).streamDigest(any(), anyLong());
+    }
+}
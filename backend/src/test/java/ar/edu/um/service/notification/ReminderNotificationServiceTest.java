@@ -0,0 +1,104 @@
+package ar.edu.um.service.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.repository.ReminderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ReminderNotificationService}.
+ */
+class ReminderNotificationServiceTest {
+
+    private final ReminderRepository reminderRepository = mock(ReminderRepository.class);
+
+    private final ReminderClaimDispatcher dispatcher = mock(ReminderClaimDispatcher.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReminderNotificationService service;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getReminderNotification().setTickMillis(10);
+        applicationProperties.getReminderNotification().setLookAheadSeconds(60);
+        applicationProperties.getReminderNotification().setLoadBatchSize(1);
+        service = new ReminderNotificationService(reminderRepository, dispatcher, applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        service.destroy();
+    }
+
+    private static ReminderRepository.DueReminder due(Long id, Instant dueDate) {
+        return new ReminderRepository.DueReminder() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+
+    private double scheduled() {
+        return meterRegistry.get(ReminderNotificationService.SCHEDULED_METER_NAME).gauge().value();
+    }
+
+    @Test
+    void testLoadedRemindersWakeTheDispatcherUpWhenDue() {
+        Instant dueDate = Instant.now().plusMillis(300);
+        when(reminderRepository.findDue(any(), any(), any(), eq(Long.MIN_VALUE), any())).thenReturn(List.of(due(1L, dueDate)));
+        when(reminderRepository.findDue(any(), any(), any(), eq(1L), any())).thenReturn(List.of(due(2L, dueDate.plusMillis(100))));
+        when(reminderRepository.findDue(any(), any(), any(), eq(2L), any())).thenReturn(List.of());
+
+        service.load();
+        assertThat(scheduled()).isEqualTo(2);
+        service.start();
+
+        verify(dispatcher).start();
+        verify(dispatcher, timeout(5000).atLeastOnce()).wakeUp();
+        assertThat(meterRegistry.get(ReminderNotificationService.LAG_METER_NAME).timer().count()).isPositive();
+    }
+
+    @Test
+    void testSavedRemindersAreRescheduledIncrementally() {
+        when(reminderRepository.findDue(any(), any(), any(), eq(Long.MIN_VALUE), any())).thenReturn(List.of());
+        service.load();
+        Instant dueDate = Instant.now().plusSeconds(30);
+
+        service.reschedule(1L, dueDate, false);
+        service.reschedule(2L, dueDate, false);
+        service.reschedule(3L, Instant.now().plusSeconds(3600), false);
+        service.reschedule(4L, dueDate, true);
+        assertThat(scheduled()).isEqualTo(2);
+
+        service.cancel(2L);
+        service.reschedule(1L, dueDate.plusSeconds(1), false);
+        assertThat(scheduled()).isEqualTo(1);
+
+        service.start();
+        verify(dispatcher, after(200).never()).wakeUp();
+        verify(dispatcher).start();
+    }
+}
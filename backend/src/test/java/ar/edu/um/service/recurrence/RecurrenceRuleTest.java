@@ -0,0 +1,140 @@
+package ar.edu.um.service.recurrence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RecurrenceRule}.
+ */
+class RecurrenceRuleTest {
+
+    private static final Instant START = Instant.parse("2026-01-31T09:30:00Z");
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static final ZoneId NIUE = ZoneId.of("Pacific/Niue");
+
+    private static List<Instant> occurrences(String rule, String from, String to) {
+        return occurrences(ZoneOffset.UTC, rule, from, to);
+    }
+
+    private static List<Instant> occurrences(ZoneId zone, String rule, String from, String to) {
+        return RecurrenceRule.parse(rule).occurrences(zone, START, Instant.parse(from), Instant.parse(to)).toList();
+    }
+
+    private static List<Instant> instants(String... instants) {
+        return Arrays.stream(instants).map(Instant::parse).toList();
+    }
+
+    @Test
+    void testDailyWithInterval() {
+        assertThat(occurrences("FREQ=DAILY;INTERVAL=2", "2026-01-01T00:00:00Z", "2026-02-05T00:00:00Z")).isEqualTo(
+            instants("2026-01-31T09:30:00Z", "2026-02-02T09:30:00Z", "2026-02-04T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testWeeklyByDay() {
+        // 2026-01-31 is a Saturday
+        assertThat(occurrences("RRULE:FREQ=WEEKLY;BYDAY=MO,SA", "2026-01-31T00:00:00Z", "2026-02-10T00:00:00Z")).isEqualTo(
+            instants("2026-01-31T09:30:00Z", "2026-02-02T09:30:00Z", "2026-02-07T09:30:00Z", "2026-02-09T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testMonthlySkipsMonthsWithoutTheDay() {
+        assertThat(occurrences("FREQ=MONTHLY", "2026-01-01T00:00:00Z", "2026-06-01T00:00:00Z")).isEqualTo(
+            instants("2026-01-31T09:30:00Z", "2026-03-31T09:30:00Z", "2026-05-31T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testCountIsFromTheStartWhateverTheRange() {
+        assertThat(occurrences("FREQ=DAILY;COUNT=3", "2026-02-01T00:00:00Z", "2026-03-01T00:00:00Z")).isEqualTo(
+            instants("2026-02-01T09:30:00Z", "2026-02-02T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testUntilDateIncludesTheWholeDay() {
+        assertThat(occurrences("FREQ=YEARLY;UNTIL=20280131", "2026-01-01T00:00:00Z", "2030-01-01T00:00:00Z")).isEqualTo(
+            instants("2026-01-31T09:30:00Z", "2027-01-31T09:30:00Z", "2028-01-31T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testDailyKeepsTheLocalTimeAcrossDaylightSavingChanges() {
+        // 4:30 in New York, 9:30 UTC in standard time and 8:30 UTC in daylight time, from 2026-03-08
+        assertThat(occurrences(NEW_YORK, "FREQ=DAILY", "2026-03-07T00:00:00Z", "2026-03-10T00:00:00Z")).isEqualTo(
+            instants("2026-03-07T09:30:00Z", "2026-03-08T08:30:00Z", "2026-03-09T08:30:00Z")
+        );
+    }
+
+    @Test
+    void testWeeklyByDayIsOnTheDaysOfTheZone() {
+        // 9:30 UTC is 22:30 the day before in Niue, so its Mondays are Tuesdays in UTC
+        assertThat(occurrences(NIUE, "FREQ=WEEKLY;BYDAY=MO", "2026-01-31T00:00:00Z", "2026-02-11T00:00:00Z")).isEqualTo(
+            instants("2026-02-03T09:30:00Z", "2026-02-10T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testUntilDateIncludesTheWholeDayInTheZone() {
+        assertThat(occurrences(NIUE, "FREQ=YEARLY;UNTIL=20280130", "2026-01-01T00:00:00Z", "2030-01-01T00:00:00Z")).isEqualTo(
+            instants("2026-01-31T09:30:00Z", "2027-01-31T09:30:00Z", "2028-01-31T09:30:00Z")
+        );
+        assertThat(occurrences("FREQ=YEARLY;UNTIL=20280130", "2026-01-01T00:00:00Z", "2030-01-01T00:00:00Z")).isEqualTo(
+            instants("2026-01-31T09:30:00Z", "2027-01-31T09:30:00Z")
+        );
+    }
+
+    @Test
+    void testFarRangeOfAnEndlessRuleIsReachedWithoutComputingThePeriodsBefore() {
+        Iterator<Instant> occurrences = RecurrenceRule.parse("FREQ=DAILY")
+            .occurrences(ZoneOffset.UTC, START, Instant.parse("3026-01-01T00:00:00Z"), Instant.MAX)
+            .iterator();
+
+        assertThat(occurrences.next()).isEqualTo(Instant.parse("3026-01-01T09:30:00Z"));
+        assertThat(occurrences.next()).isEqualTo(Instant.parse("3026-01-02T09:30:00Z"));
+    }
+
+    @Test
+    void testIsOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2");
+
+        assertThat(rule.isOccurrence(ZoneOffset.UTC, START, Instant.parse("2026-02-14T09:30:00Z"))).isTrue();
+        assertThat(rule.isOccurrence(ZoneOffset.UTC, START, Instant.parse("2026-02-07T09:30:00Z"))).isFalse();
+        assertThat(rule.isOccurrence(ZoneOffset.UTC, START, Instant.parse("2026-02-14T09:31:00Z"))).isFalse();
+        assertThat(rule.isOccurrence(ZoneOffset.UTC, START, Instant.parse("2026-01-17T09:30:00Z"))).isFalse();
+    }
+
+    @Test
+    void testInvalidRules() {
+        for (String rule : new String[] {
+            "",
+            "INTERVAL=2",
+            "FREQ=HOURLY",
+            "FREQ=DAILY;INTERVAL=0",
+            "FREQ=DAILY;COUNT=2;UNTIL=20260101",
+            "FREQ=DAILY;BYDAY=MO",
+            "FREQ=WEEKLY;BYDAY=XX",
+            "FREQ=DAILY;BYMONTH=1",
+        }) {
+            assertThat(RecurrenceRule.isValid(rule)).as(rule).isFalse();
+        }
+        assertThatIllegalArgumentException().isThrownBy(() -> RecurrenceRule.parse("FREQ=DAILY;UNTIL=tomorrow"));
+    }
+
+    @Test
+    void testToString() {
+        assertThat(RecurrenceRule.parse("freq=weekly;byday=th,mo;interval=2")).hasToString("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH");
+    }
+}
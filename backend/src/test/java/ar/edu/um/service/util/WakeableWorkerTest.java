@@ -0,0 +1,48 @@
+package ar.edu.um.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link WakeableWorker}.
+ */
+class WakeableWorkerTest {
+
+    @Test
+    void testBatchesRunWhileThereIsABacklogThenOnWakeUp() throws InterruptedException {
+        AtomicInteger batches = new AtomicInteger();
+        // a backlog for the first three batches, then an hour of polling
+        WakeableWorker worker = new WakeableWorker("test-worker", () -> 3_600_000, () -> batches.incrementAndGet() < 3);
+        worker.start();
+        try {
+            await().atMost(5, TimeUnit.SECONDS).until(() -> batches.get() == 3);
+            Thread.sleep(100);
+            assertThat(batches.get()).isEqualTo(3);
+
+            worker.wakeUp();
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> batches.get() == 4);
+        } finally {
+            worker.stop();
+        }
+    }
+
+    @Test
+    void testFailedBatchesDoNotStopTheWorker() {
+        AtomicInteger batches = new AtomicInteger();
+        WakeableWorker worker = new WakeableWorker("test-worker", () -> 10, () -> {
+            batches.incrementAndGet();
+            throw new IllegalStateException("test");
+        });
+        worker.start();
+        try {
+            await().atMost(5, TimeUnit.SECONDS).until(() -> batches.get() >= 3);
+        } finally {
+            worker.stop();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ar.edu.um.web.filter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.web.rest.vm.LoginVM;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Integration tests for the {@link RateLimitFilter}, with the default limits of the authentication endpoint.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@TestPropertySource(properties = "application.security.rate-limit.enabled=true")
+class RateLimitFilterIT {
+
+    private static final int LOGIN_CAPACITY = 5;
+
+    private static final int IP_CAPACITY = 20;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private MockHttpServletRequestBuilder authenticate(String remoteAddr, String username) throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("wrong password");
+        return post("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(om.writeValueAsBytes(login))
+            .with(request -> {
+                request.setRemoteAddr(remoteAddr);
+                return request;
+            });
+    }
+
+    @Test
+    void testLoginIsLimitedAcrossIps() throws Exception {
+        for (int i = 0; i < LOGIN_CAPACITY; i++) {
+            mockMvc.perform(authenticate("10.1.0." + i, "rate-limited-login")).andExpect(status().isUnauthorized());
+        }
+
+        mockMvc
+            .perform(authenticate("10.1.0.100", "Rate-Limited-Login"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(authenticate("10.1.0.100", "other-login")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testIpIsLimitedAcrossLogins() throws Exception {
+        for (int i = 0; i < IP_CAPACITY; i++) {
+            mockMvc.perform(authenticate("10.2.0.1", "rate-limited-ip-" + i)).andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(authenticate("10.2.0.1", "rate-limited-ip-other")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(authenticate("10.2.0.2", "rate-limited-ip-other")).andExpect(status().isUnauthorized());
+    }
+}
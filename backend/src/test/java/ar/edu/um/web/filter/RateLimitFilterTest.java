@@ -0,0 +1,105 @@
+package ar.edu.um.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.config.ApplicationProperties;
+import ar.edu.um.management.SecurityMetersService;
+import ar.edu.um.security.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Test class for the {@link RateLimitFilter}.
+ */
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties
+            .getSecurity()
+            .getRateLimit()
+            .setEndpoints(
+                List.of(
+                    new ApplicationProperties.Security.RateLimit.Endpoint(
+                        "/api/authenticate",
+                        "username",
+                        new ApplicationProperties.Security.RateLimit.Limit(10, 10),
+                        new ApplicationProperties.Security.RateLimit.Limit(1, 1)
+                    ),
+                    new ApplicationProperties.Security.RateLimit.Endpoint(
+                        "/api/account/reset-password/init",
+                        null,
+                        new ApplicationProperties.Security.RateLimit.Limit(1, 1),
+                        new ApplicationProperties.Security.RateLimit.Limit(0, 0)
+                    )
+                )
+            );
+        filter = new RateLimitFilter(new RateLimiter(applicationProperties, new SecurityMetersService(new SimpleMeterRegistry())));
+    }
+
+    private MockHttpServletResponse post(String path, String remoteAddr, String body, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddr);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void testLoginLimitIsCaseInsensitiveAndBodyIsReplayed() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = post("/api/authenticate", "10.0.0.1", "{\"password\":\"x\",\"username\":\"Admin\"}", chain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(StreamUtils.copyToString(chain.getRequest().getInputStream(), StandardCharsets.UTF_8)).contains("\"username\":\"Admin\"");
+
+        chain = new MockFilterChain();
+        response = post("/api/authenticate", "10.0.0.2", "{\"username\":\"admin\"}", chain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(response.getContentAsString()).contains("error.http.429");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void testIpLimitAppliesBeforeReadingTheBody() throws Exception {
+        assertThat(post("/api/account/reset-password/init", "10.0.0.1", "a@b.c", new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(post("/api/account/reset-password/init", "10.0.0.1", "d@e.f", new MockFilterChain()).getStatus()).isEqualTo(429);
+        assertThat(post("/api/account/reset-password/init", "10.0.0.2", "d@e.f", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void testOtherRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(post("/api/account", "10.0.0.1", "{}", new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/authenticate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void testLargeBodiesAreLimitedByIpAndReplayedWhole() throws Exception {
+        String body = "{\"padding\":\"" + "x".repeat(10_000) + "\",\"username\":\"admin\"}";
+        for (int i = 0; i < 2; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            assertThat(post("/api/authenticate", "10.0.0.1", body, chain).getStatus()).isEqualTo(HttpStatus.OK.value());
+            assertThat(StreamUtils.copyToString(chain.getRequest().getInputStream(), StandardCharsets.UTF_8)).isEqualTo(body);
+        }
+    }
+}
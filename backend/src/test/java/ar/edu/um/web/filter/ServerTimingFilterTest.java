@@ -0,0 +1,105 @@
+package ar.edu.um.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ar.edu.um.management.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Test class for the {@link ServerTimingFilter}.
+ */
+class ServerTimingFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/reminders/{id}");
+        return request;
+    }
+
+    @Test
+    void testServerTimingHeaderIsAddedBeforeTheBody() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, false, null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+                RequestTimings.current().record(RequestTimings.Phase.DB, TimeUnit.MILLISECONDS.toNanos(3));
+                RequestTimings.current().record(RequestTimings.Phase.DB, TimeUnit.MILLISECONDS.toNanos(2));
+                resp.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+                resp.flushBuffer();
+            }
+        });
+
+        filter.doFilter(request("/api/reminders/1"), response, chain);
+
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER)).startsWith("db;dur=5.0;desc=\"2 calls\", total;dur=");
+        assertThat(response.getContentAsString()).isEqualTo("{}");
+        assertThat(RequestTimings.current()).isNull();
+        assertThat(meterRegistry.find(ServerTimingFilter.PHASES_METER_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    void testServerTimingHeaderIsAddedWithoutBody() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, false, null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/reminders/1"), response, new MockFilterChain());
+
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER)).startsWith("total;dur=");
+    }
+
+    @Test
+    void testNonApiRequestsAreNotTimed() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, false, null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/management/health"), response, new MockFilterChain());
+
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING_HEADER)).isNull();
+    }
+
+    @Test
+    void testPhasesAreRecordedPerEndpointWhenEnabled() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, true, null);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                RequestTimings.current().record(RequestTimings.Phase.SEARCH, TimeUnit.MILLISECONDS.toNanos(7));
+            }
+        });
+
+        filter.doFilter(request("/api/reminders/1"), new MockHttpServletResponse(), chain);
+
+        assertThat(
+            meterRegistry
+                .get(ServerTimingFilter.PHASES_METER_NAME)
+                .tag("uri", "/api/reminders/{id}")
+                .tag("method", "GET")
+                .tag("phase", "search")
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS)
+        ).isEqualTo(7);
+        assertThat(meterRegistry.find(ServerTimingFilter.PHASES_METER_NAME).tag("phase", "db").timer()).isNull();
+    }
+}
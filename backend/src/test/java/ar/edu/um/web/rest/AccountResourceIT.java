@@ -1,6 +1,8 @@
 package ar.edu.um.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -10,6 +12,7 @@ import ar.edu.um.domain.User;
 import ar.edu.um.repository.AuthorityRepository;
 import ar.edu.um.repository.UserRepository;
 import ar.edu.um.security.AuthoritiesConstants;
+import ar.edu.um.security.DomainUserDetailsService.UserWithId;
 import ar.edu.um.service.UserService;
 import ar.edu.um.service.dto.AdminUserDTO;
 import ar.edu.um.service.dto.PasswordChangeDTO;
@@ -27,7 +30,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -57,6 +64,9 @@ class AccountResourceIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private MockMvc restAccountMockMvc;
 
@@ -116,6 +126,53 @@ class AccountResourceIT {
         userService.deleteUser(TEST_USER_LOGIN);
     }
 
+    @Test
+    void testGetExistingAccountNotModified() throws Exception {
+        AdminUserDTO user = new AdminUserDTO();
+        user.setLogin(TEST_USER_LOGIN);
+        user.setEmail("john.doe@jhipster.com");
+        user.setLangKey("en");
+        User created = userService.createUser(user);
+        // The account is cached by the id of the authenticated user, which a bare mock user does not carry.
+        UserWithId principal = new UserWithId(
+            TEST_USER_LOGIN,
+            "",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)),
+            created.getId()
+        );
+        Cache accountsCache = Objects.requireNonNull(cacheManager.getCache(UserService.ACCOUNTS_BY_ID_CACHE));
+        assertThat(accountsCache.get(created.getId())).isNull();
+
+        String etag = restAccountMockMvc
+            .perform(get("/api/account").with(user(principal)).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        assertThat(accountsCache.get(created.getId())).isNotNull();
+
+        restAccountMockMvc
+            .perform(get("/api/account").with(user(principal)).accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().bytes(new byte[0]));
+
+        user.setId(created.getId());
+        user.setFirstName("john");
+        userService.updateUser(user);
+        assertThat(accountsCache.get(created.getId())).isNull();
+
+        restAccountMockMvc
+            .perform(get("/api/account").with(user(principal)).accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.firstName").value("john"));
+
+        userService.deleteUser(TEST_USER_LOGIN);
+    }
+
     @Test
     void testGetUnknownAccount() throws Exception {
         restAccountMockMvc.perform(get("/api/account").accept(MediaType.APPLICATION_PROBLEM_JSON)).andExpect(status().isUnauthorized());
@@ -408,6 +465,7 @@ class AccountResourceIT {
         userDTO.setActivated(false);
         userDTO.setImageUrl("http://placehold.it/50x50");
         userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+        userDTO.setTimeZone("America/Argentina/Buenos_Aires");
         userDTO.setAuthorities(Collections.singleton(AuthoritiesConstants.ADMIN));
 
         restAccountMockMvc
@@ -416,6 +474,7 @@ class AccountResourceIT {
 
         User updatedUser = userRepository.findOneWithAuthoritiesByLogin(user.getLogin()).orElse(null);
         assertThat(updatedUser.getFirstName()).isEqualTo(userDTO.getFirstName());
+        assertThat(updatedUser.getTimeZone()).isEqualTo(userDTO.getTimeZone());
         assertThat(updatedUser.getLastName()).isEqualTo(userDTO.getLastName());
         assertThat(updatedUser.getEmail()).isEqualTo(userDTO.getEmail());
         assertThat(updatedUser.getLangKey()).isEqualTo(userDTO.getLangKey());
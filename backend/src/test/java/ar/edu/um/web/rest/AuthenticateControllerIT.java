@@ -13,17 +13,24 @@ import ar.edu.um.IntegrationTest;
 import ar.edu.um.domain.User;
 import ar.edu.um.repository.UserRepository;
 import ar.edu.um.web.rest.vm.LoginVM;
+import ar.edu.um.web.rest.vm.RefreshTokenVM;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Integration tests for the {@link AuthenticateController} REST controller.
+ * <p>
+ * Credentials are verified on the authentication pool, outside the test transaction, so the users are committed and deleted
+ * after each test.
  */
 @AutoConfigureMockMvc
 @IntegrationTest
@@ -41,8 +48,15 @@ class AuthenticateControllerIT {
     @Autowired
     private MockMvc mockMvc;
 
+    private final List<User> insertedUsers = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        userRepository.deleteAll(insertedUsers);
+        insertedUsers.clear();
+    }
+
     @Test
-    @Transactional
     void testAuthorize() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller");
@@ -50,7 +64,7 @@ class AuthenticateControllerIT {
         user.setActivated(true);
         user.setPassword(passwordEncoder.encode("test"));
 
-        userRepository.saveAndFlush(user);
+        insertedUsers.add(userRepository.saveAndFlush(user));
 
         LoginVM login = new LoginVM();
         login.setUsername("user-jwt-controller");
@@ -65,7 +79,6 @@ class AuthenticateControllerIT {
     }
 
     @Test
-    @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller-remember-me");
@@ -73,7 +86,7 @@ class AuthenticateControllerIT {
         user.setActivated(true);
         user.setPassword(passwordEncoder.encode("test"));
 
-        userRepository.saveAndFlush(user);
+        insertedUsers.add(userRepository.saveAndFlush(user));
 
         LoginVM login = new LoginVM();
         login.setUsername("user-jwt-controller-remember-me");
@@ -99,4 +112,66 @@ class AuthenticateControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    void testRefreshRotatesToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh");
+        user.setEmail("user-jwt-controller-refresh@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        insertedUsers.add(userRepository.saveAndFlush(user));
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-refresh");
+        login.setPassword("test");
+        String firstRefreshToken = refreshToken(
+            mockMvc
+                .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(login)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refresh_token").isString())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+        );
+
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken(firstRefreshToken);
+        String secondRefreshToken = refreshToken(
+            mockMvc
+                .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refresh)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id_token").isNotEmpty())
+                .andExpect(jsonPath("$.refresh_token").value(not(firstRefreshToken)))
+                .andExpect(header().string("Authorization", not(nullValue())))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+        );
+
+        // reusing a rotated token revokes the whole family
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refresh)))
+            .andExpect(status().isUnauthorized());
+        refresh.setRefreshToken(secondRefreshToken);
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refresh)))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testRefreshFailsWithUnknownToken() throws Exception {
+        RefreshTokenVM refresh = new RefreshTokenVM();
+        refresh.setRefreshToken("unknown");
+        mockMvc
+            .perform(post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refresh)))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    private String refreshToken(String response) throws Exception {
+        JsonNode body = om.readTree(response);
+        return body.get("refresh_token").asText();
+    }
 }
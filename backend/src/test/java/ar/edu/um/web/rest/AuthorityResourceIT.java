@@ -11,6 +11,7 @@ import ar.edu.um.domain.Authority;
 import ar.edu.um.repository.AuthorityRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -104,6 +105,18 @@ class AuthorityResourceIT {
         insertedAuthority = returnedAuthority;
     }
 
+    @Test
+    @Transactional
+    void authorityNamesAreEvictedByEveryMutator() {
+        assertThat(authorityRepository.findAllNames()).doesNotContain(authority.getName());
+
+        authorityRepository.saveAllAndFlush(List.of(authority));
+        assertThat(authorityRepository.findAllNames()).contains(authority.getName());
+
+        authorityRepository.deleteAllInBatch(List.of(authority));
+        assertThat(authorityRepository.findAllNames()).doesNotContain(authority.getName());
+    }
+
     @Test
     @Transactional
     void createAuthorityWithExistingId() throws Exception {
@@ -0,0 +1,57 @@
+package ar.edu.um.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ar.edu.um.security.SecurityUtils.USER_ID_CLAIM;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.service.feed.ChangeFeedEvent;
+import ar.edu.um.service.feed.ChangeFeedService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link ChangeFeedResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ChangeFeedResourceIT {
+
+    private static final String STREAM_API_URL = "/api/changes/stream";
+
+    private static final Long USER_ID = 1L;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private MockMvc restChangeFeedMockMvc;
+
+    @Test
+    void streamChanges() throws Exception {
+        MockHttpServletResponse response = restChangeFeedMockMvc
+            .perform(get(STREAM_API_URL).with(jwt().jwt(token -> token.claim(USER_ID_CLAIM, USER_ID))))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+        changeFeedService.publish(ChangeFeedEvent.TAG, Long.MAX_VALUE, ChangeFeedEvent.Action.DELETED, List.of(USER_ID));
+
+        await()
+            .atMost(5, TimeUnit.SECONDS)
+            .untilAsserted(() ->
+                assertThat(response.getContentAsString()).contains("event:changes").contains("\"id\":" + Long.MAX_VALUE)
+            );
+        assertThat(response.getContentType()).startsWith("text/event-stream");
+    }
+}
@@ -96,6 +96,21 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotHaveJsonPath());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersWithoutCount() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/users?sort=id,desc&count=false").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("X-Has-Next-Page", "false"))
+            .andExpect(jsonPath("$.[?(@.id == %d)].login", user.getId()).value(user.getLogin()))
+            .andExpect(jsonPath("$.[?(@.id == %d)].keys()", user.getId()).value(Set.of("id", "login")));
+    }
+
     @Test
     @Transactional
     void getAllUsersSortedByParameters() throws Exception {
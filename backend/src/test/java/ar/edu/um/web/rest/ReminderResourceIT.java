@@ -2,6 +2,8 @@ package ar.edu.um.web.rest;
 
 import static ar.edu.um.domain.ReminderAsserts.*;
 import static ar.edu.um.web.rest.TestUtil.createUpdateProxyForBean;
+import static ar.edu.um.web.rest.TestUtil.maxStatements;
+import static ar.edu.um.web.rest.TestUtil.statementCount;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.hasItem;
@@ -19,7 +21,9 @@ import ar.edu.um.repository.ReminderRepository;
 import ar.edu.um.repository.UserRepository;
 import ar.edu.um.repository.search.ReminderSearchRepository;
 import ar.edu.um.service.ReminderService;
+import ar.edu.um.service.dto.ReminderChangesDTO;
 import ar.edu.um.service.dto.ReminderDTO;
+import ar.edu.um.service.dto.ReminderOccurrenceDTO;
 import ar.edu.um.service.mapper.ReminderMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
@@ -31,6 +35,8 @@ import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.assertj.core.util.IterableUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -42,9 +48,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -342,6 +351,104 @@ class ReminderResourceIT {
             .andExpect(jsonPath("$.[*].lastModifiedDate").value(hasItem(DEFAULT_LAST_MODIFIED_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllRemindersRunsAConstantNumberOfStatements() throws Exception {
+        // Initialize the database with reminders having a category and tags, read from a fresh persistence context
+        String title = "constant-statements";
+        seedRemindersWithAssociations(title, 1);
+        int statementsForOne = statementCount(
+            restReminderMockMvc.perform(get(ENTITY_API_URL + "?title.equals=" + title)).andExpect(status().isOk()).andReturn()
+        );
+        seedRemindersWithAssociations(title, 5);
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?title.equals=" + title))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "6"))
+            .andExpect(jsonPath("$.[*].category.id").isNotEmpty())
+            .andExpect(jsonPath("$.[0].tags.length()").value(2))
+            .andExpect(maxStatements(statementsForOne));
+    }
+
+    private void seedRemindersWithAssociations(String title, int count) {
+        for (int i = 0; i < count; i++) {
+            Category category = CategoryResourceIT.createEntity();
+            em.persist(category);
+            Reminder seeded = createEntity().title(title).category(category);
+            for (int j = 0; j < 2; j++) {
+                Tag tag = TagResourceIT.createEntity().name("tag-" + i + "-" + j);
+                em.persist(tag);
+                seeded.addTags(tag);
+            }
+            em.persist(seeded);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @Transactional
+    void getAllReminderFields() throws Exception {
+        // Initialize the database
+        insertedReminder = reminderRepository.saveAndFlush(reminder);
+
+        // The reminders would be loaded with all their columns, and their tags fetched, if the fields were not read alone
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            // Get only some fields of the reminderList
+            MvcResult withTags = restReminderMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=title,dueDate,tags&id.equals=" + reminder.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$.[0].id").value(reminder.getId().intValue()))
+                .andExpect(jsonPath("$.[0].title").value(DEFAULT_TITLE))
+                .andExpect(jsonPath("$.[0].dueDate").value(DEFAULT_DUE_DATE.toString()))
+                .andExpect(jsonPath("$.[0].tags").isArray())
+                .andExpect(jsonPath("$.[0].description").doesNotExist())
+                .andExpect(jsonPath("$.[0].priority").doesNotExist())
+                .andReturn();
+            assertThat(statistics.getEntityStatistics(Reminder.class.getName()).getLoadCount()).isZero();
+            assertThat(statistics.getCollectionStatistics(Reminder.class.getName() + ".tags").getFetchCount()).isZero();
+
+            // The tags are read from their join table only when asked for
+            MvcResult withoutTags = restReminderMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=title,dueDate&id.equals=" + reminder.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].tags").doesNotExist())
+                .andReturn();
+            assertThat(statementCount(withoutTags)).isEqualTo(statementCount(withTags) - 1);
+            assertThat(statistics.getEntityStatistics(Reminder.class.getName()).getLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        restReminderMockMvc.perform(get(ENTITY_API_URL + "?fields=title,owner")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllReminderFieldsSortedByTheirColumns() throws Exception {
+        // Initialize the database, without category
+        insertedReminder = reminderRepository.saveAndFlush(reminder);
+
+        // Sorted by the foreign key, the reminders without category are kept
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=category.id,asc&sort=dueDate,desc&fields=title&id.equals=" + reminder.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(reminder.getId().intValue()))
+            .andExpect(jsonPath("$.[0].category").doesNotExist());
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=category.name,asc&fields=title"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.sortinvalid"));
+        restReminderMockMvc.perform(get(ENTITY_API_URL + "?sort=unknown,asc&fields=title")).andExpect(status().isBadRequest());
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllRemindersWithEagerRelationshipsIsEnabled() throws Exception {
         when(reminderServiceMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -475,6 +582,166 @@ class ReminderResourceIT {
         defaultReminderFiltering("dueDate.specified=true", "dueDate.specified=false");
     }
 
+    @Test
+    @Transactional
+    void getAllRemindersExpandsRecurringRemindersInADueDateRange() throws Exception {
+        // Initialize the database
+        Instant start = DEFAULT_DUE_DATE;
+        reminderRepository.saveAndFlush(createEntity().title("daily").dueDate(start).recurrenceRule("FREQ=DAILY"));
+        reminderRepository.saveAndFlush(createEntity().title("once").dueDate(start.plus(36, ChronoUnit.HOURS)));
+        String range = "dueDate.greaterThanOrEqual=" + start + "&dueDate.lessThan=" + start.plus(3, ChronoUnit.DAYS);
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&title.in=daily,once&" + range))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "4"))
+            .andExpect(jsonPath("$.[*].title").value(org.hamcrest.Matchers.contains("daily", "daily", "once", "daily")))
+            .andExpect(jsonPath("$.[0].occurrenceDate").value(start.toString()))
+            .andExpect(jsonPath("$.[1].dueDate").value(start.plus(1, ChronoUnit.DAYS).toString()))
+            .andExpect(jsonPath("$.[2].occurrenceDate").doesNotExist())
+            .andExpect(jsonPath("$.[3].dueDate").value(start.plus(2, ChronoUnit.DAYS).toString()));
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?page=1&size=3&title.in=daily,once&" + range))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "4"))
+            .andExpect(jsonPath("$.[*].dueDate").value(org.hamcrest.Matchers.contains(start.plus(2, ChronoUnit.DAYS).toString())));
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "/count?title.in=daily,once&" + range))
+            .andExpect(status().isOk())
+            .andExpect(content().string("4"));
+    }
+
+    @Test
+    @Transactional
+    void updateReminderOccurrence() throws Exception {
+        // Initialize the database
+        Instant start = DEFAULT_DUE_DATE;
+        Reminder daily = reminderRepository.saveAndFlush(createEntity().title("daily").dueDate(start).recurrenceRule("FREQ=DAILY"));
+        String range = "dueDate.greaterThanOrEqual=" + start + "&dueDate.lessThan=" + start.plus(3, ChronoUnit.DAYS);
+
+        ReminderOccurrenceDTO completed = occurrence(start.plus(1, ChronoUnit.DAYS), true, false);
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID + "/occurrences", daily.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(completed))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.isCompleted").value(true));
+        ReminderOccurrenceDTO cancelled = occurrence(start.plus(2, ChronoUnit.DAYS), false, true);
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID + "/occurrences", daily.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(cancelled))
+            )
+            .andExpect(status().isOk());
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?title.equals=daily&" + range))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].isCompleted").value(org.hamcrest.Matchers.contains(false, true)));
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL + "?title.equals=daily&isCompleted.equals=false&" + range))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].dueDate").value(org.hamcrest.Matchers.contains(start.toString())));
+
+        // Not an occurrence of the rule
+        ReminderOccurrenceDTO invalid = occurrence(start.plus(1, ChronoUnit.HOURS), true, false);
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID + "/occurrences", daily.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(invalid))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    private static ReminderOccurrenceDTO occurrence(Instant occurrenceDate, boolean completed, boolean cancelled) {
+        ReminderOccurrenceDTO occurrence = new ReminderOccurrenceDTO();
+        occurrence.setOccurrenceDate(occurrenceDate);
+        occurrence.setIsCompleted(completed);
+        occurrence.setIsCancelled(cancelled);
+        return occurrence;
+    }
+
+    @Test
+    @Transactional
+    void createReminderWithInvalidRecurrenceRule() throws Exception {
+        ReminderDTO reminderDTO = reminderMapper.toDto(reminder.recurrenceRule("FREQ=HOURLY"));
+
+        restReminderMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reminderDTO)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getReminderChangesSinceToken() throws Exception {
+        // Initialize the database
+        insertedReminder = reminderRepository.saveAndFlush(reminder);
+
+        // The first sync lists all the reminders
+        List<Long> synced = new ArrayList<>();
+        ReminderChangesDTO changes = changes(null);
+        synced.addAll(changes.getChanged().stream().map(ReminderDTO::getId).toList());
+        while (changes.isMore()) {
+            changes = changes(changes.getToken());
+            synced.addAll(changes.getChanged().stream().map(ReminderDTO::getId).toList());
+        }
+        assertThat(synced).contains(reminder.getId());
+        assertThat(changes.getDeleted()).isEmpty();
+
+        // Nothing changed since
+        String token = changes.getToken();
+        changes = changes(token);
+        assertThat(changes.getChanged()).isEmpty();
+        assertThat(changes.getDeleted()).isEmpty();
+        assertThat(changes.isMore()).isFalse();
+
+        // An update is listed once
+        ReminderDTO partialUpdatedReminder = new ReminderDTO();
+        partialUpdatedReminder.setId(reminder.getId());
+        partialUpdatedReminder.setTitle(UPDATED_TITLE);
+        restReminderMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, reminder.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedReminder))
+            )
+            .andExpect(status().isOk());
+        changes = changes(token);
+        assertThat(changes.getChanged()).extracting(ReminderDTO::getId).containsExactly(reminder.getId());
+        assertThat(changes.getChanged().get(0).getTitle()).isEqualTo(UPDATED_TITLE);
+        assertThat(changes.getDeleted()).isEmpty();
+
+        // A deletion is listed as a tombstone
+        token = changes.getToken();
+        restReminderMockMvc.perform(delete(ENTITY_API_URL_ID, reminder.getId())).andExpect(status().isNoContent());
+        insertedReminder = null;
+        changes = changes(token);
+        assertThat(changes.getChanged()).isEmpty();
+        assertThat(changes.getDeleted()).containsExactly(reminder.getId());
+    }
+
+    @Test
+    @Transactional
+    void getReminderChangesWithInvalidOrExpiredToken() throws Exception {
+        restReminderMockMvc.perform(get(ENTITY_API_URL + "/changes").param("since", "invalid")).andExpect(status().isBadRequest());
+        restReminderMockMvc.perform(get(ENTITY_API_URL + "/changes").param("since", "1-0")).andExpect(status().isGone());
+    }
+
+    private ReminderChangesDTO changes(String since) throws Exception {
+        MockHttpServletRequestBuilder request = get(ENTITY_API_URL + "/changes").param("size", "1000");
+        if (since != null) {
+            request.param("since", since);
+        }
+        byte[] content = restReminderMockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+        return om.readValue(content, ReminderChangesDTO.class);
+    }
+
     @Test
     @Transactional
     void getAllRemindersByIsCompletedIsEqualToSomething() throws Exception {
@@ -777,6 +1044,103 @@ class ReminderResourceIT {
             });
     }
 
+    @Test
+    @Transactional
+    void putReminderIfMatchesItsVersion() throws Exception {
+        // Initialize the database
+        insertedReminder = reminderRepository.saveAndFlush(reminder);
+        Long version = reminder.getVersion();
+
+        restReminderMockMvc
+            .perform(get(ENTITY_API_URL_ID, reminder.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + version + "\""))
+            .andExpect(jsonPath("$.version").value(version));
+
+        ReminderDTO reminderDTO = reminderMapper.toDto(reminder);
+        reminderDTO.setTitle(UPDATED_TITLE);
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("error.versionconflict"));
+
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+            .andExpect(jsonPath("$.title").value(UPDATED_TITLE));
+
+        // A tag weakened by a proxy matches by its version as well
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"" + version + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"" + (version + 1) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 2) + "\""));
+
+        // The version of the body is checked as well, the reminder was updated since
+        reminderDTO.setDescription(UPDATED_DESCRIPTION);
+        restReminderMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @Transactional
+    void putReminderIfMatchesAnyOfItsTags() throws Exception {
+        // Initialize the database
+        insertedReminder = reminderRepository.saveAndFlush(reminder);
+        Long version = reminder.getVersion();
+
+        ReminderDTO reminderDTO = reminderMapper.toDto(reminder);
+        reminderDTO.setTitle(UPDATED_TITLE);
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (version + 5) + "\", \"" + version + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+            .andExpect(jsonPath("$.title").value(UPDATED_TITLE));
+
+        // None of the tags is the current version
+        restReminderMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, reminderDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\", W/\"" + (version + 5) + "\", \"invalid\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reminderDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @Transactional
     void putNonExistingReminder() throws Exception {
@@ -0,0 +1,182 @@
+package ar.edu.um.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ar.edu.um.IntegrationTest;
+import ar.edu.um.domain.Category;
+import ar.edu.um.domain.Reminder;
+import ar.edu.um.repository.CategoryRepository;
+import ar.edu.um.repository.ReminderRepository;
+import ar.edu.um.repository.SyncOperationKeyRepository;
+import ar.edu.um.service.dto.SyncOperationDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO;
+import ar.edu.um.service.dto.SyncOperationResultDTO.Status;
+import ar.edu.um.service.mapper.ReminderMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SyncResource} REST controller.
+ * <p>
+ * The tests are not transactional, the idempotency keys of a batch are kept once it commits.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SyncResourceIT {
+
+    private static final String SYNC_API_URL = "/api/sync";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private SyncOperationKeyRepository syncOperationKeyRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReminderMapper reminderMapper;
+
+    @Autowired
+    private MockMvc restSyncMockMvc;
+
+    private final List<Long> insertedIds = new ArrayList<>();
+
+    private final List<String> idempotencyKeys = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        reminderRepository.deleteAllById(insertedIds.stream().filter(reminderRepository::existsById).toList());
+        insertedIds.clear();
+        syncOperationKeyRepository.deleteAll(syncOperationKeyRepository.findAllByLoginAndIdempotencyKeyIn("user", idempotencyKeys));
+        idempotencyKeys.clear();
+    }
+
+    private static SyncOperationDTO operation(SyncOperationDTO.Type type) {
+        SyncOperationDTO operation = new SyncOperationDTO();
+        operation.setIdempotencyKey(UUID.randomUUID().toString());
+        operation.setType(type);
+        return operation;
+    }
+
+    private List<SyncOperationResultDTO> sync(List<SyncOperationDTO> operations) throws Exception {
+        List<SyncOperationResultDTO> results = om.readValue(
+            restSyncMockMvc
+                .perform(post(SYNC_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(operations)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            new TypeReference<>() {}
+        );
+        results.stream().map(SyncOperationResultDTO::getReminderId).filter(Objects::nonNull).forEach(insertedIds::add);
+        operations.stream().map(SyncOperationDTO::getIdempotencyKey).forEach(idempotencyKeys::add);
+        return results;
+    }
+
+    @Test
+    void syncAppliesTheOperationsInOrder() throws Exception {
+        Reminder existing = reminderRepository.saveAndFlush(ReminderResourceIT.createEntity());
+        insertedIds.add(existing.getId());
+
+        SyncOperationDTO create = operation(SyncOperationDTO.Type.CREATE);
+        create.setLocalId("local-1");
+        create.setReminder(reminderMapper.toDto(ReminderResourceIT.createEntity()));
+        SyncOperationDTO update = operation(SyncOperationDTO.Type.UPDATE);
+        update.setLocalId("local-1");
+        update.setReminder(reminderMapper.toDto(ReminderResourceIT.createUpdatedEntity()));
+        SyncOperationDTO delete = operation(SyncOperationDTO.Type.DELETE);
+        delete.setReminderId(existing.getId());
+        SyncOperationDTO missing = operation(SyncOperationDTO.Type.DELETE);
+        missing.setReminderId(Long.MAX_VALUE);
+
+        List<SyncOperationResultDTO> results = sync(List.of(create, update, delete, missing));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(
+            Status.APPLIED,
+            Status.APPLIED,
+            Status.APPLIED,
+            Status.NOT_FOUND
+        );
+        Long createdId = results.get(0).getReminderId();
+        assertThat(createdId).isNotNull();
+        assertThat(results.get(1).getReminderId()).isEqualTo(createdId);
+        assertThat(results.get(1).getReminder().getTitle()).isEqualTo(ReminderResourceIT.createUpdatedEntity().getTitle());
+        assertThat(reminderRepository.findById(createdId)).isPresent();
+        assertThat(reminderRepository.existsById(existing.getId())).isFalse();
+    }
+
+    @Test
+    void syncReplayedIsNotAppliedTwice() throws Exception {
+        SyncOperationDTO create = operation(SyncOperationDTO.Type.CREATE);
+        create.setLocalId("local-2");
+        create.setReminder(reminderMapper.toDto(ReminderResourceIT.createEntity()));
+        long databaseSizeBefore = reminderRepository.count();
+
+        List<SyncOperationResultDTO> results = sync(List.of(create));
+        List<SyncOperationResultDTO> replayed = sync(List.of(create));
+
+        assertThat(replayed).extracting(SyncOperationResultDTO::getStatus).containsExactly(Status.DUPLICATE);
+        assertThat(replayed.get(0).getReminderId()).isEqualTo(results.get(0).getReminderId());
+        assertThat(replayed.get(0).getLocalId()).isEqualTo("local-2");
+        assertThat(reminderRepository.count()).isEqualTo(databaseSizeBefore + 1);
+        assertThat(syncOperationKeyRepository.findOneByLoginAndIdempotencyKey("user", create.getIdempotencyKey()))
+            .hasValueSatisfying(key -> assertThat(key.getStatus()).isEqualTo(Status.APPLIED.name()));
+    }
+
+    @Test
+    void syncWithInvalidOperations() throws Exception {
+        SyncOperationDTO create = operation(SyncOperationDTO.Type.CREATE);
+        create.setReminder(reminderMapper.toDto(ReminderResourceIT.createEntity().title(null)));
+
+        List<SyncOperationResultDTO> results = sync(List.of(create));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(Status.INVALID);
+        assertThat(results.get(0).getMessage()).startsWith("title");
+
+        SyncOperationDTO withoutKey = operation(SyncOperationDTO.Type.DELETE);
+        withoutKey.setIdempotencyKey(null);
+        restSyncMockMvc
+            .perform(post(SYNC_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(List.of(withoutKey))))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void syncWithAMissingReferenceAppliesTheRestOfTheBatch() throws Exception {
+        Category category = categoryRepository.saveAndFlush(CategoryResourceIT.createEntity());
+        categoryRepository.delete(category);
+
+        SyncOperationDTO withDeletedCategory = operation(SyncOperationDTO.Type.CREATE);
+        withDeletedCategory.setReminder(reminderMapper.toDto(ReminderResourceIT.createEntity().category(category)));
+        SyncOperationDTO create = operation(SyncOperationDTO.Type.CREATE);
+        create.setReminder(reminderMapper.toDto(ReminderResourceIT.createEntity()));
+        long databaseSizeBefore = reminderRepository.count();
+
+        List<SyncOperationResultDTO> results = sync(List.of(withDeletedCategory, create));
+
+        assertThat(results).extracting(SyncOperationResultDTO::getStatus).containsExactly(Status.INVALID, Status.APPLIED);
+        assertThat(results.get(0).getMessage()).isEqualTo("category " + category.getId() + " does not exist");
+        assertThat(reminderRepository.count()).isEqualTo(databaseSizeBefore + 1);
+        // the claims of both operations are kept with the batch
+        assertThat(syncOperationKeyRepository.findOneByLoginAndIdempotencyKey("user", withDeletedCategory.getIdempotencyKey()))
+            .hasValueSatisfying(key -> assertThat(key.getStatus()).isEqualTo(Status.INVALID.name()));
+    }
+}
@@ -2,6 +2,7 @@ package ar.edu.um.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import ar.edu.um.management.RequestTimings;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -21,6 +22,8 @@ import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.format.support.FormattingConversionService;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
 
 /**
  * Utility class for testing REST controllers.
@@ -152,6 +155,31 @@ public final class TestUtil {
         assertThat(domainObject1).hasSameHashCodeAs(domainObject2);
     }
 
+    /**
+     * Assert that a request executed at most the given number of SQL statements, to catch N+1 queries.
+     * <p>
+     * The statements are counted by the {@link RequestTimings} of the request, only the API requests are counted.
+     *
+     * @param maxStatements the maximum number of statements.
+     * @return the matcher.
+     */
+    public static ResultMatcher maxStatements(int maxStatements) {
+        return result -> assertThat(statementCount(result)).as("SQL statements").isLessThanOrEqualTo(maxStatements);
+    }
+
+    /**
+     * Get the number of SQL statements executed by an API request, to assert that it does not grow with the number of
+     * rows returned.
+     *
+     * @param result the result of the request.
+     * @return the number of statements.
+     */
+    public static int statementCount(MvcResult result) {
+        RequestTimings timings = (RequestTimings) result.getRequest().getAttribute(RequestTimings.REQUEST_ATTRIBUTE);
+        assertThat(timings).as("request timings").isNotNull();
+        return timings.getCount(RequestTimings.Phase.DB);
+    }
+
     /**
      * Create a {@link FormattingConversionService} which use ISO date format, instead of the localized one.
      * @return the {@link FormattingConversionService}.
@@ -1,11 +1,13 @@
 package ar.edu.um.web.rest;
 
+import static ar.edu.um.web.rest.TestUtil.maxStatements;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import ar.edu.um.IntegrationTest;
+import ar.edu.um.domain.Authority;
 import ar.edu.um.domain.User;
 import ar.edu.um.repository.UserRepository;
 import ar.edu.um.repository.search.UserSearchRepository;
@@ -264,6 +266,7 @@ class UserResourceIT {
         restUserMockMvc
             .perform(get("/api/admin/users?sort=id,desc").accept(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
+            .andExpect(maxStatements(3))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
             .andExpect(jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRSTNAME)))
@@ -273,6 +276,23 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithoutCount() throws Exception {
+        // Initialize the database
+        user.getAuthorities().add(em.getReference(Authority.class, AuthoritiesConstants.USER));
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc&size=1&count=false").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(maxStatements(2))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists("X-Has-Next-Page"))
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.[0].authorities").value(hasItem(AuthoritiesConstants.USER)));
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -287,6 +307,7 @@ class UserResourceIT {
         restUserMockMvc
             .perform(get("/api/admin/users/{login}", user.getLogin()))
             .andExpect(status().isOk())
+            .andExpect(maxStatements(2))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.login").value(user.getLogin()))
             .andExpect(jsonPath("$.firstName").value(DEFAULT_FIRSTNAME))
@@ -331,7 +352,8 @@ class UserResourceIT {
 
         restUserMockMvc
             .perform(put("/api/admin/users").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(userDTO)))
-            .andExpect(status().isOk());
+            .andExpect(status().isOk())
+            .andExpect(maxStatements(8));
 
         // Validate the User in the database
         assertPersistedUsers(users -> {
@@ -0,0 +1,51 @@
+package ar.edu.um.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Test class for the {@link SlicePaginationUtil}.
+ */
+class SlicePaginationUtilTest {
+
+    private static final String BASE_URL = "/api/_search/example";
+
+    @Test
+    void generateSliceHttpHeadersWithNextAndPrevious() {
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+            UriComponentsBuilder.fromUriString(BASE_URL + "?count=false"),
+            new SliceImpl<>(List.of("a", "b"), PageRequest.of(2, 2), true)
+        );
+
+        assertThat(headers.get(SlicePaginationUtil.HEADER_X_HAS_NEXT_PAGE)).containsExactly("true");
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo(
+            "<" +
+            BASE_URL +
+            "?count=false&page=3&size=2>; rel=\"next\"," +
+            "<" +
+            BASE_URL +
+            "?count=false&page=1&size=2>; rel=\"prev\"," +
+            "<" +
+            BASE_URL +
+            "?count=false&page=0&size=2>; rel=\"first\""
+        );
+        assertThat(headers.containsKey("X-Total-Count")).isFalse();
+    }
+
+    @Test
+    void generateSliceHttpHeadersOnLastSlice() {
+        HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+            UriComponentsBuilder.fromUriString(BASE_URL),
+            new SliceImpl<>(List.of("a"), PageRequest.of(0, 2), false)
+        );
+
+        assertThat(headers.get(SlicePaginationUtil.HEADER_X_HAS_NEXT_PAGE)).containsExactly("false");
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<" + BASE_URL + "?page=0&size=2>; rel=\"first\"");
+    }
+}
@@ -25,6 +25,7 @@ import {
 } from '@mui/icons-material';
 import { useAuth } from '../contexts/AuthContext';
 import { useOnlineStatus } from '../hooks/useOnlineStatus';
+import { useChangeFeed } from '../hooks/useChangeFeed';
 import ReminderList from './ReminderList';
 import AddReminderForm from './AddReminderForm';
 import ReminderFilters from './ReminderFilters';
@@ -71,6 +72,9 @@ const Dashboard = () => {
     dispatch(fetchReminders());
   }, [dispatch]);
 
+  // Refresh them when they change on the server
+  useChangeFeed(isOnline);
+
   // Handle error display
   useEffect(() => {
     if (error) {
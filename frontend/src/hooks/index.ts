@@ -1,4 +1,5 @@
 // Custom hooks will be exported from here
 export * from './useOnlineStatus';
 export * from './usePWAInstall';
-export * from './useOfflineManager';
\ No newline at end of file
+export * from './useOfflineManager';
+export * from './useChangeFeed';
\ No newline at end of file
@@ -0,0 +1,39 @@
+import { useEffect } from 'react';
+import { useDispatch } from 'react-redux';
+import { AppDispatch } from '../store';
+import { applyReminderChanges, fetchReminders } from '../store/slices/remindersSlice';
+import { changeFeedService } from '../services/changeFeedService';
+import { syncService } from '../services/syncService';
+import { ChangeFeedEvent } from '../types';
+
+// Refresh the reminders when the server tells they changed, instead of polling
+export function useChangeFeed(isOnline: boolean): void {
+  const dispatch = useDispatch<AppDispatch>();
+
+  useEffect(() => {
+    if (!isOnline) return;
+
+    // Changes of reminders are pulled since the last sync token. A change of a category or tag, shown within the
+    // reminders without changing them, or a resync refreshes everything
+    const handleChanges = async (changes: ChangeFeedEvent[] | null) => {
+      if (changes && changes.every(change => change.entity === 'reminder')) {
+        try {
+          const delta = await syncService.pullChanges();
+          if (delta) {
+            dispatch(applyReminderChanges(delta));
+            return;
+          }
+        } catch (error) {
+          console.warn('Failed to pull the changes:', error);
+        }
+      }
+      dispatch(fetchReminders(undefined));
+    };
+
+    changeFeedService.addListener(handleChanges);
+
+    return () => {
+      changeFeedService.removeListener(handleChanges);
+    };
+  }, [isOnline, dispatch]);
+}
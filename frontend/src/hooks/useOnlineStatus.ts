@@ -1,4 +1,5 @@
 import { useState, useEffect, useCallback } from 'react';
+import { changeFeedService } from '../services/changeFeedService';
 
 interface NetworkStatus {
   isOnline: boolean;
@@ -105,9 +106,9 @@ export function useOnlineStatus(): boolean {
       setTimeout(verifyConnectivity, 1000);
     }
 
-    // Periodic connectivity check (every 30 seconds when online)
+    // Periodic connectivity check (every 30 seconds when online, unless the change feed heartbeat proves it)
     const intervalId = setInterval(() => {
-      if (navigator.onLine && !document.hidden) {
+      if (navigator.onLine && !document.hidden && !changeFeedService.isConnected()) {
         verifyConnectivity();
       }
     }, 30000);
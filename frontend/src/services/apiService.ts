@@ -8,6 +8,9 @@ import {
   UpdateReminderRequest,
   PaginatedResponse,
   ReminderQueryParams,
+  ReminderChanges,
+  SyncPushOperation,
+  SyncOperationResult,
 } from '../types';
 
 // API configuration
@@ -91,8 +94,11 @@ class ApiService {
               const response = await this.refreshToken(refreshToken);
               const newToken = response.data.id_token;
               
-              // Update stored token
+              // Update stored tokens, the refresh token is rotated on every use
               localStorage.setItem('authToken', newToken);
+              if (response.data.refresh_token) {
+                localStorage.setItem('refreshToken', response.data.refresh_token);
+              }
               this.setToken(newToken);
               
               // Retry original request with new token
@@ -205,7 +211,8 @@ class ApiService {
   }
 
   public async refreshToken(refreshToken: string): Promise<AxiosResponse<AuthResponse>> {
-    const response = await this.axiosInstance.post<AuthResponse>('/api/auth/refresh', {
+    // Bypass the instance: the expired access token must not be sent, and a failed refresh must not trigger another one
+    const response = await axios.post<AuthResponse>(`${API_BASE_URL}/api/authenticate/refresh`, {
       refreshToken,
     });
     return response;
@@ -224,6 +231,13 @@ class ApiService {
     return response;
   }
 
+  public async getReminderChanges(since?: string): Promise<AxiosResponse<ReminderChanges>> {
+    const response = await this.axiosInstance.get<ReminderChanges>('/api/reminders/changes', {
+      params: { since },
+    });
+    return response;
+  }
+
   public async createReminder(reminder: CreateReminderRequest & { createdDate: string }): Promise<AxiosResponse<Reminder>> {
     const response = await this.axiosInstance.post<Reminder>('/api/reminders', reminder);
     return response;
@@ -244,6 +258,25 @@ class ApiService {
     return response;
   }
 
+  // Sync endpoints
+  public async sync(operations: SyncPushOperation[]): Promise<AxiosResponse<SyncOperationResult[]>> {
+    const response = await this.axiosInstance.post<SyncOperationResult[]>('/api/sync', operations);
+    return response;
+  }
+
+  // Change feed endpoint, streamed with fetch since axios cannot read a response while it is received
+  public async openChangeStream(signal: AbortSignal): Promise<Response> {
+    const token = localStorage.getItem('authToken');
+    return fetch(`${API_BASE_URL}/api/changes/stream`, {
+      headers: {
+        Accept: 'text/event-stream',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      cache: 'no-store',
+      signal,
+    });
+  }
+
   // Generic HTTP methods
   public async get<T = any>(url: string, config: AxiosRequestConfig = {}): Promise<AxiosResponse<T>> {
     return this.axiosInstance.get<T>(url, config);
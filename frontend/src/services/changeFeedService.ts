@@ -0,0 +1,148 @@
+import { apiService } from './apiService';
+import { ChangeFeedEvent } from '../types';
+
+// Called with the changes, or with null when everything should be refreshed
+type ChangeFeedListener = (changes: ChangeFeedEvent[] | null) => void;
+
+class ChangeFeedService {
+  private listeners: ChangeFeedListener[] = [];
+  private controller: AbortController | null = null;
+  private reconnectTimeout: NodeJS.Timeout | null = null;
+  private connected = false;
+  private wasConnected = false;
+  private attempts = 0;
+  private baseReconnectDelay = 1000; // 1 second
+  private maxReconnectDelay = 60000; // 1 minute
+
+  // Add change listener, connecting with the first one
+  addListener(listener: ChangeFeedListener): void {
+    this.listeners.push(listener);
+    if (this.listeners.length === 1) {
+      this.connect();
+    }
+  }
+
+  // Remove change listener, disconnecting with the last one
+  removeListener(listener: ChangeFeedListener): void {
+    this.listeners = this.listeners.filter(l => l !== listener);
+    if (this.listeners.length === 0) {
+      this.disconnect();
+    }
+  }
+
+  // Whether changes are pushed, so that polling is not needed
+  isConnected(): boolean {
+    return this.connected;
+  }
+
+  private connect(): void {
+    if (this.controller) {
+      return;
+    }
+    const controller = new AbortController();
+    this.controller = controller;
+    this.stream(controller)
+      .catch(error => {
+        if (!controller.signal.aborted) {
+          console.warn('Change feed disconnected:', error);
+        }
+      })
+      .finally(() => {
+        this.connected = false;
+        if (this.controller === controller) {
+          this.controller = null;
+          this.scheduleReconnect();
+        }
+      });
+  }
+
+  private disconnect(): void {
+    if (this.reconnectTimeout) {
+      clearTimeout(this.reconnectTimeout);
+      this.reconnectTimeout = null;
+    }
+    const controller = this.controller;
+    this.controller = null;
+    this.wasConnected = false;
+    controller?.abort();
+  }
+
+  // Reconnect with exponential backoff, immediately after a connection closed by the server
+  private scheduleReconnect(): void {
+    if (this.listeners.length === 0 || this.reconnectTimeout) {
+      return;
+    }
+    const delay = this.attempts === 0
+      ? 0
+      : Math.min(this.baseReconnectDelay * Math.pow(2, this.attempts - 1), this.maxReconnectDelay);
+    this.attempts++;
+    this.reconnectTimeout = setTimeout(() => {
+      this.reconnectTimeout = null;
+      if (navigator.onLine) {
+        this.connect();
+      } else {
+        this.scheduleReconnect();
+      }
+    }, delay);
+  }
+
+  private async stream(controller: AbortController): Promise<void> {
+    const response = await apiService.openChangeStream(controller.signal);
+    if (!response.ok || !response.body) {
+      throw new Error(`Change feed refused with status ${response.status}`);
+    }
+
+    this.connected = true;
+    if (this.wasConnected) {
+      // Changes may have been missed while disconnected
+      this.notify(null);
+    }
+    this.wasConnected = true;
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { done, value } = await reader.read();
+      if (done) {
+        // Closed by the server once the connection timed out
+        this.attempts = 0;
+        return;
+      }
+      buffer += value.replace(/\r\n?/g, '\n');
+      let end = buffer.indexOf('\n\n');
+      while (end >= 0) {
+        this.dispatch(buffer.slice(0, end));
+        buffer = buffer.slice(end + 2);
+        end = buffer.indexOf('\n\n');
+      }
+    }
+  }
+
+  // Dispatch a server-sent event, ignoring the heartbeat comments
+  private dispatch(block: string): void {
+    let event = 'message';
+    const data: string[] = [];
+    block.split('\n').forEach(line => {
+      if (line.startsWith('event:')) {
+        event = line.slice(6).trim();
+      } else if (line.startsWith('data:')) {
+        data.push(line.slice(5).replace(/^ /, ''));
+      }
+    });
+
+    this.attempts = 0;
+    if (event === 'changes' && data.length > 0) {
+      this.notify(JSON.parse(data.join('\n')) as ChangeFeedEvent[]);
+    } else if (event === 'resync') {
+      this.notify(null);
+    }
+  }
+
+  private notify(changes: ChangeFeedEvent[] | null): void {
+    this.listeners.forEach(listener => listener(changes));
+  }
+}
+
+// Create and export a singleton instance
+export const changeFeedService = new ChangeFeedService();
+export default changeFeedService;
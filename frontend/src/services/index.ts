@@ -1,4 +1,5 @@
 // Export all services for easy importing
 export { default as apiService } from './apiService';
 export { default as offlineStorageService } from './offlineStorageService';
-export { default as syncService } from './syncService';
\ No newline at end of file
+export { default as syncService } from './syncService';
+export { default as changeFeedService } from './changeFeedService';
\ No newline at end of file
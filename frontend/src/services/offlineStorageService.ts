@@ -123,6 +123,11 @@ class OfflineStorageService {
     await this.db.reminders.bulkDelete(ids);
   }
 
+  // Remove the reminders which have no local changes, keeping the PENDING and CONFLICT ones
+  async clearSyncedReminders(): Promise<void> {
+    await this.db.reminders.where('syncStatus').equals('SYNCED').delete();
+  }
+
   // Database management
   async clearAllData(): Promise<void> {
     await this.db.reminders.clear();
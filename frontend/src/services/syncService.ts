@@ -1,3 +1,4 @@
+import axios from 'axios';
 import { apiService } from './apiService';
 import { offlineStorageService } from './offlineStorageService';
 import {
@@ -8,10 +9,21 @@ import {
   Reminder,
   CreateReminderRequest,
   UpdateReminderRequest,
+  ReminderChanges,
+  SyncPushOperation,
+  SyncOperationResult,
 } from '../types';
 
+const SYNC_TOKEN_SETTING = 'reminderSyncToken';
+const SYNC_BATCH_SIZE = 100;
+
+// The reminders changed and deleted since the last sync token
+type ReminderDelta = Pick<ReminderChanges, 'changed' | 'deleted'>;
+
 class SyncService {
   private isSyncing = false;
+  // The running sync from server, the next one waits for it so that both do not read the same token
+  private pulling: Promise<unknown> = Promise.resolve();
   private syncListeners: Array<(status: boolean) => void> = [];
   private retryTimeouts: Map<string, NodeJS.Timeout> = new Map();
   private maxRetries = 5;
@@ -44,7 +56,7 @@ class SyncService {
 
     try {
       // First, sync from server to get latest data
-      await this.syncFromServer();
+      await this.pullFromServer();
 
       // Then, sync local changes to server
       const result = await this.syncToServer();
@@ -65,52 +77,159 @@ class SyncService {
     }
   }
 
-  // Sync from server to local storage
-  private async syncFromServer(): Promise<void> {
+  // Pull the changes the server told about, without pushing the local ones. Resolves to the changes since the last
+  // sync, or to null when all the reminders were listed again, in which case the deletions are not known.
+  async pullChanges(): Promise<ReminderDelta | null> {
+    return this.pullFromServer();
+  }
+
+  private pullFromServer(): Promise<ReminderDelta | null> {
+    const pull = this.pulling.then(() => this.syncFromServer());
+    this.pulling = pull.catch(() => undefined);
+    return pull;
+  }
+
+  // Sync from server to local storage, fetching only the changes since the last sync token
+  private async syncFromServer(): Promise<ReminderDelta | null> {
     try {
-      const response = await apiService.getReminders();
-      const serverReminders = response.data.content;
+      let since = await offlineStorageService.getSetting<string>(SYNC_TOKEN_SETTING);
+      let more = true;
+      let relisted = false;
+      const delta: ReminderDelta = { changed: [], deleted: [] };
+      const withLocalChanges = await this.getReminderIdsWithLocalChanges();
+
+      while (more) {
+        let changes: ReminderChanges;
+        try {
+          changes = (await apiService.getReminderChanges(since)).data;
+        } catch (error) {
+          if (since && axios.isAxiosError(error) && error.response?.status === 410) {
+            // The token has expired: sync all the reminders again. The deletions since the token are not listed
+            // anymore, so the synced reminders are dropped first; those with local changes are kept to be pushed.
+            since = undefined;
+            relisted = true;
+            await offlineStorageService.clearSyncedReminders();
+            continue;
+          }
+          throw error;
+        }
 
-      // Convert server reminders to local format
-      const localReminders: LocalReminder[] = serverReminders.map(reminder => ({
-        ...reminder,
-        syncStatus: 'SYNCED' as const,
-        lastModified: Date.now(),
-      }));
+        // The reminders with local changes not pushed yet are not overwritten: their queued operations carry the version
+        // they were made on, so that the push reports a conflict if the server changed them since
+        const changed = changes.changed.filter(reminder => !withLocalChanges.has(reminder.id));
 
-      // Save to local storage
-      await offlineStorageService.bulkSaveReminders(localReminders);
+        // Convert server reminders to local format
+        const localReminders: LocalReminder[] = changed.map(reminder => ({
+          ...reminder,
+          syncStatus: 'SYNCED' as const,
+          lastModified: Date.now(),
+        }));
+
+        // Save to local storage
+        await offlineStorageService.bulkSaveReminders(localReminders);
+        await offlineStorageService.bulkDeleteReminders(changes.deleted);
+        await offlineStorageService.setSetting(SYNC_TOKEN_SETTING, changes.token);
+        delta.changed.push(...changed);
+        delta.deleted.push(...changes.deleted);
+
+        since = changes.token;
+        more = changes.more;
+      }
+      return relisted ? null : delta;
     } catch (error) {
       console.error('Failed to sync from server:', error);
       throw error;
     }
   }
 
-  // Sync local changes to server
+  // The ids of the reminders with queued operations, or with local changes still to be pushed or resolved
+  private async getReminderIdsWithLocalChanges(): Promise<Set<number>> {
+    const ids = new Set<number>();
+    for (const operation of await offlineStorageService.getSyncQueue()) {
+      if (operation.reminderId) {
+        ids.add(operation.reminderId);
+      }
+    }
+    const unsynced = [
+      ...(await offlineStorageService.getPendingReminders()),
+      ...(await offlineStorageService.getConflictReminders()),
+    ];
+    unsynced.forEach(reminder => ids.add(reminder.id));
+    return ids;
+  }
+
+  // Sync local changes to server, pushing the queue in ordered batches
   private async syncToServer(): Promise<SyncResult> {
     const syncQueue = await offlineStorageService.getSyncQueue();
     const conflicts: ConflictItem[] = [];
     const errors: any[] = [];
 
-    for (const operation of syncQueue) {
+    for (let start = 0; start < syncQueue.length; start += SYNC_BATCH_SIZE) {
+      const batch = syncQueue.slice(start, start + SYNC_BATCH_SIZE);
+      let results: SyncOperationResult[];
       try {
-        await this.processSyncOperation(operation);
-        await offlineStorageService.removeSyncOperation(operation.id);
-
-        // Clear any existing retry timeout for this operation
-        this.clearRetryTimeout(operation.id);
+        results = await this.pushOperations(batch);
       } catch (error) {
-        console.error('Failed to process sync operation:', error);
+        console.error('Failed to push sync operations:', error);
+        for (const operation of batch) {
+          await this.handleFailedOperation(operation, error, errors);
+        }
+        // The next batches wait for this one, so that the operations are applied in order
+        break;
+      }
 
-        // Check if we should retry this operation
-        if (operation.retryCount < this.maxRetries) {
-          // Increment retry count
+      for (let i = 0; i < batch.length; i++) {
+        const operation = batch[i];
+        const result = results[i];
+        if (result.status === 'INVALID') {
+          // Not retried: the server refuses the operation as it is
           await offlineStorageService.updateSyncOperation(operation.id, {
-            retryCount: operation.retryCount + 1,
-            error: String(error),
+            error: `Invalid operation: ${result.message}`,
           });
+          errors.push({ operation, error: String(result.message) });
+        } else {
+          if (result.status === 'CONFLICT') {
+            // Not retried either: the local reminder is marked for the user to resolve
+            conflicts.push({ id: operation.id, localData: operation.data, serverData: result.reminder, type: operation.type });
+          }
+          await offlineStorageService.removeSyncOperation(operation.id);
+
+          // Clear any existing retry timeout for this operation
+          this.clearRetryTimeout(operation.id);
+        }
+      }
+    }
 
-          // Schedule retry with exponential backoff
+    return {
+      success: errors.length === 0,
+      conflicts,
+      errors,
+    };
+  }
+
+  // Handle an operation whose batch could not be pushed
+  private async handleFailedOperation(operation: SyncOperation, error: unknown, errors: any[]): Promise<void> {
+    // Check if we should retry this operation
+    if (operation.retryCount < this.maxRetries) {
+      // Increment retry count
+      await offlineStorageService.updateSyncOperation(operation.id, {
+        retryCount: operation.retryCount + 1,
+        error: String(error),
+      });
+
+      // Schedule retry with exponential backoff
+      this.scheduleRetry(operation);
+    } else {
+      // Max retries exceeded, mark as failed
+      await offlineStorageService.updateSyncOperation(operation.id, {
+        error: `Max retries exceeded: ${String(error)}`,
+      });
+
+      errors.push({ operation, error: String(error) });
+    }
+  }
+
+  // Schedule retry with exponential backoff
           this.scheduleRetry(operation);
         } else {
           // Max retries exceeded, mark as failed
@@ -225,95 +344,117 @@ class SyncService {
 
   // Process individual sync operation
   private async processSyncOperation(operation: SyncOperation): Promise<void> {
-    switch (operation.type) {
-      case 'CREATE':
-        await this.syncCreateOperation(operation);
-        break;
-      case 'UPDATE':
-        await this.syncUpdateOperation(operation);
-        break;
-      case 'DELETE':
-        await this.syncDeleteOperation(operation);
-        break;
-      default:
-        throw new Error(`Unknown operation type: ${operation.type}`);
+    const [result] = await this.pushOperations([operation]);
+    if (result.status === 'INVALID') {
+      throw new Error(`Invalid operation: ${result.message}`);
     }
   }
 
-  // Sync create operation
-  private async syncCreateOperation(operation: SyncOperation): Promise<void> {
-    if (!operation.data) {
-      throw new Error('No data provided for create operation');
+  // Push operations in a single request, the server applies them in order and skips those it already applied
+  private async pushOperations(operations: SyncOperation[]): Promise<SyncOperationResult[]> {
+    const pushOperations: SyncPushOperation[] = [];
+    for (const operation of operations) {
+      pushOperations.push(await this.toPushOperation(operation));
     }
 
-    const createRequest: CreateReminderRequest & { createdDate: string } = {
-      ...operation.data,
-      createdDate: operation.data.createdDate || new Date().toISOString(),
+    const response = await apiService.sync(pushOperations);
+    const results = response.data;
+
+    for (let i = 0; i < operations.length; i++) {
+      await this.applyResult(operations[i], results[i]);
+    }
+    return results;
+  }
+
+  // Convert a queued operation to its pushed form, keyed by the operation id
+  private async toPushOperation(operation: SyncOperation): Promise<SyncPushOperation> {
+    const pushOperation: SyncPushOperation = {
+      idempotencyKey: operation.id,
+      type: operation.type,
+      localId: operation.localId,
+      reminderId: operation.reminderId,
     };
-    const response = await apiService.createReminder(createRequest);
-    const serverReminder = response.data;
 
-    // Update local reminder with server ID
-    if (operation.localId) {
-      const localReminder = await offlineStorageService.getLocalReminderByLocalId(operation.localId);
-      if (localReminder) {
-        const updatedReminder: LocalReminder = {
-          ...serverReminder,
-          syncStatus: 'SYNCED',
-          lastModified: Date.now(),
+    if (operation.type === 'CREATE' && operation.data) {
+      pushOperation.reminder = {
+        ...operation.data,
+        createdDate: operation.data.createdDate || new Date().toISOString(),
+      };
+    } else if (operation.type === 'UPDATE' && operation.reminderId) {
+      // Get the current reminder data to ensure we have all required fields
+      const currentReminder = await offlineStorageService.getLocalReminderById(operation.reminderId);
+      if (currentReminder) {
+        const updateRequest: UpdateReminderRequest = {
+          id: operation.reminderId,
+          title: currentReminder.title,
+          description: currentReminder.description,
+          dueDate: currentReminder.dueDate,
+          isCompleted: currentReminder.isCompleted,
+          priority: currentReminder.priority,
+          createdDate: currentReminder.createdDate,
+          // Apply the updates on top of the current data
+          ...operation.data,
+          // The version the update was made on, not the current one which may have been synced since; operations
+          // queued before the base version was kept fall back to it
+          version: operation.baseVersion ?? currentReminder.version,
         };
-        await offlineStorageService.saveLocalReminder(updatedReminder);
+        pushOperation.reminder = updateRequest;
       }
     }
+    return pushOperation;
   }
 
-  // Sync update operation
-  private async syncUpdateOperation(operation: SyncOperation): Promise<void> {
-    if (!operation.reminderId || !operation.data) {
-      throw new Error('Missing reminder ID or data for update operation');
+  // Update local storage with the result of a pushed operation
+  private async applyResult(operation: SyncOperation, result: SyncOperationResult): Promise<void> {
+    if (result.status === 'INVALID') {
+      return;
     }
 
-    // Get the current reminder data to ensure we have all required fields
-    const currentReminder = await offlineStorageService.getLocalReminderById(operation.reminderId);
-    if (!currentReminder) {
-      throw new Error(`Reminder with ID ${operation.reminderId} not found locally`);
+    if (operation.type === 'DELETE') {
+      if (operation.reminderId) {
+        await offlineStorageService.deleteLocalReminder(operation.reminderId);
+      }
+      return;
     }
 
-    // Construct complete update request with all required fields
-    const updateRequest: UpdateReminderRequest = {
-      id: operation.reminderId,
-      title: currentReminder.title,
-      description: currentReminder.description,
-      dueDate: currentReminder.dueDate,
-      isCompleted: currentReminder.isCompleted,
-      priority: currentReminder.priority,
-      createdDate: currentReminder.createdDate,
-      // Apply the updates on top of the current data
-      ...operation.data,
-    };
+    // A replayed operation has no reminder, the next sync from server brings it
+    if (!result.reminder) {
+      return;
+    }
+
+    // The reminder changed on the server since it was read: keep the local changes for the user to resolve, based on
+    // the current version so that keeping them is not refused again
+    if (result.status === 'CONFLICT' && operation.reminderId) {
+      const localReminder = await offlineStorageService.getLocalReminderById(operation.reminderId);
+      if (localReminder) {
+        await offlineStorageService.saveLocalReminder({
+          ...localReminder,
+          version: result.reminder.version,
+          syncStatus: 'CONFLICT',
+          lastModified: Date.now(),
+        });
+      }
+      return;
+    }
 
-    const response = await apiService.updateReminder(operation.reminderId, updateRequest);
-    const serverReminder = response.data;
+    // Update local reminder with server ID
+    if (operation.type === 'CREATE') {
+      const localReminder = operation.localId
+        ? await offlineStorageService.getLocalReminderByLocalId(operation.localId)
+        : undefined;
+      if (!localReminder) {
+        return;
+      }
+    }
 
-    // Update local reminder
     const updatedReminder: LocalReminder = {
-      ...serverReminder,
+      ...result.reminder,
       syncStatus: 'SYNCED',
       lastModified: Date.now(),
     };
     await offlineStorageService.saveLocalReminder(updatedReminder);
   }
 
-  // Sync delete operation
-  private async syncDeleteOperation(operation: SyncOperation): Promise<void> {
-    if (!operation.reminderId) {
-      throw new Error('Missing reminder ID for delete operation');
-    }
-
-    await apiService.deleteReminder(operation.reminderId);
-    await offlineStorageService.deleteLocalReminder(operation.reminderId);
-  }
-
   // Queue operations for sync
   async queueCreateOperation(reminder: CreateReminderRequest, localId?: string): Promise<void> {
     const operation: SyncOperation = {
@@ -328,12 +469,13 @@ class SyncService {
     await offlineStorageService.addToSyncQueue(operation);
   }
 
-  async queueUpdateOperation(reminderId: number, updates: Partial<Reminder>): Promise<void> {
+  async queueUpdateOperation(reminderId: number, updates: Partial<Reminder>, baseVersion?: number): Promise<void> {
     const operation: SyncOperation = {
       id: this.generateOperationId(),
       type: 'UPDATE',
       reminderId,
       data: updates,
+      baseVersion,
       timestamp: Date.now(),
       retryCount: 0,
     };
@@ -401,7 +543,7 @@ class SyncService {
       await offlineStorageService.saveLocalReminder(updatedReminder);
     } else {
       // Accept local version - queue for sync
-      await this.queueUpdateOperation(conflict.id, conflict);
+      await this.queueUpdateOperation(conflict.id, conflict, conflict.version);
 
       const updatedReminder: LocalReminder = {
         ...conflict,
@@ -445,6 +587,7 @@ class SyncService {
   async clearSyncData(): Promise<void> {
     await offlineStorageService.clearSyncQueue();
     await offlineStorageService.deleteSetting('lastSyncTime');
+    await offlineStorageService.deleteSetting(SYNC_TOKEN_SETTING);
   }
 }
 
@@ -114,14 +114,18 @@ const authSlice = createSlice({
         state.loading = false;
         state.user = action.payload.user || null;
         state.token = action.payload.id_token;
+        state.refreshToken = action.payload.refresh_token || null;
         state.isAuthenticated = true;
         state.error = null;
         
-        // Store token in localStorage
+        // Store tokens in localStorage
         if (state.token) {
           localStorage.setItem('authToken', state.token);
           apiService.setToken(state.token);
         }
+        if (state.refreshToken) {
+          localStorage.setItem('refreshToken', state.refreshToken);
+        }
       })
       .addCase(loginUser.rejected, (state, action) => {
         state.loading = false;
@@ -151,9 +151,10 @@ export const updateReminder = createAsyncThunk(
         const response = await apiService.updateReminder(id, updates);
         return response.data;
       } else {
-        // Update locally when offline
+        // Update locally when offline, based on the version the update was made on
+        const baseVersion = updates.version ?? (await offlineStorageService.getLocalReminderById(id))?.version;
         await offlineStorageService.updateLocalReminder(id, updates);
-        await syncService.queueUpdateOperation(id, updates);
+        await syncService.queueUpdateOperation(id, updates, baseVersion);
 
         const updatedReminder = await offlineStorageService.getLocalReminderById(id);
         if (!updatedReminder) {
@@ -230,6 +231,7 @@ export const toggleReminderCompletion = createAsyncThunk(
             isCompleted: !reminder.isCompleted,
             priority: reminder.priority || Priority.MEDIUM, // Ensure priority is not null
             createdDate: reminder.createdDate || new Date().toISOString(), // Ensure createdDate is not null
+            version: reminder.version, // Refused if the reminder changed since it was read
           };
 
           // Validate that all required fields are present before sending
@@ -243,7 +245,7 @@ export const toggleReminderCompletion = createAsyncThunk(
         } else {
           // Update locally when offline
           await offlineStorageService.updateLocalReminder(id, updates);
-          await syncService.queueUpdateOperation(id, updates);
+          await syncService.queueUpdateOperation(id, updates, reminder.version);
 
           const updatedReminder = await offlineStorageService.getLocalReminderById(id);
           if (!updatedReminder) {
@@ -322,6 +324,23 @@ const remindersSlice = createSlice({
         state.items[index] = reminder;
       }
     },
+    // Changes pulled from the server, without fetching the reminders again
+    applyReminderChanges: (state, action: PayloadAction<{ changed: Reminder[]; deleted: number[] }>) => {
+      if (!state.items) state.items = [];
+      const deleted = new Set(action.payload.deleted);
+      const before = state.items.length;
+      state.items = state.items.filter(reminder => !deleted.has(reminder.id));
+      state.pagination.total -= before - state.items.length;
+      action.payload.changed.forEach(reminder => {
+        const index = state.items.findIndex(r => r.id === reminder.id);
+        if (index !== -1) {
+          state.items[index] = reminder;
+        } else {
+          state.items.unshift(reminder);
+          state.pagination.total += 1;
+        }
+      });
+    },
     // Optimistic delete operations
     optimisticDeleteReminder: (state, action: PayloadAction<number>) => {
       const id = action.payload;
@@ -441,6 +460,7 @@ export const {
   setLoading,
   optimisticUpdateReminder,
   revertOptimisticUpdate,
+  applyReminderChanges,
   optimisticDeleteReminder,
   revertOptimisticDelete,
 } = remindersSlice.actions;
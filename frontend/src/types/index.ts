@@ -7,6 +7,7 @@ export interface User {
   email?: string;
   activated: boolean;
   langKey?: string;
+  timeZone?: string;
   authorities: string[];
 }
 
@@ -18,6 +19,7 @@ export interface LoginCredentials {
 
 export interface AuthResponse {
   id_token: string;
+  refresh_token?: string;
   user: User;
 }
 
@@ -46,6 +48,7 @@ export interface Reminder {
   priority: Priority;
   createdDate: string;
   lastModifiedDate?: string;
+  version?: number; // Sent back on update, which fails if the reminder changed since
   user?: {
     id: number;
     login: string;
@@ -76,6 +79,7 @@ export interface UpdateReminderRequest {
   isCompleted: boolean;
   priority: Priority;
   createdDate: string; // Required by backend
+  version?: number;
 }
 
 // API Response types
@@ -101,6 +105,20 @@ export interface ReminderQueryParams {
   priority?: Priority;
   dateFrom?: string;
   dateTo?: string;
+  fields?: string; // comma separated, the other fields are left out of the response
+}
+
+export interface ReminderChanges {
+  changed: Reminder[];
+  deleted: number[];
+  token: string;
+  more: boolean;
+}
+
+export interface ChangeFeedEvent {
+  entity: 'reminder' | 'category' | 'tag';
+  id: number;
+  action: 'CREATED' | 'UPDATED' | 'DELETED';
 }
 
 // Filter types
@@ -156,11 +174,30 @@ export interface SyncOperation {
   reminderId?: number;
   localId?: string;
   data?: any;
+  // Version of the reminder the update was made on, sent to the server to detect the changes made since
+  baseVersion?: number;
   timestamp: number;
   retryCount: number;
   error?: string;
 }
 
+export interface SyncPushOperation {
+  idempotencyKey: string;
+  type: 'CREATE' | 'UPDATE' | 'DELETE';
+  localId?: string;
+  reminderId?: number;
+  reminder?: any;
+}
+
+export interface SyncOperationResult {
+  idempotencyKey: string;
+  status: 'APPLIED' | 'DUPLICATE' | 'NOT_FOUND' | 'INVALID' | 'CONFLICT';
+  localId?: string;
+  reminderId?: number;
+  reminder?: Reminder;
+  message?: string;
+}
+
 export interface ConflictItem {
   id: string;
   localData: any;